@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -48,6 +49,7 @@ import org.corfudb.runtime.object.ICorfuSMRProxy;
 import org.corfudb.runtime.object.ICorfuSMRUpcallTarget;
 import org.corfudb.runtime.object.IUndoFunction;
 import org.corfudb.runtime.object.IUndoRecordFunction;
+import org.corfudb.runtime.object.SMRMethodIds;
 
 /** <p>The annotation processor, which takes annotated Corfu objects and
  * generates a class which can be used by the runtime instead of requiring
@@ -577,6 +579,7 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
         addUndoRecordMap(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
         addUndoMap(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
         addResetSet(typeSpecBuilder, originalName, interfacesToAdd, methodSet);
+        addMethodIds(typeSpecBuilder, methodSet);
 
         typeSpecBuilder
                 .addSuperinterfaces(interfacesToAdd);
@@ -704,6 +707,44 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
 
     }
 
+    /** Generate the table of the ids of the SMR methods, and check that no two SMR
+     * methods of this type have the same id.
+     *
+     * @param typeSpecBuilder   The typespec builder to add the table to
+     * @param methodSet         The set of methods to add for instrumentation.
+     */
+    private void addMethodIds(TypeSpec.Builder typeSpecBuilder, Set<SmrMethodInfo> methodSet) {
+        Map<Integer, String> methodIds = new TreeMap<>();
+        methodSet.stream()
+                .filter(x -> x.method.getAnnotation(Mutator.class) != null
+                        || x.method.getAnnotation(MutatorAccessor.class) != null)
+                .map(x -> getSmrFunctionName(x.method))
+                .distinct()
+                .forEach(name -> {
+                    String previous = methodIds.put(SMRMethodIds.getId(name), name);
+                    if (previous != null) {
+                        messager.printMessage(Diagnostic.Kind.ERROR,
+                                "SMR methods " + previous + " and " + name
+                                        + " have the same id, one of them must be renamed");
+                    }
+                });
+
+        FieldSpec methodIdsField = FieldSpec.builder(SMRMethodIds.class, SMRMethodIds.FIELD_NAME,
+                Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($L)", SMRMethodIds.class,
+                        methodIds.values().stream()
+                                .map(name -> "\"" + name + "\"")
+                                .collect(Collectors.joining(", ")))
+                .build();
+
+        typeSpecBuilder.addField(methodIdsField);
+        typeSpecBuilder.addMethod(MethodSpec.methodBuilder("getCorfuSMRMethodIds")
+                .addModifiers(Modifier.PUBLIC)
+                .returns(SMRMethodIds.class)
+                .addStatement("return $L", SMRMethodIds.FIELD_NAME)
+                .build());
+    }
+
     private void addUpcallMap(TypeSpec.Builder typeSpecBuilder, TypeName originalName,
                               Set<TypeName> interfacesToAdd, Set<SmrMethodInfo> methodSet) {
 
@@ -55,6 +55,14 @@ public interface ICorfuSMR<T>
         throw new IllegalStateException("ObjectAnnotationProcessor Issue.");
     }
 
+    /** Get the table of the SMR methods of this object, which resolves the
+     * ids of the methods logged by id.
+     * @return  The table of the SMR methods.
+     */
+    default SMRMethodIds getCorfuSMRMethodIds() {
+        throw new IllegalStateException("ObjectAnnotationProcessor Issue.");
+    }
+
     /** Return the stream ID that this object belongs to.
      * @return The stream ID this object belongs to. */
     default UUID getCorfuStreamID() {
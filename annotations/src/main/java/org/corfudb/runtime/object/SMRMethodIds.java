@@ -0,0 +1,102 @@
+package org.corfudb.runtime.object;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/** The numeric ids of the SMR methods of an object type, which can be logged
+ * instead of the method names.
+ *
+ * <p>The id of a method is the hash code of its name, which is stable across
+ * JVMs and versions of the object. The ids are only unique within an object
+ * type: the annotation processor rejects an object with two SMR methods of
+ * the same id, and generates a table of its methods in the wrapper class. An
+ * id read from the log is resolved through the table of the type of the object
+ * the entry is applied to, so entries of different types never resolve to each
+ * other's methods.</p>
+ */
+@SuppressWarnings("checkstyle:abbreviation")
+public final class SMRMethodIds {
+
+    /** The name of the static field of a generated wrapper class, which
+     * holds its table. */
+    public static final String FIELD_NAME = "methodIds_CORFUSMR";
+
+    /** The table of an object type without a generated wrapper, whose methods
+     * are always logged by name. */
+    public static final SMRMethodIds NONE = new SMRMethodIds();
+
+    /** The tables of the object types looked up by {@link #of(Class)}. */
+    private static final ClassValue<SMRMethodIds> TYPES =
+            new ClassValue<SMRMethodIds>() {
+        @Override
+        protected SMRMethodIds computeValue(final Class<?> type) {
+            try {
+                Class<?> wrapperClass = Class.forName(
+                        type.getName() + ICorfuSMR.CORFUSMR_SUFFIX,
+                        true, type.getClassLoader());
+                Field field = wrapperClass.getField(FIELD_NAME);
+                return (SMRMethodIds) field.get(null);
+            } catch (ClassNotFoundException | NoSuchFieldException e) {
+                return NONE;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    /** The names of the methods, by id. */
+    private final Map<Integer, String> names;
+
+    /** Create the table of the SMR methods of an object type.
+     * @param methodNames   The names of the SMR methods.
+     * @throws IllegalArgumentException if two methods have the same id.
+     */
+    public SMRMethodIds(final String... methodNames) {
+        Map<Integer, String> map = new HashMap<>();
+        for (String name : methodNames) {
+            String previous = map.put(getId(name), name);
+            if (previous != null && !previous.equals(name)) {
+                throw new IllegalArgumentException("SMR methods " + previous
+                        + " and " + name + " have the same id");
+            }
+        }
+        this.names = Collections.unmodifiableMap(map);
+    }
+
+    /** Get the id of an SMR method.
+     * @param name  The name of the SMR method.
+     * @return      The id of the SMR method.
+     */
+    public static int getId(final String name) {
+        return name.hashCode();
+    }
+
+    /** Get the table of the SMR methods of an object type, from its
+     * generated wrapper class.
+     * @param type  The type of the object.
+     * @return      The table of its methods, or {@link #NONE} if the type
+     *              has no generated wrapper.
+     */
+    public static SMRMethodIds of(final Class<?> type) {
+        return TYPES.get(type);
+    }
+
+    /** Get whether an SMR method is in this table, and can be logged by its id.
+     * @param name  The name of the SMR method.
+     * @return      True, if the method is in this table.
+     */
+    public boolean contains(final String name) {
+        return name.equals(names.get(getId(name)));
+    }
+
+    /** Get the name of an SMR method in this table.
+     * @param id    The id of the SMR method.
+     * @return      The name of the SMR method, or null if it is not in this
+     *              table.
+     */
+    public String getName(final int id) {
+        return names.get(id);
+    }
+}
@@ -1,5 +1,11 @@
 package org.corfudb.common.compression;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Map;
@@ -24,7 +30,8 @@ public interface Codec {
 
         NONE(0, NoCompression::getInstance),
         LZ4(1, LZ4Compression::getInstance),
-        ZSTD(2, ZSTDCompression::getInstance);
+        ZSTD(2, ZSTDCompression::getInstance),
+        ZSTD_DICT(3, ZSTDDictionaryCompression::getInstance);
 
         /**
          * The unique id of the code that will be used
@@ -72,4 +79,52 @@ public interface Codec {
      *
      */
     ByteBuffer decompress(ByteBuffer compressed);
+
+    /**
+     * Compresses the readable bytes of a buffer into another buffer, in the same format as
+     * {@link #compress(ByteBuffer)}. Unlike {@link #compress(ByteBuffer)}, the buffers may be
+     * direct or pooled, and the payload is compressed in place into the destination buffer
+     * rather than into a worst-case sized array.
+     *
+     * @param uncompressed the buffer to compress, its readable bytes are consumed
+     * @param compressed   the buffer to write the compressed bytes to, grown as needed
+     */
+    default void compress(ByteBuf uncompressed, ByteBuf compressed) {
+        compressed.writeBytes(compress(ByteBuffer.wrap(ByteBufUtil.getBytes(uncompressed))));
+        uncompressed.skipBytes(uncompressed.readableBytes());
+    }
+
+    /**
+     * Decompresses the readable bytes of a buffer, which were compressed by
+     * {@link #compress(ByteBuf, ByteBuf)} or {@link #compress(ByteBuffer)}, into another buffer.
+     *
+     * @param compressed   the buffer to decompress, its readable bytes are consumed
+     * @param uncompressed the buffer to write the decompressed bytes to, grown as needed
+     */
+    default void decompress(ByteBuf compressed, ByteBuf uncompressed) {
+        uncompressed.writeBytes(decompress(ByteBuffer.wrap(ByteBufUtil.getBytes(compressed))));
+        compressed.skipBytes(compressed.readableBytes());
+    }
+
+    /**
+     * Wraps an output stream so that the bytes written to it are compressed frame by frame,
+     * which bounds the memory needed to compress very large payloads. The streamed format
+     * is not compatible with {@link #compress(ByteBuffer)}.
+     *
+     * @param out the stream to write the compressed bytes to
+     * @return the stream to write the uncompressed bytes to
+     */
+    default OutputStream compressingStream(OutputStream out) throws IOException {
+        throw new UnsupportedOperationException("Streaming is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Wraps an input stream of bytes written by {@link #compressingStream(OutputStream)}.
+     *
+     * @param in the stream to read the compressed bytes from
+     * @return the stream to read the uncompressed bytes from
+     */
+    default InputStream decompressingStream(InputStream in) throws IOException {
+        throw new UnsupportedOperationException("Streaming is not supported by " + getClass().getSimpleName());
+    }
 }
@@ -0,0 +1,58 @@
+package org.corfudb.common.compression;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Helpers to run the codecs on {@link ByteBuf}s.
+ */
+final class CodecBuffers {
+
+    private CodecBuffers() {
+        // prevent instantiation of this class
+    }
+
+    /**
+     * Whether both buffers are backed by a single direct memory region, which the native
+     * codecs can read from and write to directly.
+     */
+    static boolean isDirect(ByteBuf src, ByteBuf dst) {
+        return src.isDirect() && src.nioBufferCount() == 1
+                && dst.isDirect() && dst.nioBufferCount() == 1;
+    }
+
+    /**
+     * Whether both buffers are backed by a heap array.
+     */
+    static boolean hasArray(ByteBuf src, ByteBuf dst) {
+        return src.hasArray() && dst.hasArray();
+    }
+
+    /**
+     * Whether a copy of a source buffer can be matched to the kind of this buffer.
+     */
+    static boolean canMatch(ByteBuf dst) {
+        return dst.hasArray() || (dst.isDirect() && dst.nioBufferCount() == 1);
+    }
+
+    /**
+     * Runs an operation on a copy of the source buffer of the same kind (direct or heap)
+     * as the destination buffer. The copy is allocated from the allocator of the destination,
+     * which is pooled for the network buffers.
+     *
+     * @param src       the source buffer, its readable bytes are consumed
+     * @param dst       the destination buffer
+     * @param operation the operation to run on the copy and the destination buffer
+     */
+    static void withMatchingSource(ByteBuf src, ByteBuf dst, BiConsumer<ByteBuf, ByteBuf> operation) {
+        int length = src.readableBytes();
+        ByteBuf copy = dst.isDirect() ? dst.alloc().directBuffer(length) : dst.alloc().heapBuffer(length);
+        try {
+            copy.writeBytes(src);
+            operation.accept(copy, dst);
+        } finally {
+            copy.release();
+        }
+    }
+}
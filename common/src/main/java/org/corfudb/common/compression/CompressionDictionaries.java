@@ -0,0 +1,76 @@
+package org.corfudb.common.compression;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the compression dictionaries known by this process, and of the dictionary
+ * each stream is written with. Like the codecs, the registry is shared by all the runtimes
+ * of the process; dictionaries are identified by their content, so runtimes connected to
+ * different clusters can not overwrite each other's dictionaries.
+ */
+public final class CompressionDictionaries {
+
+    private static final Map<Integer, CompressionDictionary> dictionaries = new ConcurrentHashMap<>();
+
+    private static final Map<UUID, CompressionDictionary> streamDictionaries = new ConcurrentHashMap<>();
+
+    private CompressionDictionaries() {
+        // prevent instantiation of this class
+    }
+
+    /**
+     * Registers a dictionary, so that the payloads written with it can be decoded.
+     *
+     * @param dictionary the dictionary
+     * @return the registered dictionary, which is the existing one if it was already registered
+     */
+    public static CompressionDictionary register(CompressionDictionary dictionary) {
+        CompressionDictionary existing = dictionaries.putIfAbsent(dictionary.getId(), dictionary);
+        return existing == null ? dictionary : existing;
+    }
+
+    /**
+     * Registers a dictionary and uses it to compress the payloads written to a stream.
+     *
+     * @param streamId   the stream
+     * @param dictionary the dictionary
+     */
+    public static void assign(UUID streamId, CompressionDictionary dictionary) {
+        streamDictionaries.put(streamId, register(dictionary));
+    }
+
+    public static Optional<CompressionDictionary> get(int id) {
+        return Optional.ofNullable(dictionaries.get(id));
+    }
+
+    /**
+     * Returns the dictionary to compress a payload written to the given streams with. A payload
+     * written to several streams uses the dictionary of the lowest stream id that has one, so
+     * that it does not depend on the iteration order of the set.
+     *
+     * @param streamIds the streams the payload is written to
+     * @return the dictionary, if any of the streams has one
+     */
+    public static Optional<CompressionDictionary> forStreams(Set<UUID> streamIds) {
+        UUID selected = null;
+        CompressionDictionary selectedDictionary = null;
+        for (UUID streamId : streamIds) {
+            CompressionDictionary dictionary = streamDictionaries.get(streamId);
+            if (dictionary != null && (selected == null || streamId.compareTo(selected) < 0)) {
+                selected = streamId;
+                selectedDictionary = dictionary;
+            }
+        }
+        return Optional.ofNullable(selectedDictionary);
+    }
+
+    public static Collection<CompressionDictionary> getAll() {
+        return Collections.unmodifiableCollection(dictionaries.values());
+    }
+}
@@ -0,0 +1,112 @@
+package org.corfudb.common.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.google.common.hash.Hashing;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A ZSTD dictionary trained on sample records of a stream. Small records share most of
+ * their structure (field tags, keys, repeated strings), which plain per-record compression
+ * can not take advantage of, but a dictionary trained on similar records can.
+ * <p>
+ * A dictionary is identified by a hash of its content, so that the same dictionary
+ * loaded by different runtimes has the same id.
+ */
+public class CompressionDictionary {
+
+    private static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    @Getter
+    private final int id;
+
+    private final byte[] dictionary;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final ZstdDictCompress compressDictionary;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final ZstdDictDecompress decompressDictionary;
+
+    /**
+     * Statistics of the payloads encoded with this dictionary.
+     */
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+    private final LongAdder decompressNanos = new LongAdder();
+
+    public CompressionDictionary(byte[] dictionary) {
+        int hash = Hashing.murmur3_32().hashBytes(dictionary).asInt();
+        this.id = hash == ZSTDDictionaryCompression.NO_DICTIONARY ? hash + 1 : hash;
+        this.dictionary = dictionary.clone();
+        this.compressDictionary = new ZstdDictCompress(this.dictionary, DEFAULT_COMPRESSION_LEVEL);
+        this.decompressDictionary = new ZstdDictDecompress(this.dictionary);
+    }
+
+    /**
+     * Trains a dictionary on sample records.
+     *
+     * @param samples        the sample records, ideally a few hundred records or more
+     * @param dictionarySize the maximum size of the dictionary in bytes
+     * @return the trained dictionary
+     */
+    public static CompressionDictionary train(List<byte[]> samples, int dictionarySize) {
+        byte[] buffer = new byte[dictionarySize];
+        long size = Zstd.trainFromBuffer(samples.toArray(new byte[0][]), buffer);
+
+        if (Zstd.isError(size)) {
+            throw new IllegalStateException("Dictionary training failed with error code " + size);
+        }
+
+        byte[] dictionary = new byte[(int) size];
+        System.arraycopy(buffer, 0, dictionary, 0, dictionary.length);
+        return new CompressionDictionary(dictionary);
+    }
+
+    /**
+     * Returns a copy of the dictionary content.
+     */
+    public byte[] toByteArray() {
+        return dictionary.clone();
+    }
+
+    void recordCompression(int uncompressedLength, int compressedLength, long nanos) {
+        uncompressedBytes.add(uncompressedLength);
+        compressedBytes.add(compressedLength);
+        compressNanos.add(nanos);
+    }
+
+    void recordDecompression(long nanos) {
+        decompressNanos.add(nanos);
+    }
+
+    /**
+     * Returns the ratio of uncompressed to compressed bytes written with this dictionary.
+     */
+    public double getCompressionRatio() {
+        long compressed = compressedBytes.sum();
+        return compressed == 0 ? 0 : (double) uncompressedBytes.sum() / compressed;
+    }
+
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    public long getDecompressNanos() {
+        return decompressNanos.sum();
+    }
+}
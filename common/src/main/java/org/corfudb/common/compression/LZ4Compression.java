@@ -1,9 +1,14 @@
 package org.corfudb.common.compression;
 
+import io.netty.buffer.ByteBuf;
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
 import net.jpountz.lz4.LZ4Compressor;
 import net.jpountz.lz4.LZ4Factory;
 import net.jpountz.lz4.LZ4FastDecompressor;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
@@ -70,4 +75,99 @@ public class LZ4Compression implements Codec {
 
         return restored;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public void compress(ByteBuf uncompressed, ByteBuf compressed) {
+        Objects.requireNonNull(uncompressed);
+        checkArgument(uncompressed.isReadable());
+
+        if (!CodecBuffers.isDirect(uncompressed, compressed) && !CodecBuffers.hasArray(uncompressed, compressed)) {
+            if (CodecBuffers.canMatch(compressed)) {
+                CodecBuffers.withMatchingSource(uncompressed, compressed, this::compress);
+            } else {
+                Codec.super.compress(uncompressed, compressed);
+            }
+            return;
+        }
+
+        final int decompressedLength = uncompressed.readableBytes();
+        final int maxCompressedLength = compressor.maxCompressedLength(decompressedLength);
+        compressed.ensureWritable(maxCompressedLength + Integer.BYTES);
+        compressed.writeInt(decompressedLength);
+
+        // The offsets of the heap buffers are passed explicitly, the compressor does not apply
+        // the array offset of a sliced ByteBuffer.
+        final int compressedLen;
+        if (CodecBuffers.isDirect(uncompressed, compressed)) {
+            ByteBuffer src = uncompressed.nioBuffer();
+            ByteBuffer dst = compressed.nioBuffer(compressed.writerIndex(), maxCompressedLength);
+            compressedLen = compressor.compress(src, src.position(), decompressedLength,
+                    dst, dst.position(), maxCompressedLength);
+        } else {
+            compressedLen = compressor.compress(uncompressed.array(),
+                    uncompressed.arrayOffset() + uncompressed.readerIndex(), decompressedLength,
+                    compressed.array(), compressed.arrayOffset() + compressed.writerIndex(), maxCompressedLength);
+        }
+
+        uncompressed.skipBytes(decompressedLength);
+        compressed.writerIndex(compressed.writerIndex() + compressedLen);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public void decompress(ByteBuf compressed, ByteBuf uncompressed) {
+        Objects.requireNonNull(compressed);
+        checkArgument(compressed.readableBytes() > Integer.BYTES);
+
+        if (!CodecBuffers.isDirect(compressed, uncompressed) && !CodecBuffers.hasArray(compressed, uncompressed)) {
+            if (CodecBuffers.canMatch(uncompressed)) {
+                CodecBuffers.withMatchingSource(compressed, uncompressed, this::decompress);
+            } else {
+                Codec.super.decompress(compressed, uncompressed);
+            }
+            return;
+        }
+
+        final int decompressedSize = compressed.readInt();
+        uncompressed.ensureWritable(decompressedSize);
+
+        final int compressedLen;
+        if (CodecBuffers.isDirect(compressed, uncompressed)) {
+            ByteBuffer src = compressed.nioBuffer();
+            ByteBuffer dst = uncompressed.nioBuffer(uncompressed.writerIndex(), decompressedSize);
+            compressedLen = decompressor.decompress(src, src.position(), dst, dst.position(), decompressedSize);
+        } else {
+            compressedLen = decompressor.decompress(compressed.array(),
+                    compressed.arrayOffset() + compressed.readerIndex(),
+                    uncompressed.array(), uncompressed.arrayOffset() + uncompressed.writerIndex(), decompressedSize);
+        }
+
+        compressed.skipBytes(compressedLen);
+        uncompressed.writerIndex(uncompressed.writerIndex() + decompressedSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public OutputStream compressingStream(OutputStream out) {
+        return new LZ4BlockOutputStream(out);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public InputStream decompressingStream(InputStream in) {
+        return new LZ4BlockInputStream(in);
+    }
 }
@@ -1,5 +1,9 @@
 package org.corfudb.common.compression;
 
+import io.netty.buffer.ByteBuf;
+
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 /**
@@ -23,4 +27,24 @@ public class NoCompression implements Codec {
     public ByteBuffer decompress(ByteBuffer compressed) {
         return compressed;
     }
+
+    @Override
+    public void compress(ByteBuf uncompressed, ByteBuf compressed) {
+        compressed.writeBytes(uncompressed);
+    }
+
+    @Override
+    public void decompress(ByteBuf compressed, ByteBuf uncompressed) {
+        uncompressed.writeBytes(compressed);
+    }
+
+    @Override
+    public OutputStream compressingStream(OutputStream out) {
+        return out;
+    }
+
+    @Override
+    public InputStream decompressingStream(InputStream in) {
+        return in;
+    }
 }
@@ -1,7 +1,13 @@
 package org.corfudb.common.compression;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import io.netty.buffer.ByteBuf;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 
@@ -70,4 +76,108 @@ public class ZSTDCompression implements Codec {
         wrappedBuf.flip();
         return wrappedBuf;
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public void compress(ByteBuf uncompressed, ByteBuf compressed) {
+        Objects.requireNonNull(uncompressed);
+        checkArgument(uncompressed.isReadable());
+
+        if (!CodecBuffers.isDirect(uncompressed, compressed) && !CodecBuffers.hasArray(uncompressed, compressed)) {
+            if (CodecBuffers.canMatch(compressed)) {
+                CodecBuffers.withMatchingSource(uncompressed, compressed, this::compress);
+            } else {
+                Codec.super.compress(uncompressed, compressed);
+            }
+            return;
+        }
+
+        final int decompressedLength = uncompressed.readableBytes();
+        final int maxCompressedLength = (int) Zstd.compressBound(decompressedLength);
+        compressed.ensureWritable(maxCompressedLength + Integer.BYTES);
+        compressed.writeInt(decompressedLength);
+
+        final long compressedLen;
+        if (CodecBuffers.isDirect(uncompressed, compressed)) {
+            ByteBuffer src = uncompressed.nioBuffer();
+            ByteBuffer dst = compressed.nioBuffer(compressed.writerIndex(), maxCompressedLength);
+            compressedLen = Zstd.compressDirectByteBuffer(dst, dst.position(), maxCompressedLength,
+                    src, src.position(), decompressedLength, DEFAULT_COMPRESSION_LEVEL);
+        } else {
+            compressedLen = Zstd.compressByteArray(compressed.array(),
+                    compressed.arrayOffset() + compressed.writerIndex(), maxCompressedLength,
+                    uncompressed.array(), uncompressed.arrayOffset() + uncompressed.readerIndex(),
+                    decompressedLength, DEFAULT_COMPRESSION_LEVEL);
+        }
+
+        if (Zstd.isError(compressedLen)) {
+            throw new IllegalStateException("Compression failed with error code " + compressedLen);
+        }
+
+        uncompressed.skipBytes(decompressedLength);
+        compressed.writerIndex(compressed.writerIndex() + (int) compressedLen);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public void decompress(ByteBuf compressed, ByteBuf uncompressed) {
+        Objects.requireNonNull(compressed);
+        checkArgument(compressed.readableBytes() > Integer.BYTES);
+
+        if (!CodecBuffers.isDirect(compressed, uncompressed) && !CodecBuffers.hasArray(compressed, uncompressed)) {
+            if (CodecBuffers.canMatch(uncompressed)) {
+                CodecBuffers.withMatchingSource(compressed, uncompressed, this::decompress);
+            } else {
+                Codec.super.decompress(compressed, uncompressed);
+            }
+            return;
+        }
+
+        final int decompressedSize = compressed.readInt();
+        final int compressedSize = compressed.readableBytes();
+        uncompressed.ensureWritable(decompressedSize);
+
+        final long restoredBytes;
+        if (CodecBuffers.isDirect(compressed, uncompressed)) {
+            ByteBuffer src = compressed.nioBuffer();
+            ByteBuffer dst = uncompressed.nioBuffer(uncompressed.writerIndex(), decompressedSize);
+            restoredBytes = Zstd.decompressDirectByteBuffer(dst, dst.position(), decompressedSize,
+                    src, src.position(), compressedSize);
+        } else {
+            restoredBytes = Zstd.decompressByteArray(uncompressed.array(),
+                    uncompressed.arrayOffset() + uncompressed.writerIndex(), decompressedSize,
+                    compressed.array(), compressed.arrayOffset() + compressed.readerIndex(), compressedSize);
+        }
+
+        if (Zstd.isError(restoredBytes)) {
+            throw new IllegalStateException("Decompression failed with error code " + restoredBytes);
+        }
+
+        compressed.skipBytes(compressedSize);
+        uncompressed.writerIndex(uncompressed.writerIndex() + (int) restoredBytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public OutputStream compressingStream(OutputStream out) throws IOException {
+        return new ZstdOutputStream(out, DEFAULT_COMPRESSION_LEVEL);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public InputStream decompressingStream(InputStream in) throws IOException {
+        return new ZstdInputStream(in);
+    }
 }
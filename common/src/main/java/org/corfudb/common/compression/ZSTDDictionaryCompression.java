@@ -0,0 +1,181 @@
+package org.corfudb.common.compression;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ *
+ * A ZSTD codec which compresses with a trained {@link CompressionDictionary}. The id of the
+ * dictionary is written in front of the compressed payload, so that any dictionary registered
+ * in {@link CompressionDictionaries} can be decoded, regardless of the dictionary this
+ * instance compresses with.
+ * |    4 bytes      |      4 bytes          |   compressed buffer  |
+ *    dictionary id     uncompressed length       compressed bytes
+ *
+ * Payloads are compressed without a dictionary when none is available.
+ */
+public class ZSTDDictionaryCompression implements Codec {
+
+    /**
+     * The dictionary id of the payloads compressed without a dictionary.
+     */
+    public static final int NO_DICTIONARY = 0;
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+    private static ZSTDDictionaryCompression INSTANCE = new ZSTDDictionaryCompression(Optional.empty());
+
+    private final Optional<CompressionDictionary> dictionary;
+
+    public ZSTDDictionaryCompression(Optional<CompressionDictionary> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public static ZSTDDictionaryCompression getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a codec which compresses with the dictionary of the given streams.
+     *
+     * @param streamIds the streams a payload is written to
+     * @return the codec to compress the payload with
+     */
+    public static ZSTDDictionaryCompression forStreams(Set<UUID> streamIds) {
+        Optional<CompressionDictionary> dictionary = CompressionDictionaries.forStreams(streamIds);
+        return dictionary.isPresent() ? new ZSTDDictionaryCompression(dictionary) : INSTANCE;
+    }
+
+    /**
+     * Returns the id of the dictionary a payload was compressed with.
+     *
+     * @param compressed the compressed payload
+     * @return the dictionary id, or {@link #NO_DICTIONARY}
+     */
+    public static int getDictionaryId(ByteBuffer compressed) {
+        checkArgument(compressed.remaining() > HEADER_SIZE);
+        return compressed.getInt(compressed.position());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public ByteBuffer compress(ByteBuffer uncompressed) {
+        Objects.requireNonNull(uncompressed);
+        checkArgument(uncompressed.hasRemaining());
+
+        final long start = System.nanoTime();
+        final int decompressedLength = uncompressed.remaining();
+        final int maxCompressedLength = (int) Zstd.compressBound(decompressedLength);
+
+        byte[] compressed = new byte[maxCompressedLength + HEADER_SIZE];
+        ByteBuffer wrappedBuf = ByteBuffer.wrap(compressed);
+        wrappedBuf.putInt(dictionary.map(CompressionDictionary::getId).orElse(NO_DICTIONARY));
+        wrappedBuf.putInt(decompressedLength);
+
+        final byte[] src = arrayOf(uncompressed);
+        final int srcOffset = arrayOffsetOf(uncompressed);
+        long compressedLen = dictionary.isPresent()
+                ? Zstd.compressFastDict(compressed, HEADER_SIZE, src, srcOffset, decompressedLength,
+                        dictionary.get().getCompressDictionary())
+                : Zstd.compressByteArray(compressed, HEADER_SIZE, maxCompressedLength,
+                        src, srcOffset, decompressedLength, DEFAULT_COMPRESSION_LEVEL);
+
+        if (Zstd.isError(compressedLen)) {
+            throw new IllegalStateException("Compression failed with error code " + compressedLen);
+        }
+
+        dictionary.ifPresent(dict -> dict.recordCompression(decompressedLength,
+                (int) compressedLen, System.nanoTime() - start));
+
+        wrappedBuf.position((int) compressedLen + HEADER_SIZE);
+        wrappedBuf.flip();
+        return wrappedBuf;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     */
+    @Override
+    public ByteBuffer decompress(ByteBuffer compressed) {
+        Objects.requireNonNull(compressed);
+        checkArgument(compressed.remaining() > HEADER_SIZE);
+
+        final long start = System.nanoTime();
+        final int dictionaryId = compressed.getInt();
+        final int decompressedSize = compressed.getInt();
+        byte[] restored = new byte[decompressedSize];
+        ByteBuffer wrappedBuf = ByteBuffer.wrap(restored);
+
+        final byte[] src = arrayOf(compressed);
+        final int srcOffset = arrayOffsetOf(compressed);
+        final long restoredBytes;
+        if (dictionaryId == NO_DICTIONARY) {
+            restoredBytes = Zstd.decompressByteArray(restored, 0, restored.length,
+                    src, srcOffset, compressed.remaining());
+        } else {
+            CompressionDictionary dict = CompressionDictionaries.get(dictionaryId)
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Unknown compression dictionary " + dictionaryId));
+            restoredBytes = Zstd.decompressFastDict(restored, 0, src, srcOffset, compressed.remaining(),
+                    dict.getDecompressDictionary());
+            dict.recordDecompression(System.nanoTime() - start);
+        }
+
+        if (Zstd.isError(restoredBytes)) {
+            throw new IllegalStateException("Decompression failed with error code " + restoredBytes);
+        }
+
+        wrappedBuf.position((int) restoredBytes);
+        wrappedBuf.flip();
+        return wrappedBuf;
+    }
+
+    /**
+     * Returns an array holding the remaining bytes of a buffer. Direct and read-only
+     * buffers have no accessible array, their remaining bytes are copied.
+     */
+    private static byte[] arrayOf(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return buffer.array();
+        }
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * Returns the offset of the remaining bytes of a buffer in {@link #arrayOf(ByteBuffer)}.
+     */
+    private static int arrayOffsetOf(ByteBuffer buffer) {
+        return buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0;
+    }
+
+    /**
+     * Streams are compressed without a dictionary, which only pays off on small payloads.
+     */
+    @Override
+    public OutputStream compressingStream(OutputStream out) throws IOException {
+        return ZSTDCompression.getInstance().compressingStream(out);
+    }
+
+    @Override
+    public InputStream decompressingStream(InputStream in) throws IOException {
+        return ZSTDCompression.getInstance().decompressingStream(in);
+    }
+}
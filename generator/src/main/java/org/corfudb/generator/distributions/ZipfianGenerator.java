@@ -0,0 +1,62 @@
+package org.corfudb.generator.distributions;
+
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Generates integers in [0, numItems) following a zipfian distribution, where item 0 is
+ * the most popular one. Uses the algorithm of Gray et al., "Quickly Generating Billion-Record
+ * Synthetic Databases", which samples in constant time once the zeta constant is computed.
+ *
+ * <p>A skew (theta) of 0 is a uniform distribution, the closer to 1 the more skewed.
+ */
+public class ZipfianGenerator {
+
+    private final int numItems;
+    private final double theta;
+    private final double zetaN;
+    private final double alpha;
+    private final double eta;
+
+    public ZipfianGenerator(int numItems, double theta) {
+        checkArgument(numItems > 0, "numItems must be positive");
+        checkArgument(theta >= 0 && theta < 1, "theta must be in [0, 1)");
+
+        this.numItems = numItems;
+        this.theta = theta;
+        this.zetaN = zeta(numItems, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / numItems, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the next item.
+     *
+     * @param random source of randomness, so that every thread can use its own
+     * @return an item in [0, numItems)
+     */
+    public int next(Random random) {
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+
+        if (uz < 1.0) {
+            return 0;
+        }
+
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return Math.min(1, numItems - 1);
+        }
+
+        int item = (int) (numItems * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(item, numItems - 1);
+    }
+}
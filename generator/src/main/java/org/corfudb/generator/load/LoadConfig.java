@@ -0,0 +1,73 @@
+package org.corfudb.generator.load;
+
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Configuration of a {@link LoadGenerator} run.
+ */
+@Builder
+@Getter
+@ToString
+public class LoadConfig {
+
+    /**
+     * Target rate of operations per second over all the workers. Operations are started
+     * on a fixed schedule regardless of how long the previous ones take (open loop).
+     * A rate of 0 runs the workers as fast as they can (closed loop).
+     */
+    @Default
+    private final double rate = 1000;
+
+    @Default
+    private final Duration duration = Duration.ofMinutes(1);
+
+    /**
+     * Number of worker threads, which bounds the number of outstanding operations.
+     */
+    @Default
+    private final int threads = 16;
+
+    @Default
+    private final int numTables = 10;
+
+    @Default
+    private final int numKeys = 10_000;
+
+    /**
+     * Skew of the key popularity, 0 for uniform keys, close to 1 for a few very hot keys.
+     */
+    @Default
+    private final double keySkew = 0.99;
+
+    /**
+     * Values are written with a size uniformly distributed in [minValueSize, maxValueSize].
+     */
+    @Default
+    private final int minValueSize = 64;
+
+    @Default
+    private final int maxValueSize = 1024;
+
+    /**
+     * Relative weights of the operation types.
+     */
+    @Default
+    private final double readRatio = 0.7;
+
+    @Default
+    private final double writeRatio = 0.2;
+
+    @Default
+    private final double txRatio = 0.1;
+
+    /**
+     * Number of reads and writes in a transaction.
+     */
+    @Default
+    private final int txSize = 5;
+}
@@ -0,0 +1,261 @@
+package org.corfudb.generator.load;
+
+import com.google.common.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.generator.distributions.ZipfianGenerator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.collections.CorfuTable;
+import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Generates a configurable load on tables and measures the latency of every operation type.
+ *
+ * <p>In open loop mode, the n-th operation is scheduled to start at start + n / rate, and each
+ * worker takes the next scheduled operation as soon as it is free. When the workers can not
+ * keep up, operations start late, and the delay is part of their response time, as it would be
+ * for independent clients. A closed loop (rate of 0) only measures the service time.
+ *
+ * <p>Workers stop at the end of the run even if they are behind schedule. The operations that
+ * were scheduled before the end of the run but never started are reported as missed.
+ *
+ * <p>Keys are picked following a zipfian distribution, values have a uniformly distributed size.
+ */
+@Slf4j
+public class LoadGenerator {
+
+    /**
+     * The operation types of the mix.
+     */
+    public enum OperationType {
+        READ,
+        WRITE,
+        TX
+    }
+
+    private static final String TABLE_PREFIX = "load_table_";
+
+    private final LoadConfig config;
+
+    private final CorfuRuntime runtime;
+
+    private final List<CorfuTable<String, String>> tables = new ArrayList<>();
+
+    private final ZipfianGenerator keyGenerator;
+
+    /**
+     * Random characters the values are cut from.
+     */
+    private final String valueSource;
+
+    private final Map<OperationType, OperationStats> stats = new EnumMap<>(OperationType.class);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Number of operations that started.
+     */
+    private final AtomicLong started = new AtomicLong();
+
+    public LoadGenerator(LoadConfig config, CorfuRuntime runtime) {
+        checkArgument(config.getMinValueSize() > 0 && config.getMinValueSize() <= config.getMaxValueSize(),
+                "Invalid value sizes");
+        checkArgument(config.getReadRatio() + config.getWriteRatio() + config.getTxRatio() > 0,
+                "At least one operation type must have a positive ratio");
+
+        this.config = config;
+        this.runtime = runtime;
+        this.keyGenerator = new ZipfianGenerator(config.getNumKeys(), config.getKeySkew());
+
+        StringBuilder source = new StringBuilder();
+        Random random = new Random();
+        for (int i = 0; i < config.getMaxValueSize() * 2; i++) {
+            source.append((char) ('a' + random.nextInt('z' - 'a' + 1)));
+        }
+        this.valueSource = source.toString();
+
+        for (OperationType type : OperationType.values()) {
+            stats.put(type, new OperationStats());
+        }
+    }
+
+    private void openTables() {
+        for (int i = 0; i < config.getNumTables(); i++) {
+            tables.add(runtime.getObjectsView()
+                    .build()
+                    .setStreamName(TABLE_PREFIX + i)
+                    .setTypeToken(new TypeToken<CorfuTable<String, String>>() {})
+                    .open());
+        }
+    }
+
+    /**
+     * Runs the load for the configured duration.
+     *
+     * @return the machine readable summary of the run
+     */
+    public Map<String, Object> run() {
+        openTables();
+        log.info("run: starting load {}", config);
+
+        final long intervalNanos = config.getRate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate()) : 0;
+        final long start = System.nanoTime();
+        final long end = start + config.getDuration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.getThreads());
+        for (int i = 0; i < config.getThreads(); i++) {
+            workers.execute(() -> runWorker(start, end, intervalNanos));
+        }
+
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            throw new UnrecoverableCorfuInterruptedError(e);
+        }
+
+        long scheduled = intervalNanos > 0
+                ? (config.getDuration().toNanos() + intervalNanos - 1) / intervalNanos : started.get();
+        return summarize(System.nanoTime() - start, scheduled - started.get());
+    }
+
+    private void runWorker(long start, long end, long intervalNanos) {
+        Random random = ThreadLocalRandom.current();
+
+        while (true) {
+            long scheduled = intervalNanos > 0
+                    ? start + sequence.getAndIncrement() * intervalNanos : System.nanoTime();
+            if (scheduled >= end) {
+                return;
+            }
+
+            waitUntil(scheduled);
+            if (System.nanoTime() >= end) {
+                // Behind schedule at the end of the run, the operation is missed
+                return;
+            }
+            started.incrementAndGet();
+
+            OperationType type = nextOperationType(random);
+            OperationStats operationStats = stats.get(type);
+            long startedAt = System.nanoTime();
+            try {
+                execute(type, random);
+            } catch (TransactionAbortedException e) {
+                operationStats.recordAbort(System.nanoTime() - scheduled);
+                continue;
+            } catch (Exception e) {
+                log.debug("runWorker: {} failed", type, e);
+                operationStats.recordError();
+                continue;
+            }
+
+            long completed = System.nanoTime();
+            operationStats.record(completed - scheduled, completed - startedAt);
+        }
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private OperationType nextOperationType(Random random) {
+        double total = config.getReadRatio() + config.getWriteRatio() + config.getTxRatio();
+        double sample = random.nextDouble() * total;
+
+        if (sample < config.getReadRatio()) {
+            return OperationType.READ;
+        } else if (sample < config.getReadRatio() + config.getWriteRatio()) {
+            return OperationType.WRITE;
+        }
+        return OperationType.TX;
+    }
+
+    private void execute(OperationType type, Random random) {
+        switch (type) {
+            case READ:
+                read(random);
+                break;
+            case WRITE:
+                write(random);
+                break;
+            case TX:
+                runtime.getObjectsView().TXBegin();
+                try {
+                    for (int i = 0; i < config.getTxSize(); i++) {
+                        if (random.nextBoolean()) {
+                            read(random);
+                        } else {
+                            write(random);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    runtime.getObjectsView().TXAbort();
+                    throw e;
+                }
+                // Ends the transaction on both commit and abort
+                runtime.getObjectsView().TXEnd();
+                break;
+            default:
+                throw new IllegalStateException("Unknown operation type " + type);
+        }
+    }
+
+    private CorfuTable<String, String> nextTable(Random random) {
+        return tables.get(random.nextInt(tables.size()));
+    }
+
+    private String nextKey(Random random) {
+        return "key_" + keyGenerator.next(random);
+    }
+
+    private void read(Random random) {
+        nextTable(random).get(nextKey(random));
+    }
+
+    private void write(Random random) {
+        int size = config.getMinValueSize()
+                + random.nextInt(config.getMaxValueSize() - config.getMinValueSize() + 1);
+        int offset = random.nextInt(valueSource.length() - size + 1);
+        nextTable(random).put(nextKey(random), valueSource.substring(offset, offset + size));
+    }
+
+    private Map<String, Object> summarize(long elapsedNanos, long missed) {
+        double elapsedSeconds = (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+        long completed = stats.values().stream().mapToLong(OperationStats::getCount).sum();
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((type, operationStats) -> operations.put(type.name(), operationStats.toSummary()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("durationSeconds", elapsedSeconds);
+        summary.put("targetRate", config.getRate());
+        summary.put("achievedRate", completed / elapsedSeconds);
+        summary.put("missed", missed);
+        summary.put("threads", config.getThreads());
+        summary.put("numTables", config.getNumTables());
+        summary.put("numKeys", config.getNumKeys());
+        summary.put("keySkew", config.getKeySkew());
+        summary.put("operations", operations);
+        return summary;
+    }
+}
@@ -0,0 +1,184 @@
+package org.corfudb.generator.load;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.corfudb.infrastructure.CorfuServer;
+import org.corfudb.runtime.CorfuRuntime;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Launcher of the {@link LoadGenerator}, which prints a JSON summary of the run on
+ * the standard output, and optionally writes it to a file.
+ *
+ * <p>With the in_process option, a single node in-memory Corfu server is started in this
+ * process, so that the load can be run on a single box without any setup.
+ */
+@Slf4j
+public class LoadRun {
+    private static final String CORFU_ENDPOINT = "corfu_endpoint";
+    private static final String IN_PROCESS = "in_process";
+    private static final String DURATION = "duration";
+    private static final String RATE = "rate";
+    private static final String THREADS = "threads";
+    private static final String TABLES = "tables";
+    private static final String KEYS = "keys";
+    private static final String KEY_SKEW = "key_skew";
+    private static final String VALUE_SIZE = "value_size";
+    private static final String MIX = "mix";
+    private static final String TX_SIZE = "tx_size";
+    private static final String SUMMARY = "summary";
+
+    private static final String IN_PROCESS_PORT = "9000";
+
+    public static void main(String[] args) {
+        Logger root = (Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.WARN);
+
+        Options options = new Options();
+        options.addOption(new Option("c", CORFU_ENDPOINT, true,
+                "corfu server to connect to [default: localhost:9000]"));
+        options.addOption(new Option("i", IN_PROCESS, false,
+                "start a single node in-memory corfu server in this process"));
+        options.addOption(new Option("d", DURATION, true, "duration in seconds [default: 60]"));
+        options.addOption(new Option("r", RATE, true,
+                "target operations per second, 0 for a closed loop [default: 1000]"));
+        options.addOption(new Option("t", THREADS, true, "number of worker threads [default: 16]"));
+        options.addOption(new Option("n", TABLES, true, "number of tables [default: 10]"));
+        options.addOption(new Option("k", KEYS, true, "number of keys per table [default: 10000]"));
+        options.addOption(new Option("z", KEY_SKEW, true,
+                "zipfian skew of the keys in [0, 1), 0 for uniform keys [default: 0.99]"));
+        options.addOption(new Option("v", VALUE_SIZE, true,
+                "value size range in bytes, min:max [default: 64:1024]"));
+        options.addOption(new Option("m", MIX, true,
+                "read:write:tx operation ratios [default: 70:20:10]"));
+        options.addOption(new Option("x", TX_SIZE, true,
+                "number of reads and writes per transaction [default: 5]"));
+        options.addOption(new Option("s", SUMMARY, true, "file to write the JSON summary to"));
+
+        CommandLineParser parser = new DefaultParser();
+        HelpFormatter formatter = new HelpFormatter();
+        CommandLine cmd;
+        LoadConfig config;
+
+        try {
+            cmd = parser.parse(options, args);
+            config = parseConfig(cmd);
+        } catch (ParseException | IllegalArgumentException e) {
+            log.error(e.getMessage());
+            formatter.printHelp("load", options);
+
+            System.exit(1);
+            return;
+        }
+
+        String configurationString = cmd.getOptionValue(CORFU_ENDPOINT, "localhost:" + IN_PROCESS_PORT);
+        if (cmd.hasOption(IN_PROCESS)) {
+            startInProcessServer();
+            configurationString = "localhost:" + IN_PROCESS_PORT;
+        }
+
+        CorfuRuntime runtime = new CorfuRuntime(configurationString).connect();
+
+        Map<String, Object> summary = new LoadGenerator(config, runtime).run();
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        String json = gson.toJson(summary);
+        println(json);
+
+        int exitStatus = 0;
+        if (cmd.hasOption(SUMMARY)) {
+            try {
+                Files.write(Paths.get(cmd.getOptionValue(SUMMARY)), json.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.error("Failed to write the summary", e);
+                exitStatus = 1;
+            }
+        }
+
+        runtime.shutdown();
+        System.exit(exitStatus);
+    }
+
+    private static LoadConfig parseConfig(CommandLine cmd) throws ParseException {
+        LoadConfig.LoadConfigBuilder builder = LoadConfig.builder();
+
+        if (cmd.hasOption(DURATION)) {
+            builder.duration(Duration.ofSeconds(Long.parseLong(cmd.getOptionValue(DURATION))));
+        }
+        if (cmd.hasOption(RATE)) {
+            builder.rate(Double.parseDouble(cmd.getOptionValue(RATE)));
+        }
+        if (cmd.hasOption(THREADS)) {
+            builder.threads(Integer.parseInt(cmd.getOptionValue(THREADS)));
+        }
+        if (cmd.hasOption(TABLES)) {
+            builder.numTables(Integer.parseInt(cmd.getOptionValue(TABLES)));
+        }
+        if (cmd.hasOption(KEYS)) {
+            builder.numKeys(Integer.parseInt(cmd.getOptionValue(KEYS)));
+        }
+        if (cmd.hasOption(KEY_SKEW)) {
+            builder.keySkew(Double.parseDouble(cmd.getOptionValue(KEY_SKEW)));
+        }
+        if (cmd.hasOption(VALUE_SIZE)) {
+            String[] sizes = cmd.getOptionValue(VALUE_SIZE).split(":");
+            if (sizes.length != 2) {
+                throw new ParseException("Value size should be min:max");
+            }
+            builder.minValueSize(Integer.parseInt(sizes[0]));
+            builder.maxValueSize(Integer.parseInt(sizes[1]));
+        }
+        if (cmd.hasOption(MIX)) {
+            String[] ratios = cmd.getOptionValue(MIX).split(":");
+            if (ratios.length != 3) {
+                throw new ParseException("Mix should be read:write:tx");
+            }
+            builder.readRatio(Double.parseDouble(ratios[0]));
+            builder.writeRatio(Double.parseDouble(ratios[1]));
+            builder.txRatio(Double.parseDouble(ratios[2]));
+        }
+        if (cmd.hasOption(TX_SIZE)) {
+            builder.txSize(Integer.parseInt(cmd.getOptionValue(TX_SIZE)));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Print the summary to the console, followed by a newline.
+     *
+     * @param line The line to print.
+     */
+    @SuppressWarnings("checkstyle:printLine")
+    private static void println(String line) {
+        System.out.println(line);
+    }
+
+    /**
+     * Starts a single node in-memory server, the runtime retries connecting until it is up.
+     */
+    private static void startInProcessServer() {
+        Thread server = new Thread(() -> CorfuServer.main(
+                new String[]{"-m", "-s", "-d", "WARN", IN_PROCESS_PORT}));
+        server.setName("in-process-server");
+        server.setDaemon(true);
+        server.start();
+    }
+}
@@ -0,0 +1,96 @@
+package org.corfudb.generator.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the operations of one type.
+ *
+ * <p>The response time of an operation is measured from the time it was scheduled to start,
+ * so that the time spent waiting for a busy system is accounted for (coordinated omission
+ * correction), the service time from the time it actually started. Aborted transactions are
+ * recorded apart from the completed operations, so that they do not skew their latencies.
+ */
+public class OperationStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Histogram responseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    private final Histogram abortResponseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Records a completed operation.
+     *
+     * @param responseNanos time since the operation was scheduled to start
+     * @param serviceNanos  time since the operation started
+     */
+    public void record(long responseNanos, long serviceNanos) {
+        responseTime.recordValue(responseNanos);
+        serviceTime.recordValue(serviceNanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Records an aborted transaction.
+     *
+     * @param responseNanos time since the transaction was scheduled to start
+     */
+    public void recordAbort(long responseNanos) {
+        abortResponseTime.recordValue(responseNanos);
+    }
+
+    public long getCount() {
+        return responseTime.getTotalCount();
+    }
+
+    public long getAborts() {
+        return abortResponseTime.getTotalCount();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Summarizes the stats, latencies are in microseconds.
+     */
+    public Map<String, Object> toSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", getCount());
+        summary.put("errors", getErrors());
+        summary.put("aborts", getAborts());
+        summary.put("responseTimeMicros", latencies(responseTime));
+        summary.put("serviceTimeMicros", latencies(serviceTime));
+        summary.put("abortResponseTimeMicros", latencies(abortResponseTime));
+        return summary;
+    }
+
+    private static Map<String, Object> latencies(Histogram histogram) {
+        Map<String, Object> latencies = new LinkedHashMap<>();
+        latencies.put("mean", toMicros(histogram.getMean()));
+        for (double percentile : PERCENTILES) {
+            latencies.put("p" + percentile, toMicros(histogram.getValueAtPercentile(percentile)));
+        }
+        latencies.put("max", toMicros(histogram.getMaxValue()));
+        return latencies;
+    }
+
+    private static double toMicros(double nanos) {
+        return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,89 @@
+package org.corfudb.generator.distributions;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class ZipfianGeneratorTest {
+
+    private static final int NUM_ITEMS = 100;
+    private static final int NUM_SAMPLES = 1_000_000;
+    private static final long SEED = 42;
+
+    private int[] sample(ZipfianGenerator generator) {
+        Random random = new Random(SEED);
+        int[] counts = new int[NUM_ITEMS];
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            // An item out of [0, NUM_ITEMS) fails the test
+            counts[generator.next(random)]++;
+        }
+        return counts;
+    }
+
+    private static double zeta(int n, double theta) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+
+    /**
+     * A skew of 0 picks every item about as often.
+     */
+    @Test
+    public void noSkewIsUniform() {
+        final double tolerance = 0.1;
+        int[] counts = sample(new ZipfianGenerator(NUM_ITEMS, 0));
+
+        double expected = (double) NUM_SAMPLES / NUM_ITEMS;
+        for (int count : counts) {
+            assertThat((double) count).isCloseTo(expected, within(expected * tolerance));
+        }
+    }
+
+    /**
+     * With a skew, the most popular items are picked with a probability close to
+     * 1 / (i^theta * zeta(n, theta)) and the popularity decreases with the item.
+     */
+    @Test
+    public void skewFavorsFirstItems() {
+        final double theta = 0.99;
+        final double tolerance = 0.05;
+        final int lastItem = NUM_ITEMS - 1;
+        int[] counts = sample(new ZipfianGenerator(NUM_ITEMS, theta));
+
+        double zetaN = zeta(NUM_ITEMS, theta);
+        for (int item = 0; item < 2; item++) {
+            double expected = NUM_SAMPLES / (Math.pow(item + 1, theta) * zetaN);
+            assertThat((double) counts[item]).isCloseTo(expected, within(expected * tolerance));
+        }
+
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[NUM_ITEMS / 2]);
+        assertThat(counts[NUM_ITEMS / 2]).isGreaterThan(counts[lastItem]);
+    }
+
+    @Test
+    public void singleItem() {
+        ZipfianGenerator generator = new ZipfianGenerator(1, 0.5);
+        Random random = new Random(SEED);
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            assertThat(generator.next(random)).isZero();
+        }
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThatThrownBy(() -> new ZipfianGenerator(0, 0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianGenerator(NUM_ITEMS, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianGenerator(NUM_ITEMS, -0.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package org.corfudb.generator.load;
+
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class OperationStatsTest {
+
+    private static final double PRECISION = 0.01;
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> latencies(Map<String, Object> summary, String name) {
+        return (Map<String, Object>) summary.get(name);
+    }
+
+    /**
+     * Completed operations, aborts and errors are counted apart, and the latencies of
+     * aborted transactions are not mixed with the latencies of completed operations.
+     */
+    @Test
+    public void abortsAreRecordedSeparately() {
+        final long responseMicros = 200;
+        final long serviceMicros = 100;
+        final long abortMicros = 5000;
+        final int numCompleted = 10;
+        final int numAborted = 3;
+
+        OperationStats stats = new OperationStats();
+        for (int i = 0; i < numCompleted; i++) {
+            stats.record(TimeUnit.MICROSECONDS.toNanos(responseMicros),
+                    TimeUnit.MICROSECONDS.toNanos(serviceMicros));
+        }
+        for (int i = 0; i < numAborted; i++) {
+            stats.recordAbort(TimeUnit.MICROSECONDS.toNanos(abortMicros));
+        }
+        stats.recordError();
+
+        assertThat(stats.getCount()).isEqualTo(numCompleted);
+        assertThat(stats.getAborts()).isEqualTo(numAborted);
+        assertThat(stats.getErrors()).isEqualTo(1);
+
+        Map<String, Object> summary = stats.toSummary();
+        assertThat(summary).containsEntry("count", (long) numCompleted)
+                .containsEntry("aborts", (long) numAborted)
+                .containsEntry("errors", 1L);
+
+        assertThat((double) latencies(summary, "responseTimeMicros").get("max"))
+                .isCloseTo(responseMicros, within(responseMicros * PRECISION));
+        assertThat((double) latencies(summary, "serviceTimeMicros").get("mean"))
+                .isCloseTo(serviceMicros, within(serviceMicros * PRECISION));
+        assertThat((double) latencies(summary, "abortResponseTimeMicros").get("p50.0"))
+                .isCloseTo(abortMicros, within(abortMicros * PRECISION));
+    }
+
+    /**
+     * The percentiles are reported in microseconds.
+     */
+    @Test
+    public void percentiles() {
+        final int numOperations = 1000;
+
+        OperationStats stats = new OperationStats();
+        for (int i = 1; i <= numOperations; i++) {
+            stats.record(TimeUnit.MICROSECONDS.toNanos(i), TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        Map<String, Object> responseTime = latencies(stats.toSummary(), "responseTimeMicros");
+        assertThat(responseTime).containsKeys("mean", "p50.0", "p90.0", "p99.0", "p99.9", "p99.99", "max");
+
+        final double median = 500;
+        final double p90 = 900;
+        assertThat((double) responseTime.get("p50.0")).isCloseTo(median, within(median * PRECISION));
+        assertThat((double) responseTime.get("p90.0")).isCloseTo(p90, within(p90 * PRECISION));
+        assertThat((double) responseTime.get("max")).isCloseTo(numOperations, within(numOperations * PRECISION));
+    }
+}
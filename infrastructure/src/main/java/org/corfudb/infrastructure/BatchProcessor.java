@@ -22,6 +22,7 @@ import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.PriorityLevel;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
 import org.corfudb.protocols.wireprotocol.TailsRequest;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.TrimRequest;
@@ -164,6 +165,10 @@ public class BatchProcessor implements AutoCloseable {
                                 RangeWriteMsg writeRange = (RangeWriteMsg) currOp.getMsg().getPayload();
                                 streamLog.append(writeRange.getEntries());
                                 break;
+                            case SEGMENT_CHUNK_WRITE:
+                                SegmentChunk chunk = (SegmentChunk) currOp.getMsg().getPayload();
+                                streamLog.writeSegmentChunk(chunk);
+                                break;
                             case RESET:
                                 streamLog.reset();
                                 break;
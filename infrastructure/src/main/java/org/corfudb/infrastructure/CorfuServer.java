@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 import org.corfudb.common.metrics.MetricsServer;
 import org.corfudb.common.metrics.servers.PrometheusMetricsServer;
+import org.corfudb.infrastructure.datastore.DataStore;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
 import org.corfudb.util.GitRepositoryState;
 import org.docopt.Docopt;
@@ -49,12 +50,14 @@ public class CorfuServer {
                     + "[--layout-server-threads=<layout_server_threads>] [--base-server-threads=<base_server_threads>] "
                     + "[--log-size-quota-percentage=<max_log_size_percentage>]"
                     + "[--logunit-threads=<logunit_threads>] [--management-server-threads=<management_server_threads>]"
+                    + "[--phi-threshold=<phi_threshold>]"
+                    + "[--flush-consolidation=<flushes>]"
                     + "[-e [-u <keystore> -f <keystore_password_file>] [-r <truststore> -w <truststore_password_file>] "
                     + "[-b] [-g -o <username_file> -j <password_file>] "
                     + "[-k <seqcache>] [-T <threads>] [-B <size>] [-i <channel-implementation>] "
                     + "[-H <seconds>] [-I <cluster-id>] [-x <ciphers>] [-z <tls-protocols>]] "
                     + "[--metrics] [--metrics-port <metrics_port>]"
-                    + "[-P <prefix>] [-R <retention>] [--agent] <port>\n"
+                    + "[-P <prefix>] [-R <retention>] [--export-datastore] [--agent] <port>\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -161,10 +164,19 @@ public class CorfuServer {
                     + " --management-server-threads=<management_server_threads>                  "
                     + "              Number of threads dedicated for the management server.\n"
                     + "                                                                          "
+                    + " --phi-threshold=<phi_threshold>                                          "
+                    + "              Use the adaptive phi-accrual failure detector, which suspects "
+                    + "a node once its phi exceeds the threshold (e.g. 8).\n                    "
+                    + " --flush-consolidation=<flushes>                                          "
+                    + "              Merge up to this number of response flushes, flushing when the "
+                    + "event loop is idle.\n                                                 "
                     + " --logunit-threads=<logunit_threads>                  "
                     + "              Number of threads dedicated for the logunit server.\n"
                     + "                                                                          "
                     + " --agent      Run with byteman agent to enable runtime code injection.\n  "
+                    + " --export-datastore                                                       "
+                    + "              Write the DataStore back as one file per key, which versions "
+                    + "before the DataStore log read, and exit. Run before a downgrade.\n"
                     + " --metrics                                                                "
                     + "              Enable metrics provider.\n                                  "
                     + " --metrics-port=<metrics_port>                                            "
@@ -226,6 +238,13 @@ public class CorfuServer {
 
         createServiceDirectory(opts);
 
+        if ((Boolean) opts.get("--export-datastore")) {
+            if (!(Boolean) opts.get("--memory")) {
+                DataStore.exportToFiles((String) opts.get("--log-path"));
+            }
+            return;
+        }
+
         // Check the specified number of datastore files to retain
         if (Integer.parseInt((String) opts.get("--metadata-retention")) < 1) {
             throw new IllegalArgumentException("Max number of metadata files to retain must be greater than 0.");
@@ -17,9 +17,11 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageDecoder;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageEncoder;
+import org.corfudb.protocols.wireprotocol.NettyFlushConsolidation;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuInterruptedError;
 import org.corfudb.security.sasl.plaintext.PlainTextSaslNettyServer;
 import org.corfudb.security.tls.SslContextConstructor;
+import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.GitRepositoryState;
 import org.corfudb.util.Version;
 
@@ -155,6 +157,8 @@ public class CorfuServerNode implements AutoCloseable {
 
         CompletableFuture.allOf(shutdownFutures).join();
         shutdownService.shutdown();
+        // The servers may persist their state while shutting down
+        serverContext.getDataStore().close();
         log.info("close: Server shutdown and resources released");
     }
 
@@ -329,6 +333,9 @@ public class CorfuServerNode implements AutoCloseable {
                         Version.getVersionString() + "("
                                 + GitRepositoryState.getRepositoryState().commitIdAbbrev + ")",
                         context.getServerConfig(String.class, "--HandshakeTimeout")));
+                // Consolidate the flushes of the responses.
+                NettyFlushConsolidation.addLast(ch.pipeline(), context.getFlushConsolidationSize(),
+                        context.getMetrics().histogram(CorfuComponent.INFRA_ROUTER + "responses-per-flush"));
                 // Route the message to the server class.
                 ch.pipeline().addLast(router);
             }
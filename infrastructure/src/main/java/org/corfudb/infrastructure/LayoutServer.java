@@ -3,11 +3,20 @@ package org.corfudb.infrastructure;
 import com.google.common.annotations.VisibleForTesting;
 import io.netty.channel.ChannelHandlerContext;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.ServerThreadFactory.ExceptionHandler;
 import org.corfudb.infrastructure.paxos.PaxosDataStore;
@@ -21,6 +30,7 @@ import org.corfudb.protocols.wireprotocol.LayoutPrepareRequest;
 import org.corfudb.protocols.wireprotocol.LayoutPrepareResponse;
 import org.corfudb.protocols.wireprotocol.LayoutProposeRequest;
 import org.corfudb.protocols.wireprotocol.LayoutProposeResponse;
+import org.corfudb.protocols.wireprotocol.LayoutWaitRequest;
 import org.corfudb.runtime.view.Layout;
 
 import java.util.Optional;
@@ -53,6 +63,11 @@ import java.util.Optional;
  * server that a new rank has been accepted by a quorum of
  * servers.
  *
+ * <p>Clients can also wait for a new layout to be committed
+ * ({@link CorfuMsgType#LAYOUT_WAIT_REQUEST}), the request is held until a
+ * layout with a greater epoch is set, which lets clients pick up new layouts
+ * without polling the layout servers or waiting for a request to fail.
+ *
  * <p>Created by mwei on 12/8/15.
  */
 //TODO Finer grained synchronization needed for this class.
@@ -76,6 +91,17 @@ public class LayoutServer extends AbstractServer {
     @NonNull
     private final PaxosDataStore paxosDataStore;
 
+    /**
+     * Requests waiting for a layout with a greater epoch than the epoch of the client.
+     * Guarded by this server.
+     */
+    private final Set<LayoutWaiter> layoutWaiters = new HashSet<>();
+
+    /**
+     * Expires the layout waits.
+     */
+    private final ScheduledExecutorService layoutWaitTimer;
+
     @Override
     public boolean isServerReadyToHandleMsg(CorfuMsg msg) {
         return getState() == ServerState.READY;
@@ -97,6 +123,8 @@ public class LayoutServer extends AbstractServer {
                 serverContext.getLayoutServerThreadCount(),
                 new ServerThreadFactory("layoutServer-", new ExceptionHandler())
         );
+        layoutWaitTimer = Executors.newSingleThreadScheduledExecutor(
+                new ServerThreadFactory("layoutServer-wait-", new ExceptionHandler()));
 
         if (serverContext.installSingleNodeLayoutIfAbsent()) {
             setLayoutInHistory(getCurrentLayout());
@@ -111,6 +139,7 @@ public class LayoutServer extends AbstractServer {
     @Override
     public void shutdown() {
         super.shutdown();
+        layoutWaitTimer.shutdownNow();
         executor.shutdown();
     }
 
@@ -155,6 +184,81 @@ public class LayoutServer extends AbstractServer {
         }
     }
 
+    /**
+     * Handle a request to wait for a new layout. If the current layout is already newer than the
+     * layout of the client, the request completes right away. Otherwise it is held until a layout
+     * with a greater epoch is set or until the timeout expires, whichever comes first.
+     *
+     * @param msg corfu message containing LAYOUT_WAIT_REQUEST
+     * @param ctx netty ChannelHandlerContext
+     * @param r   server router
+     */
+    @ServerHandler(type = CorfuMsgType.LAYOUT_WAIT_REQUEST)
+    public synchronized void handleMessageLayoutWait(CorfuPayloadMsg<LayoutWaitRequest> msg,
+                                                     ChannelHandlerContext ctx, IServerRouter r) {
+        if (!isBootstrapped(msg, ctx, r)) {
+            return;
+        }
+
+        final LayoutWaitRequest req = msg.getPayload();
+        final LayoutWaiter waiter = new LayoutWaiter(msg, ctx, r);
+        final Layout currentLayout = getCurrentLayout();
+
+        if (currentLayout.getEpoch() > req.getEpoch() || req.getTimeout() <= 0) {
+            completeLayoutWait(waiter, currentLayout);
+            return;
+        }
+
+        layoutWaiters.add(waiter);
+        waiter.setTimeout(layoutWaitTimer.schedule(
+                () -> expireLayoutWait(waiter), req.getTimeout(), TimeUnit.MILLISECONDS));
+        log.trace("handleMessageLayoutWait: waiting for a layout past epoch {}", req.getEpoch());
+    }
+
+    private synchronized void expireLayoutWait(LayoutWaiter waiter) {
+        if (layoutWaiters.remove(waiter)) {
+            completeLayoutWait(waiter, getCurrentLayout());
+        }
+    }
+
+    /**
+     * Responds to the requests waiting for a layout older than the given layout.
+     *
+     * @param layout the layout which was set
+     */
+    private synchronized void notifyLayoutWaiters(Layout layout) {
+        List<LayoutWaiter> waiters = new ArrayList<>();
+        for (LayoutWaiter waiter : layoutWaiters) {
+            if (waiter.getMsg().getPayload().getEpoch() < layout.getEpoch()) {
+                waiters.add(waiter);
+            }
+        }
+
+        layoutWaiters.removeAll(waiters);
+        waiters.forEach(waiter -> completeLayoutWait(waiter, layout));
+    }
+
+    private void completeLayoutWait(LayoutWaiter waiter, Layout layout) {
+        if (waiter.getTimeout() != null) {
+            waiter.getTimeout().cancel(false);
+        }
+        waiter.getRouter().sendResponse(waiter.getCtx(), waiter.getMsg(),
+                new LayoutMsg(layout, CorfuMsgType.LAYOUT_RESPONSE));
+    }
+
+    /**
+     * A request waiting for a new layout.
+     */
+    @Getter
+    @Setter
+    @RequiredArgsConstructor
+    private static class LayoutWaiter {
+        private final CorfuPayloadMsg<LayoutWaitRequest> msg;
+        private final ChannelHandlerContext ctx;
+        private final IServerRouter router;
+        private ScheduledFuture<?> timeout;
+    }
+
     /**
      * Sets the new layout if the server has not been bootstrapped with one already.
      *
@@ -414,9 +518,13 @@ public class LayoutServer extends AbstractServer {
      * @param layout layout to set
      */
     public void setCurrentLayout(Layout layout) {
-        serverContext.setCurrentLayout(layout);
-        // set the layout in history as well
-        setLayoutInHistory(layout);
+        serverContext.getDataStore().batch(() -> {
+            serverContext.setCurrentLayout(layout);
+            // set the layout in history as well
+            setLayoutInHistory(layout);
+        });
+        // the clients waiting for a new layout are sent a copy of it
+        notifyLayoutWaiters(new Layout(layout));
     }
 
     public Rank getPhase1Rank(long epoch) {
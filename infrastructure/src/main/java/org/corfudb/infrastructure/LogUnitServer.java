@@ -1,10 +1,13 @@
 package org.corfudb.infrastructure;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import io.netty.channel.ChannelHandlerContext;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.RequestScheduler.RequestClass;
 import org.corfudb.infrastructure.log.InMemoryStreamLog;
 import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.infrastructure.log.StreamLogCompaction;
@@ -21,6 +24,11 @@ import org.corfudb.protocols.wireprotocol.PriorityLevel;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentChunkRequest;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamReadRequest;
+import org.corfudb.protocols.wireprotocol.StreamReadResponse;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsRequest;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
@@ -30,17 +38,23 @@ import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
 import org.corfudb.runtime.exceptions.LogUnitException;
 import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.ServerNotReadyException;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.exceptions.ValueAdoptedException;
 import org.corfudb.runtime.exceptions.WrongEpochException;
+import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.Utils;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -51,8 +65,10 @@ import static org.corfudb.infrastructure.BatchWriterOperation.Type.PREFIX_TRIM;
 import static org.corfudb.infrastructure.BatchWriterOperation.Type.RANGE_WRITE;
 import static org.corfudb.infrastructure.BatchWriterOperation.Type.RESET;
 import static org.corfudb.infrastructure.BatchWriterOperation.Type.SEAL;
+import static org.corfudb.infrastructure.BatchWriterOperation.Type.SEGMENT_CHUNK_WRITE;
 import static org.corfudb.infrastructure.BatchWriterOperation.Type.TAILS_QUERY;
 import static org.corfudb.infrastructure.BatchWriterOperation.Type.WRITE;
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
 
 
 /**
@@ -78,6 +94,26 @@ public class LogUnitServer extends AbstractServer {
      */
     private final LogUnitServerConfig config;
 
+    /**
+     * Number of addresses read at once by a stream read.
+     */
+    private static final int STREAM_READ_BATCH_SIZE = 64;
+
+    /**
+     * Multi-reads of up to this many addresses are scheduled as point reads.
+     */
+    private static final int POINT_READ_MAX_ADDRESSES = 16;
+
+    /**
+     * Dispatch weights of the request classes, latency sensitive requests are favored
+     * over bulk reads.
+     */
+    private static final Map<RequestClass, Integer> REQUEST_CLASS_WEIGHTS = ImmutableMap.of(
+            RequestClass.WRITE, 4,
+            RequestClass.POINT_READ, 4,
+            RequestClass.METADATA, 2,
+            RequestClass.BULK_READ, 1);
+
     /**
      * The server context of the node.
      */
@@ -100,7 +136,13 @@ public class LogUnitServer extends AbstractServer {
     private final StreamLogCompaction logCleaner;
     private final BatchProcessor batchWriter;
 
-    private ExecutorService executor;
+    /**
+     * Dispatches the requests to the handlers, with a queue per request class.
+     */
+    private final RequestScheduler scheduler;
+
+    // Reads the segments of a multi-read in parallel
+    private final ExecutorService readExecutor;
 
     /**
      * Returns a new LogUnitServer.
@@ -110,8 +152,11 @@ public class LogUnitServer extends AbstractServer {
     public LogUnitServer(ServerContext serverContext) {
         this.serverContext = serverContext;
         this.config = LogUnitServerConfig.parse(serverContext.getServerConfig());
-        executor = Executors.newFixedThreadPool(serverContext.getLogunitThreadCount(),
-                new ServerThreadFactory("LogUnit-", new ServerThreadFactory.ExceptionHandler()));
+        scheduler = new RequestScheduler(serverContext.getLogunitThreadCount(), REQUEST_CLASS_WEIGHTS,
+                new ServerThreadFactory("LogUnit-", new ServerThreadFactory.ExceptionHandler()),
+                ServerContext.getMetrics(), CorfuComponent.INFRA_LOG_UNIT + "scheduler.");
+        readExecutor = Executors.newFixedThreadPool(serverContext.getLogunitThreadCount(),
+                new ServerThreadFactory("LogUnitRead-", new ServerThreadFactory.ExceptionHandler()));
 
         if (config.isMemoryMode()) {
             log.warn("Log unit opened in-memory mode (Maximum size={}). "
@@ -134,7 +179,36 @@ public class LogUnitServer extends AbstractServer {
 
     @Override
     protected void processRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r) {
-        executor.submit(() -> getHandler().handle(msg, ctx, r));
+        scheduler.submit(getRequestClass(msg), msg.getTimeout(), () -> getHandler().handle(msg, ctx, r));
+    }
+
+    /**
+     * Classifies a request for the scheduler. Multi-reads of a few addresses (e.g. a stream
+     * view reading ahead) are scheduled as point reads, larger ones (checkpoint loading,
+     * state transfer) as bulk reads.
+     */
+    @SuppressWarnings("unchecked")
+    private static RequestClass getRequestClass(CorfuMsg msg) {
+        switch (msg.getMsgType()) {
+            case WRITE:
+            case RANGE_WRITE:
+            case SEGMENT_CHUNK_WRITE:
+            case PREFIX_TRIM:
+            case RESET_LOGUNIT:
+                return RequestClass.WRITE;
+            case READ_REQUEST:
+                return RequestClass.POINT_READ;
+            case MULTIPLE_READ_REQUEST:
+                MultipleReadRequest request = ((CorfuPayloadMsg<MultipleReadRequest>) msg).getPayload();
+                return request.getAddresses().size() <= POINT_READ_MAX_ADDRESSES
+                        ? RequestClass.POINT_READ : RequestClass.BULK_READ;
+            case STREAM_READ_REQUEST:
+            case KNOWN_ADDRESS_REQUEST:
+            case SEGMENT_CHUNK_REQUEST:
+                return RequestClass.BULK_READ;
+            default:
+                return RequestClass.METADATA;
+        }
     }
 
     /**
@@ -143,6 +217,11 @@ public class LogUnitServer extends AbstractServer {
     @ServerHandler(type = CorfuMsgType.TAIL_REQUEST)
     public void handleTailRequest(CorfuPayloadMsg<TailsRequest> msg, ChannelHandlerContext ctx, IServerRouter r) {
         log.debug("handleTailRequest: received a tail request {}", msg);
+        // The tails are only complete once the log is recovered, the client retries meanwhile.
+        if (!streamLog.whenReady().isDone()) {
+            r.sendResponse(ctx, msg, CorfuMsgType.NOT_READY.msg());
+            return;
+        }
         batchWriter.<TailsResponse>addTask(TAILS_QUERY, msg)
                 .thenAccept(tailsResp -> r.sendResponse(ctx, msg, CorfuMsgType.TAIL_RESPONSE.payloadMsg(tailsResp)))
                 .exceptionally(ex -> {
@@ -160,6 +239,10 @@ public class LogUnitServer extends AbstractServer {
         CorfuPayloadMsg<Void> payloadMsg = new CorfuPayloadMsg<>();
         payloadMsg.copyBaseFields(msg);
         log.trace("handleLogAddressSpaceRequest: received a log address space request {}", msg);
+        if (!streamLog.whenReady().isDone()) {
+            r.sendResponse(ctx, msg, CorfuMsgType.NOT_READY.msg());
+            return;
+        }
         batchWriter.<StreamsAddressResponse>addTask(LOG_ADDRESS_SPACE_QUERY, payloadMsg)
                 .thenAccept(tailsResp -> r.sendResponse(ctx, msg,
                         CorfuMsgType.LOG_ADDRESS_SPACE_RESPONSE.payloadMsg(tailsResp)))
@@ -223,7 +306,7 @@ public class LogUnitServer extends AbstractServer {
                 .thenRunAsync(() -> {
                     dataCache.put(msg.getPayload().getGlobalAddress(), logData);
                     r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg());
-                }, executor).exceptionally(ex -> {
+                }, task -> scheduler.submit(RequestClass.WRITE, 0, task)).exceptionally(ex -> {
             handleException(ex, ctx, msg, r);
             return null;
         });
@@ -259,7 +342,10 @@ public class LogUnitServer extends AbstractServer {
                             IServerRouter r) {
         log.debug("prefixTrim: trimming prefix to {}", msg.getPayload().getAddress());
         batchWriter.addTask(PREFIX_TRIM, msg)
-                .thenRun(() -> r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg()))
+                .thenRun(() -> {
+                    dataCache.invalidatePrefix(msg.getPayload().getAddress().getSequence());
+                    r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
+                })
                 .exceptionally(ex -> {
                     handleException(ex, ctx, msg, r);
                     return null;
@@ -287,27 +373,136 @@ public class LogUnitServer extends AbstractServer {
         }
     }
 
+    /**
+     * Reads a batch of addresses. The addresses are grouped by segment, the segments are read
+     * in parallel and the entries of a segment are fetched in file offset order with coalesced
+     * reads. If the request bounds the response size, the entries are sent back in chunks of
+     * at most that size (READ_RESPONSE_CHUNK) as the segments are read, and the last chunk is
+     * sent as a READ_RESPONSE.
+     */
     @ServerHandler(type = CorfuMsgType.MULTIPLE_READ_REQUEST)
     public void multiRead(CorfuPayloadMsg<MultipleReadRequest> msg, ChannelHandlerContext ctx, IServerRouter r) {
         boolean cacheable = msg.getPayload().isCacheReadResult();
+        int maxResponseSize = msg.getPayload().getMaxResponseSize();
         log.trace("multiRead: {}, cacheable: {}", msg.getPayload().getAddresses(), cacheable);
 
+        Map<Long, List<Long>> segments = new TreeMap<>();
+        for (Long address : msg.getPayload().getAddresses()) {
+            segments.computeIfAbsent(address / RECORDS_PER_LOG_FILE, s -> new ArrayList<>()).add(address);
+        }
+
+        List<CompletableFuture<Map<Long, ILogData>>> reads = new ArrayList<>();
+        for (List<Long> addresses : segments.values()) {
+            if (segments.size() == 1) {
+                reads.add(CompletableFuture.completedFuture(dataCache.getAll(addresses, cacheable)));
+            } else {
+                reads.add(CompletableFuture.supplyAsync(() -> dataCache.getAll(addresses, cacheable), readExecutor));
+            }
+        }
+
         ReadResponse rr = new ReadResponse();
+        int responseSize = 0;
         try {
-            for (Long address : msg.getPayload().getAddresses()) {
-                ILogData logData = dataCache.get(address, cacheable);
-                if (logData == null) {
-                    rr.put(address, LogData.getEmpty(address));
-                } else {
+            int segment = 0;
+            for (List<Long> addresses : segments.values()) {
+                Map<Long, ILogData> entries = reads.get(segment++).join();
+                for (Long address : addresses) {
+                    ILogData logData = entries.get(address);
+                    if (logData == null) {
+                        logData = LogData.getEmpty(address);
+                    }
+
                     rr.put(address, (LogData) logData);
+                    responseSize += logData.getSizeEstimate();
+                    if (maxResponseSize > 0 && responseSize >= maxResponseSize) {
+                        r.sendResponse(ctx, msg, CorfuMsgType.READ_RESPONSE_CHUNK.payloadMsg(rr));
+                        rr = new ReadResponse();
+                        responseSize = 0;
+                    }
                 }
             }
             r.sendResponse(ctx, msg, CorfuMsgType.READ_RESPONSE.payloadMsg(rr));
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof DataCorruptionException)) {
+                throw e;
+            }
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
         } catch (DataCorruptionException e) {
             r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
         }
     }
 
+    /**
+     * Reads the entries of a stream in (start, end], resolving the addresses of the stream
+     * from the stream address space of the log unit, so that the client does not need to
+     * query the sequencer for them.
+     *
+     * <p>The range is scanned a segment at a time, and only up to the first address that is
+     * not written yet, since the stream address space can not account for writes that are
+     * in flight. The response stops once it reaches the requested size, the client then
+     * continues from the covered address.
+     */
+    @ServerHandler(type = CorfuMsgType.STREAM_READ_REQUEST)
+    public void readStream(CorfuPayloadMsg<StreamReadRequest> msg, ChannelHandlerContext ctx, IServerRouter r) {
+        StreamReadRequest request = msg.getPayload();
+        log.trace("readStream: {}", request);
+
+        List<LogData> entries = new ArrayList<>();
+        long covered = request.getStart();
+        long trimMark = Address.NON_EXIST;
+        int responseSize = 0;
+
+        try {
+            scan:
+            while (covered < request.getEnd()) {
+                long windowEnd = Math.min(request.getEnd(), covered + RECORDS_PER_LOG_FILE);
+                long writtenTail = streamLog.getWrittenTail(covered, windowEnd);
+                if (writtenTail == covered) {
+                    break;
+                }
+
+                StreamAddressSpace addressSpace = streamLog.getStreamAddressSpace(
+                        new StreamAddressRange(request.getStreamId(), writtenTail, covered));
+                trimMark = addressSpace.getTrimMark();
+                List<Long> addresses = new ArrayList<>();
+                addressSpace.getAddressMap().forEach(addresses::add);
+
+                for (List<Long> batch : Lists.partition(addresses, STREAM_READ_BATCH_SIZE)) {
+                    Map<Long, ILogData> batchEntries = dataCache.getAll(batch, false);
+                    for (Long address : batch) {
+                        ILogData entry = batchEntries.get(address);
+                        // A missing entry was trimmed and compacted concurrently with the scan
+                        if (entry == null || entry.isTrimmed()) {
+                            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_TRIMMED.msg());
+                            return;
+                        }
+
+                        entries.add((LogData) entry);
+                        responseSize += entry.getSizeEstimate();
+                        if (request.getMaxResponseSize() > 0 && responseSize >= request.getMaxResponseSize()) {
+                            covered = address;
+                            break scan;
+                        }
+                    }
+                }
+
+                covered = writtenTail;
+                if (writtenTail < windowEnd) {
+                    break;
+                }
+            }
+
+            r.sendResponse(ctx, msg, CorfuMsgType.STREAM_READ_RESPONSE
+                    .payloadMsg(new StreamReadResponse(covered, trimMark, entries)));
+        } catch (ServerNotReadyException e) {
+            // The stream address spaces are incomplete until the log is recovered.
+            r.sendResponse(ctx, msg, CorfuMsgType.NOT_READY.msg());
+        } catch (DataCorruptionException e) {
+            log.error("Data corruption exception while reading stream {}", request.getStreamId(), e);
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.payloadMsg(request.getStart()));
+        }
+    }
+
     /**
      * Handles requests for known entries in specified range.
      * This is used by state transfer to catch up only the remainder of the segment.
@@ -327,6 +522,42 @@ public class LogUnitServer extends AbstractServer {
         }
     }
 
+    /**
+     * Services a request for a chunk of a segment file.
+     * This is used by state transfer to copy sealed segment files as a whole.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_CHUNK_REQUEST)
+    private void readSegmentChunk(CorfuPayloadMsg<SegmentChunkRequest> msg,
+                                  ChannelHandlerContext ctx, IServerRouter r) {
+        SegmentChunkRequest request = msg.getPayload();
+        log.trace("readSegmentChunk: {}", request);
+        try {
+            SegmentChunk chunk = streamLog.readSegmentChunk(request.getSegment(),
+                    request.getOffset(), request.getLength());
+            r.sendResponse(ctx, msg, CorfuMsgType.SEGMENT_CHUNK_RESPONSE.payloadMsg(chunk));
+        } catch (Exception e) {
+            handleException(new CompletionException(e), ctx, msg, r);
+        }
+    }
+
+    /**
+     * Services a chunk of a segment file copied from another log unit.
+     */
+    @ServerHandler(type = CorfuMsgType.SEGMENT_CHUNK_WRITE)
+    private void writeSegmentChunk(CorfuPayloadMsg<SegmentChunk> msg,
+                                   ChannelHandlerContext ctx, IServerRouter r) {
+        SegmentChunk chunk = msg.getPayload();
+        log.debug("writeSegmentChunk: segment {}, offset {}, {} bytes of {}", chunk.getSegment(),
+                chunk.getOffset(), chunk.getData().length, chunk.getSegmentSize());
+
+        batchWriter.addTask(SEGMENT_CHUNK_WRITE, msg)
+                .thenRun(() -> r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg()))
+                .exceptionally(ex -> {
+                    handleException(ex, ctx, msg, r);
+                    return null;
+                });
+    }
+
     @ServerHandler(type = CorfuMsgType.COMPACT_REQUEST)
     private void handleCompactRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r) {
         log.debug("handleCompactRequest: received a compact request {}", msg);
@@ -412,7 +643,8 @@ public class LogUnitServer extends AbstractServer {
     public void shutdown() {
         log.info("Shutdown LogUnit server. Current epoch: {}, ", serverContext.getServerEpoch());
         super.shutdown();
-        executor.shutdown();
+        scheduler.close();
+        readExecutor.shutdown();
         logCleaner.shutdown();
         batchWriter.close();
     }
@@ -434,6 +666,7 @@ public class LogUnitServer extends AbstractServer {
 
     @VisibleForTesting
     StreamAddressSpace getStreamAddressSpace(UUID streamID) {
+        streamLog.whenReady().join();
         return streamLog.getStreamsAddressSpace().getAddressMap().get(streamID);
     }
 
@@ -1,16 +1,27 @@
 package org.corfudb.infrastructure;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.common.annotations.VisibleForTesting;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.LogUnitServer.LogUnitServerConfig;
 import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
 
-import static org.corfudb.util.MetricsUtils.sizeOf;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
 
 /**
  * LogUnit server cache.
@@ -18,37 +29,91 @@ import static org.corfudb.util.MetricsUtils.sizeOf;
  * All reads and writes go through this cache. But in some cases, messages can
  * specify non-cacheable read/write, then they will not go through this cache.
  * <p>
+ * Entries are cached in their serialized form, off-heap, and a cache hit is sent back by
+ * writing the cached bytes as is. When consecutive addresses of a segment are read, the
+ * following addresses of the segment are prefetched with a single read. Cached addresses
+ * are indexed by segment, so that a prefix trim evicts whole segments.
+ * <p>
  * Created by WenbinZhu on 5/30/19.
  */
 @Slf4j
 public class LogUnitServerCache {
 
-    private final LoadingCache<Long, ILogData> dataCache;
+    private final Cache<Long, ByteBuf> dataCache;
     private final StreamLog streamLog;
 
+    // Cached addresses indexed by segment
+    private final Map<Long, Set<Long>> segmentIndex = new ConcurrentHashMap<>();
+
+    // Last address of each segment that was loaded from the stream log, used to detect
+    // sequential reads without readers of different segments interfering with each other
+    private final Map<Long, Long> lastLoadedAddresses = new ConcurrentHashMap<>();
+
     //Size of key in the cache.  8 bytes as its a long
     private final int KEY_SIZE = 8;
 
     //Empirical threshold of number of streams in a logdata beyond which server performance may be slow
     private final int MAX_STREAM_THRESHOLD = 20;
 
+    //Number of addresses that are prefetched once a sequential read is detected
+    private final int PREFETCH_SIZE = 64;
+
     public LogUnitServerCache(LogUnitServerConfig config, StreamLog streamLog) {
         this.streamLog = streamLog;
         this.dataCache = Caffeine.newBuilder()
-                .<Long, ILogData>weigher((addr, logData) -> getLogDataTotalSize(logData))
+                .<Long, ByteBuf>weigher((addr, buf) -> buf.capacity() + KEY_SIZE)
                 .maximumWeight(config.getMaxCacheSize())
                 .removalListener(this::handleEviction)
-                .build(this::handleRetrieval);
+                .build();
     }
 
-    private int getLogDataTotalSize(ILogData logData) {
+    private static long getSegment(long address) {
+        return address / RECORDS_PER_LOG_FILE;
+    }
+
+    /**
+     * Serializes an entry to an off-heap buffer. The buffer is freed by the garbage
+     * collector, so that readers still sending an evicted entry never see it released.
+     *
+     * @param logData the entry to cache
+     * @return the serialized entry to put in the cache
+     */
+    private ByteBuf toCached(ILogData logData) {
         if (logData.getStreams().size() > MAX_STREAM_THRESHOLD) {
             log.warn("Number of streams in this data is higher that threshold {}." +
                 "This may impact the server performance", MAX_STREAM_THRESHOLD);
         }
-        return logData.getSizeEstimate() +
-            (int)(sizeOf.deepSizeOf(logData.getMetadataMap())) +
-            KEY_SIZE;
+        ByteBuf heapBuf = Unpooled.buffer();
+        try {
+            ((LogData) logData).doSerialize(heapBuf);
+            ByteBuffer buf = ByteBuffer.allocateDirect(heapBuf.readableBytes());
+            heapBuf.readBytes(buf);
+            buf.flip();
+            return Unpooled.wrappedBuffer(buf);
+        } finally {
+            heapBuf.release();
+        }
+    }
+
+    private void cache(long address, ILogData logData) {
+        segmentIndex.computeIfAbsent(getSegment(address), s -> ConcurrentHashMap.newKeySet()).add(address);
+        dataCache.put(address, toCached(logData));
+    }
+
+    private void cacheIfAbsent(long address, ILogData logData) {
+        segmentIndex.computeIfAbsent(getSegment(address), s -> ConcurrentHashMap.newKeySet()).add(address);
+        dataCache.asMap().putIfAbsent(address, toCached(logData));
+    }
+
+    /**
+     * Returns a cached entry, backed by its cached serialized form.
+     *
+     * @param address the address of the entry
+     * @return the cached entry, or null if the address is not cached
+     */
+    private ILogData getCached(long address) {
+        ByteBuf buf = dataCache.getIfPresent(address);
+        return buf == null ? null : LogData.fromSerializedForm(buf);
     }
 
     /**
@@ -67,8 +132,42 @@ public class LogUnitServerCache {
         return entry;
     }
 
-    private void handleEviction(long address, ILogData entry, RemovalCause cause) {
+    /**
+     * Loads an address into the cache. If the address previously loaded from the same
+     * segment immediately precedes this one, the read is assumed to be sequential and
+     * the following addresses of the segment are loaded with a single range read.
+     *
+     * @param address the address to load
+     * @return the log entry or null if the address is not written
+     */
+    private ILogData load(long address) {
+        long segment = getSegment(address);
+        Long lastLoaded = lastLoadedAddresses.put(segment, address);
+        boolean sequential = lastLoaded != null && lastLoaded == address - 1;
+        if (!sequential) {
+            ILogData entry = handleRetrieval(address);
+            if (entry != null) {
+                cache(address, entry);
+            }
+            return entry;
+        }
+
+        long end = Math.min(address + PREFETCH_SIZE, (segment + 1) * RECORDS_PER_LOG_FILE - 1);
+        Map<Long, LogData> entries = streamLog.readRange(address, end);
+        log.trace("load: prefetched {} entries in [{}, {}]", entries.size(), address, end);
+        entries.forEach(this::cacheIfAbsent);
+        lastLoadedAddresses.put(segment, end);
+        return entries.get(address);
+    }
+
+    private void handleEviction(Long address, ByteBuf entry, RemovalCause cause) {
         log.trace("handleEviction: Eviction[{}]: {}", address, cause);
+        if (cause != RemovalCause.REPLACED) {
+            Set<Long> addresses = segmentIndex.get(getSegment(address));
+            if (addresses != null) {
+                addresses.remove(address);
+            }
+        }
     }
 
     /**
@@ -82,12 +181,44 @@ public class LogUnitServerCache {
      * @return the log entry read from cache or retrieved the underlying storage
      */
     public ILogData get(long address, boolean cacheable) {
-        if (!cacheable) {
-            ILogData ld = dataCache.getIfPresent(address);
-            return ld != null ? ld : handleRetrieval(address);
+        ILogData ld = getCached(address);
+        if (ld != null) {
+            return ld;
         }
 
-        return dataCache.get(address);
+        return cacheable ? load(address) : handleRetrieval(address);
+    }
+
+    /**
+     * Returns the log entries of a set of addresses from the cache, the addresses that are
+     * not cached are retrieved from the underlying storage with a single batched read.
+     *
+     * @param addresses the addresses of the log entries to retrieve
+     * @param cacheable if the log entries should be cached when retrieved from underlying storage
+     * @return the log entries read, addresses that are not written are omitted
+     */
+    public Map<Long, ILogData> getAll(Collection<Long> addresses, boolean cacheable) {
+        Map<Long, ILogData> entries = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long address : addresses) {
+            ILogData ld = getCached(address);
+            if (ld != null) {
+                entries.put(address, ld);
+            } else {
+                misses.add(address);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Map<Long, LogData> retrieved = streamLog.readAll(misses);
+            log.trace("getAll: retrieved {} of {} missed addresses", retrieved.size(), misses.size());
+            if (cacheable) {
+                retrieved.forEach(this::cacheIfAbsent);
+            }
+            entries.putAll(retrieved);
+        }
+
+        return entries;
     }
 
     /**
@@ -102,22 +233,45 @@ public class LogUnitServerCache {
 
     /**
      * Puts the log entry into the cache.
-     * {@link LoadingCache#put(Object, Object)}
      *
      * @param address the address to write entry to
      * @param entry   the log entry to write
      */
     public void put(long address, ILogData entry) {
         log.trace("LogUnitServerCache.put: Cache write[{} : {}]", address, entry);
-        dataCache.put(address, entry);
+        cache(address, entry);
+    }
+
+    /**
+     * Discards the cached entries up to (and including) the trim address. Segments
+     * that are entirely trimmed are evicted as a whole.
+     *
+     * @param trimAddress the address the log was prefix trimmed to
+     */
+    public void invalidatePrefix(long trimAddress) {
+        long trimSegment = getSegment(trimAddress);
+        segmentIndex.forEach((segment, addresses) -> {
+            if (segment < trimSegment) {
+                dataCache.invalidateAll(addresses);
+                segmentIndex.remove(segment);
+                lastLoadedAddresses.remove(segment);
+            } else if (segment == trimSegment) {
+                addresses.stream()
+                        .filter(address -> address <= trimAddress)
+                        .forEach(dataCache::invalidate);
+            }
+        });
+        log.debug("invalidatePrefix: evicted cached entries up to {}", trimAddress);
     }
 
     /**
      * Discards all the entries in the cache.
-     * {@link LoadingCache#invalidateAll()}
+     * {@link Cache#invalidateAll()}
      */
     public void invalidateAll() {
         dataCache.invalidateAll();
+        segmentIndex.clear();
+        lastLoadedAddresses.clear();
     }
 
     @VisibleForTesting
@@ -7,6 +7,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.management.ClusterStateContext;
 import org.corfudb.infrastructure.management.FailureDetector;
+import org.corfudb.infrastructure.management.PhiAccrualEstimator;
 import org.corfudb.infrastructure.management.ReconfigurationEventHandler;
 import org.corfudb.infrastructure.orchestrator.Orchestrator;
 import org.corfudb.protocols.wireprotocol.ClusterState;
@@ -27,6 +28,7 @@ import javax.annotation.Nonnull;
 import java.lang.invoke.MethodHandles;
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -144,6 +146,11 @@ public class ManagementServer extends AbstractServer {
 
 
         FailureDetector failureDetector = new FailureDetector(serverContext.getLocalEndpoint());
+        serverContext.getFailureDetectorPhiThreshold().ifPresent(threshold ->
+                failureDetector.setPhiAccrualEstimator(Optional.of(PhiAccrualEstimator.builder()
+                        .threshold(threshold)
+                        .build()))
+        );
 
         // Creating a management agent.
         ClusterState defaultView = ClusterState.builder()
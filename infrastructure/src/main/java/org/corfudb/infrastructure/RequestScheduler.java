@@ -0,0 +1,202 @@
+package org.corfudb.infrastructure;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules the requests of a server on a pool of worker threads, with a queue per
+ * request class, so that a burst of bulk requests can not starve latency sensitive ones.
+ *
+ * <p>Workers dequeue with a smooth weighted round robin over the non-empty queues: every
+ * class gets a share of the dispatches proportional to its weight while it has pending
+ * requests, and its unused share goes to the other classes.
+ *
+ * <p>A request can be submitted with a timeout, after which its sender no longer waits
+ * for the response. A request that waited longer than its timeout in its queue is dropped
+ * instead of being processed.
+ *
+ * <p>The time spent in the queue and the number of expired requests are tracked per class.
+ */
+@Slf4j
+public class RequestScheduler implements AutoCloseable {
+
+    /**
+     * The classes of requests, each with its own queue.
+     */
+    public enum RequestClass {
+        WRITE,
+        POINT_READ,
+        BULK_READ,
+        METADATA
+    }
+
+    @AllArgsConstructor
+    private static class Task {
+        private final Runnable runnable;
+        private final long enqueueTime;
+        // 0 if the task does not expire
+        private final long timeoutNanos;
+    }
+
+    private final Map<RequestClass, Deque<Task>> queues = new EnumMap<>(RequestClass.class);
+
+    private final int[] weights = new int[RequestClass.values().length];
+
+    // Accumulated dispatch credits of every class (smooth weighted round robin)
+    private final long[] credits = new long[RequestClass.values().length];
+
+    private final Map<RequestClass, Timer> queueTimes = new EnumMap<>(RequestClass.class);
+
+    private final Map<RequestClass, Counter> expired = new EnumMap<>(RequestClass.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private final List<Thread> workers = new ArrayList<>();
+
+    private boolean shutdown = false;
+
+    /**
+     * Returns a new scheduler and starts its workers.
+     *
+     * @param numThreads    number of worker threads
+     * @param weights       weight of every request class, classes without a weight get 1
+     * @param threadFactory factory of the worker threads
+     * @param metrics       registry of the queue time and expiration metrics
+     * @param metricsPrefix prefix of the metric names
+     */
+    public RequestScheduler(int numThreads, Map<RequestClass, Integer> weights, ThreadFactory threadFactory,
+                            MetricRegistry metrics, String metricsPrefix) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            String name = requestClass.name().toLowerCase();
+            queues.put(requestClass, new ArrayDeque<>());
+            this.weights[requestClass.ordinal()] = Math.max(1, weights.getOrDefault(requestClass, 1));
+            queueTimes.put(requestClass, metrics.timer(metricsPrefix + name + ".queue-time"));
+            expired.put(requestClass, metrics.counter(metricsPrefix + name + ".expired"));
+        }
+
+        for (int i = 0; i < numThreads; i++) {
+            Thread worker = threadFactory.newThread(this::runWorker);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues a request.
+     *
+     * @param requestClass  the class of the request
+     * @param timeoutMillis time after which the request is dropped if it is still queued, 0 for no timeout
+     * @param request       the request processing
+     */
+    public void submit(RequestClass requestClass, long timeoutMillis, Runnable request) {
+        long timeoutNanos = timeoutMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        Task task = new Task(request, System.nanoTime(), timeoutNanos);
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Request scheduler is shut down");
+            }
+            queues.get(requestClass).add(task);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the class to dequeue from next, or null if all the queues are empty.
+     * Has to be called with the lock held.
+     */
+    private RequestClass nextClass() {
+        RequestClass selected = null;
+        int totalWeight = 0;
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            if (queues.get(requestClass).isEmpty()) {
+                continue;
+            }
+
+            int ind = requestClass.ordinal();
+            totalWeight += weights[ind];
+            credits[ind] += weights[ind];
+            if (selected == null || credits[ind] > credits[selected.ordinal()]) {
+                selected = requestClass;
+            }
+        }
+
+        if (selected != null) {
+            credits[selected.ordinal()] -= totalWeight;
+        }
+        return selected;
+    }
+
+    private void runWorker() {
+        while (true) {
+            RequestClass requestClass;
+            Task task;
+
+            lock.lock();
+            try {
+                while ((requestClass = nextClass()) == null) {
+                    if (shutdown) {
+                        return;
+                    }
+                    notEmpty.await();
+                }
+                task = queues.get(requestClass).poll();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            long queueTime = System.nanoTime() - task.enqueueTime;
+            queueTimes.get(requestClass).update(queueTime, TimeUnit.NANOSECONDS);
+
+            if (task.timeoutNanos > 0 && queueTime > task.timeoutNanos) {
+                log.debug("runWorker: dropping {} request queued for {} ms", requestClass,
+                        TimeUnit.NANOSECONDS.toMillis(queueTime));
+                expired.get(requestClass).inc();
+                continue;
+            }
+
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                log.error("runWorker: {} request failed", requestClass, e);
+            }
+        }
+    }
+
+    /**
+     * Stops accepting requests, the queued requests are still processed.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.netty.channel.ChannelHandlerContext;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,6 +14,8 @@ import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.StreamsAddressRequest;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
+import org.corfudb.protocols.wireprotocol.StreamsTailWaitRequest;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import org.corfudb.infrastructure.SequencerServerCache.ConflictTxStream;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
@@ -33,14 +36,21 @@ import org.corfudb.util.MetricsUtils;
 import org.corfudb.util.Utils;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * This server implements the sequencer functionality of Corfu.
@@ -78,6 +88,10 @@ import java.util.concurrent.Executors;
  * commits, the sequencer updates the tails of all the streams and the cache
  * of conflict parameters.
  *
+ * <p>Consumers can also wait for the tails of streams to advance
+ * ({@link CorfuMsgType#STREAMS_TAIL_WAIT_REQUEST}), the request is held until a
+ * token is issued on any of the streams, which avoids polling the sequencer.
+ *
  * <p>Created by mwei on 12/8/15.
  */
 @Slf4j
@@ -139,6 +153,17 @@ public class SequencerServer extends AbstractServer {
 
     private final ExecutorService executor;
 
+    /**
+     * Requests waiting for the tail of any of their streams to move past an address,
+     * indexed by stream. Only accessed by the sequencer thread.
+     */
+    private final Map<UUID, Set<TailWaiter>> tailWaiters = new HashMap<>();
+
+    /**
+     * Expires the tail waits, the expired requests are completed by the sequencer thread.
+     */
+    private final ScheduledExecutorService tailWaitTimer;
+
 
     /**
      * Returns a new SequencerServer.
@@ -152,6 +177,8 @@ public class SequencerServer extends AbstractServer {
         // Sequencer server is single threaded by current design
         this.executor = Executors.newSingleThreadExecutor(
                 new ServerThreadFactory("sequencer-", new ServerThreadFactory.ExceptionHandler()));
+        this.tailWaitTimer = Executors.newSingleThreadScheduledExecutor(
+                new ServerThreadFactory("sequencer-tail-wait-", new ServerThreadFactory.ExceptionHandler()));
 
         globalLogTail = Address.getMinAddress();
         this.cache = new SequencerServerCache(config.getCacheSize(), globalLogTail - 1);
@@ -166,6 +193,7 @@ public class SequencerServer extends AbstractServer {
     @Override
     public void shutdown() {
         super.shutdown();
+        tailWaitTimer.shutdownNow();
         executor.shutdown();
     }
 
@@ -447,6 +475,9 @@ public class SequencerServer extends AbstractServer {
                 globalLogTail, streamTailToGlobalTailMap.size(), streamTailToGlobalTailMap, sequencerEpoch);
 
         r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
+
+        // The waiting clients have to observe the tails of the new epoch.
+        getTailWaiters(tailWaiters.keySet(), Long.MAX_VALUE).forEach(this::completeTailWait);
     }
 
     /**
@@ -628,6 +659,102 @@ public class SequencerServer extends AbstractServer {
         globalLogTail = newTail;
         r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(
                 new TokenResponse(token, backPointerMap.build())));
+
+        // Wake up the clients waiting on the streams, once the token is handed out.
+        if (!tailWaiters.isEmpty()) {
+            getTailWaiters(req.getStreams(), newTail - 1).forEach(this::completeTailWait);
+        }
+    }
+
+    /**
+     * Service an incoming request to wait for the tails of streams. If the tail of any of the
+     * streams is already past the address known by the client, the request completes right
+     * away. Otherwise it is held until a token is issued on any of the streams or until the
+     * timeout expires, whichever comes first.
+     */
+    @ServerHandler(type = CorfuMsgType.STREAMS_TAIL_WAIT_REQUEST)
+    public void handleStreamsTailWait(CorfuPayloadMsg<StreamsTailWaitRequest> msg,
+                                      ChannelHandlerContext ctx, IServerRouter r) {
+        final StreamsTailWaitRequest req = msg.getPayload();
+        final TailWaiter waiter = new TailWaiter(msg, ctx, r);
+
+        boolean advanced = req.getStreams().stream()
+                .anyMatch(id -> streamTailToGlobalTailMap.getOrDefault(id, Address.NON_EXIST) > req.getAddress());
+        if (advanced || req.getTimeout() <= 0 || req.getStreams().isEmpty()) {
+            completeTailWait(waiter);
+            return;
+        }
+
+        req.getStreams().forEach(id -> tailWaiters.computeIfAbsent(id, k -> new HashSet<>()).add(waiter));
+        waiter.setTimeout(tailWaitTimer.schedule(
+                () -> executor.submit(() -> completeTailWait(waiter)),
+                req.getTimeout(), TimeUnit.MILLISECONDS));
+        log.trace("handleStreamsTailWait: waiting on streams {} past {}", req.getStreams(), req.getAddress());
+    }
+
+    /**
+     * Returns the requests waiting on any of the given streams for an address lower than the
+     * given tail.
+     *
+     * @param streams the streams which were advanced
+     * @param tail    the new tail of the streams
+     * @return the requests to complete
+     */
+    private List<TailWaiter> getTailWaiters(Collection<UUID> streams, long tail) {
+        return streams.stream()
+                .map(tailWaiters::get)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .filter(waiter -> waiter.getRequest().getAddress() < tail)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Responds to a tail wait request with the current tails of its streams.
+     *
+     * @param waiter the waiting request
+     */
+    private void completeTailWait(TailWaiter waiter) {
+        if (waiter.isCompleted()) {
+            return;
+        }
+        waiter.setCompleted(true);
+        if (waiter.getTimeout() != null) {
+            waiter.getTimeout().cancel(false);
+        }
+
+        Map<UUID, Long> tails = new HashMap<>();
+        for (UUID id : waiter.getRequest().getStreams()) {
+            tails.put(id, streamTailToGlobalTailMap.getOrDefault(id, Address.NON_EXIST));
+            tailWaiters.computeIfPresent(id, (k, waiters) -> {
+                waiters.remove(waiter);
+                return waiters.isEmpty() ? null : waiters;
+            });
+        }
+
+        TailsResponse tailsResponse = new TailsResponse(globalLogTail - 1, tails);
+        tailsResponse.setEpoch(sequencerEpoch);
+        waiter.getRouter().sendResponse(waiter.getCtx(), waiter.getMsg(),
+                CorfuMsgType.STREAMS_TAIL_WAIT_RESPONSE.payloadMsg(tailsResponse));
+    }
+
+    /**
+     * A request waiting for the tails of its streams to advance.
+     */
+    @Getter
+    @Setter
+    @RequiredArgsConstructor
+    private static class TailWaiter {
+        private final CorfuPayloadMsg<StreamsTailWaitRequest> msg;
+        private final ChannelHandlerContext ctx;
+        private final IServerRouter router;
+        private ScheduledFuture<?> timeout;
+        private boolean completed;
+
+        StreamsTailWaitRequest getRequest() {
+            return msg.getPayload();
+        }
     }
 
     /**
@@ -647,19 +774,22 @@ public class SequencerServer extends AbstractServer {
 
         switch (req.getReqType()) {
             case StreamsAddressRequest.STREAMS:
+            case StreamsAddressRequest.STREAMS_WITH_LIMITS:
                 streamsAddressMap = getStreamsAddresses(req.getStreamsRanges());
                 break;
 
             default:
                 // Retrieve address space for all streams
-                streamsAddressMap = new HashMap<>(this.streamsAddressMap);
+                streamsAddressMap = this.streamsAddressMap;
                 break;
         }
 
         log.trace("handleStreamsAddressRequest: return address space for streams [{}]",
                 streamsAddressMap.keySet());
+        // The address spaces are only updated by this thread, serializing them here
+        // avoids copying them before sending them
         r.sendResponse(ctx, msg, CorfuMsgType.STREAMS_ADDRESS_RESPONSE.payloadMsg(
-                new StreamsAddressResponse(getGlobalLogTail(), streamsAddressMap)));
+                StreamsAddressResponse.serialized(getGlobalLogTail(), streamsAddressMap)));
     }
 
     /**
@@ -26,10 +26,7 @@ import org.corfudb.util.NodeLocator;
 import org.corfudb.util.UuidUtils;
 
 import javax.annotation.Nonnull;
-import java.io.File;
-import java.nio.file.Files;
 import java.time.Duration;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -158,7 +155,7 @@ public class ServerContext implements AutoCloseable {
      */
     public ServerContext(Map<String, Object> serverConfig) {
         this.serverConfig = serverConfig;
-        this.dataStore = new DataStore(serverConfig, this::dataStoreFileCleanup);
+        this.dataStore = new DataStore(serverConfig, this::dataStoreCleanup);
         generateNodeId();
         this.failureHandlerPolicy = new ConservativeFailureHandlerPolicy();
 
@@ -208,44 +205,57 @@ public class ServerContext implements AutoCloseable {
     }
 
     /**
-     * Cleanup the DataStore files with names that are prefixes of the specified
-     * fileName when so that the number of these files don't exceed the user-defined
-     * retention limit. Cleanup is always done on files with lower epochs.
+     * The maximum number of response flushes merged into a single one, 0 if the flushes
+     * are not consolidated.
      */
-    private void dataStoreFileCleanup(String fileName) {
-        String logDirPath = getServerConfig(String.class, "--log-path");
-        if (logDirPath == null) {
+    public int getFlushConsolidationSize() {
+        return Optional.ofNullable(getServerConfig(String.class, "--flush-consolidation"))
+                .map(Integer::parseInt)
+                .orElse(0);
+    }
+
+    /**
+     * The suspicion threshold of the adaptive failure detector.
+     *
+     * @return the threshold, or empty if the failure detector is not adaptive
+     */
+    public Optional<Double> getFailureDetectorPhiThreshold() {
+        return Optional.ofNullable(getServerConfig(String.class, "--phi-threshold"))
+                .map(Double::parseDouble);
+    }
+
+    /**
+     * Cleanup the DataStore keys with names that are prefixes of the specified
+     * key so that the number of these keys don't exceed the user-defined
+     * retention limit. Cleanup is always done on keys with lower epochs.
+     */
+    private void dataStoreCleanup(String keyName) {
+        if (getServerConfig(String.class, "--log-path") == null) {
             return;
         }
 
-        File logDir = new File(logDirPath);
         Set<String> prefixesToClean = getDsFilePrefixesForCleanup();
         int numRetention = Integer.parseInt(getServerConfig(String.class, "--metadata-retention"));
 
         prefixesToClean.stream()
-                .filter(fileName::startsWith)
+                .filter(keyName::startsWith)
                 .forEach(prefix -> {
-                    File[] foundFiles = logDir.listFiles((dir, name) -> name.startsWith(prefix));
-                    if (foundFiles == null || foundFiles.length <= numRetention) {
+                    List<String> foundKeys = dataStore.listKeys(prefix);
+                    if (foundKeys.size() <= numRetention) {
                         log.debug("DataStore cleanup not started for prefix: {}.", prefix);
                         return;
                     }
-                    log.debug("Start cleaning up DataStore files with prefix: {}.", prefix);
-                    Arrays.stream(foundFiles)
-                            .sorted(Comparator.comparingInt(file -> {
-                                // Extract epoch number from file name and cast to int for comparision
-                                Matcher matcher = Pattern.compile("\\d+").matcher(file.getName());
+                    log.debug("Start cleaning up DataStore keys with prefix: {}.", prefix);
+                    foundKeys.stream()
+                            .sorted(Comparator.comparingInt(key -> {
+                                // Extract epoch number from key name and cast to int for comparision
+                                Matcher matcher = Pattern.compile("\\d+").matcher(key);
                                 return matcher.find(prefix.length()) ? Integer.parseInt(matcher.group()) : 0;
                             }))
-                            .limit(foundFiles.length - numRetention)
-                            .forEach(file -> {
-                                try {
-                                    if (Files.deleteIfExists(file.toPath())) {
-                                        log.info("Removed DataStore file: {}", file.getName());
-                                    }
-                                } catch (Exception e) {
-                                    log.error("Error when cleaning up DataStore files", e);
-                                }
+                            .limit(foundKeys.size() - numRetention)
+                            .forEach(key -> {
+                                dataStore.delete(key);
+                                log.info("Removed DataStore key: {}", key);
                             });
                 });
     }
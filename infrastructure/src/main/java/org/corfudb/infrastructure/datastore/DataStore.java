@@ -3,20 +3,20 @@ package org.corfudb.infrastructure.datastore;
 import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.CacheWriter;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
+import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.JsonUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -24,21 +24,32 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
- * Stores data as JSON.
+ * Stores data as JSON, except for layouts which are stored in their {@link Layout#asBytes()} encoding.
  *
  * <p>Handle in-memory and persistent case differently:
  *
  * <p>In in-memory mode, the "cache" is actually the store, so we never evict anything from it.
  *
- * <p>In persistent mode, we use a {@link LoadingCache}, where an in-memory map is backed by disk.
- * In this scheme, the key for each value is also the name of the file where the value is stored.
- * The key is determined as (prefix + "_" + key).
- * The cache here serves mostly for easily managed synchronization of in-memory/file.
- * Some on-disk files will be deleted when their number exceed user specified limit.
+ * <p>In persistent mode, every update is appended to a {@link DataStoreLog}, which is compacted
+ * into a snapshot once it grows over {@link #COMPACTION_THRESHOLD}. Only the positions of the
+ * values are kept in memory, a value is read from the log when it is not cached. The key of each value is determined as (prefix + "_" + key).
+ * An update is appended under the store lock but synced after releasing it, so that concurrent
+ * updates share a single sync, and the updates of a {@link #batch(Runnable)} are synced once.
+ * The cache holds the deserialized values.
+ * Some keys will be deleted when their number exceed user specified limit.
+ *
+ * <p>Stores written as one file per key (with the {@link #EXTENSION} extension) are imported
+ * into the log when it is first created. Versions before the log only read those files, so
+ * before downgrading a server its store must be written back by {@link #exportToFiles(String)},
+ * otherwise the older version starts with an empty store and loses the Paxos state of the
+ * layout server.
  *
  * <p>If 'opts' either has '--memory=true' or a log-path for storing files is not provided,
  * the store is just an in memory cache.
@@ -47,10 +58,17 @@ import java.util.function.Consumer;
  */
 
 @Slf4j
-public class DataStore implements KvDataStore {
+public class DataStore implements KvDataStore, AutoCloseable {
 
     public static final String EXTENSION = ".ds";
 
+    public static final String LOG_FILE = DataStoreLog.LOG_FILE;
+
+    /**
+     * Size of the log in bytes after which it is compacted into a snapshot.
+     */
+    static final long COMPACTION_THRESHOLD = 4 * 1024 * 1024;
+
     @Getter
     private final Cache<String, Object> cache;
     private final String logDirPath;
@@ -62,11 +80,24 @@ public class DataStore implements KvDataStore {
 
     private final Consumer<String> cleanupTask;
 
+    private final DataStoreLog kvLog;
+
+    /**
+     * Log positions of the latest updates of the keys, which readers sync before returning
+     * a value that is not durable yet.
+     */
+    private final Map<String, Long> updatePositions = new HashMap<>();
+
+    /**
+     * The latest log position of the batch run by a thread, if any.
+     */
+    private final ThreadLocal<long[]> batchPosition = new ThreadLocal<>();
+
     /**
      * Return a new DataStore object.
      *
      * @param opts        map of option strings
-     * @param cleanupTask method to cleanup DataStore files
+     * @param cleanupTask method to cleanup DataStore keys, called with the key of every update
      */
     public DataStore(@Nonnull Map<String, Object> opts,
                      @Nonnull Consumer<String> cleanupTask) {
@@ -74,11 +105,14 @@ public class DataStore implements KvDataStore {
         if ((opts.containsKey("--memory") && (Boolean) opts.get("--memory")) || !opts.containsKey("--log-path")) {
             this.logDirPath = null;
             this.cleanupTask = fileName -> { };
+            this.kvLog = null;
             cache = buildMemoryDs();
             inMem = true;
         } else {
             this.logDirPath = (String) opts.get("--log-path");
             this.cleanupTask = cleanupTask;
+            this.kvLog = new DataStoreLog(Paths.get(logDirPath));
+            openPersistentDs();
             cache = buildPersistentDs();
             inMem = false;
         }
@@ -87,7 +121,7 @@ public class DataStore implements KvDataStore {
     /**
      * obtain an in-memory cache, no content loader, no writer, no size limit.
      *
-     * @return new LoadingCache for the DataStore
+     * @return new Cache for the DataStore
      */
     private Cache<String, Object> buildMemoryDs() {
         return Caffeine.newBuilder().build(k -> null);
@@ -104,8 +138,7 @@ public class DataStore implements KvDataStore {
     }
 
     /**
-     * obtain a {@link LoadingCache}.
-     * The cache is backed up by file-per-key under {@link DataStore::logDirPath}.
+     * obtain a {@link Cache} of the deserialized values.
      * The cache size is bounded by {@link DataStore::dsCacheSize}.
      *
      * @return the cache object
@@ -113,61 +146,108 @@ public class DataStore implements KvDataStore {
     private Cache<String, Object> buildPersistentDs() {
         return Caffeine.newBuilder()
                 .recordStats()
-                .writer(new CacheWriter<String, Object>() {
-                    @Override
-                    public synchronized void write(@Nonnull String key, @Nonnull Object value) {
-
-                        if (value == NullValue.NULL_VALUE) {
-                            return;
-                        }
-
-                        try {
-                            String dsFileName = key + EXTENSION;
-                            Path path = Paths.get(logDirPath, dsFileName);
-                            Path tmpPath = Paths.get(logDirPath, dsFileName + ".tmp");
-
-                            String jsonPayload = JsonUtils.parser.toJson(value, value.getClass());
-                            byte[] bytes = jsonPayload.getBytes();
-
-                            ByteBuffer buffer = ByteBuffer.allocate(bytes.length
-                                    + Integer.BYTES);
-                            buffer.putInt(getChecksum(bytes));
-                            buffer.put(bytes);
-                            Files.write(tmpPath, buffer.array(), StandardOpenOption.CREATE,
-                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
-                            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING,
-                                    StandardCopyOption.ATOMIC_MOVE);
-                            syncDirectory(logDirPath);
-                            // Invoking the cleanup on each disk file write is fine for performance
-                            // since DataStore files are not supposed to change too frequently
-                            cleanupTask.accept(dsFileName);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-
-                    @Override
-                    public synchronized void delete(@Nonnull String key,
-                                                    @Nullable Object value,
-                                                    @Nonnull RemovalCause cause) {
-                        try {
-                            Path path = Paths.get(logDirPath, key);
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                })
                 .maximumSize(dsCacheSize)
                 .build();
     }
 
-    private <T> T load(Class<T> tClass, String key) {
+    /**
+     * Loads the persistent store from the log, importing the files of a store
+     * written as one file per key if the log is new.
+     */
+    private void openPersistentDs() {
+        if (!kvLog.isEmpty()) {
+            kvLog.replay();
+            return;
+        }
+
+        File[] legacyFiles = new File(logDirPath).listFiles((dir, name) -> name.endsWith(EXTENSION));
+        if (legacyFiles == null || legacyFiles.length == 0) {
+            return;
+        }
+
+        for (File file : legacyFiles) {
+            String key = file.getName().substring(0, file.getName().length() - EXTENSION.length());
+            kvLog.append(key, load(key));
+        }
+
+        kvLog.compact();
+        for (File file : legacyFiles) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                log.warn("openPersistentDs: failed to delete imported file {}", file, e);
+            }
+        }
+
+        log.info("openPersistentDs: imported {} DataStore files into the log", legacyFiles.length);
+        log.warn("openPersistentDs: older versions cannot read the DataStore log, export it "
+                + "with --export-datastore before downgrading this server");
+    }
+
+    /**
+     * Writes a persistent store back as one file per key, the format of the versions before
+     * the log, and removes the log. Must be run while the server is stopped, before it is
+     * downgraded. Layouts are written as JSON, which is the only encoding those versions read.
+     *
+     * @param logDirPath the directory of the store
+     */
+    public static void exportToFiles(@Nonnull String logDirPath) {
+        Path dir = Paths.get(logDirPath);
+        int exported = 0;
+        try (DataStoreLog kvLog = new DataStoreLog(dir)) {
+            if (kvLog.isEmpty()) {
+                return;
+            }
+
+            kvLog.replay();
+            for (String key : kvLog.keys("")) {
+                byte[] bytes = toLegacyValue(kvLog.read(key));
+                ByteBuffer buffer = ByteBuffer.allocate(bytes.length + Integer.BYTES);
+                buffer.putInt(getChecksum(bytes));
+                buffer.put(bytes);
+
+                Path path = dir.resolve(key + EXTENSION);
+                Path tmpPath = dir.resolve(key + EXTENSION + ".tmp");
+                Files.write(tmpPath, buffer.array(), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+                Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                exported++;
+            }
+            syncDirectory(logDirPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            // The files are only imported again on upgrade if the log is gone
+            Files.deleteIfExists(dir.resolve(DataStoreLog.SNAPSHOT_FILE));
+            Files.deleteIfExists(dir.resolve(DataStoreLog.LOG_FILE));
+            syncDirectory(logDirPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("exportToFiles: exported {} DataStore keys from the log to files", exported);
+    }
+
+    /**
+     * Converts a value of the log to its encoding in a store with one file per key. JSON
+     * values never start with a control character, a value that does is a binary layout.
+     */
+    private static byte[] toLegacyValue(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] >= 0 && bytes[0] < ' ') {
+            return JsonUtils.parser.toJson(Layout.fromBytes(bytes), Layout.class).getBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the serialized value of a store written as one file per key.
+     */
+    private byte[] load(String key) {
         try {
             Path path = Paths.get(logDirPath, key + EXTENSION);
-            if (Files.notExists(path)) {
-                return null;
-            }
             byte[] bytes = Files.readAllBytes(path);
             ByteBuffer buf = ByteBuffer.wrap(bytes);
             int checksum = buf.getInt();
@@ -176,14 +256,27 @@ public class DataStore implements KvDataStore {
                 throw new DataCorruptionException();
             }
 
-            String json = new String(strBytes);
-            T val = JsonUtils.parser.fromJson(json, tClass);
-            return val;
+            return strBytes;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private static byte[] serialize(Object value) {
+        if (value instanceof Layout) {
+            return ((Layout) value).asBytes();
+        }
+        return JsonUtils.parser.toJson(value, value.getClass()).getBytes();
+    }
+
+    private static <T> T deserialize(Class<T> tClass, byte[] bytes) {
+        // Layouts written before the binary encoding are JSON, which Layout.fromBytes accepts
+        if (tClass == Layout.class) {
+            return tClass.cast(Layout.fromBytes(bytes));
+        }
+        return JsonUtils.parser.fromJson(new String(bytes), tClass);
+    }
+
     /**
      * Since the cache can't maintain key->null mappings, this enum
      * is a place holder for null to allow keys to map to null.
@@ -193,26 +286,38 @@ public class DataStore implements KvDataStore {
     }
 
     @Override
-    public synchronized <T> void put(KvRecord<T> key, T value) {
-        cache.put(key.getFullKeyName(), value);
+    public <T> void put(KvRecord<T> key, T value) {
+        // The keys deleted by the cleanup task are synced together with the update,
+        // after releasing the lock
+        batch(() -> {
+            synchronized (this) {
+                sync(update(key.getFullKeyName(), value));
+                cleanupTask.accept(key.getFullKeyName());
+            }
+        });
     }
 
     @Override
-    public synchronized <T> T get(KvRecord<T> key) {
+    public <T> T get(KvRecord<T> key) {
         String path = key.getFullKeyName();
-        Object val = cache.get(path, k -> {
-            if (!inMem) {
-                T loadedVal = load(key.getDataType(), path);
-                if (loadedVal != null) {
-                    return loadedVal;
+        Object val;
+        long position;
+        synchronized (this) {
+            val = cache.get(path, k -> {
+                byte[] bytes = inMem ? null : kvLog.read(k);
+                if (bytes != null) {
+                    return deserialize(key.getDataType(), bytes);
                 }
-            }
 
-            // We need to maintain a path -> null mapping for keys that were loaded, but
-            // were empty. This is required to prevent loading an empty key more than once, which is expensive.
-            return NullValue.NULL_VALUE;
-        });
+                // We need to maintain a path -> null mapping for keys that were loaded, but
+                // were empty. This is required to prevent loading an empty key more than once.
+                return NullValue.NULL_VALUE;
+            });
+            position = updatePositions.getOrDefault(path, 0L);
+        }
 
+        // Do not expose a value before it is durable
+        sync(position);
         return val == NullValue.NULL_VALUE ? null : (T) val;
     }
 
@@ -223,7 +328,120 @@ public class DataStore implements KvDataStore {
     }
 
     @Override
-    public synchronized <T> void delete(KvRecord<T> key) {
-        cache.invalidate(key.getFullKeyName());
+    public <T> void delete(KvRecord<T> key) {
+        delete(key.getFullKeyName());
+    }
+
+    /**
+     * Deletes the value of a key.
+     *
+     * @param fullKeyName the key, as returned by {@link KvRecord#getFullKeyName()}
+     */
+    public void delete(String fullKeyName) {
+        long position;
+        synchronized (this) {
+            position = update(fullKeyName, null);
+        }
+
+        sync(position);
+    }
+
+    /**
+     * Lists the keys under a prefix.
+     *
+     * @param prefix the prefix of the full key names
+     * @return the full key names
+     */
+    public synchronized List<String> listKeys(String prefix) {
+        if (!inMem) {
+            return kvLog.keys(prefix);
+        }
+
+        return cache.asMap().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .filter(entry -> entry.getValue() != NullValue.NULL_VALUE)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The updates of the batch are appended to the log as they are applied, and synced once
+     * at the end of the batch.
+     */
+    @Override
+    public void batch(Runnable updates) {
+        if (batchPosition.get() != null) {
+            updates.run();
+            return;
+        }
+
+        long[] position = new long[1];
+        batchPosition.set(position);
+        try {
+            updates.run();
+        } finally {
+            batchPosition.remove();
+            sync(position[0]);
+        }
+    }
+
+    /**
+     * Applies an update to the cache and appends it to the log. Must be called under the store lock.
+     *
+     * @param fullKeyName the key
+     * @param value       the new value, or null to delete the key
+     * @return the log position of the update, 0 in memory
+     */
+    private long update(String fullKeyName, @Nullable Object value) {
+        if (inMem) {
+            if (value == null) {
+                cache.invalidate(fullKeyName);
+            } else {
+                cache.put(fullKeyName, value);
+            }
+            return 0;
+        }
+
+        long position = kvLog.append(fullKeyName, value == null ? null : serialize(value));
+        if (value == null) {
+            cache.invalidate(fullKeyName);
+        } else {
+            cache.put(fullKeyName, value);
+        }
+        updatePositions.put(fullKeyName, position);
+
+        if (kvLog.size() > COMPACTION_THRESHOLD) {
+            kvLog.compact();
+            updatePositions.clear();
+        }
+
+        return position;
+    }
+
+    /**
+     * Makes an update durable, unless the current thread runs a batch,
+     * in which case the update is synced at the end of the batch.
+     */
+    private void sync(long position) {
+        if (inMem || kvLog.isSynced(position)) {
+            return;
+        }
+
+        long[] batch = batchPosition.get();
+        if (batch != null) {
+            batch[0] = Math.max(batch[0], position);
+            return;
+        }
+
+        kvLog.sync(position);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!inMem) {
+            kvLog.close();
+        }
     }
 }
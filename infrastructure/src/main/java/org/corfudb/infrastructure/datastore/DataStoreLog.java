@@ -0,0 +1,483 @@
+package org.corfudb.infrastructure.datastore;
+
+import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
+
+import com.google.common.hash.Hashing;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only, checksummed log of the {@link DataStore} updates.
+ *
+ * <p>Every update is appended to the log as a record:
+ * |    4 bytes      |  4 bytes  |   4 bytes     | 1 byte |    4 bytes    |  key  |  value  |
+ *  header checksum    length     body checksum    type     key length
+ * The header checksum covers the length and the body checksum, the body checksum covers
+ * everything after it, a delete has no value. Since the length is checksummed, a record is
+ * only taken for a torn write when its header is valid and its body extends past the end
+ * of the log, when its body checksum fails and it is the last record, or when its header
+ * is invalid and no valid record follows it.
+ *
+ * <p>Appending and syncing are separate steps, so that the updates appended by several
+ * threads while a sync is in progress are all made durable by the next sync (group commit),
+ * instead of one sync per update.
+ *
+ * <p>Once the log grows over a threshold it is compacted: the current state of the store
+ * is written to a snapshot file in the same format, which atomically replaces the previous
+ * snapshot, and the log is truncated. The state of the store is the snapshot followed by
+ * the log.
+ *
+ * <p>Versions of the server before this log stored every key in its own file, which
+ * {@link DataStore#exportToFiles(String)} writes back before a downgrade.
+ *
+ * <p>Only the position of the latest value of every key is kept in memory, the values are
+ * read from the snapshot or the log when they are needed.
+ */
+@Slf4j
+class DataStoreLog implements AutoCloseable {
+
+    static final String LOG_FILE = "datastore.log";
+
+    static final String SNAPSHOT_FILE = "datastore.snapshot";
+
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+
+    private static final int MIN_BODY_SIZE = Byte.BYTES + Integer.BYTES;
+
+    private static final byte PUT = 1;
+
+    private static final byte DELETE = 2;
+
+    private final Path logPath;
+
+    private final Path snapshotPath;
+
+    private final FileChannel channel;
+
+    /**
+     * The snapshot being read from, null if there is none.
+     */
+    @Nullable
+    private FileChannel snapshot;
+
+    /**
+     * Position of the latest value of every key, in the snapshot or in the log.
+     */
+    private final Map<String, ValuePosition> index = new HashMap<>();
+
+    /**
+     * Number of bytes appended since the log was opened, including the compacted ones.
+     */
+    private volatile long appendedPosition;
+
+    /**
+     * Position up to which the appended updates are durable.
+     */
+    private volatile long syncedPosition;
+
+    private final Object syncLock = new Object();
+
+    DataStoreLog(@Nonnull Path dir) {
+        this.logPath = dir.resolve(LOG_FILE);
+        this.snapshotPath = dir.resolve(SNAPSHOT_FILE);
+
+        try {
+            Files.createDirectories(dir);
+            boolean created = Files.notExists(logPath);
+            this.channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (created) {
+                syncDirectory(dir.toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Whether neither a snapshot nor any update has been written yet.
+     */
+    synchronized boolean isEmpty() {
+        try {
+            return Files.notExists(snapshotPath) && channel.size() == 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads the positions of the values of the store from the snapshot and the log. A record
+     * at the end of the log that was not completely written is a write that was never
+     * acknowledged, and is truncated. Any other invalid record fails the replay.
+     */
+    synchronized void replay() {
+        try {
+            if (Files.exists(snapshotPath)) {
+                ByteBuffer snapshotBuffer = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+                if (readRecords(snapshotBuffer, true) != snapshotBuffer.limit()) {
+                    throw new DataCorruptionException("Invalid data store snapshot " + snapshotPath);
+                }
+                snapshot = FileChannel.open(snapshotPath, StandardOpenOption.READ);
+            }
+
+            ByteBuffer logBuffer = ByteBuffer.allocate((int) channel.size());
+            while (logBuffer.hasRemaining() && channel.read(logBuffer, logBuffer.position()) >= 0) {
+                // Read the whole log
+            }
+            logBuffer.flip();
+
+            int validLength = readRecords(logBuffer, false);
+            if (validLength != logBuffer.limit()) {
+                log.warn("replay: truncating {} bytes of incomplete records from {}",
+                        logBuffer.limit() - validLength, logPath);
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies the records of a buffer, read from the start of the snapshot or of the log,
+     * to the index.
+     *
+     * @return the length of the valid records at the start of the buffer
+     */
+    private int readRecords(ByteBuffer buffer, boolean inSnapshot) {
+        while (buffer.hasRemaining()) {
+            int recordStart = buffer.position();
+            if (buffer.remaining() < HEADER_SIZE) {
+                // A torn write of the header of the last record
+                return recordStart;
+            }
+
+            int headerChecksum = buffer.getInt();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (headerChecksum != headerChecksum(length, checksum) || length < MIN_BODY_SIZE) {
+                // A complete record whose header is corrupted matches the checksum of the
+                // rest of the buffer, a record that was not completely written does not
+                if (hasValidRecord(buffer, recordStart + 1) || checksum == checksum(remaining(buffer))) {
+                    throw new DataCorruptionException("Invalid data store record header at " + recordStart);
+                }
+
+                // A torn write of the header of the last record
+                return recordStart;
+            }
+
+            if (length > buffer.remaining()) {
+                // A torn write of the body of the last record
+                return recordStart;
+            }
+
+            int bodyStart = buffer.position();
+            byte[] body = new byte[length];
+            buffer.get(body);
+            if (checksum != checksum(body)) {
+                if (buffer.hasRemaining()) {
+                    throw new DataCorruptionException("Invalid data store record at " + recordStart);
+                }
+
+                // A torn write of the last record
+                return recordStart;
+            }
+
+            ByteBuffer record = ByteBuffer.wrap(body);
+            byte type = record.get();
+            byte[] key = new byte[record.getInt()];
+            record.get(key);
+            String keyName = new String(key, StandardCharsets.UTF_8);
+
+            if (type == PUT) {
+                index.put(keyName, new ValuePosition(inSnapshot,
+                        bodyStart + record.position(), record.remaining()));
+            } else if (type == DELETE) {
+                index.remove(keyName);
+            } else {
+                throw new DataCorruptionException("Unknown data store record type " + type);
+            }
+        }
+
+        return buffer.position();
+    }
+
+    /**
+     * Whether a valid record starts at any position of a buffer from the given one, in which
+     * case an invalid record before it is not a torn write of the last record.
+     */
+    private static boolean hasValidRecord(ByteBuffer buffer, int from) {
+        for (int start = from; start + HEADER_SIZE + MIN_BODY_SIZE <= buffer.limit(); start++) {
+            int length = buffer.getInt(start + Integer.BYTES);
+            int checksum = buffer.getInt(start + Integer.BYTES * 2);
+            if (buffer.getInt(start) != headerChecksum(length, checksum) || length < MIN_BODY_SIZE
+                    || length > buffer.limit() - start - HEADER_SIZE) {
+                continue;
+            }
+
+            byte[] body = new byte[length];
+            ByteBuffer bodyBuffer = buffer.duplicate();
+            bodyBuffer.position(start + HEADER_SIZE);
+            bodyBuffer.get(body);
+            if (checksum == checksum(body)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] remaining(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static int checksum(byte[] body) {
+        return Hashing.crc32c().hashBytes(body).asInt();
+    }
+
+    private static int headerChecksum(int length, int checksum) {
+        return Hashing.crc32c().newHasher().putInt(length).putInt(checksum).hash().asInt();
+    }
+
+    /**
+     * The offset of the value in a record of a key.
+     */
+    private static int valueOffset(byte[] keyBytes) {
+        return HEADER_SIZE + MIN_BODY_SIZE + keyBytes.length;
+    }
+
+    private static ByteBuffer toRecord(String key, @Nullable byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? 0 : value.length;
+
+        byte[] body = new byte[MIN_BODY_SIZE + keyBytes.length + valueLength];
+        ByteBuffer bodyBuffer = ByteBuffer.wrap(body);
+        bodyBuffer.put(value == null ? DELETE : PUT);
+        bodyBuffer.putInt(keyBytes.length);
+        bodyBuffer.put(keyBytes);
+        if (value != null) {
+            bodyBuffer.put(value);
+        }
+
+        int checksum = checksum(body);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        record.putInt(headerChecksum(body.length, checksum));
+        record.putInt(body.length);
+        record.putInt(checksum);
+        record.put(body);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * Appends an update to the log, without syncing it.
+     *
+     * @param key   the full key name
+     * @param value the serialized value, or null to delete the key
+     * @return the position to sync for the update to be durable
+     */
+    synchronized long append(@Nonnull String key, @Nullable byte[] value) {
+        ByteBuffer record = toRecord(key, value);
+        int length = record.remaining();
+
+        try {
+            long recordStart = channel.position();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+
+            if (value == null) {
+                index.remove(key);
+            } else {
+                int valueOffset = valueOffset(key.getBytes(StandardCharsets.UTF_8));
+                index.put(key, new ValuePosition(false, recordStart + valueOffset, value.length));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        appendedPosition += length;
+        return appendedPosition;
+    }
+
+    /**
+     * Reads the latest value of a key.
+     *
+     * @param key the full key name
+     * @return the serialized value, or null if the key has no value
+     */
+    @Nullable
+    synchronized byte[] read(@Nonnull String key) {
+        ValuePosition position = index.get(key);
+        if (position == null) {
+            return null;
+        }
+
+        ByteBuffer value = ByteBuffer.allocate(position.length);
+        FileChannel source = position.inSnapshot ? snapshot : channel;
+        try {
+            while (value.hasRemaining()) {
+                if (source.read(value, position.offset + value.position()) < 0) {
+                    throw new DataCorruptionException("Truncated data store value of " + key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return value.array();
+    }
+
+    /**
+     * Lists the keys which have a value.
+     *
+     * @param prefix the prefix of the full key names
+     * @return the full key names
+     */
+    synchronized List<String> keys(@Nonnull String prefix) {
+        return index.keySet().stream()
+                .filter(key -> key.startsWith(prefix))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Makes the updates up to a position durable. A single sync covers every update appended
+     * before it starts, so the callers waiting for a sync in progress usually find their
+     * updates already durable once it completes.
+     *
+     * @param position the position returned by {@link #append(String, byte[])}
+     */
+    void sync(long position) {
+        if (syncedPosition >= position) {
+            return;
+        }
+
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return;
+            }
+
+            long target = appendedPosition;
+            try {
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            syncedPosition = target;
+        }
+    }
+
+    /**
+     * Whether the updates up to a position are durable.
+     */
+    boolean isSynced(long position) {
+        return syncedPosition >= position;
+    }
+
+    /**
+     * The size of the log since the last compaction.
+     */
+    long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the latest values of the keys and truncates the log.
+     */
+    synchronized void compact() {
+        Path tmpPath = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        Map<String, ValuePosition> compactedIndex = new HashMap<>();
+
+        try (FileChannel tmpSnapshot = FileChannel.open(tmpPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (String key : index.keySet()) {
+                byte[] value = read(key);
+                ByteBuffer record = toRecord(key, value);
+                compactedIndex.put(key, new ValuePosition(true,
+                        tmpSnapshot.position() + valueOffset(key.getBytes(StandardCharsets.UTF_8)),
+                        value.length));
+                while (record.hasRemaining()) {
+                    tmpSnapshot.write(record);
+                }
+            }
+            tmpSnapshot.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        synchronized (syncLock) {
+            try {
+                Files.move(tmpPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory(snapshotPath.getParent().toString());
+
+                if (snapshot != null) {
+                    snapshot.close();
+                }
+                snapshot = FileChannel.open(snapshotPath, StandardOpenOption.READ);
+                index.clear();
+                index.putAll(compactedIndex);
+
+                // Everything appended so far is in the snapshot
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+                syncedPosition = appendedPosition;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        log.debug("compact: compacted {} keys into {}", compactedIndex.size(), snapshotPath);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+            if (snapshot != null) {
+                snapshot.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Where the latest value of a key is stored.
+     */
+    @AllArgsConstructor
+    private static class ValuePosition {
+        /**
+         * Whether the value is in the snapshot, or in the log.
+         */
+        final boolean inSnapshot;
+
+        final long offset;
+
+        final int length;
+    }
+}
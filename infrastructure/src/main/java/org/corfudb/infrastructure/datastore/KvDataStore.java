@@ -48,6 +48,16 @@ public interface KvDataStore {
      */
     <T> void delete(KvRecord<T> key);
 
+    /**
+     * Runs a number of updates, which a persistent store makes durable together.
+     * The updates of a batch are only guaranteed to be durable once the batch returns.
+     *
+     * @param updates the updates to run
+     */
+    default void batch(Runnable updates) {
+        updates.run();
+    }
+
     /**
      * Key-value meta information class, provides all the information for saving and getting data from a data store
      *
@@ -11,10 +11,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.OverwriteCause;
 import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 /**
  * This class implements the StreamLog interface using a Java hash map.
@@ -109,6 +113,15 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
         return new StreamsAddressResponse(logMetadata.getGlobalTail(), logMetadata.getStreamsAddressSpaceMap());
     }
 
+    @Override
+    public synchronized StreamAddressSpace getStreamAddressSpace(StreamAddressRange range) {
+        StreamAddressSpace addressSpace = logMetadata.getStreamsAddressSpaceMap().get(range.getStreamID());
+        if (addressSpace == null) {
+            return new StreamAddressSpace(Address.NON_EXIST, new Roaring64NavigableMap());
+        }
+        return new StreamAddressSpace(addressSpace.getTrimMark(), addressSpace.getAddressesInRange(range));
+    }
+
     @Override
     public long getTrimMark() {
         return startingAddress;
@@ -152,6 +152,23 @@ public class LogMetadata {
         globalTail = Math.max(globalTail, newTail);
     }
 
+    /**
+     * Merges the metadata loaded from another part of the log, tails and stream trim marks
+     * are the maximum observed in either of them.
+     *
+     * @param other log metadata of another part of the log
+     */
+    public void merge(LogMetadata other) {
+        updateGlobalTail(other.getGlobalTail());
+        other.getStreamTails().forEach((streamId, tail) -> streamTails.merge(streamId, tail, Math::max));
+        other.getStreamsAddressSpaceMap().forEach((streamId, addressSpace) ->
+                streamsAddressSpaceMap.merge(streamId, addressSpace, (current, merged) -> {
+                    current.getAddressMap().or(merged.getAddressMap());
+                    current.setTrimMark(Long.max(current.getTrimMark(), merged.getTrimMark()));
+                    return current;
+                }));
+    }
+
     public void prefixTrim(long address) {
         log.info("prefixTrim: trim stream address maps up to address {}", address);
         for (Map.Entry<UUID, StreamAddressSpace> streamAddressMap : streamsAddressSpaceMap.entrySet()) {
@@ -1,14 +1,21 @@
 package org.corfudb.infrastructure.log;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.OverwriteCause;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
 /**
  * An interface definition that specifies an api to interact with a StreamLog.
@@ -41,6 +48,77 @@ public interface StreamLog {
      */
     LogData read(long address);
 
+    /**
+     * Read the entries in a consecutive range of addresses. Implementations may bound
+     * the range (e.g. to the segment that contains the start address) and coalesce the
+     * underlying reads.
+     *
+     * @param startAddress first address to read (inclusive)
+     * @param endAddress   last address to read (inclusive)
+     * @return map of the addresses read to their entries, addresses that are not written are omitted
+     */
+    default Map<Long, LogData> readRange(long startAddress, long endAddress) {
+        Map<Long, LogData> entries = new HashMap<>();
+        for (long address = startAddress; address <= endAddress; address++) {
+            LogData entry = read(address);
+            if (entry != null) {
+                entries.put(address, entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Read the entries of an arbitrary set of addresses. Implementations may group the
+     * addresses by segment and coalesce the underlying reads.
+     *
+     * @param addresses addresses to read
+     * @return map of the addresses read to their entries, addresses that are not written are omitted
+     */
+    default Map<Long, LogData> readAll(Collection<Long> addresses) {
+        Map<Long, LogData> entries = new HashMap<>();
+        for (Long address : addresses) {
+            LogData entry = read(address);
+            if (entry != null) {
+                entries.put(address, entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Read a chunk of a segment file as it is stored, used to copy sealed segments as a whole.
+     *
+     * @param segment   the segment to read from
+     * @param offset    position of the chunk in the segment file
+     * @param maxLength maximum length of the chunk
+     * @return the chunk of the segment file
+     */
+    default SegmentChunk readSegmentChunk(long segment, long offset, int maxLength) {
+        throw new UnsupportedOperationException("Segment transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Write a chunk of a segment file copied from another log unit. Chunks have to be written
+     * in order, once the last chunk is written the segment file is verified and installed.
+     *
+     * @param chunk a chunk of a segment file
+     */
+    default void writeSegmentChunk(SegmentChunk chunk) {
+        throw new UnsupportedOperationException("Segment transfer is not supported by " + getClass().getSimpleName());
+    }
+
+    /**
+     * Returns a future that completes once the log metadata (global and stream tails, stream
+     * address spaces) is fully loaded. Until then the log can serve reads and writes, but the
+     * queries on the log metadata may be rejected with a retriable error.
+     *
+     * @return a future completed once the log is recovered
+     */
+    default CompletableFuture<Void> whenReady() {
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Prefix trim the global log.
      * @param address address to trim the log up to
@@ -52,6 +130,12 @@ public interface StreamLog {
      */
     void compact();
 
+    /**
+     * Compress the payloads of the segments which no longer receive writes.
+     */
+    default void compressSealedSegments() {
+    }
+
     /**
      * Get the global tail and stream tails.
      */
@@ -77,6 +161,37 @@ public interface StreamLog {
      */
     long getTrimMark();
 
+    /**
+     * Get the addresses of a stream in a range, along with the trim mark of the stream.
+     *
+     * @param range the stream and the range of addresses (end, start]
+     * @return a copy of the stream address space, restricted to the range
+     */
+    StreamAddressSpace getStreamAddressSpace(StreamAddressRange range);
+
+    /**
+     * Returns the highest address of (start, end] such that every address in (start, address]
+     * is either written (data or hole) or trimmed. Writes in this prefix of the range are final,
+     * so the stream address spaces can not miss an entry that is still being written.
+     *
+     * @param start start of the range (exclusive)
+     * @param end   end of the range (inclusive)
+     * @return the end of the written prefix of the range, start if the first address is not written
+     */
+    default long getWrittenTail(long start, long end) {
+        long address = Math.max(start, Math.min(end, getTrimMark() - 1));
+        long last = Math.min(end, getLogTail());
+        if (address >= last) {
+            return address;
+        }
+
+        Set<Long> known = getKnownAddressesInRange(address + 1, last);
+        while (address < last && known.contains(address + 1)) {
+            address++;
+        }
+        return address;
+    }
+
     /**
      * Returns the known addresses in this Log Unit in the specified consecutive
      * range of addresses.
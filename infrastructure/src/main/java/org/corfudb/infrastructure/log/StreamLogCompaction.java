@@ -51,6 +51,12 @@ public class StreamLogCompaction {
             } catch (Exception ex) {
                 log.error("Can't compact stream log.", ex);
             }
+
+            try {
+                streamLog.compressSealedSegments();
+            } catch (Exception ex) {
+                log.error("Can't compress sealed segments.", ex);
+            }
         };
         compactor = scheduler.scheduleWithFixedDelay(task, initialDelay, period, timeUnit);
     }
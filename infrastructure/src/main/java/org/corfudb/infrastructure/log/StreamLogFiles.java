@@ -1,11 +1,15 @@
 package org.corfudb.infrastructure.log;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
@@ -22,13 +26,20 @@ import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.LogUnitException;
 import org.corfudb.runtime.exceptions.OverwriteCause;
 import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.ServerNotReadyException;
+import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -45,10 +56,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -56,10 +70,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
@@ -69,6 +90,12 @@ import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
  * This StreamLog implementation can detect log file corruption, if checksum is enabled, otherwise
  * the checksum field will be ignored.
  *
+ * <p>On startup only the tail segment is loaded before the log starts serving. The other segments
+ * are verified and scanned in parallel in the background, until then the stream tails and address
+ * spaces are incomplete and the queries for them are rejected with a {@link ServerNotReadyException}
+ * until {@link #whenReady()} completes. A segment that is
+ * read before it is scanned is verified when it is first opened.
+ *
  * <p>Created by maithem on 10/28/16.
  */
 
@@ -83,6 +110,20 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             .getSerializedSize();
     public static final int VERSION = 2;
     public static final int RECORDS_PER_LOG_FILE = 10000;
+    // Records separated by less than this many bytes are fetched with a single read
+    private static final int MAX_COALESCED_GAP = 4 * 1024;
+    // Upper bound on the size of a single coalesced read
+    private static final int MAX_COALESCED_READ_SIZE = 4 * 1024 * 1024;
+    // Suffix of the segment files that are being transferred from another log unit
+    private static final String TRANSFER_FILE_SUFFIX = ".transfer";
+    // Suffix of the segment files that are being compressed
+    private static final String COMPRESSED_FILE_SUFFIX = ".compressed";
+    // Codec the payloads of the sealed segments are re-encoded with
+    private static final Codec.Type SEALED_SEGMENT_CODEC = Codec.Type.ZSTD;
+    // Number of entries read at once when loading the metadata of a segment
+    private static final int METADATA_BATCH_SIZE = 1000;
+    // Number of threads that verify and scan the segments on startup
+    private static final int RECOVERY_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
     private final Path logDir;
     private final boolean verify;
 
@@ -99,6 +140,24 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     // the files of the old instance
     private LogMetadata logMetadata;
 
+    // Guards the log metadata, which is updated by writes and by the recovery of the segments.
+    private final Object metadataLock = new Object();
+
+    // Serializes the compressions of the sealed segments.
+    private final Object compressionLock = new Object();
+
+    // Sealed segments whose payloads are all compressed already, which are not rewritten.
+    private final Set<Long> precompressedSegments = ConcurrentHashMap.newKeySet();
+
+    // Completed once the log metadata of all the segments is loaded.
+    private volatile CompletableFuture<Void> recovery = CompletableFuture.completedFuture(null);
+
+    private final ExecutorService recoveryExecutor = Executors.newFixedThreadPool(RECOVERY_THREADS,
+            new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("LogUnit-Recovery-%d")
+                    .build());
+
     // Derived size in bytes that normal writes to the log unit are capped at.
     // This is derived as a percentage of the log's filesystem capacity.
     private final long logSizeLimit;
@@ -129,6 +188,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
 
         long fileSystemCapacity = initStreamLogDirectory();
+        deleteTemporaryFiles();
         logSizeLimit = (long) (fileSystemCapacity * logSizeLimitPercentage / 100.0);
 
         long initialLogSize = estimateSize(logDir);
@@ -149,6 +209,27 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
+    /**
+     * Delete the temporary segment files left behind by a transfer or a compression
+     * that was interrupted by a crash, so that they are not counted in the log size.
+     */
+    private void deleteTemporaryFiles() {
+        File[] files = logDir.toFile().listFiles(file -> file.getName().endsWith(TRANSFER_FILE_SUFFIX)
+                || file.getName().endsWith(COMPRESSED_FILE_SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            try {
+                Files.deleteIfExists(file.toPath());
+                log.info("deleteTemporaryFiles: deleted {}", file.getName());
+            } catch (IOException ioe) {
+                throw new LogUnitException(ioe);
+            }
+        }
+    }
+
     private long getStartingSegment() {
         return dataStore.getStartingAddress() / RECORDS_PER_LOG_FILE;
     }
@@ -193,36 +274,125 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      * addresses seen.
      *
      * consecutive segments from [startSegment, endSegment]
+     *
+     * <p>The tail segment is loaded synchronously, as it determines the global tail and receives
+     * the writes. The older segments are scanned in parallel in the background and their metadata
+     * is merged once all of them are scanned, which completes the {@link #recovery}.
      */
     private void initializeLogMetadata() {
         long startingSegment = getStartingSegment();
         long tailSegment = dataStore.getTailSegment();
+        long startingAddress = dataStore.getStartingAddress();
 
         long start = System.currentTimeMillis();
-        // Scan the log in reverse, this will ease stream trim mark resolution (as we require the
-        // END records of a checkpoint which are always the last entry in this stream)
-        // Note: if a checkpoint END record is not found (i.e., incomplete) this data is not considered
-        // for stream trim mark computation.
-        for (long currentSegment = tailSegment; currentSegment >= startingSegment; currentSegment--) {
-            SegmentHandle segment = getSegmentHandleForAddress(currentSegment * RECORDS_PER_LOG_FILE + 1);
+        if (tailSegment >= startingSegment) {
+            SegmentHandle segment = getSegmentHandleForAddress(tailSegment * RECORDS_PER_LOG_FILE + 1);
             try {
-                for (Long address : segment.getKnownAddresses().keySet()) {
-                    // skip trimmed entries
-                    if (address < dataStore.getStartingAddress()) {
-                        continue;
+                loadMetadata(segment, logMetadata);
+            } finally {
+                segment.release();
+            }
+        }
+        log.info("initializeLogMetadata: took {} ms to load tail segment {}, log start {}",
+                System.currentTimeMillis() - start, tailSegment, startingAddress);
+
+        // Scan the log in reverse, the most recent segments are the most likely to be read first.
+        // The metadata of each segment is merged (tails and trim marks are the maximum observed), so
+        // the resolution of the stream trim marks does not depend on the order of the scan.
+        List<CompletableFuture<LogMetadata>> segments = new ArrayList<>();
+        for (long currentSegment = tailSegment - 1; currentSegment >= startingSegment; currentSegment--) {
+            final long segment = currentSegment;
+            segments.add(CompletableFuture.supplyAsync(() -> scanSegment(segment), recoveryExecutor));
+        }
+
+        LogMetadata target = logMetadata;
+        recovery = CompletableFuture.allOf(segments.toArray(new CompletableFuture[0]))
+                .thenRun(() -> {
+                    synchronized (metadataLock) {
+                        if (logMetadata != target) {
+                            log.info("initializeLogMetadata: log was reset, discarding recovered segments");
+                            return;
+                        }
+
+                        segments.forEach(segment -> logMetadata.merge(segment.join()));
+                        // Trims that happened during the scan are applied on the merged metadata.
+                        if (getTrimMark() != startingAddress) {
+                            logMetadata.prefixTrim(getTrimMark() - 1);
+                        }
                     }
-                    LogData logEntry = read(address);
-                    logMetadata.update(logEntry, true);
+                    log.info("initializeLogMetadata: took {} ms to load {} segments, {}",
+                            System.currentTimeMillis() - start, segments.size() + 1, logMetadata);
+                });
+        recovery.whenComplete((ignored, error) -> {
+            recoveryExecutor.shutdown();
+            if (error != null) {
+                log.error("initializeLogMetadata: failed to recover the log", error);
+            }
+        });
+    }
+
+    /**
+     * Loads the metadata of the entries of an open segment.
+     *
+     * @param segment  An open segment.
+     * @param metadata The log metadata to update.
+     */
+    private void loadMetadata(SegmentHandle segment, LogMetadata metadata) {
+        List<Long> addresses = segment.getKnownAddresses().keySet().stream()
+                .filter(address -> !isTrimmed(address))
+                .sorted()
+                .collect(Collectors.toList());
+
+        try {
+            // Load the log metadata in bounded batches of entries.
+            for (List<Long> batch : Lists.partition(addresses, METADATA_BATCH_SIZE)) {
+                for (LogData entry : readRecords(segment, batch).values()) {
+                    metadata.update(entry, true);
                 }
-            } finally {
-                segment.close();
             }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
+    }
 
-        // Open segment will add entries to the writeChannels map, therefore we need to clear it
-        writeChannels.clear();
-        long end = System.currentTimeMillis();
-        log.info("initializeStreamTails: took {} ms to load {}, log start {}", end - start, logMetadata, getTrimMark());
+    /**
+     * Verifies and scans a segment file without opening it for writes, partially
+     * written records are left to be truncated when the segment is opened.
+     *
+     * @param segment The segment to scan.
+     * @return The metadata of the entries of the segment.
+     */
+    private LogMetadata scanSegment(long segment) {
+        LogMetadata segmentMetadata = new LogMetadata();
+        String filePath = logDir + File.separator + segment + ".log";
+        if (!new File(filePath).exists()) {
+            return segmentMetadata;
+        }
+
+        try (FileChannel fileChannel = getChannel(filePath, true)) {
+            LogHeader header = parseHeader(fileChannel, filePath);
+            if (header == null) {
+                return segmentMetadata;
+            }
+
+            while (fileChannel.size() - fileChannel.position() > 0) {
+                Metadata metadata = parseMetadata(fileChannel, filePath);
+                LogEntry entry = parseEntry(fileChannel, metadata, filePath);
+                if (entry == null) {
+                    log.warn("scanSegment: malformed entry, metadata {} in file {}", metadata, filePath);
+                    break;
+                }
+
+                if (!isTrimmed(entry.getGlobalAddress())) {
+                    segmentMetadata.update(getLogData(entry), true);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        log.debug("scanSegment: scanned segment {}", segment);
+        return segmentMetadata;
     }
 
     /**
@@ -234,15 +404,18 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      * @throws IOException I/O exception
      */
     public void writeHeader(FileChannel fileChannel, int version, boolean verify) throws IOException {
+        writeByteBuffer(fileChannel, getHeader(version, verify, false));
+        fileChannel.force(true);
+    }
 
+    private static ByteBuffer getHeader(int version, boolean verify, boolean compressed) {
         LogHeader header = LogHeader.newBuilder()
                 .setVersion(version)
                 .setVerifyChecksum(verify)
+                .setCompressed(compressed)
                 .build();
 
-        ByteBuffer buf = getByteBufferWithMetaData(header);
-        writeByteBuffer(fileChannel, buf);
-        fileChannel.force(true);
+        return getByteBufferWithMetaData(header);
     }
 
     private static Metadata getMetadata(AbstractMessage message) {
@@ -277,36 +450,122 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return logSizeQuota.getLimit();
     }
 
+    @VisibleForTesting
+    long getQuotaAvailableInBytes() {
+        return logSizeQuota.getAvailable();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenReady() {
+        return recovery;
+    }
+
+    /**
+     * Checks that the log metadata is recovered, without waiting for the recovery.
+     *
+     * @throws ServerNotReadyException if the recovery is still running, the caller should retry
+     */
+    private void checkRecovered() {
+        CompletableFuture<Void> current = recovery;
+        if (!current.isDone()) {
+            throw new ServerNotReadyException();
+        }
+        try {
+            current.join();
+        } catch (CompletionException ce) {
+            // The failure was logged once when the recovery completed, the cause is rethrown so
+            // that it is reported to the caller as is.
+            Throwables.throwIfUnchecked(ce.getCause());
+            throw new UnrecoverableCorfuError(ce.getCause());
+        }
+    }
+
     @Override
     public long getLogTail() {
-        return logMetadata.getGlobalTail();
+        checkRecovered();
+        synchronized (metadataLock) {
+            return logMetadata.getGlobalTail();
+        }
     }
 
     @Override
     public TailsResponse getTails(List<UUID> streams) {
-        Map<UUID, Long> tails = new HashMap<>();
-        streams.forEach(stream -> {
-            tails.put(stream, logMetadata.getStreamTails().get(stream));
-        });
-        return new TailsResponse(logMetadata.getGlobalTail(), tails);
+        checkRecovered();
+        synchronized (metadataLock) {
+            Map<UUID, Long> tails = new HashMap<>();
+            streams.forEach(stream -> {
+                tails.put(stream, logMetadata.getStreamTails().get(stream));
+            });
+            return new TailsResponse(logMetadata.getGlobalTail(), tails);
+        }
     }
 
     @Override
     public StreamsAddressResponse getStreamsAddressSpace() {
-        return new StreamsAddressResponse(logMetadata.getGlobalTail(), logMetadata.getStreamsAddressSpaceMap());
+        checkRecovered();
+        synchronized (metadataLock) {
+            return new StreamsAddressResponse(logMetadata.getGlobalTail(), logMetadata.getStreamsAddressSpaceMap());
+        }
+    }
+
+    @Override
+    public StreamAddressSpace getStreamAddressSpace(StreamAddressRange range) {
+        checkRecovered();
+        synchronized (metadataLock) {
+            StreamAddressSpace addressSpace = logMetadata.getStreamsAddressSpaceMap().get(range.getStreamID());
+            if (addressSpace == null) {
+                return new StreamAddressSpace(Address.NON_EXIST, new Roaring64NavigableMap());
+            }
+            return new StreamAddressSpace(addressSpace.getTrimMark(), addressSpace.getAddressesInRange(range));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The known addresses of every segment are checked in place, without opening
+     * the segments past the log tail.
+     */
+    @Override
+    public long getWrittenTail(long start, long end) {
+        long address = Math.max(start, Math.min(end, getTrimMark() - 1));
+        long last = Math.min(end, getLogTail());
+
+        while (address < last) {
+            SegmentHandle segment = getSegmentHandleForAddress(address + 1);
+            try {
+                long segmentLast = Math.min(last, (segment.getSegment() + 1) * RECORDS_PER_LOG_FILE - 1);
+                while (address < segmentLast && (segment.getKnownAddresses().containsKey(address + 1)
+                        || segment.getPendingTrims().contains(address + 1))) {
+                    address++;
+                }
+                if (address < segmentLast) {
+                    return address;
+                }
+            } finally {
+                segment.release();
+            }
+        }
+
+        return address;
     }
 
     @Override
     public TailsResponse getAllTails() {
-        Map<UUID, Long> tails = new HashMap<>(logMetadata.getStreamTails());
-        return new TailsResponse(logMetadata.getGlobalTail(), tails);
+        checkRecovered();
+        synchronized (metadataLock) {
+            Map<UUID, Long> tails = new HashMap<>(logMetadata.getStreamTails());
+            return new TailsResponse(logMetadata.getGlobalTail(), tails);
+        }
     }
 
     private void syncTailSegment(long address) {
         // TODO(Maithem) since writing a record and setting the tail segment is not
         // an atomic operation, it is possible to set an incorrect tail segment. In
         // that case we will need to scan more than one segment
-        logMetadata.updateGlobalTail(address);
+        synchronized (metadataLock) {
+            logMetadata.updateGlobalTail(address);
+        }
         long segment = address / RECORDS_PER_LOG_FILE;
 
         dataStore.updateTailSegment(segment);
@@ -329,7 +588,9 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         log.debug("Trimmed prefix, new starting address {}", newStartingAddress);
 
         // Trim address space maps.
-        logMetadata.prefixTrim(address);
+        synchronized (metadataLock) {
+            logMetadata.prefixTrim(address);
+        }
     }
 
     private boolean isTrimmed(long address) {
@@ -346,31 +607,44 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
         Collection<File> files = FileUtils.listFiles(dir, extension, true);
 
-        for (File file : files) {
-            LogHeader header;
+        CompletableFuture<?>[] verifications = files.stream()
+                .map(file -> CompletableFuture.runAsync(() -> verifyHeader(file), recoveryExecutor))
+                .toArray(CompletableFuture[]::new);
 
-            try (FileChannel fileChannel = FileChannel.open(file.toPath())) {
-                header = parseHeader(fileChannel, file.getAbsolutePath());
-            } catch (IOException e) {
-                throw new IllegalStateException("Invalid header: " + file.getAbsolutePath(), e);
+        try {
+            CompletableFuture.allOf(verifications).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
+        }
+    }
 
-            if (header == null) {
-                log.warn("verifyLogs: Ignoring partially written header in {}", file.getAbsoluteFile());
-                continue;
-            }
+    private void verifyHeader(File file) {
+        LogHeader header;
 
-            if (header.getVersion() != VERSION) {
-                String msg = String.format("Log version %s for %s should match the LogUnit log version %s",
-                        header.getVersion(), file.getAbsoluteFile(), VERSION);
-                throw new IllegalStateException(msg);
-            }
+        try (FileChannel fileChannel = FileChannel.open(file.toPath())) {
+            header = parseHeader(fileChannel, file.getAbsolutePath());
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid header: " + file.getAbsolutePath(), e);
+        }
 
-            if (verify && !header.getVerifyChecksum()) {
-                String msg = String.format("Log file %s not generated with check sums, can't verify!",
-                        file.getAbsoluteFile());
-                throw new IllegalStateException(msg);
-            }
+        if (header == null) {
+            log.warn("verifyLogs: Ignoring partially written header in {}", file.getAbsoluteFile());
+            return;
+        }
+
+        if (header.getVersion() != VERSION) {
+            String msg = String.format("Log version %s for %s should match the LogUnit log version %s",
+                    header.getVersion(), file.getAbsoluteFile(), VERSION);
+            throw new IllegalStateException(msg);
+        }
+
+        if (verify && !header.getVerifyChecksum()) {
+            String msg = String.format("Log file %s not generated with check sums, can't verify!",
+                    file.getAbsoluteFile());
+            throw new IllegalStateException(msg);
         }
     }
 
@@ -421,6 +695,189 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         log.info("trimPrefix: completed, end segment {}", endSegment);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>A segment is sealed once the log tail moved past the segment that follows it. The
+     * uncompressed payloads of a sealed segment are re-encoded with {@link #SEALED_SEGMENT_CODEC}
+     * into a new segment file, which atomically replaces the segment file. The payloads keep
+     * their codec type, so clients decode them as if they had been compressed on write, and
+     * the records keep their own checksums. Segments whose payloads were all compressed by
+     * the clients are left as they are.
+     */
+    @Override
+    public void compressSealedSegments() {
+        synchronized (compressionLock) {
+            long lastSealedSegment = dataStore.getTailSegment() - 2;
+            for (long segment = getStartingSegment(); segment <= lastSealedSegment; segment++) {
+                try {
+                    compressSegment(segment);
+                } catch (IOException | RuntimeException e) {
+                    log.error("compressSealedSegments: failed to compress segment {}", segment, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-encodes the payloads of a sealed segment, unless the segment is already compressed.
+     * The compressed file is written without blocking the writes to the segment, and only
+     * replaces the segment file if no entry was written to the segment in the meantime.
+     *
+     * @param segment The segment to compress.
+     */
+    private void compressSegment(long segment) throws IOException {
+        String filePath = logDir + File.separator + segment + ".log";
+        if (precompressedSegments.contains(segment) || !new File(filePath).exists()) {
+            return;
+        }
+
+        try (FileChannel fileChannel = getChannel(filePath, true)) {
+            LogHeader header = parseHeader(fileChannel, filePath);
+            if (header == null || header.getCompressed()) {
+                return;
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        Path compressedFile = logDir.resolve(segment + ".log" + COMPRESSED_FILE_SUFFIX);
+        SegmentHandle sh = getSegmentHandleForAddress(segment * RECORDS_PER_LOG_FILE);
+        boolean released = false;
+
+        try {
+            List<Map.Entry<Long, AddressMetaData>> records = new ArrayList<>(sh.getKnownAddresses().entrySet());
+            records.sort(Comparator.comparingLong(record -> record.getValue().offset));
+
+            boolean compressible = false;
+            for (Map.Entry<Long, AddressMetaData> record : records) {
+                if (isCompressible(readLogEntry(sh, record.getValue()))) {
+                    compressible = true;
+                    break;
+                }
+            }
+            if (!compressible) {
+                log.debug("compressSegment: payloads of segment {} are already compressed", segment);
+                precompressedSegments.add(segment);
+                return;
+            }
+
+            // The compressed file is only charged to the quota once it replaces the segment file
+            Files.deleteIfExists(compressedFile);
+            try (FileChannel fileChannel = FileChannel.open(compressedFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writeFully(fileChannel, getHeader(VERSION, verify, true));
+                for (Map.Entry<Long, AddressMetaData> record : records) {
+                    LogEntry entry = readLogEntry(sh, record.getValue());
+                    writeFully(fileChannel, getByteBufferWithMetaData(compressEntry(entry)));
+                }
+                fileChannel.force(true);
+            }
+
+            try (FileChannel fileChannel = FileChannel.open(compressedFile, StandardOpenOption.READ)) {
+                verifySegmentFile(fileChannel, compressedFile.toString(), segment);
+            }
+
+            // Writes to the segment are only blocked while the compressed file replaces the segment file
+            try (MultiReadWriteLock.AutoCloseableLock ignored = segmentLocks.acquireWriteLock(segment)) {
+                if (sh.getKnownAddresses().size() != records.size()) {
+                    log.info("compressSegment: segment {} was written to, retrying later", segment);
+                    Files.deleteIfExists(compressedFile);
+                    return;
+                }
+
+                long uncompressedSize = new File(filePath).length();
+                long compressedSize = compressedFile.toFile().length();
+                released = true;
+                if (!replaceSegmentFile(sh, compressedFile)) {
+                    log.info("compressSegment: segment {} is in use, retrying later", segment);
+                    Files.deleteIfExists(compressedFile);
+                    return;
+                }
+                logSizeQuota.release(uncompressedSize - compressedSize);
+
+                log.info("compressSegment: compressed segment {} from {} to {} bytes in {} ms", segment,
+                        uncompressedSize, compressedSize, System.currentTimeMillis() - start);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(compressedFile);
+            throw e;
+        } finally {
+            if (!released) {
+                sh.release();
+            }
+        }
+    }
+
+    /**
+     * Reads the record of a log entry as it is stored, verifying its checksum.
+     *
+     * @param segment  The segment of the entry.
+     * @param metaData The location of the entry in the segment file.
+     * @return The log entry.
+     */
+    private LogEntry readLogEntry(SegmentHandle segment, AddressMetaData metaData) throws IOException {
+        FileChannel fileChannel = segment.getReadChannel();
+        ByteBuffer entryBuf = ByteBuffer.allocate(metaData.length);
+        while (entryBuf.hasRemaining()) {
+            if (fileChannel.read(entryBuf, metaData.offset + entryBuf.position()) < 0) {
+                break;
+            }
+        }
+
+        if (verify && metaData.checksum != Checksum.getChecksum(entryBuf.array())) {
+            throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                    "Checksum mismatch detected while trying to read file", fileChannel, segment.getFileName()));
+        }
+
+        try {
+            return LogEntry.parseFrom(entryBuf.array());
+        } catch (InvalidProtocolBufferException e) {
+            throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                    "Invalid entry", fileChannel, segment.getFileName()), e);
+        }
+    }
+
+    /**
+     * Re-encodes the payload of a log entry which was written without a codec, in the format
+     * of the payloads compressed by the clients, if it makes the payload smaller.
+     *
+     * @param entry The log entry.
+     * @return The log entry with a compressed payload, or the log entry itself.
+     */
+    private LogEntry compressEntry(LogEntry entry) {
+        if (!isCompressible(entry)) {
+            return entry;
+        }
+
+        ByteBuffer compressed = SEALED_SEGMENT_CODEC.getInstance()
+                .compress(ByteBuffer.wrap(entry.getData().toByteArray()));
+        if (compressed.remaining() + Integer.BYTES >= entry.getData().size()) {
+            return entry;
+        }
+
+        // A compressed payload is prefixed with its length, as serialized by the clients
+        ByteBuffer data = ByteBuffer.allocate(compressed.remaining() + Integer.BYTES);
+        data.putInt(compressed.remaining());
+        data.put(compressed);
+        data.flip();
+
+        return entry.toBuilder()
+                .setData(ByteString.copyFrom(data))
+                .setCodecType(SEALED_SEGMENT_CODEC.getId())
+                .build();
+    }
+
+    /**
+     * Whether a log entry has a payload which was written without a codec.
+     *
+     * @param entry The log entry.
+     * @return True, if the payload of the entry can be compressed.
+     */
+    private static boolean isCompressible(LogEntry entry) {
+        boolean hasCodec = entry.hasCodecType() && entry.getCodecType() != Codec.Type.NONE.getId();
+        return entry.getDataType() == Types.DataType.DATA && !hasCodec && !entry.getData().isEmpty();
+    }
+
     private LogData getLogData(LogEntry entry) {
         ByteBuffer entryData = ByteBuffer.wrap(entry.getData().toByteArray());
 
@@ -710,6 +1167,70 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
+    /**
+     * Read a set of log entries from a file. The records are sorted by their file offset
+     * and records which are close to each other are fetched with a single positional read.
+     *
+     * @param segment   The file handle to use.
+     * @param addresses The addresses of the entries, all of them belonging to the segment.
+     * @return The log unit entries read, addresses without an entry are omitted.
+     */
+    private Map<Long, LogData> readRecords(SegmentHandle segment, Collection<Long> addresses)
+            throws IOException {
+        FileChannel fileChannel = segment.getReadChannel();
+
+        List<Map.Entry<Long, AddressMetaData>> records = new ArrayList<>();
+        for (Long address : addresses) {
+            AddressMetaData metaData = segment.getKnownAddresses().get(address);
+            if (metaData != null) {
+                records.add(new AbstractMap.SimpleImmutableEntry<>(address, metaData));
+            }
+        }
+        records.sort(Comparator.comparingLong(record -> record.getValue().offset));
+
+        Map<Long, LogData> entries = new HashMap<>();
+        int first = 0;
+        while (first < records.size()) {
+            long spanStart = records.get(first).getValue().offset;
+            long spanEnd = spanStart + records.get(first).getValue().length;
+            int last = first + 1;
+            while (last < records.size()) {
+                AddressMetaData next = records.get(last).getValue();
+                long nextEnd = next.offset + next.length;
+                if (next.offset - spanEnd > MAX_COALESCED_GAP
+                        || nextEnd - spanStart > MAX_COALESCED_READ_SIZE) {
+                    break;
+                }
+                spanEnd = Math.max(spanEnd, nextEnd);
+                last++;
+            }
+
+            ByteBuffer span = ByteBuffer.allocate((int) (spanEnd - spanStart));
+            while (span.hasRemaining()) {
+                if (fileChannel.read(span, spanStart + span.position()) < 0) {
+                    break;
+                }
+            }
+
+            for (int ind = first; ind < last; ind++) {
+                AddressMetaData metaData = records.get(ind).getValue();
+                try {
+                    CodedInputStream input = CodedInputStream.newInstance(span.array(),
+                            (int) (metaData.offset - spanStart), metaData.length);
+                    entries.put(records.get(ind).getKey(), getLogData(LogEntry.parseFrom(input)));
+                } catch (InvalidProtocolBufferException e) {
+                    String errorMessage = getDataCorruptionErrorMessage("Invalid entry",
+                            fileChannel, segment.getFileName()
+                    );
+                    throw new DataCorruptionException(errorMessage, e);
+                }
+            }
+            first = last;
+        }
+
+        return entries;
+    }
+
     @Nullable
     private FileChannel getChannel(String filePath, boolean readOnly) throws IOException {
         if (readOnly) {
@@ -757,30 +1278,77 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         filePath += segment;
         filePath += ".log";
 
-        SegmentHandle handle = writeChannels.computeIfAbsent(filePath, a -> {
-            FileChannel writeCh = null;
-            FileChannel readCh = null;
+        // The handle is retained under the lock of its map entry, see replaceSegmentFile
+        return writeChannels.compute(filePath, (a, current) -> {
+            SegmentHandle handle = current == null ? openSegmentHandle(segment, a) : current;
+            handle.retain();
+            return handle;
+        });
+    }
+
+    private SegmentHandle openSegmentHandle(long segment, String filePath) {
+        FileChannel writeCh = null;
+        FileChannel readCh = null;
 
+        try {
+            writeCh = getChannel(filePath, false);
+            readCh = getChannel(filePath, true);
+
+            SegmentHandle sh = new SegmentHandle(segment, writeCh, readCh, filePath);
+            // The first time we open a file we should read to the end, to load the
+            // map of entries we already have.
+            // Once the segment address space is loaded, it should be ready to accept writes.
+            readAddressSpace(sh);
+            return sh;
+        } catch (IOException e) {
+            log.error("Error opening file {}", filePath, e);
+            IOUtils.closeQuietly(writeCh);
+            IOUtils.closeQuietly(readCh);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replaces the file of a segment with another file and closes the handle of the segment,
+     * unless the handle is retained by anyone other than the caller. The handle is swapped under
+     * the lock of its entry in {@link #writeChannels}, which handles are retained under, so that
+     * no reader can retain the handle while it is closed, nor open the segment file before it
+     * is replaced.
+     *
+     * @param sh      The handle of the segment, retained once by the caller, which is released.
+     * @param newFile The file to replace the segment file with.
+     * @return True if the segment file was replaced, false if the segment is in use.
+     */
+    private boolean replaceSegmentFile(SegmentHandle sh, Path newFile) throws IOException {
+        AtomicBoolean replaced = new AtomicBoolean();
+        AtomicReference<IOException> moveFailure = new AtomicReference<>();
+
+        writeChannels.compute(sh.getFileName(), (fileName, current) -> {
+            sh.release();
+            if (current != sh || sh.getRefCount() > 0) {
+                return current;
+            }
+
+            channelsToSync.remove(sh.getWriteChannel());
+            sh.close();
             try {
-                writeCh = getChannel(a, false);
-                readCh = getChannel(a, true);
-
-                SegmentHandle sh = new SegmentHandle(segment, writeCh, readCh, a);
-                // The first time we open a file we should read to the end, to load the
-                // map of entries we already have.
-                // Once the segment address space is loaded, it should be ready to accept writes.
-                readAddressSpace(sh);
-                return sh;
+                Files.move(newFile, Paths.get(fileName),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                replaced.set(true);
             } catch (IOException e) {
-                log.error("Error opening file {}", a, e);
-                IOUtils.closeQuietly(writeCh);
-                IOUtils.closeQuietly(readCh);
-                throw new IllegalStateException(e);
+                moveFailure.set(e);
             }
+            // The handle is closed either way, the next reader opens the segment file again
+            return null;
         });
 
-        handle.retain();
-        return handle;
+        if (moveFailure.get() != null) {
+            throw moveFailure.get();
+        }
+        if (replaced.get()) {
+            syncDirectory(logDir.toString());
+        }
+        return replaced.get();
     }
 
     private Map<String, Long> getStrLongMap(Map<UUID, Long> uuidLongMap) {
@@ -927,7 +1495,9 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             // Sync the global and stream tail(s)
             // TODO(Maithem): on ioexceptions the StreamLogFiles needs to be reinitialized
             syncTailSegment(entries.get(entries.size() - 1).getGlobalAddress());
-            logMetadata.update(entries);
+            synchronized (metadataLock) {
+                logMetadata.update(entries);
+            }
         }
 
         return recordsMap;
@@ -946,6 +1516,18 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         // On IOExceptions this class should be reinitialized, so consuming
         // the buffer size and failing on the write should be an issue
         logSizeQuota.consume(buf.remaining());
+        writeFully(channel, buf);
+    }
+
+    /**
+     * Writes a buffer to a channel without charging it to the log size quota, for the files
+     * which are charged once they replace a segment file.
+     *
+     * @param channel the channel to write to
+     * @param buf     the buffer to write
+     * @throws IOException IO exception
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
         while (buf.hasRemaining()) {
             channel.write(buf);
         }
@@ -973,7 +1555,9 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             writeByteBuffer(segment.getWriteChannel(), record);
             channelsToSync.add(segment.getWriteChannel());
             syncTailSegment(address);
-            logMetadata.update(entry, false);
+            synchronized (metadataLock) {
+                logMetadata.update(entry, false);
+            }
         }
 
         return new AddressMetaData(metadata.getPayloadChecksum(), metadata.getLength(), channelOffset);
@@ -1186,8 +1770,287 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The range is bounded to the segment that contains the start address, so that
+     * all the entries are fetched from a single segment file with coalesced reads.
+     */
+    @Override
+    public Map<Long, LogData> readRange(long startAddress, long endAddress) {
+        long segmentEnd = (startAddress / RECORDS_PER_LOG_FILE + 1) * RECORDS_PER_LOG_FILE - 1;
+        long end = Math.min(endAddress, segmentEnd);
+        Map<Long, LogData> entries = new HashMap<>();
+
+        List<Long> addresses = new ArrayList<>();
+        for (long address = startAddress; address <= end; address++) {
+            if (isTrimmed(address)) {
+                entries.put(address, LogData.getTrimmed(address));
+            } else {
+                addresses.add(address);
+            }
+        }
+
+        if (addresses.isEmpty()) {
+            return entries;
+        }
+
+        SegmentHandle segment = getSegmentHandleForAddress(addresses.get(0));
+
+        try {
+            List<Long> toRead = new ArrayList<>();
+            for (Long address : addresses) {
+                if (segment.getPendingTrims().contains(address)) {
+                    entries.put(address, LogData.getTrimmed(address));
+                } else {
+                    toRead.add(address);
+                }
+            }
+            entries.putAll(readRecords(segment, toRead));
+            return entries;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            segment.release();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The addresses are grouped by segment, and the entries of each segment are fetched
+     * in file offset order with coalesced reads.
+     */
+    @Override
+    public Map<Long, LogData> readAll(Collection<Long> addresses) {
+        Map<Long, List<Long>> segments = new TreeMap<>();
+        Map<Long, LogData> entries = new HashMap<>();
+        for (Long address : addresses) {
+            if (isTrimmed(address)) {
+                entries.put(address, LogData.getTrimmed(address));
+            } else {
+                segments.computeIfAbsent(address / RECORDS_PER_LOG_FILE, s -> new ArrayList<>()).add(address);
+            }
+        }
+
+        for (List<Long> segmentAddresses : segments.values()) {
+            SegmentHandle segment = getSegmentHandleForAddress(segmentAddresses.get(0));
+
+            try {
+                List<Long> toRead = new ArrayList<>();
+                for (Long address : segmentAddresses) {
+                    if (segment.getPendingTrims().contains(address)) {
+                        entries.put(address, LogData.getTrimmed(address));
+                    } else {
+                        toRead.add(address);
+                    }
+                }
+                entries.putAll(readRecords(segment, toRead));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                segment.release();
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The chunk is read from the segment file as it is stored, including the metadata
+     * and the checksums of its records.
+     */
+    @Override
+    public SegmentChunk readSegmentChunk(long segment, long offset, int maxLength) {
+        if (segment < getStartingSegment()) {
+            throw new TrimmedException();
+        }
+
+        SegmentHandle sh = getSegmentHandleForAddress(segment * RECORDS_PER_LOG_FILE);
+
+        try {
+            FileChannel fileChannel = sh.getReadChannel();
+            long segmentSize = fileChannel.size();
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.max(0L, Math.min(maxLength, segmentSize - offset)));
+            while (chunk.hasRemaining()) {
+                if (fileChannel.read(chunk, offset + chunk.position()) < 0) {
+                    break;
+                }
+            }
+            return new SegmentChunk(segment, offset, segmentSize, chunk.array());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            sh.release();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Chunks are appended to a transfer file next to the segment file. Once the last chunk
+     * is written, the records of the transfer file are verified, the transfer file replaces the
+     * segment file and the log metadata is updated with the records of the segment. The segment
+     * must not have any entries yet.
+     */
+    @Override
+    public void writeSegmentChunk(SegmentChunk chunk) {
+        long segment = chunk.getSegment();
+        if (segment < getStartingSegment()) {
+            throw new OverwriteException(OverwriteCause.TRIM);
+        }
+
+        Path transferFile = logDir.resolve(segment + ".log" + TRANSFER_FILE_SUFFIX);
+
+        try {
+            if (chunk.getOffset() == 0L) {
+                discardTransferFile(transferFile);
+            }
+
+            try (FileChannel fileChannel = FileChannel.open(transferFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                if (fileChannel.size() != chunk.getOffset()) {
+                    throw new IllegalStateException(String.format("Chunk of segment %s at %s is out of order, " +
+                            "transfer file size is %s", segment, chunk.getOffset(), fileChannel.size()));
+                }
+
+                // The transfer file is only charged to the quota once it is installed
+                fileChannel.position(chunk.getOffset());
+                writeFully(fileChannel, ByteBuffer.wrap(chunk.getData()));
+                if (chunk.isLast()) {
+                    fileChannel.force(true);
+                }
+            }
+
+            if (chunk.isLast()) {
+                installSegment(segment, transferFile);
+            }
+        } catch (IOException e) {
+            log.error("writeSegmentChunk: failed to write chunk of segment {} at {}", segment, chunk.getOffset(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Verifies a transferred segment file and replaces the segment file with it.
+     *
+     * @param segment      The segment of the transfer file.
+     * @param transferFile The transferred segment file.
+     */
+    private void installSegment(long segment, Path transferFile) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(transferFile, StandardOpenOption.READ)) {
+            verifySegmentFile(fileChannel, transferFile.toString(), segment);
+        } catch (RuntimeException | IOException e) {
+            discardTransferFile(transferFile);
+            throw e;
+        }
+
+        SegmentHandle current = getSegmentHandleForAddress(segment * RECORDS_PER_LOG_FILE);
+        if (!current.getKnownAddresses().isEmpty()) {
+            current.release();
+            discardTransferFile(transferFile);
+            log.error("installSegment: segment {} already has {} entries", segment,
+                    current.getKnownAddresses().size());
+            throw new OverwriteException(OverwriteCause.SAME_DATA);
+        }
+
+        long segmentSize = new File(current.getFileName()).length();
+        long transferSize = transferFile.toFile().length();
+        logSizeQuota.consume(transferSize);
+        boolean replaced = false;
+        try {
+            replaced = replaceSegmentFile(current, transferFile);
+        } finally {
+            if (!replaced) {
+                logSizeQuota.release(transferSize);
+            }
+        }
+
+        if (!replaced) {
+            discardTransferFile(transferFile);
+            throw new IllegalStateException("Segment " + segment + " is in use");
+        }
+        logSizeQuota.release(segmentSize);
+
+        SegmentHandle sh = getSegmentHandleForAddress(segment * RECORDS_PER_LOG_FILE);
+        try {
+            synchronized (metadataLock) {
+                loadMetadata(sh, logMetadata);
+                sh.getKnownAddresses().keySet().stream()
+                        .filter(address -> !isTrimmed(address))
+                        .max(Long::compare)
+                        .ifPresent(this::syncTailSegment);
+            }
+            log.info("installSegment: installed segment {} with {} entries",
+                    segment, sh.getKnownAddresses().size());
+        } finally {
+            sh.release();
+        }
+    }
+
+    /**
+     * Verifies the header and every record of a segment file, including the checksums if the
+     * file was generated with checksums.
+     *
+     * @param fileChannel The channel of the segment file.
+     * @param fileName    The name of the segment file.
+     * @param segment     The segment the records should belong to.
+     */
+    private void verifySegmentFile(FileChannel fileChannel, String fileName, long segment) throws IOException {
+        fileChannel.position(0);
+        LogHeader header = parseHeader(fileChannel, fileName);
+        if (header == null || header.getVersion() != VERSION) {
+            throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                    "Invalid header " + header, fileChannel, fileName));
+        }
+
+        if (verify && !header.getVerifyChecksum()) {
+            throw new IllegalStateException(String.format("Log file %s not generated with check sums, " +
+                    "can't verify!", fileName));
+        }
+
+        while (fileChannel.size() - fileChannel.position() > 0) {
+            Metadata metadata = parseMetadata(fileChannel, fileName);
+            ByteBuffer payload = metadata == null ? null : getPayloadForMetadata(fileChannel, metadata);
+            if (payload == null) {
+                throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                        "Partially written entry", fileChannel, fileName));
+            }
+
+            if (header.getVerifyChecksum()
+                    && metadata.getPayloadChecksum() != Checksum.getChecksum(payload.array())) {
+                throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                        "Checksum mismatch detected while verifying file", fileChannel, fileName));
+            }
+
+            LogEntry entry;
+            try {
+                entry = LogEntry.parseFrom(payload.array());
+            } catch (InvalidProtocolBufferException e) {
+                throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                        "Invalid entry", fileChannel, fileName), e);
+            }
+
+            if (entry.getGlobalAddress() / RECORDS_PER_LOG_FILE != segment) {
+                throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                        "Entry " + entry.getGlobalAddress() + " does not belong to segment " + segment,
+                        fileChannel, fileName));
+            }
+        }
+    }
+
+    /**
+     * Deletes a transfer file, which is not charged to the quota until it is installed.
+     */
+    private void discardTransferFile(Path transferFile) throws IOException {
+        Files.deleteIfExists(transferFile);
+    }
+
     @Override
     public void close() {
+        recoveryExecutor.shutdownNow();
         for (SegmentHandle fh : writeChannels.values()) {
             fh.close();
         }
@@ -1274,8 +2137,11 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
 
         dataStore.resetStartingAddress();
         dataStore.resetTailSegment();
-        logMetadata = new LogMetadata();
+        synchronized (metadataLock) {
+            logMetadata = new LogMetadata();
+        }
         writeChannels.clear();
+        precompressedSegments.clear();
         logSizeQuota = new ResourceQuota("LogSizeQuota", logSizeLimit);
         log.info("reset: Completed, end segment {}", endSegment);
     }
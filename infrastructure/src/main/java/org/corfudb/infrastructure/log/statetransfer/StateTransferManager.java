@@ -1,8 +1,10 @@
 package org.corfudb.infrastructure.log.statetransfer;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Streams;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,33 +15,73 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchRequest;
 import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchResponse;
 import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchResponse.TransferStatus;
 import org.corfudb.infrastructure.log.statetransfer.batchprocessor.StateTransferBatchProcessor;
 import org.corfudb.infrastructure.log.statetransfer.exceptions.TransferSegmentException;
+import org.corfudb.infrastructure.log.statetransfer.segmenttransfer.SegmentFileTransfer;
 import org.corfudb.runtime.clients.LogUnitClient;
+import org.corfudb.util.CorfuComponent;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
 import static org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegmentStatus.SegmentState.FAILED;
 import static org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegmentStatus.SegmentState.NOT_TRANSFERRED;
 import static org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegmentStatus.SegmentState.TRANSFERRED;
 
 /**
  * A class responsible for managing a state transfer on the current node.
- * It executes the state transfer for each non-transferred segment synchronously.
+ * It executes the state transfer for each non-transferred segment one after another,
+ * keeping multiple batches of a segment in flight.
  */
 @Slf4j
 @Builder
 public class StateTransferManager {
 
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    /**
+     * The addresses transferred on this node, the rates of the meter are the transfer throughput.
+     */
+    private static final Meter TRANSFERRED_METER = ServerContext.getMetrics()
+            .meter(CorfuComponent.INFRA_STATE_TRANSFER + "transferred");
+
+    /**
+     * The progress of the segment being transferred, or of the last transferred segment.
+     */
+    private static final AtomicReference<TransferSegmentProgress> CURRENT_PROGRESS =
+            new AtomicReference<>(new TransferSegmentProgress(0L));
+
+    static {
+        ServerContext.getMetrics().gauge(CorfuComponent.INFRA_STATE_TRANSFER + "completion",
+                () -> (Gauge<Double>) () -> CURRENT_PROGRESS.get().getCompletion());
+        ServerContext.getMetrics().gauge(CorfuComponent.INFRA_STATE_TRANSFER + "remaining",
+                () -> (Gauge<Long>) () -> {
+                    TransferSegmentProgress progress = CURRENT_PROGRESS.get();
+                    return progress.getTotalNeeded() - progress.getTransferred();
+                });
+    }
+
     /**
      * A log unit client to the current node.
      */
@@ -61,6 +103,36 @@ public class StateTransferManager {
     @NonNull
     private final StateTransferBatchProcessor batchProcessor;
 
+    /**
+     * An optional batch processor that reads the batches from the donors of a segment,
+     * rather than via a replication protocol.
+     */
+    @Getter
+    @Default
+    private final Optional<StateTransferBatchProcessor> donorBatchProcessor = Optional.empty();
+
+    /**
+     * A maximum number of batches transferred at the same time.
+     */
+    @Getter
+    @Default
+    private final int maxInFlightBatches = DEFAULT_MAX_IN_FLIGHT_BATCHES;
+
+    /**
+     * A maximum size of one batch of transfer, the batch size grows from {@link #batchSize}
+     * up to this size while the throughput improves.
+     */
+    @Getter
+    @Default
+    private final int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * An optional segment file transfer that copies the sealed segment files from the donors
+     * of a segment as a whole, rather than one batch of addresses at a time.
+     */
+    @Getter
+    @Default
+    private final Optional<SegmentFileTransfer> segmentFileTransfer = Optional.empty();
 
     /**
      * Given a range, return the addresses that are currently not present in the stream log.
@@ -119,15 +191,31 @@ public class StateTransferManager {
             } else {
                 // Get total number of addresses needed to transfer.
                 long numAddressesToTransfer = unknownAddressesInRange.size();
-                // Create a transferBatchRequest stream.
-                Stream<TransferBatchRequest> batchStream = Lists
-                        .partition(unknownAddressesInRange, batchSize)
-                        .stream()
-                        .map(groupedAddresses ->
-                                new TransferBatchRequest(groupedAddresses, Optional.empty())
-                        );
-                // Execute state transfer synchronously.
-                newStatus = synchronousStateTransfer(batchStream, numAddressesToTransfer);
+                TransferSegmentProgress progress = new TransferSegmentProgress(numAddressesToTransfer);
+                CURRENT_PROGRESS.set(progress);
+
+                // Copy the sealed segment files first, the rest of the addresses are transferred in batches.
+                List<Long> remainingAddresses = segmentFileTransfer.isPresent() ?
+                        transferSegmentFiles(segment, unknownAddressesInRange, progress) :
+                        unknownAddressesInRange;
+
+                // Read from the donors of a segment if possible, otherwise via a replication protocol.
+                List<String> donors = donorBatchProcessor.isPresent() ?
+                        segment.getLogUnitServers() : ImmutableList.of();
+                StateTransferBatchProcessor processor = donors.isEmpty() ?
+                        batchProcessor : donorBatchProcessor.get();
+
+                AdaptiveBatchSize adaptiveBatchSize = new AdaptiveBatchSize(
+                        batchSize, Math.max(batchSize, maxBatchSize), maxInFlightBatches);
+                // Create a lazy transferBatchRequest stream, so that the size of every batch
+                // reflects the throughput observed so far.
+                Stream<TransferBatchRequest> batchStream = Streams.stream(
+                        new BatchIterator(remainingAddresses, donors, adaptiveBatchSize));
+                // Execute state transfer with multiple batches in flight.
+                newStatus = pipelinedStateTransfer(batchStream, processor, progress, adaptiveBatchSize);
+
+                log.info("State transfer of [{}, {}] {}: {}.", segment.getStartAddress(),
+                        segment.getEndAddress(), newStatus.getSegmentState(), progress);
             }
 
             TransferSegment currentSegment = TransferSegment
@@ -135,6 +223,7 @@ public class StateTransferManager {
                     .startAddress(segment.getStartAddress())
                     .endAddress(segment.getEndAddress())
                     .status(newStatus)
+                    .logUnitServers(segment.getLogUnitServers())
                     .build();
 
             afterTransferSegments.add(currentSegment);
@@ -147,9 +236,54 @@ public class StateTransferManager {
         return ImmutableList.copyOf(afterTransferSegments);
     }
 
+    /**
+     * Copies the segment files which are entirely within a transfer segment and have none of their
+     * addresses on the current node from the donors of the transfer segment. If a segment file can
+     * not be copied, its addresses are left to be transferred in batches.
+     *
+     * @param segment          A segment to transfer.
+     * @param unknownAddresses The addresses of the segment that are not present on the current node.
+     * @param progress         A progress of the transfer, updated as segment files are copied.
+     * @return The addresses that still have to be transferred.
+     */
+    private List<Long> transferSegmentFiles(TransferSegment segment, List<Long> unknownAddresses,
+                                            TransferSegmentProgress progress) {
+        List<String> donors = segment.getLogUnitServers();
+        if (donors.isEmpty()) {
+            return unknownAddresses;
+        }
+
+        NavigableSet<Long> remaining = new TreeSet<>(unknownAddresses);
+        int copied = 0;
+        for (long logSegment : SegmentFileTransfer.getSegmentsInRange(
+                segment.getStartAddress(), segment.getEndAddress())) {
+            long first = logSegment * RECORDS_PER_LOG_FILE;
+            NavigableSet<Long> addresses = remaining.subSet(first, true,
+                    first + RECORDS_PER_LOG_FILE - 1, true);
+            if (addresses.size() != RECORDS_PER_LOG_FILE) {
+                continue;
+            }
+
+            String donor = donors.get(copied % donors.size());
+            try {
+                if (segmentFileTransfer.get().transfer(logSegment, donor)) {
+                    addresses.clear();
+                    progress.onBatchTransferred(RECORDS_PER_LOG_FILE);
+                    copied++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to copy segment {} from {}, transferring its addresses instead.",
+                        logSegment, donor, e);
+            }
+        }
+
+        return ImmutableList.copyOf(remaining);
+    }
+
     /**
      * Given a stream of batch requests, and a total number
-     * of transferred addresses needed, execute a state transfer synchronously.
+     * of transferred addresses needed, execute a state transfer with the
+     * {@link #batchProcessor} and return once it is completed.
      *
      * @param batchStream A stream of batch requests.
      * @param totalNeeded A total number of addresses needed for transfer.
@@ -158,14 +292,36 @@ public class StateTransferManager {
     @VisibleForTesting
     TransferSegmentStatus synchronousStateTransfer(
             Stream<TransferBatchRequest> batchStream, long totalNeeded) {
-        long accTransferred = 0L;
+        return pipelinedStateTransfer(batchStream, batchProcessor,
+                new TransferSegmentProgress(totalNeeded),
+                new AdaptiveBatchSize(batchSize, batchSize, maxInFlightBatches));
+    }
 
+    /**
+     * Execute a state transfer of a stream of batch requests, keeping up to
+     * {@link #maxInFlightBatches} batches in flight, and return once it is completed.
+     * If a batch fails, no more batches are issued and the batches in flight are awaited.
+     *
+     * @param batchStream       A stream of batch requests.
+     * @param processor         A batch processor that transfers the batches.
+     * @param progress          A progress of the transfer, updated as batches complete.
+     * @param adaptiveBatchSize A batch size that is updated as batches complete.
+     * @return A status representing a final status of a transferred segment.
+     */
+    private TransferSegmentStatus pipelinedStateTransfer(Stream<TransferBatchRequest> batchStream,
+                                                         StateTransferBatchProcessor processor,
+                                                         TransferSegmentProgress progress,
+                                                         AdaptiveBatchSize adaptiveBatchSize) {
         Iterator<TransferBatchRequest> iterator = batchStream.iterator();
+        Deque<CompletableFuture<TransferBatchResponse>> inFlight = new ArrayDeque<>();
+        Optional<TransferBatchResponse> failedResponse = Optional.empty();
 
-        while (iterator.hasNext()) {
-            TransferBatchRequest nextBatch = iterator.next();
-            TransferBatchResponse response =
-                    batchProcessor.transfer(nextBatch).join();
+        while (!failedResponse.isPresent() && (iterator.hasNext() || !inFlight.isEmpty())) {
+            while (inFlight.size() < maxInFlightBatches && iterator.hasNext()) {
+                inFlight.add(processor.transfer(iterator.next()));
+            }
+
+            TransferBatchResponse response = inFlight.poll().join();
             // In case of an error that is not handled by a batch processor, e.g. WrongEpochException,
             // we return a failed segment status to the caller and the exception. This exception is
             // thrown in a retry block of a RestoreRedundancyMergeSegments' restoreWithBackOff
@@ -173,22 +329,34 @@ public class StateTransferManager {
             // The layout will be invalidated and only the non-transferred addresses of the
             // segment will be considered for the subsequent transfer.
             if (response.getStatus() == TransferStatus.FAILED) {
-                Optional<TransferSegmentException> causeOfFailure =
-                        Optional.of(response.getCauseOfFailure()
-                                .map(TransferSegmentException::new)
-                                .orElse(new TransferSegmentException("Failed to transfer.")));
-
-                return TransferSegmentStatus
-                        .builder()
-                        .totalTransferred(accTransferred)
-                        .segmentState(FAILED)
-                        .causeOfFailure(causeOfFailure)
-                        .build();
+                failedResponse = Optional.of(response);
+            } else {
+                int transferred = response.getTransferBatchRequest().getAddresses().size();
+                progress.onBatchTransferred(transferred);
+                adaptiveBatchSize.onBatchTransferred(transferred);
             }
-            accTransferred += response.getTransferBatchRequest().getAddresses().size();
         }
 
-        if (accTransferred == totalNeeded) {
+        // Do not leave any writes behind, a retry of the transfer should observe all of them.
+        inFlight.forEach(batch -> batch.handle((response, error) -> response).join());
+        progress.complete();
+        long accTransferred = progress.getTransferred();
+
+        if (failedResponse.isPresent()) {
+            Optional<TransferSegmentException> causeOfFailure =
+                    Optional.of(failedResponse.get().getCauseOfFailure()
+                            .map(TransferSegmentException::new)
+                            .orElse(new TransferSegmentException("Failed to transfer.")));
+
+            return TransferSegmentStatus
+                    .builder()
+                    .totalTransferred(accTransferred)
+                    .segmentState(FAILED)
+                    .causeOfFailure(causeOfFailure)
+                    .build();
+        }
+
+        if (accTransferred == progress.getTotalNeeded()) {
             return TransferSegmentStatus
                     .builder()
                     .totalTransferred(accTransferred)
@@ -197,7 +365,7 @@ public class StateTransferManager {
         }
 
         String errorMsg = String.format("Needed: %s, but transferred: %s",
-                totalNeeded, accTransferred);
+                progress.getTotalNeeded(), accTransferred);
 
         return TransferSegmentStatus
                 .builder()
@@ -207,6 +375,152 @@ public class StateTransferManager {
                 .build();
     }
 
+    /**
+     * Splits the addresses to transfer into batches of consecutive addresses, so that every batch
+     * can be written with a single range write. The size of a batch is taken from
+     * an {@link AdaptiveBatchSize} when the batch is created, and the batches are assigned to the
+     * donors in a round robin fashion.
+     */
+    @VisibleForTesting
+    static class BatchIterator implements Iterator<TransferBatchRequest> {
+        private final List<Long> addresses;
+        private final List<String> donors;
+        private final AdaptiveBatchSize adaptiveBatchSize;
+        private int position = 0;
+        private int batches = 0;
+
+        BatchIterator(List<Long> addresses, List<String> donors, AdaptiveBatchSize adaptiveBatchSize) {
+            this.addresses = addresses;
+            this.donors = donors;
+            this.adaptiveBatchSize = adaptiveBatchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < addresses.size();
+        }
+
+        @Override
+        public TransferBatchRequest next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int limit = Math.min(addresses.size(), position + adaptiveBatchSize.getBatchSize());
+            int end = position + 1;
+            while (end < limit && addresses.get(end) == addresses.get(end - 1) + 1L) {
+                end++;
+            }
+
+            List<Long> batch = addresses.subList(position, end);
+            position = end;
+            Optional<String> destination = donors.isEmpty() ?
+                    Optional.empty() : Optional.of(donors.get(batches++ % donors.size()));
+            return new TransferBatchRequest(batch, destination);
+        }
+    }
+
+    /**
+     * A batch size that follows the transfer throughput. The throughput is measured over windows
+     * of transferred batches: while it improves, the batch size grows by the minimum size,
+     * and once it degrades, the batch size is halved.
+     */
+    @VisibleForTesting
+    static class AdaptiveBatchSize {
+        private final int minBatchSize;
+        private final int maxBatchSize;
+        private final int windowSize;
+
+        @Getter
+        private int batchSize;
+
+        private int batchesInWindow = 0;
+        private long recordsInWindow = 0L;
+        private long windowStart = System.nanoTime();
+        private double lastThroughput = 0.0;
+
+        AdaptiveBatchSize(int minBatchSize, int maxBatchSize, int windowSize) {
+            this.minBatchSize = minBatchSize;
+            this.maxBatchSize = maxBatchSize;
+            this.windowSize = windowSize;
+            this.batchSize = minBatchSize;
+        }
+
+        void onBatchTransferred(int records) {
+            recordsInWindow += records;
+            if (++batchesInWindow < windowSize) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            double throughput = recordsInWindow / (double) Math.max(1L, now - windowStart);
+            if (throughput >= lastThroughput) {
+                batchSize = Math.min(maxBatchSize, batchSize + minBatchSize);
+            } else {
+                batchSize = Math.max(minBatchSize, batchSize / 2);
+            }
+
+            lastThroughput = throughput;
+            batchesInWindow = 0;
+            recordsInWindow = 0L;
+            windowStart = now;
+        }
+    }
+
+    /**
+     * A progress of the transfer of a segment.
+     */
+    @ToString
+    public static class TransferSegmentProgress {
+        /**
+         * Total number of records that have to be transferred.
+         */
+        @Getter
+        private final long totalNeeded;
+
+        private final AtomicLong transferred = new AtomicLong();
+
+        private final long startTime = System.nanoTime();
+
+        private volatile long endTime = 0L;
+
+        TransferSegmentProgress(long totalNeeded) {
+            this.totalNeeded = totalNeeded;
+        }
+
+        void onBatchTransferred(int records) {
+            transferred.addAndGet(records);
+            TRANSFERRED_METER.mark(records);
+        }
+
+        void complete() {
+            endTime = System.nanoTime();
+        }
+
+        /**
+         * @return Total number of records transferred so far.
+         */
+        public long getTransferred() {
+            return transferred.get();
+        }
+
+        /**
+         * @return Fraction of the records transferred so far.
+         */
+        public double getCompletion() {
+            return totalNeeded == 0L ? 1.0 : getTransferred() / (double) totalNeeded;
+        }
+
+        /**
+         * @return Number of records transferred per second.
+         */
+        public double getThroughput() {
+            long end = endTime == 0L ? System.nanoTime() : endTime;
+            double seconds = Math.max(1L, end - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+            return getTransferred() / seconds;
+        }
+    }
+
     /**
      * A data class that represents a non-empty and bounded segment to be transferred.
      */
@@ -228,6 +542,11 @@ public class StateTransferManager {
          * A status of a transfer of a segment.
          */
         private final TransferSegmentStatus status;
+        /**
+         * Log units of the segment the addresses can be read from directly, empty if
+         * the addresses should be read via a replication protocol.
+         */
+        private final List<String> logUnitServers;
 
         /**
          * Get the total number of addresses in range.
@@ -261,7 +580,8 @@ public class StateTransferManager {
 
             public TransferSegment build() {
                 verify();
-                return new TransferSegment(startAddress, endAddress, status);
+                return new TransferSegment(startAddress, endAddress, status,
+                        logUnitServers == null ? ImmutableList.of() : ImmutableList.copyOf(logUnitServers));
             }
         }
     }
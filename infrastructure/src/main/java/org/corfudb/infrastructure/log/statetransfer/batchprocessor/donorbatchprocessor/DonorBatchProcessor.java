@@ -0,0 +1,166 @@
+package org.corfudb.infrastructure.log.statetransfer.batchprocessor.donorbatchprocessor;
+
+import com.google.common.annotations.VisibleForTesting;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.log.statetransfer.batch.ReadBatch;
+import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchRequest;
+import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchResponse;
+import org.corfudb.infrastructure.log.statetransfer.batchprocessor.StateTransferBatchProcessor;
+import org.corfudb.infrastructure.log.statetransfer.exceptions.StateTransferBatchProcessorException;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.runtime.clients.LogUnitClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static lombok.Builder.Default;
+import static org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchResponse.TransferStatus.FAILED;
+
+/**
+ * A transferBatchRequest processor that reads the committed addresses of a batch directly from
+ * the donor log unit given by the {@link TransferBatchRequest#getDestination() destination}
+ * and writes them to the current node with a single range write. Spreading the batches of a segment
+ * across the log units of its stripe lets the state transfer use all the donors at once, rather
+ * than the one the replication protocol reads from.
+ * <p>
+ * If a request has no destination, or the donor does not have every address of the batch
+ * (e.g. the donor is unavailable or some addresses are not yet consistent), the batch is
+ * transferred by the {@link #fallbackBatchProcessor} instead.
+ */
+@Slf4j
+@Builder
+public class DonorBatchProcessor implements StateTransferBatchProcessor {
+
+    /**
+     * Configurations for the retry logic.
+     */
+    @Default
+    private final int maxWriteRetries = 3;
+    @Default
+    private final Duration writeSleepDuration = Duration.ofMillis(300);
+
+    /**
+     * A log unit client to the current node.
+     */
+    @Getter
+    @NonNull
+    private final LogUnitClient logUnitClient;
+
+    /**
+     * Resolves a log unit client for a donor endpoint.
+     */
+    @Getter
+    @NonNull
+    private final Function<String, LogUnitClient> donorClients;
+
+    /**
+     * A batch processor used for the batches that can not be read from a donor.
+     */
+    @Getter
+    @NonNull
+    private final StateTransferBatchProcessor fallbackBatchProcessor;
+
+    /**
+     * An executor for the writes of the batches read from the donors. A write blocks,
+     * and sleeps between its retries, so it does not run on the common pool.
+     */
+    @Getter
+    @NonNull
+    private final Executor writeExecutor;
+
+    @Override
+    public CompletableFuture<TransferBatchResponse> transfer(TransferBatchRequest transferBatchRequest) {
+        if (!transferBatchRequest.getDestination().isPresent()) {
+            return fallbackBatchProcessor.transfer(transferBatchRequest);
+        }
+
+        return readRecords(transferBatchRequest)
+                .handle((batch, error) -> {
+                    if (error == null && batch.getStatus() == ReadBatch.ReadStatus.SUCCEEDED) {
+                        return CompletableFuture.supplyAsync(() ->
+                                writeRecords(batch, logUnitClient, maxWriteRetries, writeSleepDuration),
+                                writeExecutor);
+                    }
+
+                    log.debug("transfer: can not read {} from {}, falling back. Failed: {}",
+                            transferBatchRequest.getAddresses(),
+                            transferBatchRequest.getDestination().get(),
+                            error == null ? batch.getFailedAddresses() : error.getMessage());
+                    return fallbackBatchProcessor.transfer(
+                            new TransferBatchRequest(transferBatchRequest.getAddresses(), Optional.empty()));
+                })
+                .thenCompose(Function.identity())
+                .exceptionally(error -> TransferBatchResponse
+                        .builder()
+                        .status(FAILED)
+                        .causeOfFailure(Optional.of(new StateTransferBatchProcessorException(
+                                "Failed batch: " + transferBatchRequest, error)))
+                        .build()
+                );
+    }
+
+    /**
+     * Reads the addresses of a batch from its donor, without caching them on the donor.
+     *
+     * @param transferBatchRequest The transferBatchRequest of addresses to be read.
+     * @return A result of reading records.
+     */
+    @VisibleForTesting
+    CompletableFuture<ReadBatch> readRecords(TransferBatchRequest transferBatchRequest) {
+        String donor = transferBatchRequest.getDestination().get();
+        return donorClients.apply(donor)
+                .readAll(transferBatchRequest.getAddresses())
+                .thenApply(response -> checkReadRecords(transferBatchRequest.getAddresses(),
+                        response.getAddresses(), transferBatchRequest.getDestination()));
+    }
+
+    /**
+     * Sanity check after the read is performed. Only data and holes are committed on the donor,
+     * any other address is considered as failed.
+     *
+     * @param addresses   All addresses that has to be read.
+     * @param readResult  A result of a read operation.
+     * @param destination A donor the records were read from.
+     * @return A read batch.
+     */
+    @VisibleForTesting
+    ReadBatch checkReadRecords(List<Long> addresses,
+                               Map<Long, LogData> readResult,
+                               Optional<String> destination) {
+        List<Long> failedAddresses = addresses.stream()
+                .filter(address -> {
+                    LogData data = readResult.get(address);
+                    return data == null
+                            || (data.getType() != DataType.DATA && data.getType() != DataType.HOLE);
+                })
+                .collect(Collectors.toList());
+
+        if (!failedAddresses.isEmpty()) {
+            return ReadBatch.builder()
+                    .failedAddresses(failedAddresses)
+                    .destination(destination)
+                    .status(ReadBatch.ReadStatus.FAILED)
+                    .build();
+        }
+
+        List<LogData> logData = addresses.stream()
+                .sorted()
+                .map(readResult::get)
+                .collect(Collectors.toList());
+        return ReadBatch.builder()
+                .data(logData)
+                .destination(destination)
+                .status(ReadBatch.ReadStatus.SUCCEEDED)
+                .build();
+    }
+}
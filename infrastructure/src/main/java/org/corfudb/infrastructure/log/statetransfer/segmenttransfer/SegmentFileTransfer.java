@@ -0,0 +1,117 @@
+package org.corfudb.infrastructure.log.statetransfer.segmenttransfer;
+
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.runtime.clients.LogUnitClient;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
+
+/**
+ * Copies whole segment files from a donor log unit to the current node. The segment file
+ * is streamed in chunks as it is stored on the donor, so its records are neither deserialized
+ * nor re-encoded, and the current node verifies the checksums of the records before installing
+ * the segment file into its log directory.
+ * <p>
+ * Only the segments the donor has all the addresses of can be copied, the rest of the
+ * addresses have to be transferred one batch at a time.
+ */
+@Slf4j
+@Builder
+public class SegmentFileTransfer {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * A maximum size of one chunk of a segment file.
+     */
+    @Getter
+    @Default
+    private final int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * A log unit client to the current node.
+     */
+    @Getter
+    @NonNull
+    private final LogUnitClient logUnitClient;
+
+    /**
+     * Resolves a log unit client for a donor endpoint.
+     */
+    @Getter
+    @NonNull
+    private final Function<String, LogUnitClient> donorClients;
+
+    /**
+     * Get the segments whose addresses are all within a range.
+     *
+     * @param rangeStart Start address (inclusive).
+     * @param rangeEnd   End address (inclusive).
+     * @return The segments that are entirely within the range.
+     */
+    public static ImmutableList<Long> getSegmentsInRange(long rangeStart, long rangeEnd) {
+        long firstSegment = (rangeStart + RECORDS_PER_LOG_FILE - 1) / RECORDS_PER_LOG_FILE;
+        long endSegment = (rangeEnd + 1) / RECORDS_PER_LOG_FILE;
+        return LongStream.range(firstSegment, endSegment)
+                .boxed()
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Copies a segment file from a donor to the current node. The next chunk is read
+     * from the donor while the current one is written.
+     *
+     * @param segment The segment to copy.
+     * @param donor   The endpoint of a donor log unit.
+     * @return True if the segment was copied, false if the donor does not have all of its addresses.
+     */
+    public boolean transfer(long segment, String donor) {
+        LogUnitClient donorClient = donorClients.apply(donor);
+        long firstAddress = segment * RECORDS_PER_LOG_FILE;
+        long lastAddress = firstAddress + RECORDS_PER_LOG_FILE - 1;
+
+        Set<Long> knownAddresses = donorClient
+                .requestKnownAddresses(firstAddress, lastAddress).join().getKnownAddresses();
+        if (knownAddresses.size() != RECORDS_PER_LOG_FILE) {
+            log.debug("transfer: {} has {} entries of segment {}, can not copy it.",
+                    donor, knownAddresses.size(), segment);
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        SegmentChunk chunk = donorClient.readSegmentChunk(segment, 0L, chunkSize).join();
+        while (true) {
+            if (chunk.getData().length == 0 && !chunk.isLast()) {
+                throw new IllegalStateException(String.format("Empty chunk of segment %s at %s from %s",
+                        segment, chunk.getOffset(), donor));
+            }
+
+            CompletableFuture<SegmentChunk> nextChunk = chunk.isLast() ? null : donorClient
+                    .readSegmentChunk(segment, chunk.getOffset() + chunk.getData().length, chunkSize);
+
+            boolean written = logUnitClient.writeSegmentChunk(chunk).join();
+            if (!written) {
+                throw new IllegalStateException("Failed to write a chunk of segment " + segment);
+            }
+
+            if (nextChunk == null) {
+                break;
+            }
+            chunk = nextChunk.join();
+        }
+
+        log.info("transfer: copied segment {} ({} bytes) from {} in {} ms.", segment,
+                chunk.getSegmentSize(), donor, System.currentTimeMillis() - start);
+        return true;
+    }
+}
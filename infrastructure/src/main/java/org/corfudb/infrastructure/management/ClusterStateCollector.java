@@ -3,6 +3,7 @@ package org.corfudb.infrastructure.management;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import lombok.Builder;
+import lombok.Builder.Default;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.ClusterState;
@@ -15,6 +16,7 @@ import org.corfudb.runtime.exceptions.WrongEpochException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * Collects information about cluster state.
@@ -32,6 +34,14 @@ public class ClusterStateCollector {
     @NonNull
     private final Map<String, CompletableFuture<NodeState>> clusterState;
 
+    /**
+     * Decides whether a node which did not respond is failed. By default every such node is,
+     * in the adaptive mode only the nodes suspected by the {@link PhiAccrualEstimator}.
+     */
+    @NonNull
+    @Default
+    private final Predicate<String> failureSuspicion = server -> true;
+
     /**
      * Provides cluster state
      * @param epoch current epoch
@@ -113,6 +123,9 @@ public class ClusterStateCollector {
                 ConnectionStatus nodeStatus;
                 if (e.getCause() instanceof WrongEpochException) {
                     nodeStatus = ConnectionStatus.OK;
+                } else if (!failureSuspicion.test(server)) {
+                    log.debug("Node {} did not respond, but is not suspected yet", server);
+                    nodeStatus = ConnectionStatus.OK;
                 } else {
                     nodeStatus = ConnectionStatus.FAILED;
                 }
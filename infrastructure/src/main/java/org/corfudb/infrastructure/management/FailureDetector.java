@@ -16,6 +16,7 @@ import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.IClientRouter;
 import org.corfudb.runtime.clients.ManagementClient;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.CFUtils;
 import org.corfudb.util.Sleep;
@@ -27,9 +28,11 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -41,6 +44,8 @@ import java.util.stream.Collectors;
  * - We asynchronously poll every known responsive member in the layout.
  * - Poll result aggregation.
  * - If we complete an iteration without detecting failures, we end the round successfully.
+ * In the adaptive mode, a node which does not respond in an iteration is only failed once the
+ * {@link PhiAccrualEstimator} suspects it, based on the history of its responses.
  * The management Server ensures only one instance of this class and hence this is NOT thread safe.
  * Created by zlokhandwala on 11/29/17.
  */
@@ -63,6 +68,14 @@ public class FailureDetector implements IDetector {
     @Setter
     private NetworkStretcher networkStretcher = NetworkStretcher.builder().build();
 
+    /**
+     * Estimator of the adaptive mode, or empty if a node fails as soon as it does not respond.
+     */
+    @NonNull
+    @Getter
+    @Setter
+    private Optional<PhiAccrualEstimator> phiAccrualEstimator = Optional.empty();
+
     public FailureDetector(String localEndpoint) {
         this.localEndpoint = localEndpoint;
     }
@@ -83,6 +96,7 @@ public class FailureDetector implements IDetector {
 
         // Collect and set all responsive servers in the members array.
         Set<String> allServers = layout.getAllServers();
+        phiAccrualEstimator.ifPresent(estimator -> estimator.retainAll(allServers));
 
         // Set up arrays for routers to the endpoints.
         routerMap = new HashMap<>();
@@ -239,9 +253,15 @@ public class FailureDetector implements IDetector {
 
         long start = System.currentTimeMillis();
 
+        Map<String, CompletableFuture<NodeState>> pollResults = pollAsync(allServers, clientRouters, epoch, clusterID);
+
+        // Phi is evaluated when the collector checks a node, once all the responses are collected.
         ClusterStateCollector clusterCollector = ClusterStateCollector.builder()
                 .localEndpoint(localEndpoint)
-                .clusterState(pollAsync(allServers, clientRouters, epoch, clusterID))
+                .clusterState(pollResults)
+                .failureSuspicion(server -> phiAccrualEstimator
+                        .map(estimator -> estimator.isSuspected(server, System.currentTimeMillis()))
+                        .orElse(true))
                 .build();
 
         //Cluster state internal map.
@@ -276,8 +296,11 @@ public class FailureDetector implements IDetector {
         Map<String, CompletableFuture<NodeState>> clusterState = new HashMap<>();
         allServers.forEach(s -> {
             try {
-                clusterState.put(s, new ManagementClient(clientRouters.get(s), epoch, clusterId)
-                        .sendNodeStateRequest());
+                CompletableFuture<NodeState> nodeState = new ManagementClient(clientRouters.get(s), epoch, clusterId)
+                        .sendNodeStateRequest();
+                clusterState.put(s, phiAccrualEstimator
+                        .map(estimator -> nodeState.whenComplete((state, ex) -> recordHeartbeat(estimator, s, ex)))
+                        .orElse(nodeState));
             } catch (Exception e) {
                 CompletableFuture<NodeState> cf = new CompletableFuture<>();
                 cf.completeExceptionally(e);
@@ -296,6 +319,20 @@ public class FailureDetector implements IDetector {
         return clusterState;
     }
 
+    /**
+     * Records the response of a node as a heartbeat. A node responding with a wrong epoch is alive.
+     *
+     * @param estimator phi-accrual estimator
+     * @param endpoint  the polled node
+     * @param ex        the exception the node responded with, if any
+     */
+    private void recordHeartbeat(PhiAccrualEstimator estimator, String endpoint, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+        if (cause == null || cause instanceof WrongEpochException) {
+            estimator.heartbeat(endpoint, System.currentTimeMillis());
+        }
+    }
+
     /**
      * Set the timeoutResponse for all the routers connected to the given endpoints with the
      * given value.
@@ -0,0 +1,213 @@
+package org.corfudb.infrastructure.management;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.Builder;
+import lombok.Builder.Default;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.util.CorfuComponent;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Phi-accrual failure estimator (Hayashibara et al.), used by the {@link FailureDetector}
+ * in the adaptive mode.
+ * <p>
+ * Every successful poll of a node is a heartbeat. The estimator keeps a sliding window of
+ * the intervals between the heartbeats of every node and approximates their distribution
+ * with a normal distribution. Phi is the suspicion level of a node at a given time:
+ * phi = -log10(P(the next heartbeat arrives later than now)), so phi = 1 means a 10% chance
+ * of a false suspicion, phi = 2 a 1% chance and so on. A node is suspected once its phi exceeds
+ * the threshold. Unlike a fixed number of missed polls, the estimator adapts to the actual
+ * latency and jitter of each node.
+ * <p>
+ * The phi of every node is exposed as a gauge. The estimator is updated by the poll
+ * futures and read by the metrics reporter, hence it is thread safe.
+ */
+@Builder
+@Slf4j
+public class PhiAccrualEstimator {
+
+    /**
+     * Nodes with a phi above the threshold are suspected.
+     */
+    @Getter
+    @Default
+    private final double threshold = 8.0;
+
+    /**
+     * Number of heartbeat intervals kept for every node.
+     */
+    @Default
+    private final int windowSize = 100;
+
+    /**
+     * Lower bound of the standard deviation, so that very regular heartbeats do not make
+     * the estimator suspect a node on the slightest delay.
+     */
+    @Default
+    private final Duration minStdDeviation = Duration.ofMillis(500);
+
+    /**
+     * Pause which is tolerated on top of the expected heartbeat interval, i.e. gc pauses.
+     */
+    @Default
+    private final Duration acceptableHeartbeatPause = Duration.ZERO;
+
+    /**
+     * Expected heartbeat interval of a node with no history yet.
+     */
+    @Default
+    private final Duration firstHeartbeatEstimate = Duration.ofSeconds(2);
+
+    @NonNull
+    @Default
+    private final MetricRegistry metricRegistry = ServerContext.getMetrics();
+
+    private final Map<String, HeartbeatHistory> histories = new HashMap<>();
+
+    /**
+     * Records a heartbeat of a node.
+     *
+     * @param endpoint  the node
+     * @param timestamp arrival time of the heartbeat in milliseconds
+     */
+    public synchronized void heartbeat(String endpoint, long timestamp) {
+        HeartbeatHistory history = histories.get(endpoint);
+        if (history == null) {
+            history = new HeartbeatHistory(timestamp);
+            histories.put(endpoint, history);
+            registerMetrics(endpoint);
+            return;
+        }
+
+        history.add(timestamp);
+    }
+
+    /**
+     * Computes the suspicion level of a node. A node with no heartbeats yet starts its history
+     * at the given time, so a node that never responds is eventually suspected.
+     *
+     * @param endpoint the node
+     * @param now      current time in milliseconds
+     * @return phi of the node
+     */
+    public synchronized double phi(String endpoint, long now) {
+        HeartbeatHistory history = histories.get(endpoint);
+        if (history == null) {
+            heartbeat(endpoint, now);
+            return 0.0;
+        }
+
+        return history.phi(now);
+    }
+
+    /**
+     * Whether the phi of a node exceeds the threshold.
+     *
+     * @param endpoint the node
+     * @param now      current time in milliseconds
+     * @return true if the node is suspected to have failed
+     */
+    public boolean isSuspected(String endpoint, long now) {
+        double phi = phi(endpoint, now);
+        if (phi > threshold) {
+            log.debug("isSuspected: node {} is suspected, phi: {}", endpoint, phi);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Drops the history of the nodes that are not part of the cluster anymore.
+     *
+     * @param endpoints the nodes of the cluster
+     */
+    public synchronized void retainAll(Set<String> endpoints) {
+        histories.keySet().removeIf(endpoint -> {
+            if (endpoints.contains(endpoint)) {
+                return false;
+            }
+
+            metricRegistry.remove(metricName(endpoint));
+            return true;
+        });
+    }
+
+    private void registerMetrics(String endpoint) {
+        metricRegistry.remove(metricName(endpoint));
+        metricRegistry.gauge(metricName(endpoint),
+                () -> (Gauge<Double>) () -> currentPhi(endpoint));
+    }
+
+    private synchronized double currentPhi(String endpoint) {
+        HeartbeatHistory history = histories.get(endpoint);
+        return history == null ? 0.0 : history.phi(System.currentTimeMillis());
+    }
+
+    private static String metricName(String endpoint) {
+        return CorfuComponent.INFRA_FAILURE_DETECTOR + "phi." + endpoint;
+    }
+
+    /**
+     * Sliding window of the heartbeat intervals of a node.
+     */
+    private class HeartbeatHistory {
+        private final ArrayDeque<Long> intervals = new ArrayDeque<>();
+        private long intervalSum;
+        private long squaredIntervalSum;
+        private long lastHeartbeat;
+
+        HeartbeatHistory(long firstHeartbeat) {
+            // Bootstrap the window with the expected interval, with a std deviation of a quarter of it
+            long mean = firstHeartbeatEstimate.toMillis();
+            long deviation = mean / 4;
+            addInterval(mean - deviation);
+            addInterval(mean + deviation);
+            this.lastHeartbeat = firstHeartbeat;
+        }
+
+        void add(long timestamp) {
+            addInterval(timestamp - lastHeartbeat);
+            lastHeartbeat = timestamp;
+        }
+
+        private void addInterval(long interval) {
+            if (intervals.size() >= windowSize) {
+                long dropped = intervals.removeFirst();
+                intervalSum -= dropped;
+                squaredIntervalSum -= dropped * dropped;
+            }
+
+            intervals.addLast(interval);
+            intervalSum += interval;
+            squaredIntervalSum += interval * interval;
+        }
+
+        double phi(long now) {
+            double mean = (double) intervalSum / intervals.size()
+                    + acceptableHeartbeatPause.toMillis();
+            double variance = (double) squaredIntervalSum / intervals.size()
+                    - Math.pow((double) intervalSum / intervals.size(), 2);
+            double stdDeviation = Math.max(Math.sqrt(Math.max(variance, 0)), minStdDeviation.toMillis());
+
+            // Logistic approximation of the cumulative normal distribution
+            long elapsed = now - lastHeartbeat;
+            double y = (elapsed - mean) / stdDeviation;
+            double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+            if (elapsed > mean) {
+                return -Math.log10(e / (1.0 + e));
+            }
+
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+}
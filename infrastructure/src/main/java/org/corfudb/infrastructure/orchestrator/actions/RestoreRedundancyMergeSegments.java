@@ -2,6 +2,7 @@ package org.corfudb.infrastructure.orchestrator.actions;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
@@ -9,8 +10,10 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.log.statetransfer.StateTransferManager;
 import org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegment;
+import org.corfudb.infrastructure.log.statetransfer.batchprocessor.donorbatchprocessor.DonorBatchProcessor;
 import org.corfudb.infrastructure.log.statetransfer.batchprocessor.protocolbatchprocessor.ProtocolBatchProcessor;
 import org.corfudb.infrastructure.log.statetransfer.exceptions.TransferSegmentException;
+import org.corfudb.infrastructure.log.statetransfer.segmenttransfer.SegmentFileTransfer;
 import org.corfudb.infrastructure.orchestrator.Action;
 import org.corfudb.infrastructure.redundancy.RedundancyCalculator;
 import org.corfudb.protocols.wireprotocol.Token;
@@ -31,8 +34,11 @@ import javax.annotation.Nonnull;
 import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegmentStatus.SegmentState.FAILED;
@@ -246,6 +252,35 @@ public class RestoreRedundancyMergeSegments extends Action {
                 .logUnitClient(logUnitClient)
                 .build();
 
+        Function<String, LogUnitClient> donorClients =
+                donor -> runtime.getLayoutView().getRuntimeLayout().getLogUnitClient(donor);
+
+        // The batches read from the donors are written by a dedicated pool, one thread per
+        // batch in flight.
+        ExecutorService writeExecutor = Executors.newFixedThreadPool(
+                StateTransferManager.DEFAULT_MAX_IN_FLIGHT_BATCHES,
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("StateTransfer-Write-%d")
+                        .build());
+
+        // Create a batch processor that reads directly from the donors of a segment,
+        // and falls back to the replication protocol.
+        DonorBatchProcessor donorBatchProcessor = DonorBatchProcessor
+                .builder()
+                .logUnitClient(logUnitClient)
+                .donorClients(donorClients)
+                .fallbackBatchProcessor(batchProcessor)
+                .writeExecutor(writeExecutor)
+                .build();
+
+        // Create a segment file transfer that copies the sealed segments from the donors.
+        SegmentFileTransfer segmentFileTransfer = SegmentFileTransfer
+                .builder()
+                .logUnitClient(logUnitClient)
+                .donorClients(donorClients)
+                .build();
+
         // Create a state transfer manager.
         StateTransferManager transferManager =
                 StateTransferManager
@@ -253,12 +288,18 @@ public class RestoreRedundancyMergeSegments extends Action {
                         .logUnitClient(logUnitClient)
                         .batchSize(runtime.getParameters().getBulkReadSize())
                         .batchProcessor(batchProcessor)
+                        .donorBatchProcessor(Optional.of(donorBatchProcessor))
+                        .segmentFileTransfer(Optional.of(segmentFileTransfer))
                         .build();
 
         // While a redundancy can be restored or segments can be merged, perform a state transfer
         // and then restore a layout redundancy on the current node.
-        while (RedundancyCalculator.canRestoreRedundancyOrMergeSegments(layout, currentNode)) {
-            layout = restoreWithBackOff(runtime, transferManager);
+        try {
+            while (RedundancyCalculator.canRestoreRedundancyOrMergeSegments(layout, currentNode)) {
+                layout = restoreWithBackOff(runtime, transferManager);
+            }
+        } finally {
+            writeExecutor.shutdownNow();
         }
         log.info("State transfer on {}: Restored.", currentNode);
     }
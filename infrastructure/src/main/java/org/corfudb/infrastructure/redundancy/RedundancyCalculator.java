@@ -208,11 +208,17 @@ public class RedundancyCalculator {
                                 .totalTransferred(0L)
                                 .build();
 
+                        // Every log unit of a single stripe segment holds all of its addresses,
+                        // so they can serve as the donors of the transfer.
+                        List<String> donors = segment.getStripes().size() == 1 ?
+                                segment.getFirstStripe().getLogServers() : ImmutableList.of();
+
                         return TransferSegment
                                 .builder()
                                 .startAddress(segmentStart)
                                 .endAddress(segmentEnd)
                                 .status(notTransferred)
+                                .logUnitServers(donors)
                                 .build();
                     }
 
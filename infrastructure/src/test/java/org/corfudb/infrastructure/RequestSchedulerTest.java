@@ -0,0 +1,101 @@
+package org.corfudb.infrastructure;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableMap;
+import org.corfudb.infrastructure.RequestScheduler.RequestClass;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestSchedulerTest {
+
+    private static final String PREFIX = "test.";
+    private static final int REQUESTS = 10;
+    private static final long AWAIT_SECONDS = 10;
+    private static final long EXPIRED_WAIT_MILLIS = 50;
+
+    private RequestScheduler newScheduler(MetricRegistry registry) {
+        return new RequestScheduler(1, ImmutableMap.of(RequestClass.POINT_READ, 4, RequestClass.BULK_READ, 1),
+                new ServerThreadFactory("test-", new ServerThreadFactory.ExceptionHandler()), registry, PREFIX);
+    }
+
+    /**
+     * Blocks the single worker of the scheduler until the returned latch is released.
+     */
+    private CountDownLatch blockWorker(RequestScheduler scheduler) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(RequestClass.METADATA, 0, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    /**
+     * Tests that the pending requests are dispatched in proportion to the weights of their classes.
+     */
+    @Test
+    public void dispatchesByWeight() throws Exception {
+        RequestScheduler scheduler = newScheduler(new MetricRegistry());
+        CountDownLatch release = blockWorker(scheduler);
+
+        List<RequestClass> dispatched = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(REQUESTS * 2);
+        for (int i = 0; i < REQUESTS; i++) {
+            scheduler.submit(RequestClass.BULK_READ, 0, () -> {
+                dispatched.add(RequestClass.BULK_READ);
+                done.countDown();
+            });
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            scheduler.submit(RequestClass.POINT_READ, 0, () -> {
+                dispatched.add(RequestClass.POINT_READ);
+                done.countDown();
+            });
+        }
+
+        release.countDown();
+        assertThat(done.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        // Out of every 5 dispatches, 4 go to the point reads while both queues are non-empty
+        assertThat(dispatched.subList(0, 5)).filteredOn(c -> c == RequestClass.POINT_READ).hasSize(4);
+        assertThat(dispatched).hasSize(REQUESTS * 2);
+        scheduler.close();
+    }
+
+    /**
+     * Tests that a request queued for longer than its timeout is dropped.
+     */
+    @Test
+    public void dropsExpiredRequests() throws Exception {
+        MetricRegistry registry = new MetricRegistry();
+        RequestScheduler scheduler = newScheduler(registry);
+        CountDownLatch release = blockWorker(scheduler);
+
+        AtomicBoolean expiredRan = new AtomicBoolean(false);
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.submit(RequestClass.POINT_READ, 1, () -> expiredRan.set(true));
+        scheduler.submit(RequestClass.POINT_READ, 0, done::countDown);
+
+        TimeUnit.MILLISECONDS.sleep(EXPIRED_WAIT_MILLIS);
+        release.countDown();
+        assertThat(done.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(expiredRan.get()).isFalse();
+        assertThat(registry.counter(PREFIX + "point_read.expired").getCount()).isEqualTo(1);
+        assertThat(registry.timer(PREFIX + "point_read.queue-time").getCount()).isEqualTo(2);
+        scheduler.close();
+    }
+}
@@ -1,19 +1,26 @@
 package org.corfudb.infrastructure.log.statetransfer;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Streams;
+import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegment;
 import org.corfudb.infrastructure.log.statetransfer.StateTransferManager.TransferSegmentStatus;
 import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchRequest;
+import org.corfudb.infrastructure.log.statetransfer.batch.TransferBatchResponse;
 import org.corfudb.infrastructure.log.statetransfer.batchprocessor.StateTransferBatchProcessor;
 import org.corfudb.protocols.wireprotocol.KnownAddressResponse;
 import org.corfudb.runtime.clients.LogUnitClient;
+import org.corfudb.util.CorfuComponent;
 import org.junit.jupiter.api.Test;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
@@ -144,7 +151,11 @@ class StateTransferManagerTest implements TransferSegmentCreator {
         StateTransferBatchProcessor batchProcessor = new SuccessfulBatchProcessor();
         LogUnitClient logUnitClient = mock(LogUnitClient.class);
         int batchSize = 10;
-        StateTransferManager manager = new StateTransferManager(logUnitClient, batchSize, batchProcessor);
+        StateTransferManager manager = StateTransferManager.builder()
+                .logUnitClient(logUnitClient)
+                .batchSize(batchSize)
+                .batchProcessor(batchProcessor)
+                .build();
         Stream<TransferBatchRequest> stream = Lists
                 .partition(LongStream.range(0, 100).boxed().collect(Collectors.toList()), batchSize)
                 .stream()
@@ -166,10 +177,88 @@ class StateTransferManagerTest implements TransferSegmentCreator {
                 .stream()
                 .map(partition -> TransferBatchRequest.builder().addresses(partition).build());
         batchProcessor = new FaultyBatchProcessor(10);
-        manager = new StateTransferManager(logUnitClient, batchSize, batchProcessor);
+        manager = StateTransferManager.builder()
+                .logUnitClient(logUnitClient)
+                .batchSize(batchSize)
+                .batchProcessor(batchProcessor)
+                .build();
         status = manager.synchronousStateTransfer(stream, 80);
         assertThat(status.getSegmentState()).isEqualTo(FAILED);
         assertThat(status.getTotalTransferred()).isEqualTo(0L);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void batchIteratorSplitsOnGapsAndSpreadsDonors() {
+        List<Long> addresses = ImmutableList.of(0L, 1L, 2L, 3L, 4L, 7L, 8L, 9L);
+        StateTransferManager.AdaptiveBatchSize batchSize =
+                new StateTransferManager.AdaptiveBatchSize(3, 3, 1);
+
+        List<TransferBatchRequest> batches = Streams.stream(new StateTransferManager.BatchIterator(
+                addresses, ImmutableList.of("A", "B"), batchSize)).collect(Collectors.toList());
+
+        assertThat(batches).containsExactly(
+                new TransferBatchRequest(ImmutableList.of(0L, 1L, 2L), Optional.of("A")),
+                new TransferBatchRequest(ImmutableList.of(3L, 4L), Optional.of("B")),
+                new TransferBatchRequest(ImmutableList.of(7L, 8L, 9L), Optional.of("A")));
+    }
+
+    @Test
+    public void adaptiveBatchSizeIsBounded() {
+        StateTransferManager.AdaptiveBatchSize batchSize =
+                new StateTransferManager.AdaptiveBatchSize(10, 30, 1);
+        assertThat(batchSize.getBatchSize()).isEqualTo(10);
+
+        for (int i = 0; i < 10; i++) {
+            batchSize.onBatchTransferred(batchSize.getBatchSize());
+            assertThat(batchSize.getBatchSize()).isBetween(10, 30);
+        }
+    }
+
+    @Test
+    public void handleTransferFromDonors() {
+        LogUnitClient logUnitClient = mock(LogUnitClient.class);
+        List<TransferBatchRequest> requests = new CopyOnWriteArrayList<>();
+        StateTransferBatchProcessor donorProcessor = new SuccessfulBatchProcessor(Optional.of(10L)) {
+            @Override
+            public CompletableFuture<TransferBatchResponse> transfer(TransferBatchRequest request) {
+                requests.add(request);
+                return super.transfer(request);
+            }
+        };
+
+        StateTransferManager manager = spy(StateTransferManager.builder()
+                .logUnitClient(logUnitClient)
+                .batchSize(10)
+                .batchProcessor(new FaultyBatchProcessor(1))
+                .donorBatchProcessor(Optional.of(donorProcessor))
+                .build());
+
+        TransferSegment segment = TransferSegment.builder()
+                .startAddress(0L)
+                .endAddress(199L)
+                .status(TransferSegmentStatus.builder().build())
+                .logUnitServers(ImmutableList.of("A", "B"))
+                .build();
+
+        doReturn(ImmutableList.copyOf(LongStream.range(0L, 200L).boxed().collect(Collectors.toList())))
+                .when(manager).getUnknownAddressesInRange(0L, 199L);
+
+        MetricRegistry metrics = ServerContext.getMetrics();
+        long transferredBefore = metrics.meter(CorfuComponent.INFRA_STATE_TRANSFER + "transferred").getCount();
+
+        ImmutableList<TransferSegment> result = manager.handleTransfer(ImmutableList.of(segment));
+
+        assertThat(result.get(0).getStatus().getSegmentState()).isEqualTo(TRANSFERRED);
+        assertThat(result.get(0).getStatus().getTotalTransferred()).isEqualTo(200L);
+        assertThat(result.get(0).getLogUnitServers()).containsExactly("A", "B");
+        assertThat(requests.stream().map(request -> request.getDestination().get()))
+                .containsOnly("A", "B");
+
+        assertThat(metrics.meter(CorfuComponent.INFRA_STATE_TRANSFER + "transferred").getCount())
+                .isEqualTo(transferredBefore + 200L);
+        assertThat(metrics.getGauges().get(CorfuComponent.INFRA_STATE_TRANSFER + "completion").getValue())
+                .isEqualTo(1.0);
+        assertThat(metrics.getGauges().get(CorfuComponent.INFRA_STATE_TRANSFER + "remaining").getValue())
+                .isEqualTo(0L);
+    }
+}
@@ -1,5 +1,6 @@
 package org.corfudb.infrastructure.management;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.corfudb.protocols.wireprotocol.ClusterState;
@@ -13,6 +14,8 @@ import org.junit.Test;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.corfudb.infrastructure.management.NodeStateTestUtil.nodeState;
@@ -116,4 +119,54 @@ public class ClusterStateCollectorTest {
         assertThat(wrongEpochs.get("c")).isEqualTo(newEpoch);
     }
 
+    /**
+     * Checks that a node which did not respond is only failed once the phi-accrual
+     * estimator suspects it, and that phi is evaluated when the state is collected.
+     */
+    @Test
+    public void testFailureSuspicion() {
+        final String localEndpoint = "a";
+        final long heartbeatInterval = 1000;
+        final int numHeartbeats = 10;
+
+        PhiAccrualEstimator estimator = PhiAccrualEstimator.builder()
+                .metricRegistry(new MetricRegistry())
+                .build();
+        long lastHeartbeat = 0;
+        for (int i = 0; i < numHeartbeats; i++) {
+            lastHeartbeat = i * heartbeatInterval;
+            estimator.heartbeat("b", lastHeartbeat);
+        }
+
+        CompletableFuture<NodeState> timeoutCf = new CompletableFuture<>();
+        timeoutCf.completeExceptionally(new TimeoutException());
+
+        Map<String, CompletableFuture<NodeState>> clusterConnectivity = new HashMap<>();
+        clusterConnectivity.put("a", CompletableFuture.completedFuture(NodeState.builder().build()));
+        clusterConnectivity.put("b", timeoutCf);
+
+        AtomicLong now = new AtomicLong(lastHeartbeat + heartbeatInterval);
+        ClusterStateCollector collector = ClusterStateCollector.builder()
+                .localEndpoint(localEndpoint)
+                .clusterState(clusterConnectivity)
+                .failureSuspicion(server -> estimator.isSuspected(server, now.get()))
+                .build();
+
+        // A single missed heartbeat is tolerated
+        NodeConnectivity connectivity = collector
+                .collectClusterState(epoch, ImmutableList.of(), SequencerMetrics.UNKNOWN)
+                .getNode(localEndpoint).get()
+                .getConnectivity();
+        assertThat(connectivity.getConnectedNodes()).containsExactly("a", "b");
+        assertThat(connectivity.getFailedNodes()).isEmpty();
+
+        // The node is suspected once it missed many heartbeats
+        now.set(lastHeartbeat + heartbeatInterval * numHeartbeats);
+        connectivity = collector
+                .collectClusterState(epoch, ImmutableList.of(), SequencerMetrics.UNKNOWN)
+                .getNode(localEndpoint).get()
+                .getConnectivity();
+        assertThat(connectivity.getConnectedNodes()).containsExactly("a");
+        assertThat(connectivity.getFailedNodes()).containsExactly("b");
+    }
 }
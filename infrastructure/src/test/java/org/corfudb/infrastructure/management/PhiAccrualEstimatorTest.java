@@ -0,0 +1,82 @@
+package org.corfudb.infrastructure.management;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PhiAccrualEstimatorTest {
+
+    private static final String NODE = "a";
+    private static final long INTERVAL = 1000;
+    private static final int HEARTBEATS = 20;
+
+    private PhiAccrualEstimator newEstimator(MetricRegistry registry) {
+        return PhiAccrualEstimator.builder()
+                .threshold(8.0)
+                .minStdDeviation(Duration.ofMillis(100))
+                .firstHeartbeatEstimate(Duration.ofMillis(INTERVAL))
+                .metricRegistry(registry)
+                .build();
+    }
+
+    /**
+     * Tests that phi grows with the time since the last heartbeat and that a node is only
+     * suspected well after its expected heartbeat interval.
+     */
+    @Test
+    public void phiGrowsWithMissedHeartbeats() {
+        PhiAccrualEstimator estimator = newEstimator(new MetricRegistry());
+
+        long time = 0;
+        for (int i = 0; i < HEARTBEATS; i++) {
+            estimator.heartbeat(NODE, time);
+            time += INTERVAL;
+        }
+        long lastHeartbeat = time - INTERVAL;
+
+        double onTime = estimator.phi(NODE, lastHeartbeat + INTERVAL);
+        double late = estimator.phi(NODE, lastHeartbeat + INTERVAL * 2);
+        assertThat(onTime).isLessThan(1.0);
+        assertThat(late).isGreaterThan(onTime);
+
+        assertThat(estimator.isSuspected(NODE, lastHeartbeat + INTERVAL)).isFalse();
+        assertThat(estimator.isSuspected(NODE, lastHeartbeat + INTERVAL * 3)).isTrue();
+
+        // A heartbeat clears the suspicion
+        estimator.heartbeat(NODE, lastHeartbeat + INTERVAL * 3);
+        assertThat(estimator.isSuspected(NODE, lastHeartbeat + INTERVAL * 3)).isFalse();
+    }
+
+    /**
+     * Tests that a node which never responds is eventually suspected.
+     */
+    @Test
+    public void unknownNodeIsEventuallySuspected() {
+        PhiAccrualEstimator estimator = newEstimator(new MetricRegistry());
+
+        assertThat(estimator.isSuspected(NODE, 0)).isFalse();
+        assertThat(estimator.isSuspected(NODE, INTERVAL * 5)).isTrue();
+    }
+
+    /**
+     * Tests that the phi of every node is exposed as a gauge until the node leaves the cluster.
+     */
+    @Test
+    public void exposesPhiAsMetric() {
+        MetricRegistry registry = new MetricRegistry();
+        PhiAccrualEstimator estimator = newEstimator(registry);
+
+        estimator.heartbeat(NODE, System.currentTimeMillis());
+        estimator.heartbeat("b", System.currentTimeMillis());
+        assertThat(registry.getGauges().keySet())
+                .anyMatch(name -> name.endsWith("phi." + NODE));
+
+        estimator.retainAll(ImmutableSet.of("b"));
+        assertThat(registry.getGauges().keySet())
+                .noneMatch(name -> name.endsWith("phi." + NODE));
+    }
+}
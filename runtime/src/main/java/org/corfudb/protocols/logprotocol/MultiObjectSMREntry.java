@@ -3,6 +3,8 @@ package org.corfudb.protocols.logprotocol;
 import com.google.common.annotations.VisibleForTesting;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.runtime.CorfuRuntime;
@@ -23,20 +25,36 @@ import static com.google.common.base.Preconditions.checkState;
  * each one contains a list of updates for one object. When a LogEntry is deserialized,
  * a stream's updates are only deserialized on access. In essence, allowing a stream to
  * only deserialize its updates. That is, stream updates are lazily deserialized.
+ *
+ * <p>When the corfu.smr.lengthPrefix property is set, the serialized updates of every stream are
+ * prefixed by their length, so that the updates of the other streams can be skipped without
+ * being parsed. Such entries are marked by a negative number of streams. Entries of both
+ * formats are read.
  */
 @SuppressWarnings("checkstyle:abbreviation")
 @ToString
 @Slf4j
 public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
 
+    /**
+     * Whether the updates of every stream are prefixed by their length. Clients running an
+     * older version cannot read such entries, so this must only be enabled once every client
+     * has been upgraded.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean lengthPrefixEnabled =
+            Boolean.parseBoolean(System.getProperty("corfu.smr.lengthPrefix", Boolean.FALSE.toString()));
+
     // map from stream-ID to a list of updates encapsulated as MultiSMREntry
     private Map<UUID, MultiSMREntry> streamUpdates = new ConcurrentHashMap<>();
 
     /**
      * A container to store streams and their payloads (i.e. serialized SMR updates).
-     * This is required to support lazy stream deserialization.
+     * This is required to support lazy stream deserialization. The payloads are slices
+     * of a single copy of the serialized entry.
      */
-    private final Map<UUID, byte[]> streamBuffers = new ConcurrentHashMap<>();
+    private final Map<UUID, ByteBuf> streamBuffers = new ConcurrentHashMap<>();
 
     public MultiObjectSMREntry() {
         this.type = LogEntryType.MULTIOBJSMR;
@@ -88,31 +106,59 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
     public void deserializeBuffer(ByteBuf b, CorfuRuntime rt) {
         super.deserializeBuffer(b, rt);
         int numStreams = b.readInt();
+        final boolean hasLengths = numStreams < 0;
+        if (hasLengths) {
+            numStreams = -1 - numStreams;
+        }
+
+        // The MultiObjectSMREntry payload is structured as follows:
+        // LogEntry Type | number of streams | stream id | length | serialized MultiSMREntry | ...
+        // Entries without lengths require unpacking the MultiSMREntry entries one-by-one
+        final int start = b.readerIndex();
+        UUID[] streamIds = new UUID[numStreams];
+        int[] offsets = new int[numStreams];
+        int[] lengths = new int[numStreams];
+        for (int i = 0; i < numStreams; i++) {
+            streamIds[i] = new UUID(b.readLong(), b.readLong());
+            if (hasLengths) {
+                lengths[i] = b.readInt();
+                offsets[i] = b.readerIndex() - start;
+                b.skipBytes(lengths[i]);
+            } else {
+                offsets[i] = b.readerIndex() - start;
+                MultiSMREntry.seekToEnd(b);
+                lengths[i] = b.readerIndex() - start - offsets[i];
+            }
+        }
+
+        // The buffer can be released once the entry is deserialized, so the stream
+        // payloads are copied, all at once
+        byte[] payloads = new byte[b.readerIndex() - start];
+        b.getBytes(start, payloads);
+        ByteBuf payloadsBuf = Unpooled.wrappedBuffer(payloads);
         for (int i = 0; i < numStreams; i++) {
-            UUID streamId = new UUID(b.readLong(), b.readLong());
-
-            // The MultiObjectSMREntry payload is structure as follows:
-            // LogEntry Type | number of MultiSMREntry entries | MultiSMREntry id | serialized MultiSMREntry | ...
-            // Therefore we need to unpack the MultiSMREntry entries one-by-one
-            int start = b.readerIndex();
-            MultiSMREntry.seekToEnd(b);
-            int multiSMRLen = b.readerIndex() - start;
-            b.readerIndex(start);
-            byte[] streamUpdates = new byte[multiSMRLen];
-            b.readBytes(streamUpdates);
-            streamBuffers.put(streamId, streamUpdates);
+            streamBuffers.put(streamIds[i], payloadsBuf.slice(offsets[i], lengths[i]));
         }
     }
 
     @Override
     public void serialize(ByteBuf b) {
         super.serialize(b);
-        b.writeInt(streamUpdates.size());
+        final boolean withLengths = lengthPrefixEnabled;
+        // A negative number of streams marks the length prefixed payloads
+        b.writeInt(withLengths ? -1 - streamUpdates.size() : streamUpdates.size());
         streamUpdates.entrySet().stream()
                 .forEach(x -> {
                     b.writeLong(x.getKey().getMostSignificantBits());
                     b.writeLong(x.getKey().getLeastSignificantBits());
+                    if (!withLengths) {
+                        Serializers.CORFU.serialize(x.getValue(), b);
+                        return;
+                    }
+                    int lengthIndex = b.writerIndex();
+                    b.writeInt(0);
                     Serializers.CORFU.serialize(x.getValue(), b);
+                    b.setInt(lengthIndex, b.writerIndex() - lengthIndex - Integer.BYTES);
                 });
     }
 
@@ -134,8 +180,7 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
             }
 
             // The stream exists and it needs to be deserialized
-            byte[] streamUpdatesBuf = streamBuffers.get(id);
-            ByteBuf buf = Unpooled.wrappedBuffer(streamUpdatesBuf);
+            ByteBuf buf = streamBuffers.get(id).duplicate();
             MultiSMREntry multiSMREntry = (MultiSMREntry) Serializers.CORFU.deserialize(buf, null);
             multiSMREntry.setGlobalAddress(getGlobalAddress());
             streamBuffers.remove(id);
@@ -170,7 +215,7 @@ public class MultiObjectSMREntry extends LogEntry implements ISMRConsumable {
     }
 
     @VisibleForTesting
-    Map<UUID, byte[]> getStreamBuffers() {
+    Map<UUID, ByteBuf> getStreamBuffers() {
         return streamBuffers;
     }
 
@@ -11,8 +11,10 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
+import lombok.Setter;
 import lombok.ToString;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.object.SMRMethodIds;
 import org.corfudb.util.serializer.CorfuSerializer;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
@@ -23,18 +25,48 @@ import static com.google.common.base.Preconditions.checkState;
  * Created by mwei on 1/8/16.
  */
 @SuppressWarnings("checkstyle:abbreviation")
-@ToString(callSuper = true)
+@ToString(callSuper = true, doNotUseGetters = true)
 @NoArgsConstructor
 @EqualsAndHashCode
 public class SMREntry extends LogEntry implements ISMRConsumable {
 
+    /**
+     * The length written in place of the method name length, when the method is logged by its id.
+     */
+    private static final short METHOD_ID_LENGTH = -1;
+
+    /**
+     * Whether SMR methods are logged by their id. Clients running an older version
+     * cannot read such entries, so this must only be enabled once every client
+     * has been upgraded.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean methodIdsEnabled =
+            Boolean.parseBoolean(System.getProperty("corfu.smr.methodIds", Boolean.FALSE.toString()));
+
     /**
      * The name of the SMR method. Note that this is limited to the size of a short.
+     * Null until resolved if the entry was logged with the method id.
      */
     @SuppressWarnings("checkstyle:MemberName")
-    @Getter
+    @EqualsAndHashCode.Exclude
     private String SMRMethod;
 
+    /**
+     * The id of the SMR method, unique within the methods of the object type,
+     * see {@link SMRMethodIds}.
+     */
+    @SuppressWarnings("checkstyle:MemberName")
+    @Getter
+    private int SMRMethodId;
+
+    /**
+     * The SMR methods of the object type, if known.
+     */
+    @ToString.Exclude
+    private transient SMRMethodIds methodIds;
+
     /**
      * The arguments to the SMR method, which could be 0.
      */
@@ -89,10 +121,52 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
 
     /** SMREntry constructor. */
     public SMREntry(String smrMethod, @NonNull Object[] smrArguments, ISerializer serializer) {
+        this(smrMethod, smrArguments, serializer, SMRMethodIds.NONE);
+    }
+
+    /** SMREntry constructor, for a method of an object type with the given SMR methods. */
+    public SMREntry(String smrMethod, @NonNull Object[] smrArguments, ISerializer serializer,
+                    @NonNull SMRMethodIds methodIds) {
         super(LogEntryType.SMR);
         this.SMRMethod = smrMethod;
+        this.SMRMethodId = SMRMethodIds.getId(smrMethod);
         this.SMRArguments = smrArguments;
         this.serializerType = serializer;
+        this.methodIds = methodIds;
+    }
+
+    /**
+     * Get the name of the SMR method.
+     *
+     * @return The name of the SMR method.
+     * @throws IllegalStateException if the entry was logged with the method id, and was not
+     *                               resolved with {@link #resolveSMRMethod(SMRMethodIds)}.
+     */
+    public String getSMRMethod() {
+        if (SMRMethod == null) {
+            throw new IllegalStateException("SMR method id " + SMRMethodId
+                    + " was not resolved through the type of its object");
+        }
+        return SMRMethod;
+    }
+
+    /**
+     * Resolve the name of the SMR method, if the entry was logged with the method id.
+     *
+     * @param objectMethodIds The SMR methods of the type of the object this entry updates.
+     * @return This entry.
+     * @throws IllegalStateException if the object type has no SMR method with the id.
+     */
+    public SMREntry resolveSMRMethod(SMRMethodIds objectMethodIds) {
+        if (SMRMethod == null) {
+            String name = objectMethodIds.getName(SMRMethodId);
+            if (name == null) {
+                throw new IllegalStateException("Unknown SMR method id " + SMRMethodId);
+            }
+            SMRMethod = name;
+            methodIds = objectMethodIds;
+        }
+        return this;
     }
 
     /**
@@ -105,9 +179,17 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     void deserializeBuffer(ByteBuf b, CorfuRuntime rt) {
         super.deserializeBuffer(b, rt);
         short methodLength = b.readShort();
-        byte[] methodBytes = new byte[methodLength];
-        b.readBytes(methodBytes, 0, methodLength);
-        SMRMethod = new String(methodBytes);
+        if (methodLength == METHOD_ID_LENGTH) {
+            // Resolved through the type of the object the entry is applied to
+            SMRMethodId = b.readInt();
+            SMRMethod = null;
+        } else {
+            // Entries logged with the method name
+            byte[] methodBytes = new byte[methodLength];
+            b.readBytes(methodBytes, 0, methodLength);
+            SMRMethod = new String(methodBytes);
+            SMRMethodId = SMRMethodIds.getId(SMRMethod);
+        }
         serializerType = Serializers.getSerializer(b.readByte());
         byte numArguments = b.readByte();
         Object[] arguments = new Object[numArguments];
@@ -131,9 +213,9 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         // container type
         byte type = b.readByte();
         checkState(type == LogEntryType.SMR.asByte(), "Not a SMREntry!");
-        // Method name
+        // Method id or name
         short methodLength = b.readShort();
-        b.skipBytes(methodLength);
+        b.skipBytes(methodLength == METHOD_ID_LENGTH ? Integer.BYTES : methodLength);
         // Serializer type
         b.readByte();
         // num args
@@ -147,8 +229,16 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     @Override
     public void serialize(ByteBuf b) {
         super.serialize(b);
-        b.writeShort(SMRMethod.length());
-        b.writeBytes(SMRMethod.getBytes());
+        // Only the methods of an object type with generated ids can be resolved
+        // from their id by the readers. An entry read by id is written back by id.
+        if (SMRMethod == null || (methodIdsEnabled && methodIds != null
+                && methodIds.contains(SMRMethod))) {
+            b.writeShort(METHOD_ID_LENGTH);
+            b.writeInt(SMRMethodId);
+        } else {
+            b.writeShort(SMRMethod.length());
+            b.writeBytes(SMRMethod.getBytes());
+        }
         b.writeByte(serializerType.getType());
         b.writeByte(SMRArguments.length);
         Arrays.stream(SMRArguments)
@@ -10,7 +10,9 @@ import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 
 /**
@@ -26,6 +28,22 @@ public class CorfuMsg {
      * Marker field value, should equal 0xC0FC0FC0.
      */
     static final int markerField = 0xC0FC0FC0;
+
+    /**
+     * Marker field value of a message whose header also carries the request timeout.
+     */
+    static final int deadlineMarkerField = 0xC0FC0FC1;
+
+    /**
+     * Whether request timeouts are sent in the message header. Peers running an older
+     * version cannot parse such headers, so this must only be enabled once every node
+     * and client has been upgraded.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean deadlinesEnabled =
+            Boolean.parseBoolean(System.getProperty("corfu.msg.deadlines", Boolean.FALSE.toString()));
+
     static Map<Byte, CorfuMsgType> typeMap =
             Arrays.<CorfuMsgType>stream(CorfuMsgType.values())
                     .collect(Collectors.toMap(CorfuMsgType::asByte, Function.identity()));
@@ -66,6 +84,12 @@ public class CorfuMsg {
      */
     PriorityLevel priorityLevel = PriorityLevel.NORMAL;
 
+    /**
+     * Time in milliseconds the sender of a request waits for the response, 0 if it waits
+     * indefinitely. A server can drop a request that was queued longer than its timeout.
+     */
+    int timeout;
+
 
     /**
      * Constructor which generates a message based only the message type.
@@ -80,6 +104,8 @@ public class CorfuMsg {
 
     // The wire format of the NettyCorfuMessage message is below:
     //    markerField(1) | client ID(8) | request ID(8) |  epoch(8)   |  type(1)  |
+    // When deadlines are enabled and the message has a timeout, deadlineMarkerField is
+    // written instead and the timeout(4) follows the epoch.
 
     /**
      * Take the given bytebuffer and deserialize it into a message.
@@ -89,7 +115,7 @@ public class CorfuMsg {
      */
     public static CorfuMsg deserialize(ByteBuf buffer) {
         int marker = buffer.readInt();
-        if (marker != markerField) {
+        if (marker != markerField && marker != deadlineMarkerField) {
             throw new RuntimeException("Attempt to deserialize a message which is not a CorfuMsg, "
                     + "Marker = " + marker + " but expected 0xC0FC0FC0");
         }
@@ -97,6 +123,7 @@ public class CorfuMsg {
         UUID clusterId = new UUID(buffer.readLong(), buffer.readLong());
         long requestId = buffer.readLong();
         long epoch = buffer.readLong();
+        int timeout = marker == deadlineMarkerField ? buffer.readInt() : 0;
         PriorityLevel priority = PriorityLevel.typeMap.get(buffer.readByte());
         CorfuMsgType message = typeMap.get(buffer.readByte());
         CorfuMsg msg = message.getConstructor().construct();
@@ -105,6 +132,7 @@ public class CorfuMsg {
         msg.clusterID = clusterId;
         msg.requestID = requestId;
         msg.epoch = epoch;
+        msg.timeout = timeout;
         msg.priorityLevel = priority;
         msg.msgType = message;
         msg.fromBuffer(buffer);
@@ -118,7 +146,8 @@ public class CorfuMsg {
      * @param buffer The buffer to serialize to.
      */
     public void serialize(ByteBuf buffer) {
-        buffer.writeInt(markerField);
+        boolean withTimeout = deadlinesEnabled && timeout > 0;
+        buffer.writeInt(withTimeout ? deadlineMarkerField : markerField);
         if (clientID == null) {
             buffer.writeLong(0L);
             buffer.writeLong(0L);
@@ -137,6 +166,9 @@ public class CorfuMsg {
 
         buffer.writeLong(requestID);
         buffer.writeLong(epoch);
+        if (withTimeout) {
+            buffer.writeInt(timeout);
+        }
         buffer.writeByte(priorityLevel.asByte());
         buffer.writeByte(msgType.asByte());
     }
@@ -158,6 +190,7 @@ public class CorfuMsg {
         this.epoch = msg.epoch;
         this.requestID = msg.requestID;
         this.priorityLevel = msg.priorityLevel;
+        this.timeout = msg.timeout;
     }
 
     /**
@@ -45,6 +45,7 @@ public enum CorfuMsgType {
     LAYOUT_QUERY(17, new TypeToken<CorfuPayloadMsg<Long>>(){}),
     LAYOUT_BOOTSTRAP(18, new TypeToken<CorfuPayloadMsg<LayoutBootstrapRequest>>(){}, true, true),
     LAYOUT_NOBOOTSTRAP(19, TypeToken.of(CorfuMsg.class), true, false),
+    LAYOUT_WAIT_REQUEST(93, new TypeToken<CorfuPayloadMsg<LayoutWaitRequest>>(){}, true, true),
 
     // Sequencer Messages
     TOKEN_REQ(20, new TypeToken<CorfuPayloadMsg<TokenRequest>>(){}),
@@ -55,12 +56,17 @@ public enum CorfuMsgType {
     SEQUENCER_METRICS_RESPONSE(25, new TypeToken<CorfuPayloadMsg<SequencerMetrics>>(){}, true, false),
     STREAMS_ADDRESS_REQUEST(26, new TypeToken<CorfuPayloadMsg<StreamsAddressRequest>>(){}),
     STREAMS_ADDRESS_RESPONSE(27, new TypeToken<CorfuPayloadMsg<StreamsAddressResponse>>(){}),
+    STREAMS_TAIL_WAIT_REQUEST(91, new TypeToken<CorfuPayloadMsg<StreamsTailWaitRequest>>(){}),
+    STREAMS_TAIL_WAIT_RESPONSE(92, new TypeToken<CorfuPayloadMsg<TailsResponse>>(){}),
 
     // Logging Unit Messages
     WRITE(30, new TypeToken<CorfuPayloadMsg<WriteRequest>>() {}),
     READ_REQUEST(31, new TypeToken<CorfuPayloadMsg<ReadRequest>>() {}),
     READ_RESPONSE(32, new TypeToken<CorfuPayloadMsg<ReadResponse>>() {}),
+    READ_RESPONSE_CHUNK(33, new TypeToken<CorfuPayloadMsg<ReadResponse>>() {}),
     MULTIPLE_READ_REQUEST(35, new TypeToken<CorfuPayloadMsg<MultipleReadRequest>>() {}),
+    STREAM_READ_REQUEST(36, new TypeToken<CorfuPayloadMsg<StreamReadRequest>>() {}),
+    STREAM_READ_RESPONSE(37, new TypeToken<CorfuPayloadMsg<StreamReadResponse>>() {}),
     PREFIX_TRIM(38, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     TAIL_REQUEST(41, new TypeToken<CorfuPayloadMsg<TailsRequest>>(){}),
     TAIL_RESPONSE(42, new TypeToken<CorfuPayloadMsg<TailsResponse>>(){}),
@@ -111,6 +117,9 @@ public enum CorfuMsgType {
 
     KNOWN_ADDRESS_REQUEST(86, new TypeToken<CorfuPayloadMsg<KnownAddressRequest>>() {}),
     KNOWN_ADDRESS_RESPONSE(87, new TypeToken<CorfuPayloadMsg<KnownAddressResponse>>() {}),
+    SEGMENT_CHUNK_REQUEST(88, new TypeToken<CorfuPayloadMsg<SegmentChunkRequest>>() {}),
+    SEGMENT_CHUNK_RESPONSE(89, new TypeToken<CorfuPayloadMsg<SegmentChunk>>() {}),
+    SEGMENT_CHUNK_WRITE(90, new TypeToken<CorfuPayloadMsg<SegmentChunk>>() {}),
 
     ERROR_SERVER_EXCEPTION(200, new TypeToken<CorfuPayloadMsg<ExceptionMsg>>() {}, true, false),
     ;
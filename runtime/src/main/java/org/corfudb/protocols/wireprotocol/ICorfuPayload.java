@@ -17,7 +17,6 @@ import org.corfudb.protocols.wireprotocol.IMetadata.DataRank;
 import org.corfudb.runtime.exceptions.SerializerException;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
-import org.corfudb.util.JsonUtils;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.io.DataOutputStream;
@@ -29,7 +28,6 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.nio.charset.StandardCharsets;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -65,8 +63,7 @@ public interface ICorfuPayload<T> {
                         int length = x.readInt();
                         byte[] byteArray = new byte[length];
                         x.readBytes(byteArray, 0, length);
-                        String str = new String(byteArray, StandardCharsets.UTF_8);
-                        return JsonUtils.parser.fromJson(str, Layout.class);
+                        return Layout.fromBytes(byteArray);
                     })
                     .put(DataRank.class, x -> new DataRank(x.readLong(), new UUID(x.readLong(), x.readLong())))
                     .put(CheckpointEntryType.class, x -> CheckpointEntryType.typeMap.get(x.readByte()))
@@ -352,7 +349,7 @@ public interface ICorfuPayload<T> {
             buffer.writeInt(list.size());
             list.forEach(x -> serialize(buffer, x));
         } else if (payload instanceof Layout) {
-            byte[] b = JsonUtils.parser.toJson(payload).getBytes();
+            byte[] b = ((Layout) payload).asBytes();
             buffer.writeInt(b.length);
             buffer.writeBytes(b);
         } else if (payload instanceof ByteBuf) {
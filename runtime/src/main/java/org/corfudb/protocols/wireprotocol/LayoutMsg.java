@@ -1,12 +1,7 @@
 package org.corfudb.protocols.wireprotocol;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 import io.netty.buffer.ByteBuf;
 
-import java.nio.charset.StandardCharsets;
-
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -22,7 +17,6 @@ import org.corfudb.runtime.view.Layout;
 @NoArgsConstructor
 @ToString(callSuper = true)
 public class LayoutMsg extends CorfuMsg {
-    static final Gson parser = new GsonBuilder().create();
     /**
      * The current layout.
      */
@@ -42,7 +36,7 @@ public class LayoutMsg extends CorfuMsg {
     @Override
     public void serialize(ByteBuf buffer) {
         super.serialize(buffer);
-        byte[] b = parser.toJson(layout).getBytes();
+        byte[] b = layout.asBytes();
         buffer.writeInt(b.length);
         buffer.writeBytes(b);
     }
@@ -59,7 +53,6 @@ public class LayoutMsg extends CorfuMsg {
         int length = buffer.readInt();
         byte[] byteArray = new byte[length];
         buffer.readBytes(byteArray, 0, length);
-        String str = new String(byteArray, StandardCharsets.UTF_8);
-        layout = parser.fromJson(str, Layout.class);
+        layout = Layout.fromBytes(byteArray);
     }
 }
@@ -0,0 +1,39 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A request to wait until a layout with an epoch greater than the epoch known by the client
+ * is committed. The layout server holds the request and responds with the new layout as soon
+ * as it is committed, or with the current layout once the timeout expires. This lets clients
+ * pick up new layouts without polling the layout servers.
+ */
+@Data
+@AllArgsConstructor
+public class LayoutWaitRequest implements ICorfuPayload<LayoutWaitRequest> {
+
+    /** The epoch of the layout known by the client. */
+    private final Long epoch;
+
+    /** Maximum time in milliseconds to hold the request for. */
+    private final Long timeout;
+
+    /**
+     * Deserialization Constructor from Bytebuf to LayoutWaitRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public LayoutWaitRequest(ByteBuf buf) {
+        epoch = ICorfuPayload.fromBuffer(buf, Long.class);
+        timeout = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, epoch);
+        ICorfuPayload.serialize(buf, timeout);
+    }
+}
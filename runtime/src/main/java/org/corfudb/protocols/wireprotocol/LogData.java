@@ -1,9 +1,9 @@
 package org.corfudb.protocols.wireprotocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.EnumMap;
 import java.util.concurrent.atomic.AtomicReference;
@@ -12,6 +12,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.common.compression.Codec;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.runtime.CorfuRuntime;
@@ -29,11 +30,13 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     @Getter
     final DataType type;
 
-    @Getter
     byte[] data;
 
     private ByteBuf serializedCache = null;
 
+    // Index of the payload in the serialized form, if it has not been read from it yet
+    private int serializedDataIndex = NOT_KNOWN;
+
     private int lastKnownSize = NOT_KNOWN;
 
     private final transient AtomicReference<Object> payload = new AtomicReference<>();
@@ -73,6 +76,7 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
             synchronized (this.payload) {
                 value = this.payload.get();
                 if (value == null) {
+                    readSerializedData();
                     if (data == null) {
                         this.payload.set(null);
                     } else {
@@ -80,10 +84,21 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
                         if (hasPayloadCodec()) {
                             // if the payload has a codec we need to decode it before deserialization
                             ByteBuf compressedBuf = ICorfuPayload.fromBuffer(data, ByteBuf.class);
-                            byte[] compressedArrayBuf= new byte[compressedBuf.readableBytes()];
-                            compressedBuf.readBytes(compressedArrayBuf);
-                            serializedBuf = Unpooled.wrappedBuffer(getPayloadCodecType()
-                                    .getInstance().decompress(ByteBuffer.wrap(compressedArrayBuf)));
+                            if (getPayloadCodecType() == Codec.Type.ZSTD_DICT && runtime != null) {
+                                // the dictionary may have been trained by another runtime
+                                runtime.getCompressionDictionaryStore().ensureLoaded(
+                                        ZSTDDictionaryCompression.getDictionaryId(compressedBuf.nioBuffer()));
+                            }
+                            // decompress straight from the payload into a pooled buffer
+                            serializedBuf = PooledByteBufAllocator.DEFAULT.heapBuffer();
+                            try {
+                                getPayloadCodecType().getInstance().decompress(compressedBuf, serializedBuf);
+                            } catch (Throwable throwable) {
+                                serializedBuf.release();
+                                throw throwable;
+                            } finally {
+                                compressedBuf.release();
+                            }
                         }
 
                         final Object actualValue;
@@ -116,6 +131,32 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
         return value;
     }
 
+    /**
+     * Get the serialized payload of this LogData.
+     *
+     * @return the serialized payload, or null if there is none or it was deserialized
+     */
+    public byte[] getData() {
+        if (serializedDataIndex != NOT_KNOWN) {
+            synchronized (this.payload) {
+                readSerializedData();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Read the payload of a LogData created from its serialized form, on first access.
+     */
+    private void readSerializedData() {
+        if (serializedDataIndex != NOT_KNOWN) {
+            byte[] bytes = new byte[lastKnownSize];
+            serializedCache.getBytes(serializedDataIndex, bytes);
+            data = bytes;
+            serializedDataIndex = NOT_KNOWN;
+        }
+    }
+
     @Override
     public synchronized void releaseBuffer() {
         if (serializedCache != null) {
@@ -173,6 +214,41 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
         }
     }
 
+    /**
+     * Create a LogData backed by its serialized form, which is written as is when the
+     * LogData is serialized. Only the type and the metadata are decoded, the payload is
+     * not copied out of the serialized form unless it is accessed.
+     *
+     * @param buf buffer holding exactly one serialized LogData, which is not released
+     *            by the returned LogData and must not be modified while it is in use
+     * @return the LogData backed by the buffer
+     */
+    public static LogData fromSerializedForm(ByteBuf buf) {
+        ByteBuf header = buf.duplicate();
+        DataType type = ICorfuPayload.fromBuffer(header, DataType.class);
+        int dataIndex = NOT_KNOWN;
+        int dataLength = NOT_KNOWN;
+        if (type == DataType.DATA) {
+            dataLength = header.readInt();
+            dataIndex = header.readerIndex();
+            header.skipBytes(dataLength);
+        }
+
+        LogData logData = new LogData(type, type.isMetadataAware()
+                ? ICorfuPayload.enumMapFromBuffer(header, IMetadata.LogUnitMetadataType.class)
+                : new EnumMap<>(IMetadata.LogUnitMetadataType.class));
+        logData.serializedCache = Unpooled.unreleasableBuffer(buf.duplicate());
+        logData.serializedDataIndex = dataIndex;
+        logData.lastKnownSize = dataLength;
+        return logData;
+    }
+
+    private LogData(DataType type, EnumMap<IMetadata.LogUnitMetadataType, Object> metadataMap) {
+        this.type = type;
+        this.data = null;
+        this.metadataMap = metadataMap;
+    }
+
     /**
      * Constructor for generating LogData.
      *
@@ -276,9 +352,14 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
                 buf.writeInt(0);
                 if (hasPayloadCodec()) {
                     // if the payload has a codec we need to also compress the payload
-                    ByteBuf serializeBuf = Unpooled.buffer();
-                    Serializers.CORFU.serialize(payload.get(), serializeBuf);
-                    doCompressInternal(serializeBuf, buf);
+                    ByteBuf serializeBuf = buf.isDirect()
+                            ? buf.alloc().directBuffer() : buf.alloc().heapBuffer();
+                    try {
+                        Serializers.CORFU.serialize(payload.get(), serializeBuf);
+                        doCompressInternal(serializeBuf, buf);
+                    } finally {
+                        serializeBuf.release();
+                    }
                 } else {
                     Serializers.CORFU.serialize(payload.get(), buf);
                 }
@@ -299,9 +380,15 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     }
 
     private void doCompressInternal(ByteBuf bufData, ByteBuf buf) {
-        ByteBuffer wrappedByteBuf = ByteBuffer.wrap(bufData.array(), 0, bufData.readableBytes());
-        ByteBuffer compressedBuf = getPayloadCodecType().getInstance().compress(wrappedByteBuf);
-        ICorfuPayload.serialize(buf, Unpooled.wrappedBuffer(compressedBuf));
+        // payloads are compressed with the dictionary of the streams they are written to, if any
+        Codec codec = getPayloadCodecType() == Codec.Type.ZSTD_DICT
+                ? ZSTDDictionaryCompression.forStreams(getStreams())
+                : getPayloadCodecType().getInstance();
+        // the payload is compressed in place, after its length
+        int lengthIndex = buf.writerIndex();
+        buf.writeInt(0);
+        codec.compress(bufData, buf);
+        buf.setInt(lengthIndex, buf.writerIndex() - lengthIndex - Integer.BYTES);
     }
 
     /**
@@ -21,6 +21,14 @@ public class MultipleReadRequest implements ICorfuPayload<MultipleReadRequest> {
     // Whether the read results should be cached on server.
     private final boolean cacheReadResult;
 
+    // Upper bound on the size of a response message, the entries are sent back in chunks
+    // of at most this size. 0 sends all the entries in a single response.
+    private final int maxResponseSize;
+
+    public MultipleReadRequest(List<Long> addresses, boolean cacheReadResult) {
+        this(addresses, cacheReadResult, 0);
+    }
+
     /**
      * Deserialization Constructor from ByteBuf to ReadRequest.
      *
@@ -29,11 +37,15 @@ public class MultipleReadRequest implements ICorfuPayload<MultipleReadRequest> {
     public MultipleReadRequest(ByteBuf buf) {
         addresses = ICorfuPayload.listFromBuffer(buf, Long.class);
         cacheReadResult = buf.readBoolean();
+        // The bound is appended to the original format, a request from a client which does
+        // not set it is answered with a single response.
+        maxResponseSize = buf.isReadable() ? buf.readInt() : 0;
     }
 
     @Override
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, addresses);
         buf.writeBoolean(cacheReadResult);
+        buf.writeInt(maxResponseSize);
     }
 }
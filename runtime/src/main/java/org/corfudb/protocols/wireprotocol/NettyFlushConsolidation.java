@@ -0,0 +1,59 @@
+package org.corfudb.protocols.wireprotocol;
+
+import com.codahale.metrics.Histogram;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.flush.FlushConsolidationHandler;
+
+/**
+ * Consolidates the flushes of the messages written on a channel, so that a burst of small
+ * messages is sent with a single syscall.
+ *
+ * <p>A flush is delayed until the end of the current read when one is in progress, and
+ * otherwise until the event loop runs it, with at most a given number of flushes merged
+ * together. The number of messages sent by every flush is recorded in a histogram.
+ */
+public class NettyFlushConsolidation extends ChannelOutboundHandlerAdapter {
+
+    private final Histogram messagesPerFlush;
+
+    // Messages written since the last flush, only accessed from the event loop
+    private int pendingMessages = 0;
+
+    private NettyFlushConsolidation(Histogram messagesPerFlush) {
+        this.messagesPerFlush = messagesPerFlush;
+    }
+
+    /**
+     * Adds the flush consolidation handlers at the end of the pipeline, they have to be
+     * added right before the handler writing the messages.
+     *
+     * @param pipeline         the pipeline of the channel
+     * @param maxFlushes       maximum number of flushes merged together, 0 does not add the
+     *                         consolidation, only the metrics
+     * @param messagesPerFlush histogram of the number of messages sent by every flush
+     */
+    public static void addLast(ChannelPipeline pipeline, int maxFlushes, Histogram messagesPerFlush) {
+        pipeline.addLast(new NettyFlushConsolidation(messagesPerFlush));
+        if (maxFlushes > 0) {
+            pipeline.addLast(new FlushConsolidationHandler(maxFlushes, true));
+        }
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        pendingMessages++;
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (pendingMessages > 0) {
+            messagesPerFlush.update(pendingMessages);
+            pendingMessages = 0;
+        }
+        super.flush(ctx);
+    }
+}
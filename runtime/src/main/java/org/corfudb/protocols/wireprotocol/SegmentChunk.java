@@ -0,0 +1,49 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A chunk of a segment file, as stored by the log unit server. The records of the
+ * segment file keep their checksums, so that they can be verified by the receiver.
+ */
+@Data
+@AllArgsConstructor
+public class SegmentChunk implements ICorfuPayload<SegmentChunk> {
+
+    private final Long segment;
+    // Position of this chunk in the segment file
+    private final Long offset;
+    // Total size of the segment file
+    private final Long segmentSize;
+    private final byte[] data;
+
+    /**
+     * Deserialization Constructor from Bytebuf to SegmentChunk.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public SegmentChunk(ByteBuf buf) {
+        segment = ICorfuPayload.fromBuffer(buf, Long.class);
+        offset = ICorfuPayload.fromBuffer(buf, Long.class);
+        segmentSize = ICorfuPayload.fromBuffer(buf, Long.class);
+        data = ICorfuPayload.fromBuffer(buf, byte[].class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, segment);
+        ICorfuPayload.serialize(buf, offset);
+        ICorfuPayload.serialize(buf, segmentSize);
+        ICorfuPayload.serialize(buf, data);
+    }
+
+    /**
+     * @return True if this is the last chunk of the segment file.
+     */
+    public boolean isLast() {
+        return offset + data.length == segmentSize;
+    }
+}
@@ -0,0 +1,37 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Request for a chunk of a segment file of the log unit server.
+ * This is used by state transfer to copy sealed segment files as a whole.
+ */
+@Data
+@AllArgsConstructor
+public class SegmentChunkRequest implements ICorfuPayload<SegmentChunkRequest> {
+
+    private final Long segment;
+    private final Long offset;
+    private final Integer length;
+
+    /**
+     * Deserialization Constructor from Bytebuf to SegmentChunkRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public SegmentChunkRequest(ByteBuf buf) {
+        segment = ICorfuPayload.fromBuffer(buf, Long.class);
+        offset = ICorfuPayload.fromBuffer(buf, Long.class);
+        length = ICorfuPayload.fromBuffer(buf, Integer.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, segment);
+        ICorfuPayload.serialize(buf, offset);
+        ICorfuPayload.serialize(buf, length);
+    }
+}
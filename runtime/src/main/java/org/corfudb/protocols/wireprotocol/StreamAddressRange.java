@@ -8,7 +8,8 @@ import java.util.UUID;
  * This class represents a range of addresses for a stream.
  *
  * This is used to request the address map of a stream in
- * a given boundary-- limits given by (end, start].
+ * a given boundary-- limits given by (end, start], optionally
+ * bounded to its first limit addresses.
  *
  * Created by annym on 03/06/19
  */
@@ -21,4 +22,18 @@ public class StreamAddressRange {
 
     // Stop is exclusive
     private final long end;
+
+    // Maximum number of addresses, the lowest ones in the range are kept, 0 for no limit
+    private final int limit;
+
+    public StreamAddressRange(UUID streamID, long start, long end) {
+        this(streamID, start, end, 0);
+    }
+
+    public StreamAddressRange(UUID streamID, long start, long end, int limit) {
+        this.streamID = streamID;
+        this.start = start;
+        this.end = end;
+        this.limit = limit;
+    }
 }
@@ -0,0 +1,47 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A request to read the entries of a stream in the range (start, end], which the
+ * log unit resolves from its own stream address spaces.
+ */
+@Data
+@AllArgsConstructor
+public class StreamReadRequest implements ICorfuPayload<StreamReadRequest> {
+
+    private final UUID streamId;
+
+    // Start of the range (exclusive), the last address already resolved by the client.
+    private final long start;
+
+    // End of the range (inclusive).
+    private final long end;
+
+    // Upper bound on the size of the entries in the response.
+    private final int maxResponseSize;
+
+    /**
+     * Deserialization Constructor from ByteBuf to StreamReadRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamReadRequest(ByteBuf buf) {
+        streamId = ICorfuPayload.fromBuffer(buf, UUID.class);
+        start = buf.readLong();
+        end = buf.readLong();
+        maxResponseSize = buf.readInt();
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, streamId);
+        buf.writeLong(start);
+        buf.writeLong(end);
+        buf.writeInt(maxResponseSize);
+    }
+}
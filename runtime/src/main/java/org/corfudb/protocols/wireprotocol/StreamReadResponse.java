@@ -0,0 +1,46 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * The entries of a stream read by a log unit, in address order.
+ *
+ * <p>The response is complete up to the covered address: every entry of the stream in
+ * (start, coveredAddress] is included. The covered address is lower than the end of the
+ * requested range if the response size bound was reached, or if an address of the range
+ * is not written yet on the log unit.
+ */
+@Data
+@AllArgsConstructor
+public class StreamReadResponse implements ICorfuPayload<StreamReadResponse> {
+
+    // The last address of the requested range for which the response is complete.
+    private final long coveredAddress;
+
+    // The trim mark of the stream, as known by the log unit.
+    private final long trimMark;
+
+    private final List<LogData> entries;
+
+    /**
+     * Deserialization Constructor from ByteBuf to StreamReadResponse.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamReadResponse(ByteBuf buf) {
+        coveredAddress = buf.readLong();
+        trimMark = buf.readLong();
+        entries = ICorfuPayload.listFromBuffer(buf, LogData.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        buf.writeLong(coveredAddress);
+        buf.writeLong(trimMark);
+        ICorfuPayload.serialize(buf, entries);
+    }
+}
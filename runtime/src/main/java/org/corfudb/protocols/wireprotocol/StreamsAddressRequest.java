@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,13 +23,21 @@ public class StreamsAddressRequest implements ICorfuPayload<StreamsAddressReques
 
     public static final byte ALL_STREAMS = 1; /*To request all streams*/
 
+    /**
+     * To request specific streams, some bounded to a number of addresses. The limits are
+     * written after the ranges, so that the ranges keep their encoding. Sequencers running
+     * an older version do not know this type and return the address maps of all streams.
+     */
+    public static final byte STREAMS_WITH_LIMITS = 2;
+
     /** The type of request, one of the above. */
     final byte reqType;
 
     private final List<StreamAddressRange> streamsRanges;
 
     public StreamsAddressRequest(@NonNull List<StreamAddressRange> streamsRanges) {
-        reqType = STREAMS;
+        reqType = streamsRanges.stream().anyMatch(range -> range.getLimit() > 0)
+                ? STREAMS_WITH_LIMITS : STREAMS;
         this.streamsRanges = streamsRanges;
     }
 
@@ -44,7 +53,14 @@ public class StreamsAddressRequest implements ICorfuPayload<StreamsAddressReques
      */
     public StreamsAddressRequest(ByteBuf buf) {
         reqType = ICorfuPayload.fromBuffer(buf, Byte.class);
-        if (reqType != ALL_STREAMS) {
+        if (reqType == STREAMS_WITH_LIMITS) {
+            List<StreamAddressRange> ranges = ICorfuPayload.listFromBuffer(buf, StreamAddressRange.class);
+            streamsRanges = new ArrayList<>(ranges.size());
+            for (StreamAddressRange range : ranges) {
+                streamsRanges.add(new StreamAddressRange(range.getStreamID(), range.getStart(),
+                        range.getEnd(), buf.readInt()));
+            }
+        } else if (reqType != ALL_STREAMS) {
             streamsRanges = ICorfuPayload.listFromBuffer(buf, StreamAddressRange.class);
         } else {
             streamsRanges = Collections.EMPTY_LIST;
@@ -57,5 +73,8 @@ public class StreamsAddressRequest implements ICorfuPayload<StreamsAddressReques
         if (reqType != ALL_STREAMS) {
             ICorfuPayload.serialize(buf, streamsRanges);
         }
+        if (reqType == STREAMS_WITH_LIMITS) {
+            streamsRanges.forEach(range -> buf.writeInt(range.getLimit()));
+        }
     }
 }
@@ -1,6 +1,8 @@
 package org.corfudb.protocols.wireprotocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.ToString;
 import lombok.Value;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
@@ -21,9 +23,35 @@ public class StreamsAddressResponse implements ICorfuPayload<StreamsAddressRespo
 
     private final Map<UUID, StreamAddressSpace> addressMap;
 
+    // The address map serialized when the response was created, if any
+    @ToString.Exclude
+    private final transient ByteBuf serializedAddressMap;
+
     public StreamsAddressResponse(long logTail, Map<UUID, StreamAddressSpace> streamsAddressesMap) {
+        this(logTail, streamsAddressesMap, null);
+    }
+
+    private StreamsAddressResponse(long logTail, Map<UUID, StreamAddressSpace> streamsAddressesMap,
+                                   ByteBuf serializedAddressMap) {
         this.logTail = logTail;
         this.addressMap = streamsAddressesMap;
+        this.serializedAddressMap = serializedAddressMap;
+    }
+
+    /**
+     * Returns a response whose address map is serialized by the calling thread. The owner of
+     * the address spaces can send them without copying them, as long as it only updates them
+     * from this thread.
+     *
+     * @param logTail             the global log tail
+     * @param streamsAddressesMap the address space of every stream
+     * @return the response
+     */
+    public static StreamsAddressResponse serialized(long logTail,
+                                                    Map<UUID, StreamAddressSpace> streamsAddressesMap) {
+        ByteBuf buf = Unpooled.buffer();
+        ICorfuPayload.serialize(buf, streamsAddressesMap);
+        return new StreamsAddressResponse(logTail, streamsAddressesMap, buf);
     }
 
     /**
@@ -34,11 +62,17 @@ public class StreamsAddressResponse implements ICorfuPayload<StreamsAddressRespo
     public StreamsAddressResponse(ByteBuf buf) {
         this.logTail = ICorfuPayload.fromBuffer(buf, Long.class);
         this.addressMap = ICorfuPayload.mapFromBuffer(buf, UUID.class, StreamAddressSpace.class);
+        this.serializedAddressMap = null;
     }
 
     @Override
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, this.logTail);
-        ICorfuPayload.serialize(buf, this.addressMap);
+        if (serializedAddressMap != null) {
+            buf.writeBytes(serializedAddressMap, serializedAddressMap.readerIndex(),
+                    serializedAddressMap.readableBytes());
+        } else {
+            ICorfuPayload.serialize(buf, this.addressMap);
+        }
     }
 }
@@ -0,0 +1,47 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A request to wait until the tail of any of the given streams moves past an address.
+ * The sequencer holds the request and responds with the tails of the streams as soon as
+ * any of them is advanced, or with the current tails once the timeout expires. This lets
+ * consumers block on streams without polling the sequencer.
+ */
+@Data
+@AllArgsConstructor
+public class StreamsTailWaitRequest implements ICorfuPayload<StreamsTailWaitRequest> {
+
+    /** The last address known by the client, the request completes once a tail is past it. */
+    private final Long address;
+
+    /** The streams to wait on. */
+    private final List<UUID> streams;
+
+    /** Maximum time in milliseconds to hold the request for. */
+    private final Long timeout;
+
+    /**
+     * Deserialization Constructor from Bytebuf to StreamsTailWaitRequest.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public StreamsTailWaitRequest(ByteBuf buf) {
+        address = ICorfuPayload.fromBuffer(buf, Long.class);
+        streams = ICorfuPayload.listFromBuffer(buf, UUID.class);
+        timeout = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, address);
+        ICorfuPayload.serialize(buf, streams);
+        ICorfuPayload.serialize(buf, timeout);
+    }
+}
@@ -36,6 +36,7 @@ import org.corfudb.runtime.view.SequencerView;
 import org.corfudb.runtime.view.StreamsView;
 import org.corfudb.runtime.view.ManagementView;
 import org.corfudb.runtime.view.TableRegistry;
+import org.corfudb.runtime.view.CompressionDictionaryStore;
 import org.corfudb.runtime.view.LayoutView;
 import org.corfudb.runtime.view.LayoutManagementView;
 import org.corfudb.runtime.view.Layout;
@@ -60,7 +61,11 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -100,6 +105,13 @@ public class CorfuRuntime {
         @Default
         int bulkReadSize = 10;
 
+        /**
+         * Upper bound on the size of a log unit response to a batched read, the entries
+         * are sent back in chunks of at most this size. 0 sends them in a single response.
+         */
+        @Default
+        int readResponseChunkSize = 0;
+
         /**
          * How much time the Fast Loader has to get the maps up to date.
          *
@@ -189,6 +201,34 @@ public class CorfuRuntime {
         @Default
         int writeRetry = 5;
 
+        /**
+         * Number of threads completing the asynchronous commits. 0 means that we will use 2x
+         * the number of processors reported in the system.
+         */
+        @Default
+        int commitThreads = 0;
+
+        /**
+         * Maximum number of asynchronous commits waiting for a commit thread, beyond which
+         * they fail with a {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        @Default
+        int commitQueueSize = 10_000;
+
+        /**
+         * Window in which the appends of SMR entries to different streams, made outside of
+         * transactions, are coalesced into a single log entry. {@link Duration#ZERO} writes
+         * every append on its own.
+         */
+        @Default
+        Duration writeCoalescingWindow = Duration.ZERO;
+
+        /**
+         * Maximum number of appends coalesced into a single log entry.
+         */
+        @Default
+        int writeCoalescingMaxEntries = 32;
+
         /**
          * The number of times to retry on a retriable
          * {@link org.corfudb.runtime.exceptions.TrimmedException} during a transaction.
@@ -210,6 +250,15 @@ public class CorfuRuntime {
         @Default
         int streamBatchSize = 10;
 
+        /**
+         * Upper bound on the size of the entries returned by a log unit for a stream read. When
+         * positive, address map streams are synced by reading their entries straight from the log
+         * unit, which resolves the addresses of the stream itself, instead of requesting the stream
+         * address map from the sequencer. 0 disables server side stream reads.
+         */
+        @Default
+        int streamReadSize = 0;
+
         /**
          * Checkpoint read Batch Size: number of checkpoint addresses to fetch in batch when stream
          * address discovery mechanism relies on address maps instead of follow backpointers;
@@ -285,6 +334,14 @@ public class CorfuRuntime {
         @Default
         int keepAlivePeriod = 2;
 
+        /**
+         * Maximum number of flushes of the messages sent to a server merged into a single
+         * one, the flushes are otherwise delayed until the event loop is idle. 0 flushes
+         * every message as soon as it is written.
+         */
+        @Default
+        int flushConsolidationSize = 0;
+
         /**
          * {@link Duration} before connections timeout.
          */
@@ -336,6 +393,14 @@ public class CorfuRuntime {
         @Default
         int systemDownHandlerTriggerLimit = 20;
 
+        /**
+         * Whether the runtime waits on the layout servers for new layouts, so that a new layout
+         * is picked up as soon as it is committed, rather than after a request fails with a
+         * wrong epoch. The layout servers must support layout waits.
+         */
+        @Default
+        boolean layoutWatchEnabled = false;
+
         /**
          * The initial list of layout servers.
          */
@@ -527,6 +592,12 @@ public class CorfuRuntime {
     @Getter(lazy = true)
     private final TableRegistry tableRegistry = new TableRegistry(this);
 
+    /**
+     * The compression dictionaries trained for the streams of this cluster.
+     */
+    @Getter(lazy = true)
+    private final CompressionDictionaryStore compressionDictionaryStore = new CompressionDictionaryStore(this);
+
     /**
      * List of initial set of layout servers, i.e., servers specified in
      * connection string on bootstrap.
@@ -577,6 +648,18 @@ public class CorfuRuntime {
             .setNameFormat("CorfuRuntime-%d")
             .build());
 
+    /**
+     * These threads complete the asynchronous commits which could not be written without
+     * blocking, so that the retries never run on the event loop of the clients.
+     */
+    @Getter
+    private final ExecutorService commitExecutor;
+
+    /**
+     * This thread waits on the layout servers for new layouts, if layout watch is enabled.
+     */
+    private volatile ExecutorService layoutWatcher = null;
+
     /**
      * Latest layout seen by the runtime.
      */
@@ -683,6 +766,8 @@ public class CorfuRuntime {
         // Initializing the node router pool.
         nodeRouterPool = new NodeRouterPool(getRouterFunction);
 
+        commitExecutor = getNewCommitExecutor();
+
         // Try to expose metrics via Dropwizard CsvReporter JmxReporter and Slf4jReporter.
         MetricsUtils.metricsReportingSetup(defaultMetrics);
         if (parameters.getPrometheusMetricsPort() != MetricsUtils.NO_METRICS_PORT) {
@@ -694,6 +779,26 @@ public class CorfuRuntime {
         log.info("Corfu runtime version {} initialized.", getVersionString());
     }
 
+    /**
+     * Get a new executor for the asynchronous commits, bounded both in threads and in queued
+     * commits. Its threads time out when idle.
+     *
+     * @return An {@link ExecutorService}.
+     */
+    private ExecutorService getNewCommitExecutor() {
+        int numThreads = parameters.commitThreads == 0
+                ? Runtime.getRuntime().availableProcessors() * 2 :
+                parameters.commitThreads;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(parameters.commitQueueSize),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("CorfuRuntime-commit-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Get a new {@link EventLoopGroup} for scheduling threads for Netty. The
      * {@link EventLoopGroup} is typically passed to a router.
@@ -740,6 +845,10 @@ public class CorfuRuntime {
         isShutdown = true;
         garbageCollector.stop();
         runtimeExecutor.shutdownNow();
+        commitExecutor.shutdownNow();
+        if (layoutWatcher != null) {
+            layoutWatcher.shutdownNow();
+        }
         if (layout != null) {
             try {
                 layout.cancel(true);
@@ -1016,6 +1125,58 @@ public class CorfuRuntime {
         }, runtimeExecutor);
     }
 
+    /**
+     * Waits on the layout servers for new layouts, until the runtime is shut down. A layout
+     * server holds the wait until a layout with a greater epoch than the latest layout of the
+     * runtime is committed, or until half of the request timeout expires.
+     */
+    private void watchLayouts() {
+        final Duration waitTimeout = parameters.getRequestTimeout().dividedBy(2);
+
+        while (!isShutdown) {
+            Layout currentLayout = latestLayout;
+            List<String> servers = currentLayout.getActiveLayoutServers();
+            String server = servers.get(ThreadLocalRandom.current().nextInt(servers.size()));
+
+            try {
+                Layout newLayout = new LayoutClient(getRouter(server), Layout.INVALID_EPOCH,
+                        Layout.INVALID_CLUSTER_ID)
+                        .waitForLayout(currentLayout.getEpoch(), waitTimeout)
+                        .get();
+                updateLayout(newLayout);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | RuntimeException e) {
+                if (isShutdown) {
+                    return;
+                }
+                log.debug("watchLayouts: failed to wait for a layout on {}", server, e);
+                Sleep.sleepUninterruptibly(parameters.connectionRetryRate);
+            }
+        }
+    }
+
+    /**
+     * Installs a layout received from a layout server, if it is newer than the latest layout
+     * of the runtime and no layout fetch is in progress.
+     *
+     * @param newLayout The layout received.
+     */
+    private synchronized void updateLayout(@Nonnull Layout newLayout) {
+        if (!layout.isDone() || latestLayout.getEpoch() >= newLayout.getEpoch()) {
+            return;
+        }
+
+        checkClusterId(newLayout);
+        this.layoutServers = newLayout.getLayoutServers();
+        layout = CompletableFuture.completedFuture(newLayout);
+        latestLayout = newLayout;
+        log.info("updateLayout: received layout with epoch {}", newLayout.getEpoch());
+
+        pruneRemovedRouters(newLayout);
+    }
+
     @SuppressWarnings("unchecked")
     private void checkVersion() {
         try {
@@ -1075,6 +1236,14 @@ public class CorfuRuntime {
 
         garbageCollector.start();
 
+        if (parameters.isLayoutWatchEnabled() && layoutWatcher == null) {
+            layoutWatcher = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("CorfuRuntime-LayoutWatcher-%d")
+                    .build());
+            layoutWatcher.submit(this::watchLayouts);
+        }
+
         return this;
     }
 
@@ -1,5 +1,6 @@
 package org.corfudb.runtime.clients;
 
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -11,6 +12,7 @@ import org.corfudb.protocols.wireprotocol.LayoutCommittedRequest;
 import org.corfudb.protocols.wireprotocol.LayoutPrepareRequest;
 import org.corfudb.protocols.wireprotocol.LayoutPrepareResponse;
 import org.corfudb.protocols.wireprotocol.LayoutProposeRequest;
+import org.corfudb.protocols.wireprotocol.LayoutWaitRequest;
 import org.corfudb.runtime.view.Layout;
 
 /**
@@ -36,6 +38,21 @@ public class LayoutClient extends AbstractClient {
         return sendMessageWithFuture(CorfuMsgType.LAYOUT_REQUEST.payloadMsg(getEpoch()));
     }
 
+    /**
+     * Waits until a layout with an epoch greater than the given epoch is committed. The layout
+     * server holds the request until then, or until the timeout expires.
+     *
+     * @param epoch   The epoch of the layout known by the client.
+     * @param timeout Maximum time the layout server holds the request for, it should be lower
+     *                than the response timeout of the router.
+     * @return A future which will be completed with the new layout, or with the current layout
+     * if the timeout expired.
+     */
+    public CompletableFuture<Layout> waitForLayout(long epoch, Duration timeout) {
+        return sendMessageWithFuture(CorfuMsgType.LAYOUT_WAIT_REQUEST.payloadMsg(
+                new LayoutWaitRequest(epoch, timeout.toMillis())));
+    }
+
     /**
      * Bootstraps a layout server.
      *
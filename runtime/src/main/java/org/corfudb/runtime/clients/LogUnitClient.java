@@ -10,9 +10,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.LongConsumer;
 
 import lombok.Getter;
 
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
@@ -20,10 +22,14 @@ import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.KnownAddressRequest;
 import org.corfudb.protocols.wireprotocol.KnownAddressResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.SegmentChunkRequest;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.StreamReadRequest;
+import org.corfudb.protocols.wireprotocol.StreamReadResponse;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsRequest;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
@@ -43,8 +49,16 @@ import org.corfudb.util.serializer.Serializers;
  */
 public class LogUnitClient extends AbstractClient {
 
+    // Discards the chunks received for a multi-read that does not complete with a final response.
+    private final LongConsumer readChunksDiscarder;
+
     public LogUnitClient(IClientRouter router, long epoch, UUID clusterID) {
+        this(router, epoch, clusterID, requestId -> { });
+    }
+
+    LogUnitClient(IClientRouter router, long epoch, UUID clusterID, LongConsumer readChunksDiscarder) {
         super(router, epoch, clusterID);
+        this.readChunksDiscarder = readChunksDiscarder;
     }
 
     public String getHost() {
@@ -178,9 +192,53 @@ public class LogUnitClient extends AbstractClient {
      * @return a completableFuture which returns a ReadResponse on completion.
      */
     public CompletableFuture<ReadResponse> readAll(List<Long> addresses, boolean cacheable) {
+        return readAll(addresses, cacheable, 0);
+    }
+
+    /**
+     * Read data from the log unit server for a list of addresses, the server sends the
+     * entries back in chunks of a bounded size as it reads them.
+     *
+     * @param addresses       list of global addresses.
+     * @param cacheable       Whether the read results should be cached on log unit server.
+     * @param maxResponseSize Upper bound on the size of a response chunk, 0 for a single response.
+     * @return a completableFuture which returns a ReadResponse once all the chunks are received.
+     */
+    public CompletableFuture<ReadResponse> readAll(List<Long> addresses, boolean cacheable, int maxResponseSize) {
         Timer.Context context = getTimerContext("readAll");
-        CompletableFuture<ReadResponse> cf = sendMessageWithFuture(
-                CorfuMsgType.MULTIPLE_READ_REQUEST.payloadMsg(new MultipleReadRequest(addresses, cacheable)));
+        CorfuMsg request = CorfuMsgType.MULTIPLE_READ_REQUEST
+                .payloadMsg(new MultipleReadRequest(addresses, cacheable, maxResponseSize));
+        CompletableFuture<ReadResponse> cf = sendMessageWithFuture(request);
+        if (maxResponseSize > 0) {
+            // A timeout or an error response leaves the chunks received so far behind.
+            cf.whenComplete((response, error) -> {
+                if (error != null) {
+                    readChunksDiscarder.accept(request.getRequestID());
+                }
+            });
+        }
+        return cf.thenApply(x -> {
+            context.stop();
+            return x;
+        });
+    }
+
+    /**
+     * Read the entries of a stream in (start, end], the log unit resolves the addresses
+     * of the stream from its own stream address spaces.
+     *
+     * @param streamId        the stream to read.
+     * @param start           start of the range (exclusive).
+     * @param end             end of the range (inclusive).
+     * @param maxResponseSize upper bound on the size of the entries in the response.
+     * @return a completableFuture which returns the entries of the stream and the address
+     *         up to which they are complete.
+     */
+    public CompletableFuture<StreamReadResponse> readStream(UUID streamId, long start, long end,
+                                                            int maxResponseSize) {
+        Timer.Context context = getTimerContext("readStream");
+        CompletableFuture<StreamReadResponse> cf = sendMessageWithFuture(CorfuMsgType.STREAM_READ_REQUEST
+                .payloadMsg(new StreamReadRequest(streamId, start, end, maxResponseSize)));
         return cf.thenApply(x -> {
             context.stop();
             return x;
@@ -238,6 +296,30 @@ public class LogUnitClient extends AbstractClient {
                 .payloadMsg(new KnownAddressRequest(startRange, endRange)));
     }
 
+    /**
+     * Request a chunk of a segment file, used to copy sealed segments as a whole.
+     *
+     * @param segment The segment to read from.
+     * @param offset  Position of the chunk in the segment file.
+     * @param length  Maximum length of the chunk.
+     * @return The chunk of the segment file.
+     */
+    public CompletableFuture<SegmentChunk> readSegmentChunk(long segment, long offset, int length) {
+        return sendMessageWithFuture(CorfuMsgType.SEGMENT_CHUNK_REQUEST
+                .payloadMsg(new SegmentChunkRequest(segment, offset, length)));
+    }
+
+    /**
+     * Sends a chunk of a segment file to the log unit. Chunks have to be sent in order,
+     * the segment is verified and installed once its last chunk is written.
+     *
+     * @param chunk A chunk of a segment file.
+     * @return a completable future which returns true on success.
+     */
+    public CompletableFuture<Boolean> writeSegmentChunk(SegmentChunk chunk) {
+        return sendMessageWithFuture(CorfuMsgType.SEGMENT_CHUNK_WRITE.payloadMsg(chunk));
+    }
+
     /**
      * Send a prefix trim request that will trim the log up to a certain address
      *
@@ -3,7 +3,9 @@ package org.corfudb.runtime.clients;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.lang.invoke.MethodHandles;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -12,7 +14,9 @@ import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.KnownAddressResponse;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.StreamReadResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.DataOutrankedException;
@@ -35,9 +39,14 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
     @Getter
     IClientRouter router;
 
+    /**
+     * Entries of the chunked multi-reads received so far, by request id.
+     */
+    private final Map<Long, ReadResponse> pendingReadChunks = new ConcurrentHashMap<>();
+
     @Override
     public LogUnitClient getClient(long epoch, UUID clusterID) {
-        return new LogUnitClient(router, epoch, clusterID);
+        return new LogUnitClient(router, epoch, clusterID, pendingReadChunks::remove);
     }
 
     /**
@@ -160,16 +169,40 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
     }
 
     /**
-     * Handle a READ_RESPONSE message.
+     * Handle a READ_RESPONSE message, which is the last chunk of a chunked multi-read.
      *
      * @param msg Incoming Message
      * @param ctx Context
      * @param r   Router
      */
     @ClientHandler(type = CorfuMsgType.READ_RESPONSE)
-    private static Object handleReadResponse(CorfuPayloadMsg<ReadResponse> msg,
-                                             ChannelHandlerContext ctx, IClientRouter r) {
-        return msg.getPayload();
+    private Object handleReadResponse(CorfuPayloadMsg<ReadResponse> msg,
+                                      ChannelHandlerContext ctx, IClientRouter r) {
+        ReadResponse chunks = pendingReadChunks.remove(msg.getRequestID());
+        if (chunks == null) {
+            return msg.getPayload();
+        }
+
+        chunks.getAddresses().putAll(msg.getPayload().getAddresses());
+        return chunks;
+    }
+
+    /**
+     * Handle a READ_RESPONSE_CHUNK message, the entries are accumulated until
+     * the READ_RESPONSE that completes the request.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     * @return null, since the request is not complete yet.
+     */
+    @ClientHandler(type = CorfuMsgType.READ_RESPONSE_CHUNK)
+    private Object handleReadResponseChunk(CorfuPayloadMsg<ReadResponse> msg,
+                                           ChannelHandlerContext ctx, IClientRouter r) {
+        // The entries of a deserialized response are immutable, they are copied into a new one.
+        pendingReadChunks.computeIfAbsent(msg.getRequestID(), requestId -> new ReadResponse())
+                .getAddresses().putAll(msg.getPayload().getAddresses());
+        return null;
     }
 
     /**
@@ -199,6 +232,19 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
         return msg.getPayload();
     }
 
+    /**
+     * Handle a STREAM_READ_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.STREAM_READ_RESPONSE)
+    private static Object handleStreamReadResponse(CorfuPayloadMsg<StreamReadResponse> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
     @ClientHandler(type = CorfuMsgType.LOG_ADDRESS_SPACE_RESPONSE)
     private static Object handleStreamsAddressResponse(CorfuPayloadMsg<TailsResponse> msg,
                                              ChannelHandlerContext ctx, IClientRouter r) {
@@ -230,4 +276,18 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
                                                        ChannelHandlerContext ctx, IClientRouter r) {
         return msg.getPayload();
     }
+
+    /**
+     * Handle a SEGMENT_CHUNK_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     * @return SegmentChunk payload with a chunk of a segment file.
+     */
+    @ClientHandler(type = CorfuMsgType.SEGMENT_CHUNK_RESPONSE)
+    private static Object handleSegmentChunkResponse(CorfuPayloadMsg<SegmentChunk> msg,
+                                                     ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
 }
@@ -48,6 +48,7 @@ import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.InboundMsgFilterHandler;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageDecoder;
 import org.corfudb.protocols.wireprotocol.NettyCorfuMessageEncoder;
+import org.corfudb.protocols.wireprotocol.NettyFlushConsolidation;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.runtime.exceptions.NetworkException;
@@ -300,6 +301,9 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
                             new InboundMsgFilterHandler(parameters.getNettyClientInboundMsgFilters());
                     ch.pipeline().addLast(inboundMsgFilterHandler);
                 }
+                NettyFlushConsolidation.addLast(ch.pipeline(), parameters.getFlushConsolidationSize(),
+                        CorfuRuntime.getDefaultMetrics().histogram(
+                                CorfuComponent.CLIENT_ROUTER + "messages-per-flush"));
                 ch.pipeline().addLast(NettyClientRouter.this);
             }
         };
@@ -438,6 +442,10 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         // Set the message fields.
         message.setClientID(parameters.getClientId());
         message.setRequestID(thisRequest);
+        // The server can drop the request if it is not processed before the client gives up.
+        if (CorfuMsg.isDeadlinesEnabled()) {
+            message.setTimeout((int) Math.min(timeoutResponse, Integer.MAX_VALUE));
+        }
 
         // Generate a future and put it in the completion table.
         final CompletableFuture<T> cf = new CompletableFuture<>();
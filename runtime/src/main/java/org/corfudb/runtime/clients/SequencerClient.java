@@ -3,6 +3,7 @@ package org.corfudb.runtime.clients;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
@@ -12,6 +13,8 @@ import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.StreamsAddressRequest;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
+import org.corfudb.protocols.wireprotocol.StreamsTailWaitRequest;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
@@ -59,6 +62,22 @@ public class SequencerClient extends AbstractClient {
                 new StreamsAddressRequest(streamsAddressesRange)));
     }
 
+    /**
+     * Waits until the tail of any of the given streams moves past an address. The sequencer
+     * holds the request until then, or until the timeout expires.
+     *
+     * @param streamIDs The streams to wait on.
+     * @param address   The last address known by the client.
+     * @param timeout   Maximum time the sequencer holds the request for, it should be lower than
+     *                  the response timeout of the router.
+     * @return A completable future with the global tail and the tails of the streams.
+     */
+    public CompletableFuture<TailsResponse> waitForStreamTails(List<UUID> streamIDs, long address,
+                                                               Duration timeout) {
+        return sendMessageWithFuture(CorfuMsgType.STREAMS_TAIL_WAIT_REQUEST.payloadMsg(
+                new StreamsTailWaitRequest(address, streamIDs, timeout.toMillis())));
+    }
+
     /**
      * Fetches the next available token from the sequencer.
      *
@@ -12,6 +12,7 @@ import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 
 
@@ -57,4 +58,10 @@ public class SequencerHandler implements IClient, IHandler<SequencerClient> {
                                               ChannelHandlerContext ctx, IClientRouter r) {
         return msg.getPayload();
     }
+
+    @ClientHandler(type = CorfuMsgType.STREAMS_TAIL_WAIT_RESPONSE)
+    private static Object handleStreamsTailWaitResponse(CorfuPayloadMsg<TailsResponse> msg,
+                                                        ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
 }
@@ -7,33 +7,44 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.format.Types;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.object.transactions.TransactionalContext;
+import org.corfudb.runtime.object.transactions.TransactionType;
 import org.corfudb.runtime.object.transactions.TransactionalContext.PreCommitListener;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.CorfuGuidGenerator;
+import org.corfudb.util.ImmutableListSetWrapper;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
 
+import java.time.Duration;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Persisted Queue supported by CorfuDB using distributed State Machine Replication.
- * Entries enqueued are backed by a CorfuTable with a LinkedHashMap where each entry
- * is mapped to a unique generated id that is returned upon successful <b>enqueue()</b>.
+ * Entries enqueued are backed by a CorfuTable with a map ordered by {@link CorfuRecordId}
+ * where each entry is mapped to a unique generated id that is returned upon successful
+ * <b>enqueue()</b>.
  * <b>entryList()</b> returns the enqueued entries along with their special ids which can
  * not only identify the element for removal but also has a global ordering defined by
  * the order in which their <b>enqueue()</b> operations materialized.
- * Instead of a dequeue() this Queue supports a <b>remove()</b> which accepts the id of the element.
+ * Besides a batched <b>dequeue()</b> this Queue supports a <b>remove()</b> which accepts the id of
+ * the element.
  * Entries cannot be modified in-place (or will lose ordering) but can be removed from anywhere
  * from the persisted queue.
  *
@@ -48,11 +59,14 @@ public class CorfuQueue<E> {
      */
     private final CorfuTable<CorfuRecordId, E> corfuTable;
     private final CorfuGuidGenerator guidGenerator;
+    private final CorfuRuntime runtime;
+    private final UUID streamId;
 
     public CorfuQueue(CorfuRuntime runtime, String streamName, ISerializer serializer,
                       Index.Registry<CorfuRecordId, E> indices) {
-        final Supplier<StreamingMap<CorfuRecordId, E>> mapSupplier =
-                () -> new StreamingMapDecorator<>(new LinkedHashMap<CorfuRecordId, E>());
+        final Supplier<StreamingMap<CorfuRecordId, E>> mapSupplier = RecordIdMap::new;
+        this.runtime = runtime;
+        this.streamId = CorfuRuntime.getStreamID(streamName);
         corfuTable = runtime.getObjectsView().build()
                 .setTypeToken(new TypeToken<CorfuTable<CorfuRecordId, E>>() {})
                 .setStreamName(streamName)
@@ -144,6 +158,96 @@ public class CorfuQueue<E> {
         }
     }
 
+    /**
+     * The map backing the queue, which keeps its entries ordered by {@link CorfuRecordId}.
+     *
+     * <p>The txSequence of a record id enqueued in a transaction is only set once the transaction
+     * commits, while the id may already be in the map (optimistic update). Hence the order of the
+     * entries is given by a copy of the id taken when the entry is inserted, and the ids are
+     * looked up by their entryId alone (see {@link CorfuRecordId#equals(Object)}).
+     * The optimistic entry is rolled back after the commit and replaced by the id read from the log.
+     *
+     * @param <E> Type of the entries of the queue
+     */
+    static class RecordIdMap<E> extends StreamingMapDecorator<CorfuRecordId, E>
+            implements NavigableStreamingMap<CorfuRecordId, E> {
+
+        // Record ids mapped to the copy which orders them in the map
+        private final Map<CorfuRecordId, CorfuRecordId> orderKeys = new HashMap<>();
+
+        private final NavigableMap<CorfuRecordId, E> orderedMap;
+
+        RecordIdMap() {
+            this(new TreeMap<>());
+        }
+
+        private RecordIdMap(NavigableMap<CorfuRecordId, E> orderedMap) {
+            super(Collections.unmodifiableMap(orderedMap));
+            this.orderedMap = orderedMap;
+        }
+
+        @Override
+        public Stream<Entry<CorfuRecordId, E>> entryStream() {
+            // Sequential, so that the entries are streamed in order
+            return ImmutableListSetWrapper.fromMap(orderedMap).stream();
+        }
+
+        @Override
+        public Stream<Entry<CorfuRecordId, E>> unsafeEntryStream() {
+            return orderedMap.entrySet().stream();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return orderKeys.containsKey(key);
+        }
+
+        @Override
+        public E get(Object key) {
+            CorfuRecordId orderKey = orderKeys.get(key);
+            return orderKey == null ? null : orderedMap.get(orderKey);
+        }
+
+        @Override
+        public E put(CorfuRecordId key, E value) {
+            CorfuRecordId orderKey = new CorfuRecordId(key.getTxSequence(), key.getEntryId());
+            CorfuRecordId previousKey = orderKeys.remove(key);
+            E previous = previousKey == null ? null : orderedMap.remove(previousKey);
+            orderKeys.put(orderKey, orderKey);
+            orderedMap.put(orderKey, value);
+            return previous;
+        }
+
+        @Override
+        public E remove(Object key) {
+            CorfuRecordId orderKey = orderKeys.remove(key);
+            return orderKey == null ? null : orderedMap.remove(orderKey);
+        }
+
+        @Override
+        public void putAll(Map<? extends CorfuRecordId, ? extends E> map) {
+            map.forEach(this::put);
+        }
+
+        @Override
+        public void clear() {
+            orderKeys.clear();
+            orderedMap.clear();
+        }
+
+        @Override
+        public List<Entry<CorfuRecordId, E>> tailEntries(CorfuRecordId fromKey, int maxEntries) {
+            List<Entry<CorfuRecordId, E>> entries = new ArrayList<>();
+            for (Entry<CorfuRecordId, E> entry : orderedMap.tailMap(fromKey, false).entrySet()) {
+                if (entries.size() >= maxEntries) {
+                    break;
+                }
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(entry));
+            }
+            return entries;
+        }
+    }
+
     /**
      * Appends the specified element at the end of this unbounded queue.
      * In a distributed system, the linearizable order of insertions cannot be guaranteed
@@ -249,6 +353,8 @@ public class CorfuQueue<E> {
     /**
      * Returns a List of CorfuQueueRecords sorted by the order in which the enqueue materialized.
      * This is the primary method of consumption of entries enqueued into CorfuQueue.
+     * The entries are read from the ordered map backing the queue, so reading a page of entries
+     * takes O(log n + maxEntries) rather than a scan of the whole queue.
      *
      * <p>This function currently does not return a view like the java.util implementation,
      * and changes to the entryList will *not* be reflected in the map. </p>
@@ -264,15 +370,8 @@ public class CorfuQueue<E> {
         }
         log.trace("entryList: "+maxEntries+" entries after:"+entriesAfter);
 
-        List<CorfuQueueRecord<E>> copy = new ArrayList<>(
-                Math.min(corfuTable.size(), maxEntries)
-        );
-
-        Comparator<Map.Entry<CorfuRecordId, E>> recordIdComparator = Comparator.comparing(Map.Entry::getKey);
-        for (Map.Entry<CorfuRecordId, E> entry : corfuTable.entryStream()
-                .filter(e -> e.getKey().compareTo(entriesAfter) > 0)
-                .limit(maxEntries)
-                .sorted(recordIdComparator).collect(Collectors.toList())) {
+        List<CorfuQueueRecord<E>> copy = new ArrayList<>();
+        for (Map.Entry<CorfuRecordId, E> entry : corfuTable.tailEntries(entriesAfter, maxEntries)) {
             copy.add(new CorfuQueueRecord<>(entry.getKey(), entry.getValue()));
         }
         return copy;
@@ -282,7 +381,7 @@ public class CorfuQueue<E> {
      * @return all the entries in the Queue
      */
     public List<CorfuQueueRecord<E>> entryList() {
-        return this.entryList(new CorfuRecordId(0,0), Integer.MAX_VALUE);
+        return this.entryList(head(), Integer.MAX_VALUE);
     }
 
     /**
@@ -290,7 +389,109 @@ public class CorfuQueue<E> {
      * @return all the entries in the Queue
      */
     public List<CorfuQueueRecord<E>> entryList(int maxEntries) {
-        return this.entryList(new CorfuRecordId(0, 0), maxEntries);
+        return this.entryList(head(), maxEntries);
+    }
+
+    /**
+     * Removes and returns the first entries of the queue, following the given entry.
+     * The entries are read and removed in a single transaction, so concurrent consumers never
+     * dequeue the same entry: if they race, all but one of them abort.
+     * If called within a transaction, the entries are dequeued as part of that transaction.
+     *
+     * @param entriesAfter - Dequeue only entries greater than this entry in the Queue.
+     * @param maxEntries - Limit the number of entries dequeued from start of the queue
+     * @throws IllegalArgumentException if maxEntries is negative.
+     * @throws TransactionAbortedException if a concurrent transaction removed any of the entries.
+     * @return List of the dequeued entries sorted by their enqueue order
+     */
+    public List<CorfuQueueRecord<E>> dequeue(CorfuRecordId entriesAfter, int maxEntries) {
+        boolean beganNewTxn = false;
+        if (!TransactionalContext.isInTransaction()) {
+            // Only the removed entries need to be protected against concurrent removals,
+            // concurrent enqueues should not abort the consumers.
+            runtime.getObjectsView().TXBuild()
+                    .type(TransactionType.WRITE_AFTER_WRITE)
+                    .build()
+                    .begin();
+            beganNewTxn = true;
+        }
+
+        try {
+            List<CorfuQueueRecord<E>> records = entryList(entriesAfter, maxEntries);
+            records.forEach(record -> corfuTable.delete(record.getRecordId()));
+            if (beganNewTxn) {
+                beganNewTxn = false;
+                runtime.getObjectsView().TXEnd();
+            }
+            return records;
+        } finally {
+            if (beganNewTxn) {
+                runtime.getObjectsView().TXAbort();
+            }
+        }
+    }
+
+    /**
+     * @param maxEntries limit number of entries dequeued to this.
+     * @return the first entries of the Queue, which are removed from it
+     */
+    public List<CorfuQueueRecord<E>> dequeue(int maxEntries) {
+        return this.dequeue(head(), maxEntries);
+    }
+
+    /**
+     * Removes and returns the first entries of the queue following the given entry, blocking
+     * until there are entries to dequeue or the timeout expires. The sequencer notifies the
+     * blocked consumer as soon as an entry is enqueued, rather than the consumer polling the queue.
+     * Dequeues which abort because a concurrent consumer took the same entries are retried.
+     * This method should not be called within a transaction.
+     *
+     * @param entriesAfter - Dequeue only entries greater than this entry in the Queue.
+     * @param maxEntries - Limit the number of entries dequeued from start of the queue
+     * @param timeout - Maximum time to block for
+     * @return List of the dequeued entries sorted by their enqueue order, empty on timeout
+     */
+    public List<CorfuQueueRecord<E>> take(CorfuRecordId entriesAfter, int maxEntries, Duration timeout) {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        // The tail is read before the queue, so that an entry enqueued in between wakes up the wait
+        long tail = runtime.getSequencerView().query(streamId);
+
+        while (true) {
+            try {
+                List<CorfuQueueRecord<E>> records = dequeue(entriesAfter, maxEntries);
+                if (!records.isEmpty()) {
+                    return records;
+                }
+            } catch (TransactionAbortedException e) {
+                log.debug("take: dequeue aborted, retrying", e);
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return Collections.emptyList();
+            }
+
+            TailsResponse tails = runtime.getSequencerView()
+                    .waitForStreamTails(tail, Duration.ofNanos(remaining), streamId);
+            tail = tails.getStreamTails().getOrDefault(streamId, tail);
+        }
+    }
+
+    /**
+     * @param maxEntries limit number of entries dequeued to this.
+     * @param timeout - Maximum time to block for
+     * @return the first entries of the Queue, which are removed from it, empty on timeout
+     */
+    public List<CorfuQueueRecord<E>> take(int maxEntries, Duration timeout) {
+        return this.take(head(), maxEntries, timeout);
+    }
+
+    /**
+     * Returns an id which precedes the ids of all the entries of the queue. The entry ids
+     * are generated from timestamps and can be negative, so they do not all follow (0, 0).
+     */
+    private static CorfuRecordId head() {
+        return new CorfuRecordId(Long.MIN_VALUE, Long.MIN_VALUE);
     }
 
     public boolean isEmpty() {
@@ -1,9 +1,16 @@
 package org.corfudb.runtime.collections;
 
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 
-import lombok.EqualsAndHashCode;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
 import lombok.Getter;
+import org.corfudb.runtime.exceptions.SerializerException;
 
 /**
  * Encapsulates the payload/value and metadata into one object.
@@ -13,24 +20,166 @@ import lombok.Getter;
  * Since protobufs are immutable this also avoids modifying the payload for such metadata
  * modifications.
  *
+ * A record created by the {@link org.corfudb.util.serializer.ProtobufSerializer} from the log is lazy:
+ * it retains the serialized payload and metadata and only parses each of them on first access. This
+ * allows scans and projections which never touch the payload (or the metadata) to skip full protobuf
+ * materialization.
  */
-@EqualsAndHashCode
 public class CorfuRecord<V extends Message, M extends Message> {
+
     /**
-     * V encapsulates the user's Value payload - this is the main protobuf message that defines the schema
+     * Serialized form of the payload, null if this record was built from a parsed payload.
      */
     @Getter
-    private final V payload;
+    private final Any serializedPayload;
+
+    private final Class<V> payloadClass;
+
+    /**
+     * Serialized form of the metadata, null if the record has no metadata or was built eagerly.
+     */
+    @Getter
+    private final Any serializedMetadata;
+
+    private final Class<M> metadataClass;
+
+    /**
+     * V encapsulates the user's Value payload - this is the main protobuf message that defines the schema
+     */
+    private volatile V payload;
 
     /**
      * M encapsulates the user's metadata - this can be something like auto-incrementing versions, other
      * services provided by the database for metadata fields.
      */
-    @Getter
-    private final M metadata;
+    private volatile M metadata;
 
     public CorfuRecord(V payload, M metadata) {
         this.payload = payload;
         this.metadata = metadata;
+        this.serializedPayload = null;
+        this.payloadClass = null;
+        this.serializedMetadata = null;
+        this.metadataClass = null;
+    }
+
+    private CorfuRecord(@Nonnull Any serializedPayload, @Nonnull Class<V> payloadClass,
+                        @Nullable Any serializedMetadata, @Nullable Class<M> metadataClass) {
+        this.serializedPayload = serializedPayload;
+        this.payloadClass = payloadClass;
+        this.serializedMetadata = serializedMetadata;
+        this.metadataClass = metadataClass;
+    }
+
+    /**
+     * Creates a record which decodes its payload and metadata only when they are first accessed.
+     *
+     * @param serializedPayload  Serialized payload.
+     * @param payloadClass       Class of the payload.
+     * @param serializedMetadata Serialized metadata, null if the record has no metadata.
+     * @param metadataClass      Class of the metadata, null if the record has no metadata.
+     * @param <V>                Type of the payload.
+     * @param <M>                Type of the metadata.
+     * @return A lazily decoded record.
+     */
+    public static <V extends Message, M extends Message> CorfuRecord<V, M> lazy(
+            @Nonnull Any serializedPayload, @Nonnull Class<V> payloadClass,
+            @Nullable Any serializedMetadata, @Nullable Class<M> metadataClass) {
+        return new CorfuRecord<>(serializedPayload, payloadClass, serializedMetadata, metadataClass);
+    }
+
+    public V getPayload() {
+        V result = payload;
+        if (result == null && serializedPayload != null) {
+            result = unpack(serializedPayload, payloadClass);
+            payload = result;
+        }
+        return result;
+    }
+
+    public M getMetadata() {
+        M result = metadata;
+        if (result == null && serializedMetadata != null) {
+            result = unpack(serializedMetadata, metadataClass);
+            metadata = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return True if the payload has been materialized.
+     */
+    public boolean isPayloadDecoded() {
+        return payload != null || serializedPayload == null;
+    }
+
+    /**
+     * @return True if the metadata has been materialized (or there is nothing to decode).
+     */
+    public boolean isMetadataDecoded() {
+        return metadata != null || serializedMetadata == null;
+    }
+
+    /**
+     * @return Size in bytes of the serialized payload.
+     */
+    public int getPayloadSize() {
+        if (serializedPayload != null) {
+            return serializedPayload.getValue().size();
+        }
+        return payload == null ? 0 : payload.getSerializedSize();
+    }
+
+    /**
+     * @return Size in bytes of the serialized metadata.
+     */
+    public int getMetadataSize() {
+        if (serializedMetadata != null) {
+            return serializedMetadata.getValue().size();
+        }
+        return metadata == null ? 0 : metadata.getSerializedSize();
+    }
+
+    /**
+     * @return Number of serialized bytes of this record that have been decoded so far.
+     */
+    public int getDecodedSize() {
+        int decoded = 0;
+        if (serializedPayload != null && payload != null) {
+            decoded += serializedPayload.getValue().size();
+        }
+        if (serializedMetadata != null && metadata != null) {
+            decoded += serializedMetadata.getValue().size();
+        }
+        return decoded;
+    }
+
+    private static <T extends Message> T unpack(Any any, Class<T> clazz) {
+        if (clazz == null) {
+            throw new SerializerException(any.getTypeUrl() + " not in map!");
+        }
+        try {
+            return any.unpack(clazz);
+        } catch (InvalidProtocolBufferException e) {
+            throw new SerializerException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CorfuRecord)) {
+            return false;
+        }
+        CorfuRecord<?, ?> other = (CorfuRecord<?, ?>) o;
+        return Objects.equals(getPayload(), other.getPayload())
+                && Objects.equals(getMetadata(), other.getMetadata());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getPayload(), getMetadata());
     }
 }
@@ -3,6 +3,7 @@ package org.corfudb.runtime.collections;
 import com.google.protobuf.Message;
 
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
 
@@ -160,6 +161,23 @@ public class CorfuStore {
                 namespace);
     }
 
+    /**
+     * Provides a query interface whose reads at the latest timestamp share their snapshot
+     * while it is fresher than the given bound, instead of resolving it on every read.
+     *
+     * @param namespace         Namespace within which the queries are executed.
+     * @param snapshotStaleness Maximum age of a shared snapshot.
+     * @return Query implementation.
+     */
+    @Nonnull
+    public Query query(@Nonnull final String namespace, @Nonnull final Duration snapshotStaleness) {
+        return new Query(
+                this.runtime.getTableRegistry(),
+                this.runtime.getObjectsView(),
+                namespace,
+                snapshotStaleness);
+    }
+
     /**
      * Subscribe to a specific a table in a namespace or the entire namespace.
      * Objects returned will honor transactional boundaries
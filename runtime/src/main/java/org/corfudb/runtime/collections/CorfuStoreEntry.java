@@ -1,15 +1,17 @@
 package org.corfudb.runtime.collections;
 
 import com.google.protobuf.Message;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+import java.util.Objects;
+
 /**
  * Encapsulates the key, value and metadata into one object.
  * This is returned by the query APIs by the Corfu Store.
+ * An entry may be backed by a {@link CorfuRecord}, in which case the payload and the metadata
+ * are only decoded when they are accessed.
  * Created by zlokhandwala on 11/4/19.
  */
-@EqualsAndHashCode
 public class CorfuStoreEntry<K extends Message, V extends Message, M extends Message> {
 
     /**
@@ -21,18 +23,63 @@ public class CorfuStoreEntry<K extends Message, V extends Message, M extends Mes
     /**
      * Value of the entry of type V.
      */
-    @Getter
     private final V payload;
 
     /**
      * Metadata of the entry of type M.
      */
-    @Getter
     private final M metadata;
 
+    /**
+     * Record backing this entry, null if the entry was built from already decoded messages.
+     */
+    private final CorfuRecord<V, M> record;
+
     public CorfuStoreEntry(K key, V payload, M metadata) {
         this.key = key;
         this.payload = payload;
         this.metadata = metadata;
+        this.record = null;
+    }
+
+    CorfuStoreEntry(K key, CorfuRecord<V, M> record) {
+        this.key = key;
+        this.payload = null;
+        this.metadata = null;
+        this.record = record;
+    }
+
+    /**
+     * @return Record backing this entry, null if the entry holds decoded messages.
+     */
+    CorfuRecord<V, M> getRecord() {
+        return record;
+    }
+
+    public V getPayload() {
+        return record == null ? payload : record.getPayload();
+    }
+
+    public M getMetadata() {
+        return record == null ? metadata : record.getMetadata();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CorfuStoreEntry)) {
+            return false;
+        }
+        CorfuStoreEntry<?, ?, ?> other = (CorfuStoreEntry<?, ?, ?>) o;
+        return Objects.equals(key, other.key)
+                && Objects.equals(getPayload(), other.getPayload())
+                && Objects.equals(getMetadata(), other.getMetadata());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, getPayload(), getMetadata());
     }
 }
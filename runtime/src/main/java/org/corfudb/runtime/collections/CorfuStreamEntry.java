@@ -8,6 +8,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.runtime.object.SMRMethodIds;
 
 /**
  * Entry returned by CorfuStore's StreamListener interface
@@ -81,6 +82,8 @@ public class CorfuStreamEntry<K extends Message, V extends Message, M extends Me
                                                @Nullable final Class<M> metadataClass) {
 
         long address = entry.getGlobalAddress();
+        // The updates of the streamed tables are CorfuTable methods
+        entry.resolveSMRMethod(SMRMethodIds.of(CorfuTable.class));
 
         OperationType operationType;
         log.trace("fromSRMEntry: Table {} streamer got SMR {}", keyClass.getName(), entry.getSMRMethod());
@@ -495,6 +495,23 @@ public class CorfuTable<K, V> implements
         return mainMap.entryStream();
     }
 
+    /**
+     * Returns the entries whose keys follow the given key, in key order. This is only
+     * supported by tables backed by a {@link NavigableStreamingMap}.
+     *
+     * @param fromKey    low endpoint (exclusive) of the returned entries
+     * @param maxEntries maximum number of entries to return
+     * @return at most maxEntries entries following fromKey
+     */
+    @Accessor
+    public @Nonnull List<Entry<K, V>> tailEntries(K fromKey, int maxEntries) {
+        if (!(mainMap instanceof NavigableStreamingMap)) {
+            throw new UnsupportedOperationException("tailEntries requires an ordered map, found "
+                    + mainMap.getClass().getSimpleName());
+        }
+        return ((NavigableStreamingMap<K, V>) mainMap).tailEntries(fromKey, maxEntries);
+    }
+
 
     /** {@inheritDoc} */
     @Override
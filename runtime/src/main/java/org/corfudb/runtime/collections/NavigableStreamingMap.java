@@ -0,0 +1,23 @@
+package org.corfudb.runtime.collections;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A flavour of {@link ContextAwareMap} whose entries are ordered by key, which allows
+ * paging through the map without scanning and sorting all of its entries.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public interface NavigableStreamingMap<K, V> extends ContextAwareMap<K, V> {
+
+    /**
+     * Returns the entries whose keys are strictly greater than the given key, in key order.
+     *
+     * @param fromKey    low endpoint (exclusive) of the returned entries
+     * @param maxEntries maximum number of entries to return
+     * @return a copy of at most maxEntries entries following fromKey
+     */
+    List<Map.Entry<K, V>> tailEntries(K fromKey, int maxEntries);
+}
@@ -2,12 +2,16 @@ package org.corfudb.runtime.collections;
 
 import static org.corfudb.runtime.collections.QueryOptions.DEFAULT_OPTIONS;
 
+import com.codahale.metrics.Counter;
 import com.google.protobuf.Message;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
@@ -21,12 +25,17 @@ import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import lombok.AllArgsConstructor;
 import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuStoreMetadata.Timestamp;
 import org.corfudb.runtime.object.transactions.Transaction.TransactionBuilder;
 import org.corfudb.runtime.object.transactions.TransactionType;
+import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.ObjectsView;
 import org.corfudb.runtime.view.TableRegistry;
+import org.corfudb.util.CorfuComponent;
+import org.corfudb.util.MetricsUtils;
 
 /**
  * Query class provides methods to query the CorfuStore tables.
@@ -36,12 +45,35 @@ import org.corfudb.runtime.view.TableRegistry;
  */
 public class Query {
 
+    private static final String BYTES_SCANNED_COUNTER_NAME =
+            CorfuComponent.OBJECT.toString() + "query.bytes-scanned";
+
+    private static final String BYTES_DECODED_COUNTER_NAME =
+            CorfuComponent.OBJECT.toString() + "query.bytes-decoded";
+
+    private final Counter bytesScannedCounter =
+            CorfuRuntime.getDefaultMetrics().counter(BYTES_SCANNED_COUNTER_NAME);
+
+    private final Counter bytesDecodedCounter =
+            CorfuRuntime.getDefaultMetrics().counter(BYTES_DECODED_COUNTER_NAME);
+
     private final TableRegistry tableRegistry;
 
     private final ObjectsView objectsView;
 
     private final String namespace;
 
+    /**
+     * Maximum age of a snapshot shared by consecutive reads at the latest timestamp,
+     * 0 resolves the latest timestamp on every read.
+     */
+    private final long snapshotStalenessNanos;
+
+    /**
+     * The latest snapshot resolved by the reads of each thread.
+     */
+    private final ThreadLocal<ResolvedSnapshot> latestSnapshot = new ThreadLocal<>();
+
     /**
      * Creates a Query interface.
      *
@@ -50,9 +82,27 @@ public class Query {
      * @param namespace     Namespace to perform the queries within.
      */
     public Query(final TableRegistry tableRegistry, final ObjectsView objectsView, final String namespace) {
+        this(tableRegistry, objectsView, namespace, Duration.ZERO);
+    }
+
+    /**
+     * Creates a Query interface which reuses the snapshots of its reads at the latest timestamp.
+     * Consecutive reads of a thread at the latest timestamp share the snapshot resolved by the
+     * first one until it is older than the staleness bound, so they may not observe the updates
+     * made in the meantime, including those of the same thread.
+     *
+     * @param tableRegistry     Table registry from the corfu client.
+     * @param objectsView       Objects View from the corfu client.
+     * @param namespace         Namespace to perform the queries within.
+     * @param snapshotStaleness Maximum age of a reused snapshot, {@link Duration#ZERO} resolves
+     *                          the latest timestamp on every read.
+     */
+    public Query(final TableRegistry tableRegistry, final ObjectsView objectsView, final String namespace,
+                 @Nonnull final Duration snapshotStaleness) {
         this.tableRegistry = tableRegistry;
         this.objectsView = objectsView;
         this.namespace = namespace;
+        this.snapshotStalenessNanos = snapshotStaleness.toNanos();
     }
 
     private Token getToken(Timestamp timestamp) {
@@ -65,6 +115,18 @@ public class Query {
 
         if (timestamp != null) {
             transactionBuilder.snapshot(getToken(timestamp));
+        } else if (snapshotStalenessNanos > 0 && !TransactionalContext.isInTransaction()) {
+            final long now = System.nanoTime();
+            ResolvedSnapshot snapshot = latestSnapshot.get();
+            if (snapshot != null && now - snapshot.resolvedAtNanos <= snapshotStalenessNanos) {
+                transactionBuilder.snapshot(snapshot.token);
+            } else {
+                transactionBuilder.build().begin();
+                // Resolve the latest timestamp now, to share it with the next reads.
+                latestSnapshot.set(new ResolvedSnapshot(
+                        TransactionalContext.getCurrentContext().getSnapshotTimestamp(), now));
+                return;
+            }
         }
 
         transactionBuilder.build().begin();
@@ -124,6 +186,67 @@ public class Query {
         }
     }
 
+    /**
+     * Fetch the CorfuRecords of the specified keys at a single snapshot.
+     *
+     * @param tableName Table name.
+     * @param timestamp Timestamp to perform the query. If null, latest timestamp is used.
+     * @param keys      Keys.
+     * @param <K>       Type of key.
+     * @param <V>       Type of value/payload.
+     * @param <M>       Type of metadata.
+     * @return CorfuRecords by key, the keys which are not in the table are not in the result.
+     */
+    @Nonnull
+    public <K extends Message, V extends Message, M extends Message>
+    Map<K, CorfuRecord<V, M>> multiGet(@Nonnull final String tableName,
+                                       @Nullable final Timestamp timestamp,
+                                       @Nonnull final Collection<K> keys) {
+        try {
+            txBegin(timestamp);
+            return getRecords(getTable(tableName), keys);
+        } finally {
+            txEnd();
+        }
+    }
+
+    /**
+     * Fetch the CorfuRecords of the specified keys across tables at a single snapshot.
+     *
+     * @param timestamp   Timestamp to perform the query. If null, latest timestamp is used.
+     * @param keysByTable Keys to fetch, by table name.
+     * @return CorfuRecords by key, by table name. The keys which are not in their table are not
+     *         in the result.
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<Message, CorfuRecord<Message, Message>>> multiGet(
+            @Nullable final Timestamp timestamp,
+            @Nonnull final Map<String, ? extends Collection<? extends Message>> keysByTable) {
+        try {
+            txBegin(timestamp);
+            Map<String, Map<Message, CorfuRecord<Message, Message>>> records = new HashMap<>();
+            keysByTable.forEach((tableName, keys) ->
+                    records.put(tableName, getRecords(getTable(tableName), (Collection<Message>) keys)));
+            return records;
+        } finally {
+            txEnd();
+        }
+    }
+
+    private <K extends Message, V extends Message, M extends Message>
+    Map<K, CorfuRecord<V, M>> getRecords(@Nonnull final Table<K, V, M> table,
+                                         @Nonnull final Collection<K> keys) {
+        Map<K, CorfuRecord<V, M>> records = new HashMap<>();
+        for (K key : keys) {
+            CorfuRecord<V, M> record = table.get(key);
+            if (record != null) {
+                records.put(key, record);
+            }
+        }
+        return records;
+    }
+
     /**
      * Gets the count of records in the table.
      *
@@ -175,15 +298,21 @@ public class Query {
     List<CorfuStoreEntry<K, V, M>> scanAndFilterByEntry(
             @Nonnull final String tableName,
             @Nullable Timestamp timestamp,
-            @Nonnull final Predicate<CorfuStoreEntry<K, V, M>> predicate) {
+            @Nonnull final Predicate<CorfuStoreEntry<K, V, M>> predicate,
+            @Nonnull final QueryMetrics queryMetrics) {
         try {
             txBegin(timestamp);
-            return ((Table<K, V, M>) getTable(tableName)).scanAndFilterByEntry(predicate);
+            return ((Table<K, V, M>) getTable(tableName)).scanAndFilterByEntry(predicate, queryMetrics);
         } finally {
             txEnd();
         }
     }
 
+    private void reportMetrics(QueryMetrics queryMetrics) {
+        MetricsUtils.incConditionalCounter(bytesScannedCounter, queryMetrics.getBytesScanned());
+        MetricsUtils.incConditionalCounter(bytesDecodedCounter, queryMetrics.getBytesDecoded());
+    }
+
     /**
      * Query by a secondary index.
      *
@@ -217,10 +346,13 @@ public class Query {
     private <K extends Message, V extends Message, M extends Message, R>
     Collection<R> transform(Collection<CorfuStoreEntry<K, V, M>> queryResult,
                             Collection<R> resultCollection,
-                            Function<CorfuStoreEntry<K, V, M>, R> projection) {
+                            Function<CorfuStoreEntry<K, V, M>, R> projection,
+                            QueryMetrics queryMetrics) {
         return queryResult.stream()
                 .map(v -> Optional.ofNullable(projection)
-                        .map(function -> function.apply(v))
+                        .map(function -> v.getRecord() == null
+                                ? function.apply(v)
+                                : queryMetrics.decode(v.getRecord(), () -> function.apply(v)))
                         .orElse((R) v))
                 .collect(Collectors.toCollection(() -> resultCollection));
     }
@@ -262,10 +394,13 @@ public class Query {
                                 @Nonnull final Predicate<CorfuStoreEntry<K, V, M>> query,
                                 @Nonnull final QueryOptions<K, V, M, R> queryOptions) {
 
+        QueryMetrics queryMetrics = new QueryMetrics();
         List<CorfuStoreEntry<K, V, M>> filterResult
-                = scanAndFilterByEntry(tableName, queryOptions.getTimestamp(), query);
+                = scanAndFilterByEntry(tableName, queryOptions.getTimestamp(), query, queryMetrics);
         Collection<R> result = initializeResultCollection(queryOptions);
-        return new QueryResult<>(transform(filterResult, result, queryOptions.getProjection()));
+        result = transform(filterResult, result, queryOptions.getProjection(), queryMetrics);
+        reportMetrics(queryMetrics);
+        return new QueryResult<>(result, queryMetrics);
     }
 
     /**
@@ -344,19 +479,22 @@ public class Query {
             @Nonnull final BiFunction<R, S, T> joinFunction,
             final Function<T, U> joinProjection) {
 
+        QueryMetrics queryMetrics = new QueryMetrics();
         List<CorfuStoreEntry<K1, V1, M1>> filterResult1
-                = scanAndFilterByEntry(tableName1, queryOptions1.getTimestamp(), query1);
+                = scanAndFilterByEntry(tableName1, queryOptions1.getTimestamp(), query1, queryMetrics);
         Collection<R> queryResult1 = transform(
                 filterResult1,
                 initializeResultCollection(queryOptions1),
-                queryOptions1.getProjection());
+                queryOptions1.getProjection(),
+                queryMetrics);
 
         List<CorfuStoreEntry<K2, V2, M2>> filterResult2
-                = scanAndFilterByEntry(tableName2, queryOptions2.getTimestamp(), query2);
+                = scanAndFilterByEntry(tableName2, queryOptions2.getTimestamp(), query2, queryMetrics);
         Collection<S> queryResult2 = transform(
                 filterResult2,
                 initializeResultCollection(queryOptions2),
-                queryOptions2.getProjection());
+                queryOptions2.getProjection(),
+                queryMetrics);
 
         Collection<T> joinResult = new ArrayList<>();
 
@@ -371,11 +509,21 @@ public class Query {
             }
         }
 
+        reportMetrics(queryMetrics);
         return new QueryResult<>(joinResult.stream()
                 .map(v -> Optional.ofNullable(joinProjection)
                         .map(function -> function.apply(v))
                         .orElse((U) v))
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList()), queryMetrics);
+    }
+
+    /**
+     * A snapshot resolved at the latest timestamp, and when it was resolved.
+     */
+    @AllArgsConstructor
+    private static class ResolvedSnapshot {
+        final Token token;
+        final long resolvedAtNanos;
     }
 
     /**
@@ -445,9 +593,11 @@ public class Query {
     public <R> QueryResult<R> executeMultiJoinQuery(@Nonnull final Collection<String> tableNames,
                                                     @Nonnull final MergeFunction<R> joinFunction) {
 
+        QueryMetrics queryMetrics = new QueryMetrics();
         List<Collection<?>> values = new ArrayList<>();
         for (String tableName : tableNames) {
-            Collection<Message> messages = scanAndFilterByEntry(tableName, null, corfuStoreEntry -> true)
+            Collection<Message> messages = scanAndFilterByEntry(tableName, null, corfuStoreEntry -> true,
+                    queryMetrics)
                     .stream()
                     .map(CorfuStoreEntry::getPayload)
                     .collect(Collectors.toList());
@@ -456,6 +606,7 @@ public class Query {
 
         int mergeJoinDepth = 0; // shallow merges for now
         Collection<R> mergedResults = merge(values, new ArrayList<>(), joinFunction, mergeJoinDepth);
-        return new QueryResult<>(mergedResults);
+        reportMetrics(queryMetrics);
+        return new QueryResult<>(mergedResults, queryMetrics);
     }
 }
@@ -0,0 +1,57 @@
+package org.corfudb.runtime.collections;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Accounts for the serialized bytes visited by a CorfuStore query and the portion of them
+ * which had to be decoded to evaluate its predicates and projections.
+ */
+public class QueryMetrics {
+
+    private final LongAdder bytesScanned = new LongAdder();
+
+    private final LongAdder bytesDecoded = new LongAdder();
+
+    /**
+     * @return Total serialized size of the records visited by the query.
+     */
+    public long getBytesScanned() {
+        return bytesScanned.sum();
+    }
+
+    /**
+     * @return Serialized bytes that the query had to decode.
+     */
+    public long getBytesDecoded() {
+        return bytesDecoded.sum();
+    }
+
+    /**
+     * Evaluate an action on a record and account for the bytes it scanned and decoded.
+     *
+     * @param record Record accessed by the action.
+     * @param action Action that may decode the record.
+     * @param <T>    Type of the result.
+     * @return Result of the action.
+     */
+    <T> T scan(CorfuRecord<?, ?> record, Supplier<T> action) {
+        bytesScanned.add(record.getPayloadSize() + record.getMetadataSize());
+        return decode(record, action);
+    }
+
+    /**
+     * Evaluate an action on an already scanned record and account for the bytes it decoded.
+     *
+     * @param record Record accessed by the action.
+     * @param action Action that may decode the record.
+     * @param <T>    Type of the result.
+     * @return Result of the action.
+     */
+    <T> T decode(CorfuRecord<?, ?> record, Supplier<T> action) {
+        final int decodedBefore = record.getDecodedSize();
+        T result = action.get();
+        bytesDecoded.add(record.getDecodedSize() - decodedBefore);
+        return result;
+    }
+}
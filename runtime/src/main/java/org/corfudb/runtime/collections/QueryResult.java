@@ -14,7 +14,19 @@ public class QueryResult<E> {
     @Getter
     private final Collection<E> result;
 
+    /**
+     * Bytes scanned and decoded while computing the result.
+     */
+    @Getter
+    @EqualsAndHashCode.Exclude
+    private final QueryMetrics queryMetrics;
+
     public QueryResult(Collection<E> result) {
+        this(result, new QueryMetrics());
+    }
+
+    public QueryResult(Collection<E> result, QueryMetrics queryMetrics) {
         this.result = result;
+        this.queryMetrics = queryMetrics;
     }
 }
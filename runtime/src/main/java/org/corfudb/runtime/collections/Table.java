@@ -267,16 +267,27 @@ public class Table<K extends Message, V extends Message, M extends Message> {
     @Nonnull
     List<CorfuStoreEntry<K, V, M>> scanAndFilterByEntry(
             @Nonnull final Predicate<CorfuStoreEntry<K, V, M>> entryPredicate) {
+        return scanAndFilterByEntry(entryPredicate, new QueryMetrics());
+    }
+
+    /**
+     * Scan and filter by entry.
+     * The returned entries are backed by the stored records, so the payload and the metadata
+     * are only decoded if the predicate (or the caller) accesses them.
+     *
+     * @param entryPredicate Predicate to filter the entries.
+     * @param queryMetrics   Accumulates the bytes scanned and decoded by the predicate.
+     * @return Collection of filtered entries.
+     */
+    @Nonnull
+    List<CorfuStoreEntry<K, V, M>> scanAndFilterByEntry(
+            @Nonnull final Predicate<CorfuStoreEntry<K, V, M>> entryPredicate,
+            @Nonnull final QueryMetrics queryMetrics) {
         return corfuTable.scanAndFilterByEntry(recordEntry ->
-                entryPredicate.test(new CorfuStoreEntry<>(
-                        recordEntry.getKey(),
-                        recordEntry.getValue().getPayload(),
-                        recordEntry.getValue().getMetadata())))
-                .parallelStream()
-                .map(entry -> new CorfuStoreEntry<>(
-                        entry.getKey(),
-                        entry.getValue().getPayload(),
-                        entry.getValue().getMetadata()))
+                queryMetrics.scan(recordEntry.getValue(), () -> entryPredicate.test(
+                        new CorfuStoreEntry<>(recordEntry.getKey(), recordEntry.getValue()))))
+                .stream()
+                .map(entry -> new CorfuStoreEntry<>(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
@@ -289,10 +300,7 @@ public class Table<K extends Message, V extends Message, M extends Message> {
     public @Nonnull
     Stream<CorfuStoreEntry<K, V, M>> entryStream() {
          return corfuTable.entryStream().map(entry ->
-                 new CorfuStoreEntry<>(
-                         entry.getKey(),
-                         entry.getValue().getPayload(),
-                         entry.getValue().getMetadata()));
+                 new CorfuStoreEntry<>(entry.getKey(), entry.getValue()));
     }
 
     /**
@@ -308,10 +316,59 @@ public class Table<K extends Message, V extends Message, M extends Message> {
     Collection<Entry<K, V>> getByIndex(@Nonnull final String indexName,
                                        @Nonnull final I indexKey) {
         return corfuTable.getByIndex(() -> indexName, indexKey).stream()
-                .map(entry -> new AbstractMap.SimpleEntry<>(entry.getKey(), entry.getValue().getPayload()))
+                .map(entry -> new RecordPayloadEntry<>(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Map entry exposing the payload of a record, which is only decoded when the value is accessed.
+     */
+    private static class RecordPayloadEntry<K, V extends Message> implements Entry<K, V> {
+
+        private final K key;
+
+        private final CorfuRecord<V, ?> record;
+
+        RecordPayloadEntry(K key, CorfuRecord<V, ?> record) {
+            this.key = key;
+            this.record = record;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return record.getPayload();
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException("setValue");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return Objects.equals(key, other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
     private Set<Descriptors.FieldDescriptor.Type> versionTypes = new HashSet<>(Arrays.asList(
             Descriptors.FieldDescriptor.Type.INT32,
             Descriptors.FieldDescriptor.Type.INT64,
@@ -4,6 +4,7 @@ import com.google.protobuf.Message;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -183,4 +184,40 @@ public class TxBuilder {
             operations.clear();
         }
     }
+
+    /**
+     * Commit the transaction without waiting for it to be written to the log.
+     *
+     * @return A future completed when the transaction is committed, or failed with a
+     *         TransactionAbortedException.
+     * @see TxBuilder#commitAsync(Timestamp)
+     */
+    @Nonnull
+    public CompletableFuture<Void> commitAsync() {
+        return commitAsync(null);
+    }
+
+    /**
+     * Commit the transaction without waiting for it to be written to the log.
+     * The updates are applied on the calling thread, like in commit(), then the transaction
+     * is written asynchronously so that many transactions can be committed concurrently
+     * from the same thread.
+     *
+     * @param timestamp Timestamp to commit the transaction on.
+     * @return A future completed when the transaction is committed, or failed with a
+     *         TransactionAbortedException.
+     */
+    @Nonnull
+    public CompletableFuture<Void> commitAsync(final Timestamp timestamp) {
+        this.timestamp = timestamp;
+        CompletableFuture<Long> commit;
+        try {
+            txBegin();
+            operations.forEach(Runnable::run);
+        } finally {
+            commit = this.objectsView.TXEndAsync();
+            operations.clear();
+        }
+        return commit.thenApply(address -> null);
+    }
 }
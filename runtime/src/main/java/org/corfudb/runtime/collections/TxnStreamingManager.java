@@ -4,12 +4,14 @@ import com.google.protobuf.Message;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
@@ -17,9 +19,18 @@ import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.ObjectsView;
 
 /**
+ * Delivers the updates of the transaction stream to the subscribed stream listeners.
+ *
+ * A tail waiter long-polls the sequencer for the tail of the transaction stream, so that
+ * the transaction stream is polled as soon as it is written to rather than on the next
+ * interval. While the tail waiter is healthy, the periodic poll only picks the subscriptions
+ * that are behind the tail; otherwise every subscription is polled on each interval.
  *
  * Created by sneginhal on 10/22/2019.
  */
@@ -71,6 +82,26 @@ public class TxnStreamingManager {
                     return t;
                 });
 
+    /**
+     * Executor service to run the tail waiter.
+     */
+    private ExecutorService tailWaiterExecutor = Executors.newFixedThreadPool(1, (r) -> {
+                    Thread t = Executors.defaultThreadFactory().newThread(r);
+                    t.setDaemon(true);
+                    t.setName("TxnStreamingManagerTailWaiter");
+                    return t;
+                });
+
+    /**
+     * Last known tail of the transaction stream.
+     */
+    private volatile long txnStreamTail = Address.NON_EXIST;
+
+    /**
+     * Whether the tail waiter is receiving the tails of the transaction stream.
+     */
+    private volatile boolean tailWaiterHealthy = false;
+
     /**
      * Interval of polling and notification in milliseconds.
      */
@@ -81,12 +112,18 @@ public class TxnStreamingManager {
      */
     private static final int MAX_NOTIFICATIONS = 25;
 
+    /**
+     * Maximum time a single tail wait blocks on the sequencer.
+     */
+    private static final Duration TAIL_WAIT_TIMEOUT = Duration.ofSeconds(1);
+
     public TxnStreamingManager(@Nonnull CorfuRuntime runtime) {
         this.runtime = runtime;
         executor.scheduleWithFixedDelay(this::scheduleTxnPolling, 0, INTERVAL,
                 TimeUnit.MILLISECONDS);
         executor.scheduleWithFixedDelay(this::scheduleClientNotification, INTERVAL, INTERVAL,
                 TimeUnit.MILLISECONDS);
+        tailWaiterExecutor.submit(this::waitForTxnStreamTail);
     }
 
     /**
@@ -139,9 +176,12 @@ public class TxnStreamingManager {
                 .collect(Collectors.toList());
         keysToBeReaped.forEach(k -> subscriptions.remove(k));
 
-        // Lock avaliable streamContexts.
+        // Lock avaliable streamContexts, skipping the ones that are known to be up to date.
+        final boolean pollBehindTail = tailWaiterHealthy;
+        final long tail = txnStreamTail;
         List<StreamingSubscriptionContext> lockedStreamingSubscriptionContexts = subscriptions.values()
                 .stream()
+                .filter(sc -> !pollBehindTail || sc.getLastReadAddress() < tail)
                 .filter(sc -> sc.acquire())
                 .collect(Collectors.toList());
 
@@ -155,6 +195,49 @@ public class TxnStreamingManager {
 
     }
 
+    /**
+     * Long-polls the sequencer for the tail of the transaction stream, and schedules
+     * transaction polling as soon as the tail moves.
+     */
+    private void waitForTxnStreamTail() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (isIdle()) {
+                    TimeUnit.MILLISECONDS.sleep(INTERVAL);
+                    continue;
+                }
+
+                TailsResponse tails = runtime.getSequencerView().waitForStreamTails(txnStreamTail,
+                        TAIL_WAIT_TIMEOUT, ObjectsView.TRANSACTION_STREAM_ID);
+                long tail = tails.getStreamTails()
+                        .getOrDefault(ObjectsView.TRANSACTION_STREAM_ID, Address.NON_EXIST);
+                tailWaiterHealthy = true;
+
+                if (tail > txnStreamTail) {
+                    log.trace("waitForTxnStreamTail: txn stream tail moved from {} to {}",
+                            txnStreamTail, tail);
+                    txnStreamTail = tail;
+                    executor.execute(this::scheduleTxnPolling);
+                }
+            } catch (InterruptedException | RejectedExecutionException e) {
+                return;
+            } catch (Throwable t) {
+                // Fall back to polling every subscription until the sequencer responds again.
+                log.warn("waitForTxnStreamTail: failed to wait for the txn stream tail", t);
+                tailWaiterHealthy = false;
+                try {
+                    TimeUnit.MILLISECONDS.sleep(INTERVAL);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isIdle() {
+        return subscriptions.isEmpty();
+    }
+
     /**
      * Periodic task to schedule client notifications.
      */
@@ -181,5 +264,6 @@ public class TxnStreamingManager {
         CompletableFuture.runAsync(() -> shutdownExecutor.accept(executor));
         CompletableFuture.runAsync(() -> shutdownExecutor.accept(pollerExecutor));
         CompletableFuture.runAsync(() -> shutdownExecutor.accept(notifierExecutor));
+        tailWaiterExecutor.shutdownNow();
     }
 }
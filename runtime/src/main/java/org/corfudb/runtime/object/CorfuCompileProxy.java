@@ -94,6 +94,11 @@ public class CorfuCompileProxy<T extends ICorfuSMR<T>> implements ICorfuSMRProxy
     @Getter
     ISerializer serializer;
 
+    /**
+     * The SMR methods of the underlying object.
+     */
+    private final SMRMethodIds methodIds;
+
     /**
      * The arguments this proxy was created with.
      */
@@ -133,6 +138,7 @@ public class CorfuCompileProxy<T extends ICorfuSMR<T>> implements ICorfuSMRProxy
         this.type = type;
         this.args = args;
         this.serializer = serializer;
+        this.methodIds = wrapperObject.getCorfuSMRMethodIds();
 
         // Since the VLO is thread safe we don't need to use a thread safe stream implementation
         // because the VLO will control access to the stream
@@ -225,7 +231,7 @@ public class CorfuCompileProxy<T extends ICorfuSMR<T>> implements ICorfuSMRProxy
         if (TransactionalContext.isInTransaction()) {
             try {
                 // We generate an entry to avoid exposing the serializer to the tx context.
-                SMREntry entry = new SMREntry(smrUpdateFunction, args, serializer);
+                SMREntry entry = new SMREntry(smrUpdateFunction, args, serializer, methodIds);
                 return TransactionalContext.getCurrentContext()
                         .logUpdate(this, entry, conflictObject);
             } catch (Exception e) {
@@ -236,7 +242,7 @@ public class CorfuCompileProxy<T extends ICorfuSMR<T>> implements ICorfuSMRProxy
 
         // If we aren't in a transaction, we can just write the modification.
         // We need to add the acquired token into the pending upcall list.
-        SMREntry smrEntry = new SMREntry(smrUpdateFunction, args, serializer);
+        SMREntry smrEntry = new SMREntry(smrUpdateFunction, args, serializer, methodIds);
         long address = underlyingObject.logUpdate(smrEntry, keepUpcallResult);
         log.trace("Update[{}] {}@{} ({}) conflictObj={}",
                 this, smrUpdateFunction, address, args, conflictObject);
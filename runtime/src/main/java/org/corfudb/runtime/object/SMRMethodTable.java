@@ -0,0 +1,77 @@
+package org.corfudb.runtime.object;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/** An immutable table of values indexed by SMR method id, which is looked up
+ * on every update applied to an object without hashing the method name or
+ * boxing the id.
+ *
+ * @param <V> The type of the values.
+ */
+@SuppressWarnings("checkstyle:abbreviation")
+final class SMRMethodTable<V> {
+
+    /** The sorted ids of the methods. */
+    private final int[] ids;
+
+    /** The values, at the index of their method id. */
+    private final Object[] values;
+
+    private SMRMethodTable(int[] ids, Object[] values) {
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /** Build a table from a map of method names.
+     * @param map   The values by method name.
+     * @param <V>   The type of the values.
+     * @return      The table of the values by method id.
+     */
+    static <V> SMRMethodTable<V> of(Map<String, V> map) {
+        return of(map.keySet(), map::get);
+    }
+
+    /** Build a table of the given method names.
+     * @param names The method names.
+     * @return      The table of the method names by method id.
+     */
+    static SMRMethodTable<String> of(Collection<String> names) {
+        return of(names, Function.identity());
+    }
+
+    private static <V> SMRMethodTable<V> of(Collection<String> names, Function<String, V> valueFn) {
+        int[] ids = names.stream()
+                .mapToInt(SMRMethodIds::getId)
+                .sorted()
+                .toArray();
+        if (Arrays.stream(ids).distinct().count() != ids.length) {
+            throw new IllegalArgumentException("SMR methods with the same id in " + names);
+        }
+        Object[] values = new Object[ids.length];
+        for (String name : names) {
+            values[Arrays.binarySearch(ids, SMRMethodIds.getId(name))] = valueFn.apply(name);
+        }
+        return new SMRMethodTable<>(ids, values);
+    }
+
+    /** Get the value of a method.
+     * @param id    The id of the method.
+     * @return      The value of the method, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    V get(int id) {
+        int index = Arrays.binarySearch(ids, id);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    /** Get whether the table contains a method.
+     * @param id    The id of the method.
+     * @return      True, if the table contains the method.
+     */
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, id) >= 0;
+    }
+}
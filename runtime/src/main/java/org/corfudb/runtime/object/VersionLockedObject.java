@@ -93,24 +93,29 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
     private WriteSetSMRStream optimisticStream;
 
     /**
-     * The upcall map for this object.
+     * The upcall table for this object, indexed by SMR method id.
      */
-    private final Map<String, ICorfuSMRUpcallTarget<T>> upcallTargetMap;
+    private final SMRMethodTable<ICorfuSMRUpcallTarget<T>> upcallTargets;
 
     /**
-     * The undo record function map for this object.
+     * The undo record function table for this object, indexed by SMR method id.
      */
-    private final Map<String, IUndoRecordFunction<T>> undoRecordFunctionMap;
+    private final SMRMethodTable<IUndoRecordFunction<T>> undoRecordFunctions;
 
     /**
-     * The undo target map for this object.
+     * The undo target table for this object, indexed by SMR method id.
      */
-    private final Map<String, IUndoFunction<T>> undoFunctionMap;
+    private final SMRMethodTable<IUndoFunction<T>> undoFunctions;
 
     /**
-     * The reset set for this object.
+     * The reset set for this object, indexed by SMR method id.
      */
-    private final Set<String> resetSet;
+    private final SMRMethodTable<String> resetMethods;
+
+    /**
+     * The SMR methods of this object, which resolve the entries logged by method id.
+     */
+    private final SMRMethodIds methodIds;
 
     /**
      * A function that generates a new instance of this object.
@@ -134,10 +139,11 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
                                ICorfuSMR<T> wrapperObject) {
         this.smrStream = smrStream;
 
-        this.upcallTargetMap = wrapperObject.getCorfuSMRUpcallMap();
-        this.undoRecordFunctionMap = wrapperObject.getCorfuUndoRecordMap();
-        this.undoFunctionMap = wrapperObject.getCorfuUndoMap();
-        this.resetSet = wrapperObject.getCorfuResetSet();
+        this.upcallTargets = SMRMethodTable.of(wrapperObject.getCorfuSMRUpcallMap());
+        this.undoRecordFunctions = SMRMethodTable.of(wrapperObject.getCorfuUndoRecordMap());
+        this.undoFunctions = SMRMethodTable.of(wrapperObject.getCorfuUndoMap());
+        this.resetMethods = SMRMethodTable.of(wrapperObject.getCorfuResetSet());
+        this.methodIds = wrapperObject.getCorfuSMRMethodIds();
 
         wrapperObject.closeWrapper();
         this.newObjectFn = newObjectFn;
@@ -519,10 +525,11 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
      * @param entry The entry to undo.
      */
     private void applyUndoRecordUnsafe(SMREntry entry, ISMRStream stream) {
+        entry.resolveSMRMethod(methodIds);
         log.trace("Undo[{}] of {}@{} ({})", this, entry.getSMRMethod(),
                 Address.isAddress(entry.getGlobalAddress()) ? entry.getGlobalAddress() : "OPT",
                 entry.getUndoRecord());
-        IUndoFunction<T> undoFunction = undoFunctionMap.get(entry.getSMRMethod());
+        IUndoFunction<T> undoFunction = undoFunctions.get(entry.getSMRMethodId());
         ICorfuExecutionContext.Context context = getContext(stream);
 
         // If the undo function exists, apply it.
@@ -531,7 +538,7 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
                     object.getContext(context),
                     entry.getUndoRecord(), entry.getSMRArguments());
             return;
-        } else if (resetSet.contains(entry.getSMRMethod())) {
+        } else if (resetMethods.contains(entry.getSMRMethodId())) {
             // If this is a reset, undo by restoring the
             // previous state.
             object = (T) entry.getUndoRecord();
@@ -568,11 +575,12 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
      * @param entry The entry to apply.
      */
     private Object applyUpdateUnsafe(SMREntry entry, long timestamp) {
+        entry.resolveSMRMethod(methodIds);
         log.trace("Apply[{}] of {}@{} ({})", this, entry.getSMRMethod(),
                 Address.isAddress(entry.getGlobalAddress()) ? entry.getGlobalAddress() : "OPT",
                 entry.getSMRArguments());
 
-        ICorfuSMRUpcallTarget<T> target = upcallTargetMap.get(entry.getSMRMethod());
+        ICorfuSMRUpcallTarget<T> target = upcallTargets.get(entry.getSMRMethodId());
         if (target == null) {
             throw new RuntimeException("Unknown upcall " + entry.getSMRMethod());
         }
@@ -587,14 +595,14 @@ public class VersionLockedObject<T extends ICorfuSMR<T>> {
         if (!entry.isUndoable() || !Address.isAddress(entry.getGlobalAddress())) {
             // Can we generate an undo record?
             IUndoRecordFunction<T> undoRecordTarget =
-                    undoRecordFunctionMap.get(entry.getSMRMethod());
+                    undoRecordFunctions.get(entry.getSMRMethodId());
             // If there was no previously calculated undo entry
             if (undoRecordTarget != null) {
                 // Calculate the undo record.
                 entry.setUndoRecord(undoRecordTarget
                         .getUndoRecord(object.getContext(context), entry.getSMRArguments()));
                 log.trace("Apply[{}] Undo->{}", this, entry.getUndoRecord());
-            } else if (resetSet.contains(entry.getSMRMethod())) {
+            } else if (resetMethods.contains(entry.getSMRMethodId())) {
                 // This entry actually resets the object. So here
                 // we can safely get a new instance, and add the
                 // previous instance to the undo log.
@@ -272,6 +272,23 @@ public abstract class AbstractTransactionalContext implements
         return NOWRITE_ADDRESS;
     }
 
+    /**
+     * Commit the transaction to the log without blocking the calling thread, when the
+     * transaction supports it. By default, the transaction is committed synchronously.
+     *
+     * @return A future of the commit address, failed with a
+     *         {@link TransactionAbortedException} if the transaction is aborted.
+     */
+    public CompletableFuture<Long> commitTransactionAsync() {
+        CompletableFuture<Long> commit = new CompletableFuture<>();
+        try {
+            commit.complete(commitTransaction());
+        } catch (RuntimeException e) {
+            commit.completeExceptionally(e);
+        }
+        return commit;
+    }
+
     /**
      * Forcefully abort the transaction.
      */
@@ -5,6 +5,7 @@ import static org.corfudb.runtime.view.ObjectsView.TRANSACTION_STREAM_ID;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +19,8 @@ import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.object.ICorfuSMR;
 import org.corfudb.runtime.object.ICorfuSMRAccess;
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.corfudb.runtime.view.CacheOption;
+import org.corfudb.util.CFUtils;
 
 /** A Corfu optimistic transaction context.
  *
@@ -217,6 +220,13 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
         return getConflictSetAndCommit(getReadSetInfo());
     }
 
+    @Override
+    public CompletableFuture<Long> commitTransactionAsync() {
+        log.debug("TX[{}] request optimistic async commit", this);
+
+        return getConflictSetAndCommitAsync(getReadSetInfo());
+    }
+
     /**
      * Commit with a given conflict set and return the address.
      *
@@ -239,29 +249,13 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
             return NOWRITE_ADDRESS;
         }
 
-        // Write to the transaction stream if transaction logging is enabled
-        Set<UUID> affectedStreamsIds = new HashSet<>(getWriteSetInfo().getWriteSet().getEntryMap().keySet());
-
-        if (this.transaction.isLoggingEnabled()) {
-            affectedStreamsIds.add(TRANSACTION_STREAM_ID);
-        }
-
-        UUID[] affectedStreams = affectedStreamsIds.toArray(new UUID[affectedStreamsIds.size()]);
+        UUID[] affectedStreams = getAffectedStreams();
 
         // Now we obtain a conditional address from the sequencer.
         // This step currently happens all at once, and we get an
         // address of -1L if it is rejected.
         long address = -1L;
-        final TxResolutionInfo txInfo =
-            // TxResolution info:
-            // 1. snapshot timestamp
-            // 2. a map of conflict params, arranged by streamID's
-            // 3. a map of write conflict-params, arranged by
-            // streamID's
-            new TxResolutionInfo(getTransactionID(),
-                getSnapshotTimestamp(),
-                conflictSet.getHashedConflictSet(),
-                getWriteSetInfo().getHashedConflictSet());
+        final TxResolutionInfo txInfo = getTxResolutionInfo(conflictSet);
 
         try {
             address = this.transaction.runtime.getStreamsView()
@@ -278,6 +272,73 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
             throw new TransactionAbortedException(txInfo, AbortCause.OVERWRITE, oe, this);
         }
 
+        return committed(address);
+    }
+
+    /**
+     * Commit with a given conflict set without blocking the calling thread.
+     *
+     * @param conflictSet  conflict set used to check whether transaction can commit
+     * @return  a future of the commit address
+     * @see OptimisticTransactionalContext#getConflictSetAndCommit(ConflictSetInfo)
+     */
+    public CompletableFuture<Long> getConflictSetAndCommitAsync(ConflictSetInfo conflictSet) {
+        if (TransactionalContext.isInNestedTransaction()
+                || getWriteSetInfo().getWriteSet().getEntryMap().isEmpty()) {
+            // Folded and read-only commits do not write to the log.
+            return CompletableFuture.completedFuture(getConflictSetAndCommit(conflictSet));
+        }
+
+        final UUID[] affectedStreams = getAffectedStreams();
+        final TxResolutionInfo txInfo = getTxResolutionInfo(conflictSet);
+
+        return this.transaction.runtime.getStreamsView()
+            .appendAsync(collectWriteSetEntries(), txInfo, CacheOption.WRITE_THROUGH, this, affectedStreams)
+            .handle((address, ex) -> {
+                if (ex != null) {
+                    try {
+                        CFUtils.unwrap(ex, AppendException.class);
+                    } catch (AppendException oe) {
+                        throw new TransactionAbortedException(txInfo, AbortCause.OVERWRITE, oe, this);
+                    }
+                }
+                return committed(address);
+            });
+    }
+
+    /**
+     * Get the streams written by the transaction, including the transaction stream
+     * if transaction logging is enabled.
+     */
+    private UUID[] getAffectedStreams() {
+        Set<UUID> affectedStreamsIds = new HashSet<>(getWriteSetInfo().getWriteSet().getEntryMap().keySet());
+
+        if (this.transaction.isLoggingEnabled()) {
+            affectedStreamsIds.add(TRANSACTION_STREAM_ID);
+        }
+
+        return affectedStreamsIds.toArray(new UUID[affectedStreamsIds.size()]);
+    }
+
+    private TxResolutionInfo getTxResolutionInfo(ConflictSetInfo conflictSet) {
+        // TxResolution info:
+        // 1. snapshot timestamp
+        // 2. a map of conflict params, arranged by streamID's
+        // 3. a map of write conflict-params, arranged by
+        // streamID's
+        return new TxResolutionInfo(getTransactionID(),
+            getSnapshotTimestamp(),
+            conflictSet.getHashedConflictSet(),
+            getWriteSetInfo().getHashedConflictSet());
+    }
+
+    /**
+     * Mark the transaction as committed at the address it was written to.
+     *
+     * @param address the commit address
+     * @return the commit address
+     */
+    private long committed(long address) {
         log.trace("Commit[{}] Acquire address {}", this, address);
 
         super.commitTransaction();
@@ -1,5 +1,7 @@
 package org.corfudb.runtime.object.transactions;
 
+import java.util.concurrent.CompletableFuture;
+
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
@@ -35,6 +37,13 @@ public class WriteAfterWriteTransactionalContext
         return getConflictSetAndCommit(getWriteSetInfo());
     }
 
+    @Override
+    public CompletableFuture<Long> commitTransactionAsync() {
+        log.debug("TX[{}] request write-write async commit", this);
+
+        return getConflictSetAndCommitAsync(getWriteSetInfo());
+    }
+
     @Override
     /** Add the proxy and conflict-params information to our read set.
      * @param proxy             The proxy to add
@@ -16,6 +16,7 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IToken;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.StreamReadResponse;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.Token;
@@ -47,7 +48,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -251,6 +255,50 @@ public class AddressSpaceView extends AbstractView {
         write(token, data, CacheOption.WRITE_THROUGH);
     }
 
+    /**
+     * Write the given log data using a token without blocking the calling thread, the
+     * returned future is completed by the threads receiving the responses of the log units.
+     *
+     * <p>Unlike {@link AddressSpaceView#write(IToken, Object, CacheOption)}, the write is
+     * neither retried on a new layout nor validated when it fails, a failed write has to be
+     * completed with the synchronous write using the same token.</p>
+     *
+     * @param layout      The layout the token was issued in.
+     * @param token       The token to use for the write.
+     * @param ld          The data to write.
+     * @param cacheOption The caching behaviour for this write
+     * @return A future completed when the data is written on all the log units, or failed
+     *         with a {@link StaleTokenException} if the token is not of the given layout.
+     */
+    public CompletableFuture<Void> writeAsync(@Nonnull RuntimeLayout layout, @Nonnull IToken token,
+                                              @Nonnull ILogData ld, @Nonnull CacheOption cacheOption) {
+        Layout l = layout.getLayout();
+        CompletableFuture<Void> write = new CompletableFuture<>();
+        if (token.getEpoch() != l.getEpoch()) {
+            write.completeExceptionally(new StaleTokenException(l.getEpoch()));
+            return write;
+        }
+
+        ld.useToken(token);
+        ld.setId(runtime.getParameters().getClientId());
+
+        try {
+            write = l.getReplicationMode(token.getSequence())
+                    .getReplicationProtocol(runtime)
+                    .writeAsync(layout, ld);
+        } catch (RuntimeException re) {
+            write.completeExceptionally(re);
+            return write;
+        }
+
+        return write.thenRun(() -> {
+            // Cache the successful write
+            if (cacheOption == CacheOption.WRITE_THROUGH) {
+                readCache.put(token.getSequence(), ld);
+            }
+        });
+    }
+
     /**
      * Directly read from the log, returning any
      * committed value, or NULL, if no value has
@@ -469,6 +517,41 @@ public class AddressSpaceView extends AbstractView {
         return data;
     }
 
+    /**
+     * Read the entries of a stream in (start, end] from the log unit that holds them, which
+     * resolves the addresses of the stream from its own metadata, instead of the client
+     * requesting the stream address map from the sequencer and then reading every address.
+     *
+     * <p>Only a range of a chain replicated layout segment with a single stripe can be read
+     * this way, the range is bounded to the end of that segment. The entries read are added
+     * to the read cache.
+     *
+     * @param streamId the stream to read
+     * @param start    start of the range (exclusive)
+     * @param end      end of the range (inclusive)
+     * @return the entries of the stream and the address up to which they are complete, or
+     *         empty if the range can not be read from a single log unit
+     */
+    public Optional<StreamReadResponse> readStream(UUID streamId, long start, long end) {
+        final int maxResponseSize = runtime.getParameters().getStreamReadSize();
+
+        Optional<StreamReadResponse> response = layoutHelper(e -> {
+            Layout.LayoutSegment segment = e.getLayout().getSegment(start + 1);
+            if (segment.getReplicationMode() != Layout.ReplicationMode.CHAIN_REPLICATION
+                    || segment.getNumberOfStripes() != 1) {
+                return Optional.<StreamReadResponse>empty();
+            }
+
+            long rangeEnd = segment.getEnd() == -1 ? end : Math.min(end, segment.getEnd() - 1);
+            List<String> logServers = segment.getStripes().get(0).getLogServers();
+            return Optional.of(CFUtils.getUninterruptibly(e.getLogUnitClient(logServers.get(logServers.size() - 1))
+                    .readStream(streamId, start, rangeEnd, maxResponseSize)));
+        });
+
+        response.ifPresent(r -> r.getEntries().forEach(entry -> readCache.put(entry.getGlobalAddress(), entry)));
+        return response;
+    }
+
     /**
      * Get the first address in the address space.
      */
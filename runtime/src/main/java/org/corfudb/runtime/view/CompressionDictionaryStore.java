@@ -0,0 +1,196 @@
+package org.corfudb.runtime.view;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.common.compression.CompressionDictionaries;
+import org.corfudb.common.compression.CompressionDictionary;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
+import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.stream.IStreamView;
+import org.corfudb.util.CorfuComponent;
+import org.corfudb.util.serializer.Serializers;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.corfudb.runtime.view.TableRegistry.CORFU_SYSTEM_NAMESPACE;
+import static org.corfudb.runtime.view.TableRegistry.getFullyQualifiedTableName;
+
+/**
+ * Compression dictionaries trained for the streams (tables) of the cluster.
+ * <p>
+ * A dictionary is trained on sample records of a table, and published on the dictionary
+ * stream together with the id of the table stream. Runtimes configured with the
+ * {@link org.corfudb.common.compression.Codec.Type#ZSTD_DICT} codec compress the writes
+ * to that table with the dictionary, and the readers load the dictionaries they do not
+ * know from the dictionary stream when they first decode a payload compressed with them.
+ * <p>
+ * Writers pick up dictionaries published by other runtimes on {@link #refresh()}.
+ */
+@Slf4j
+public class CompressionDictionaryStore {
+
+    public static final String DICTIONARIES_TABLE_NAME = "CompressionDictionaries";
+
+    /**
+     * The stream the dictionaries are published on, each entry is a raw record:
+     * |  16 bytes   |    dictionary   |
+     *    stream id     dictionary bytes
+     */
+    public static final UUID DICTIONARIES_STREAM_ID = CorfuRuntime.getStreamID(
+            getFullyQualifiedTableName(CORFU_SYSTEM_NAMESPACE, DICTIONARIES_TABLE_NAME));
+
+    private static final int STREAM_ID_SIZE = Long.BYTES * 2;
+
+    private static final MetricRegistry metricRegistry = CorfuRuntime.getDefaultMetrics();
+
+    private final CorfuRuntime runtime;
+
+    private final IStreamView dictionaryStream;
+
+    public CompressionDictionaryStore(@Nonnull CorfuRuntime runtime) {
+        this.runtime = runtime;
+        this.dictionaryStream = runtime.getStreamsView().getUnsafe(DICTIONARIES_STREAM_ID,
+                StreamOptions.builder().cacheEntries(false).build());
+    }
+
+    /**
+     * Trains a dictionary on the records of a table, publishes it and starts compressing the
+     * writes to the table with it. The table has to be opened by this runtime, so that its
+     * records can be deserialized.
+     *
+     * @param namespace      namespace of the table
+     * @param tableName      name of the table
+     * @param maxSamples     maximum number of records to sample
+     * @param dictionarySize maximum size of the dictionary in bytes
+     * @return the trained dictionary
+     */
+    public CompressionDictionary train(@Nonnull String namespace, @Nonnull String tableName,
+                                       int maxSamples, int dictionarySize) {
+        UUID streamId = CorfuRuntime.getStreamID(getFullyQualifiedTableName(namespace, tableName));
+        return train(streamId, maxSamples, dictionarySize);
+    }
+
+    /**
+     * Trains a dictionary on the records of a stream, publishes it and starts compressing the
+     * writes to the stream with it.
+     *
+     * @param streamId       the stream to sample
+     * @param maxSamples     maximum number of records to sample
+     * @param dictionarySize maximum size of the dictionary in bytes
+     * @return the trained dictionary
+     */
+    public CompressionDictionary train(@Nonnull UUID streamId, int maxSamples, int dictionarySize) {
+        List<byte[]> samples = sample(streamId, maxSamples);
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("No records to train a dictionary on in stream " + streamId);
+        }
+
+        CompressionDictionary dictionary = CompressionDictionary.train(samples, dictionarySize);
+        publish(streamId, dictionary);
+        log.info("train: trained dictionary {} of {} bytes on {} records of stream {}",
+                dictionary.getId(), dictionary.toByteArray().length, samples.size(), streamId);
+        return dictionary;
+    }
+
+    /**
+     * Reads the serialized form of the first records of a stream.
+     *
+     * @param streamId   the stream to sample
+     * @param maxSamples maximum number of records to sample
+     * @return the serialized records
+     */
+    private List<byte[]> sample(UUID streamId, int maxSamples) {
+        IStreamView stream = runtime.getStreamsView().getUnsafe(streamId,
+                StreamOptions.builder().cacheEntries(false).build());
+        List<byte[]> samples = new ArrayList<>();
+
+        ILogData entry;
+        while (samples.size() < maxSamples && (entry = stream.next()) != null) {
+            Object payload = entry.getPayload(runtime);
+            if (payload == null || payload instanceof CheckpointEntry) {
+                continue;
+            }
+
+            ByteBuf buf = Unpooled.buffer();
+            try {
+                Serializers.CORFU.serialize(payload, buf);
+                byte[] sample = new byte[buf.readableBytes()];
+                buf.readBytes(sample);
+                samples.add(sample);
+            } finally {
+                buf.release();
+            }
+        }
+
+        return samples;
+    }
+
+    /**
+     * Publishes a dictionary for a stream and starts compressing the writes to the stream with it.
+     *
+     * @param streamId   the stream
+     * @param dictionary the dictionary
+     */
+    public void publish(@Nonnull UUID streamId, @Nonnull CompressionDictionary dictionary) {
+        byte[] content = dictionary.toByteArray();
+        ByteBuffer record = ByteBuffer.allocate(STREAM_ID_SIZE + content.length);
+        record.putLong(streamId.getMostSignificantBits());
+        record.putLong(streamId.getLeastSignificantBits());
+        record.put(content);
+
+        runtime.getStreamsView().append(record.array(), null, DICTIONARIES_STREAM_ID);
+        assign(streamId, dictionary);
+    }
+
+    /**
+     * Loads the dictionaries published since the last refresh.
+     */
+    public synchronized void refresh() {
+        for (ILogData entry : dictionaryStream.remaining()) {
+            ByteBuffer record = ByteBuffer.wrap((byte[]) entry.getPayload(runtime));
+            UUID streamId = new UUID(record.getLong(), record.getLong());
+            byte[] content = new byte[record.remaining()];
+            record.get(content);
+            assign(streamId, new CompressionDictionary(content));
+        }
+    }
+
+    /**
+     * Makes sure that a dictionary is loaded, refreshing the dictionaries if it is not.
+     *
+     * @param dictionaryId the id of the dictionary
+     */
+    public void ensureLoaded(int dictionaryId) {
+        if (dictionaryId == ZSTDDictionaryCompression.NO_DICTIONARY
+                || CompressionDictionaries.get(dictionaryId).isPresent()) {
+            return;
+        }
+
+        refresh();
+    }
+
+    private void assign(UUID streamId, CompressionDictionary dictionary) {
+        boolean registered = CompressionDictionaries.get(dictionary.getId()).isPresent();
+        CompressionDictionaries.assign(streamId, dictionary);
+        if (!registered) {
+            registerMetrics(CompressionDictionaries.get(dictionary.getId()).get());
+        }
+    }
+
+    private static void registerMetrics(CompressionDictionary dictionary) {
+        String prefix = CorfuComponent.COMPRESSION + "dictionary." + Integer.toHexString(dictionary.getId());
+        metricRegistry.gauge(prefix + ".ratio", () -> (Gauge<Double>) dictionary::getCompressionRatio);
+        metricRegistry.gauge(prefix + ".compressed-bytes", () -> (Gauge<Long>) dictionary::getCompressedBytes);
+        metricRegistry.gauge(prefix + ".compress-nanos", () -> (Gauge<Long>) dictionary::getCompressNanos);
+        metricRegistry.gauge(prefix + ".decompress-nanos", () -> (Gauge<Long>) dictionary::getDecompressNanos);
+    }
+}
@@ -5,12 +5,18 @@ import static java.util.Objects.requireNonNull;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.protobuf.InvalidProtocolBufferException;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.ToString;
+import org.corfudb.format.Types;
+import org.corfudb.format.Types.LayoutRecord;
+import org.corfudb.format.Types.LayoutSegmentRecord;
+import org.corfudb.format.Types.LayoutStripeRecord;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.view.ClusterStatusReport.ClusterStatus;
@@ -26,7 +32,9 @@ import org.corfudb.runtime.view.stream.ThreadSafeStreamView;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
@@ -55,6 +63,18 @@ public class Layout {
     static final Gson parser = new GsonBuilder()
             .registerTypeAdapter(Layout.class, new LayoutDeserializer())
             .create();
+
+    /**
+     * Whether layouts are encoded in binary, initialized from the corfu.layout.binary
+     * system property. Earlier versions only decode JSON layouts, so it is disabled by
+     * default and must only be enabled once every node and client of the cluster
+     * decodes binary layouts.
+     */
+    @Getter
+    @Setter
+    private static volatile boolean binaryEncoding =
+            Boolean.parseBoolean(System.getProperty("corfu.layout.binary", Boolean.FALSE.toString()));
+
     /**
      * A list of layout servers in the layout.
      */
@@ -101,6 +121,16 @@ public class Layout {
     @Getter
     UUID clusterId;
 
+    /**
+     * The start addresses of the segments, in the order of the segments, which route an address
+     * to its segment with a binary search. It is rebuilt when the segments are modified.
+     * A stale table is harmless, as every lookup checks that the segment contains the address.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    transient long[] segmentStarts;
+
     /**
      * Defensive constructor since we can create a Layout from a JSON file.
      * JSON deserialize is forced through this constructor.
@@ -148,6 +178,81 @@ public class Layout {
         return requireNonNull(parser.fromJson(json, Layout.class));
     }
 
+    /**
+     * Get a layout from its binary encoding. Layouts encoded as JSON are accepted as well.
+     *
+     * @param bytes the encoded layout
+     * @return the layout
+     */
+    public static Layout fromBytes(@NonNull byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == '{') {
+            return fromJSONString(new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        final LayoutRecord record;
+        try {
+            record = LayoutRecord.parseFrom(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Invalid layout encoding", e);
+        }
+
+        List<LayoutSegment> segments = new ArrayList<>(record.getSegmentsCount());
+        for (LayoutSegmentRecord segment : record.getSegmentsList()) {
+            List<LayoutStripe> stripes = new ArrayList<>(segment.getStripesCount());
+            for (LayoutStripeRecord stripe : segment.getStripesList()) {
+                stripes.add(new LayoutStripe(new ArrayList<>(stripe.getLogServersList())));
+            }
+            segments.add(new LayoutSegment(ReplicationMode.valueOf(segment.getReplicationMode().name()),
+                    segment.getStart(), segment.getEnd(), stripes));
+        }
+
+        UUID clusterId = record.hasClusterIdMostSignificant() && record.hasClusterIdLeastSignificant()
+                ? new UUID(record.getClusterIdMostSignificant(), record.getClusterIdLeastSignificant())
+                : null;
+
+        return new Layout(new ArrayList<>(record.getLayoutServersList()),
+                new ArrayList<>(record.getSequencersList()),
+                segments,
+                new ArrayList<>(record.getUnresponsiveServersList()),
+                record.getEpoch(),
+                clusterId);
+    }
+
+    /**
+     * Get the encoding of the layout, binary if it is enabled and JSON otherwise.
+     * {@link Layout#fromBytes(byte[])} decodes both.
+     */
+    public byte[] asBytes() {
+        if (!binaryEncoding) {
+            return asJSONString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        LayoutRecord.Builder record = LayoutRecord.newBuilder()
+                .addAllLayoutServers(layoutServers)
+                .addAllSequencers(sequencers)
+                .addAllUnresponsiveServers(unresponsiveServers)
+                .setEpoch(epoch);
+
+        for (LayoutSegment segment : segments) {
+            LayoutSegmentRecord.Builder segmentRecord = LayoutSegmentRecord.newBuilder()
+                    .setReplicationMode(Types.ReplicationMode.valueOf(segment.getReplicationMode().name()))
+                    .setStart(segment.getStart())
+                    .setEnd(segment.getEnd());
+            for (LayoutStripe stripe : segment.getStripes()) {
+                segmentRecord.addStripes(LayoutStripeRecord.newBuilder()
+                        .addAllLogServers(stripe.getLogServers()));
+            }
+            record.addSegments(segmentRecord);
+        }
+
+        if (clusterId != null) {
+            record.setClusterIdMostSignificant(clusterId.getMostSignificantBits())
+                    .setClusterIdLeastSignificant(clusterId.getLeastSignificantBits());
+        }
+
+        return record.build().toByteArray();
+    }
+
     /**
      * Return all the segments that an endpoint participates in.
      * @param endpoint the endpoint to return all the segments for
@@ -237,12 +342,70 @@ public class Layout {
      * @param globalAddress The global address.
      */
     public LayoutSegment getSegment(long globalAddress) {
+        LayoutSegment segment = findSegment(globalAddress);
+        if (segment == null) {
+            throw new RuntimeException("Unmapped address " + Long.toString(globalAddress) + "!");
+        }
+        return segment;
+    }
+
+    /**
+     * Find the segment of an address with a binary search on the start addresses of the
+     * segments. The routing table is rebuilt if the segments were modified since it was built,
+     * which is detected by checking that the segment found contains the address.
+     *
+     * @param globalAddress The global address.
+     * @return the segment of the address, or null if the address is not mapped.
+     */
+    private LayoutSegment findSegment(long globalAddress) {
+        long[] starts = segmentStarts;
+        if (starts != null && starts.length == segments.size()) {
+            LayoutSegment segment = routeSegment(starts, globalAddress);
+            if (segment != null) {
+                return segment;
+            }
+        }
+
+        starts = new long[segments.size()];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = segments.get(i).getStart();
+        }
+        segmentStarts = starts;
+
+        LayoutSegment segment = routeSegment(starts, globalAddress);
+        if (segment != null) {
+            return segment;
+        }
+
+        // Unmapped address, or segments which are not ordered by their start address
         for (LayoutSegment ls : segments) {
-            if (ls.start <= globalAddress && (ls.end > globalAddress || ls.end == -1)) {
+            if (ls.contains(globalAddress)) {
                 return ls;
             }
         }
-        throw new RuntimeException("Unmapped address " + Long.toString(globalAddress) + "!");
+        return null;
+    }
+
+    private LayoutSegment routeSegment(long[] starts, long globalAddress) {
+        int index = Arrays.binarySearch(starts, globalAddress);
+        // The segment with the largest start address not greater than the address
+        index = index >= 0 ? index : -index - 2;
+        if (index < 0 || index >= segments.size()) {
+            return null;
+        }
+
+        LayoutSegment segment = segments.get(index);
+        return segment.contains(globalAddress) ? segment : null;
+    }
+
+    /**
+     * Set the segments of the layout.
+     *
+     * @param segments the segments
+     */
+    public void setSegments(List<LayoutSegment> segments) {
+        this.segments = segments;
+        this.segmentStarts = null;
     }
 
     /**
@@ -291,12 +454,8 @@ public class Layout {
      * @return The replication mode of the segment, or null if empty.
      */
     public ReplicationMode getReplicationMode(long address) {
-        for (LayoutSegment ls : segments) {
-            if (ls.start <= address && (ls.end > address || ls.end == -1)) {
-                return ls.getReplicationMode();
-            }
-        }
-        return null;
+        LayoutSegment segment = findSegment(address);
+        return segment == null ? null : segment.getReplicationMode();
     }
 
     /**
@@ -309,18 +468,23 @@ public class Layout {
 
     /**
      *
-     * Layout copy constructor.
+     * Layout copy constructor. The lists of the layout, its segments and stripes are copied,
+     * so that the copy can be modified independently of the layout.
      *
      * @param layout layout to copy
      */
     public Layout(@Nonnull Layout layout) {
-        Layout layoutCopy = parser.fromJson(layout.asJSONString(), Layout.class);
-        this.layoutServers = layoutCopy.getLayoutServers();
-        this.sequencers = layoutCopy.getSequencers();
-        this.segments = layoutCopy.getSegments();
-        this.unresponsiveServers = layoutCopy.getUnresponsiveServers();
-        this.epoch = layoutCopy.getEpoch();
-        this.clusterId = layoutCopy.clusterId;
+        this.layoutServers = new ArrayList<>(layout.getLayoutServers());
+        this.sequencers = new ArrayList<>(layout.getSequencers());
+        this.segments = new ArrayList<>(layout.getSegments().size());
+        for (LayoutSegment segment : layout.getSegments()) {
+            this.segments.add(new LayoutSegment(segment));
+        }
+        this.unresponsiveServers = new ArrayList<>(layout.getUnresponsiveServers());
+        this.epoch = layout.getEpoch();
+        this.clusterId = layout.getClusterId();
+        // The copy has the same segment boundaries
+        this.segmentStarts = layout.segmentStarts;
     }
 
     public void nextEpoch() {
@@ -562,6 +726,30 @@ public class Layout {
 
         }
 
+        /**
+         * Copy constructor, the stripes are copied as well.
+         *
+         * @param segment the segment to copy
+         */
+        public LayoutSegment(@NonNull LayoutSegment segment) {
+            this.replicationMode = segment.getReplicationMode();
+            this.start = segment.getStart();
+            this.end = segment.getEnd();
+            this.stripes = new ArrayList<>(segment.getStripes().size());
+            for (LayoutStripe stripe : segment.getStripes()) {
+                this.stripes.add(new LayoutStripe(new ArrayList<>(stripe.getLogServers())));
+            }
+        }
+
+        /**
+         * Whether an address belongs to the segment.
+         *
+         * @param globalAddress The global address.
+         */
+        public boolean contains(long globalAddress) {
+            return start <= globalAddress && (end > globalAddress || end == -1);
+        }
+
         public int getNumberOfStripes() {
             return stripes.size();
         }
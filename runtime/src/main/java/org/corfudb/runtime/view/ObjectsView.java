@@ -28,6 +28,8 @@ import org.corfudb.util.MetricsUtils;
 import javax.annotation.Nonnull;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -161,11 +163,82 @@ public class ObjectsView extends AbstractView {
         try (Timer.Context txCommitDuration =
                      MetricsUtils.getConditionalContext(txCommitDurationTimer)){
             return TransactionalContext.getCurrentContext().commitTransaction();
-        } catch (TransactionAbortedException e) {
-            log.warn("TXEnd[{}] Aborted Exception {}", context, e);
-            TransactionalContext.getCurrentContext().abortTransaction(e);
-            throw e;
-        } catch (NetworkException | WriteSizeException | QuotaExceededException e) {
+        } catch (Exception e) {
+            throw abortOnCommitFailure(context, e);
+        } finally {
+            TransactionalContext.removeContext();
+        }
+    }
+
+    /**
+     * End a transaction on the current thread without waiting for it to be committed.
+     *
+     * <p>The transaction is removed from the current thread right away, so that the thread
+     * can run other transactions while this one is committed. The token is requested from
+     * the sequencer and the transaction is written to the log units asynchronously, which
+     * lets a single thread pipeline many commits. The transaction has to be a top-level
+     * optimistic or write-after-write transaction to be committed without blocking, other
+     * transactions are committed synchronously.</p>
+     *
+     * @return A future of the address of the transaction, failed with a
+     *         {@link TransactionAbortedException} if the transaction could not be executed
+     *         successfully.
+     */
+    @SuppressWarnings({"checkstyle:methodname", "checkstyle:abbreviation"})
+    public CompletableFuture<Long> TXEndAsync() {
+        AbstractTransactionalContext context = TransactionalContext.getCurrentContext();
+        if (context == null) {
+            log.warn("Attempted to end a transaction, but no transaction active!");
+            return CompletableFuture.completedFuture(AbstractTransactionalContext.UNCOMMITTED_ADDRESS);
+        }
+
+        long totalTime = System.currentTimeMillis() - context.getStartTime();
+        log.trace("TXEndAsync[{}] time={} ms", context, totalTime);
+
+        // If exist, stop the timer for timing the beginning of transaction to start of commit.
+        if (context.getTxOpDurationContext() != null) {
+            context.getTxOpDurationContext().stop();
+        }
+
+        // Create a timer to measure the transaction commit duration
+        Timer txCommitDurationTimer = context.getMetrics().timer(TXN_COMMIT_TIMER_NAME);
+        Timer.Context txCommitDuration = MetricsUtils.getConditionalContext(txCommitDurationTimer);
+        CompletableFuture<Long> commit;
+        try {
+            commit = context.commitTransactionAsync();
+        } catch (Exception e) {
+            commit = new CompletableFuture<>();
+            commit.completeExceptionally(e);
+        } finally {
+            TransactionalContext.removeContext();
+        }
+
+        return commit.handle((address, ex) -> {
+            MetricsUtils.stopConditionalContext(txCommitDuration);
+            if (ex != null) {
+                throw abortOnCommitFailure(context, ex instanceof CompletionException ? ex.getCause() : ex);
+            }
+            return address;
+        });
+    }
+
+    /**
+     * Abort a transaction which failed to commit.
+     *
+     * @param context The transaction.
+     * @param e       The failure of the commit.
+     * @return The exception to report the failure with.
+     * @throws UnrecoverableCorfuError If the failure is unexpected.
+     */
+    private TransactionAbortedException abortOnCommitFailure(AbstractTransactionalContext context,
+                                                             Throwable e) {
+        if (e instanceof TransactionAbortedException) {
+            TransactionAbortedException tae = (TransactionAbortedException) e;
+            log.warn("TXEnd[{}] Aborted Exception {}", context, tae);
+            context.abortTransaction(tae);
+            return tae;
+        } else if (e instanceof NetworkException || e instanceof WriteSizeException
+                || e instanceof QuotaExceededException) {
 
             Token snapshotTimestamp;
             try {
@@ -191,19 +264,16 @@ public class ObjectsView extends AbstractView {
             TransactionAbortedException tae = new TransactionAbortedException(
                     txInfo, cause, e, context);
             context.abortTransaction(tae);
-            throw tae;
-
-        } catch (Exception e) {
-            log.error("TXEnd[{}]: Unexpected exception", context, e);
-            TxResolutionInfo txInfo = new TxResolutionInfo(context.getTransactionID(),
-                    Token.UNINITIALIZED);
-            TransactionAbortedException tae = new TransactionAbortedException(
-                    txInfo, AbortCause.UNDEFINED, e, context);
-            context.abortTransaction(tae);
-            throw new UnrecoverableCorfuError("Unexpected exception during commit", e);
-        } finally {
-            TransactionalContext.removeContext();
+            return tae;
         }
+
+        log.error("TXEnd[{}]: Unexpected exception", context, e);
+        TxResolutionInfo txInfo = new TxResolutionInfo(context.getTransactionID(),
+                Token.UNINITIALIZED);
+        TransactionAbortedException tae = new TransactionAbortedException(
+                txInfo, AbortCause.UNDEFINED, e, context);
+        context.abortTransaction(tae);
+        throw new UnrecoverableCorfuError("Unexpected exception during commit", e);
     }
 
     /**
@@ -6,6 +6,7 @@ import com.google.common.collect.Lists;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.CorfuRuntime;
@@ -13,6 +14,7 @@ import org.corfudb.util.CFUtils;
 import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.MetricsUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -33,6 +35,7 @@ public class SequencerView extends AbstractView {
     private Timer sequencerDeprecatedNextOneStream;
     private Timer sequencerDeprecatedNextMultipleStream;
     private Timer sequencerTrimCache;
+    private Timer sequencerTailWait;
     private static final MetricRegistry metricRegistry = CorfuRuntime.getDefaultMetrics();
 
     public SequencerView(CorfuRuntime runtime) {
@@ -50,6 +53,8 @@ public class SequencerView extends AbstractView {
                 "query");
         sequencerTrimCache = metricRegistry.timer(CorfuComponent.CLIENT_SEQUENCER +
                 "trim-cache");
+        sequencerTailWait = metricRegistry.timer(CorfuComponent.CLIENT_SEQUENCER +
+                "tail-wait");
         sequencerNextOneStream = metricRegistry.timer(CorfuComponent.CLIENT_SEQUENCER +
                 "particular-next");
         sequencerNextMultipleStream = metricRegistry.timer(CorfuComponent.CLIENT_SEQUENCER +
@@ -92,6 +97,26 @@ public class SequencerView extends AbstractView {
         }
     }
 
+    /**
+     * Block until the tail of any of the given streams moves past an address, or until the
+     * timeout expires. The sequencer holds the request, so that consumers are woken up as
+     * soon as the streams are written without polling.
+     *
+     * @param address   the last address known by the caller
+     * @param timeout   maximum time to wait for, bounded by the request timeout of the runtime
+     * @param streamIds the streams to wait on
+     * @return the global tail and the tails of the streams
+     */
+    public TailsResponse waitForStreamTails(long address, Duration timeout, UUID... streamIds) {
+        // The sequencer has to respond before the request times out on the client
+        Duration maxWait = runtime.getParameters().getRequestTimeout().dividedBy(2);
+        Duration wait = timeout.compareTo(maxWait) < 0 ? timeout : maxWait;
+        try (Timer.Context context = MetricsUtils.getConditionalContext(sequencerTailWait)) {
+            return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+                    .waitForStreamTails(Arrays.asList(streamIds), address, wait)));
+        }
+    }
+
     /**
      * Return the next token in the sequencer for a particular stream.
      *
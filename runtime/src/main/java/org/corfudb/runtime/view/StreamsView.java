@@ -2,6 +2,7 @@ package org.corfudb.runtime.view;
 
 import com.google.common.annotations.VisibleForTesting;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
@@ -13,16 +14,22 @@ import org.corfudb.runtime.exceptions.AppendException;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.StaleTokenException;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.object.transactions.AbstractTransactionalContext;
 import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.stream.IStreamView;
 import org.corfudb.util.Utils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -45,8 +52,16 @@ public class StreamsView extends AbstractView {
      */
     private List<IStreamView> openedStreams = new CopyOnWriteArrayList<>();
 
+    /**
+     * Coalesces the appends of SMR entries made outside of transactions, null if disabled.
+     */
+    private final WriteCoalescer writeCoalescer;
+
     public StreamsView(final CorfuRuntime runtime) {
         super(runtime);
+        Duration window = runtime.getParameters().getWriteCoalescingWindow();
+        writeCoalescer = window.isZero() ? null
+                : new WriteCoalescer(runtime, window, runtime.getParameters().getWriteCoalescingMaxEntries());
     }
 
     /**
@@ -135,51 +150,142 @@ public class StreamsView extends AbstractView {
 
         ld.checkMaxWriteSize(runtime.getParameters().getMaxWriteSize());
 
+        return append(ld, object, conflictInfo, cacheOption, TransactionalContext.getCurrentContext(),
+                TransactionalContext.isInTransaction() ? TransactionalContext.getRootContext() : null,
+                null, streamIDs);
+    }
+
+    /**
+     * Append to multiple streams without blocking the calling thread. The token is requested
+     * from the sequencer and the entry is written to the log units with futures completed by
+     * the threads receiving their responses, so that many appends can be in flight from a
+     * single thread.
+     *
+     * <p>If the entry cannot be written with its first token, the append is completed on the
+     * commit executor of the runtime the same way as {@link StreamsView#append(Object,
+     * TxResolutionInfo, CacheOption, UUID...)}, starting with a validated write using the
+     * same token.</p>
+     *
+     * @param object       The object to append to each stream.
+     * @param conflictInfo Conflict information for the sequencer to check.
+     * @param cacheOption  The caching mode for write/append
+     * @param txContext    The transaction appending the object, if any, whose pre-commit
+     *                     listeners are invoked with the token.
+     * @param streamIDs    The streams to append to.
+     * @return A future of the address the entry was written to, failed with a
+     *         {@link TransactionAbortedException} if the transaction was aborted by the
+     *         sequencer, or with an {@link AppendException} if the retries were exhausted.
+     */
+    public CompletableFuture<Long> appendAsync(@Nonnull Object object, @Nullable TxResolutionInfo conflictInfo,
+                                               @Nonnull CacheOption cacheOption,
+                                               @Nullable AbstractTransactionalContext txContext,
+                                               @Nonnull UUID... streamIDs) {
+        final LogData ld = new LogData(DataType.DATA, object, runtime.getParameters().getCodecType());
+
+        ld.checkMaxWriteSize(runtime.getParameters().getMaxWriteSize());
+
+        final RuntimeLayout layout = runtime.getLayoutView().getRuntimeLayout();
+        final CompletableFuture<TokenResponse> token = conflictInfo == null
+                ? layout.getPrimarySequencerClient().nextToken(Arrays.asList(streamIDs), 1)
+                : layout.getPrimarySequencerClient().nextToken(Arrays.asList(streamIDs), 1, conflictInfo);
+
+        final CompletableFuture<Long> append = new CompletableFuture<>();
+        token.whenComplete((tokenResponse, tokenError) -> {
+            if (tokenError != null) {
+                // The sequencer could not be reached with this layout, request the token again
+                // with the retries of the synchronous append.
+                log.debug("appendAsync: Failed to acquire a token, retrying", tokenError);
+                completeAppend(append, () -> append(ld, object, conflictInfo, cacheOption,
+                        txContext, txContext, null, streamIDs));
+                return;
+            }
+
+            // The token is checked and the pre-commit listeners are invoked on the commit
+            // executor rather than on the thread that received the token.
+            runOnCommitExecutor(append, () -> {
+                checkTokenResponse(tokenResponse, conflictInfo, txContext);
+                invokePreCommitListeners(tokenResponse, txContext);
+                runtime.getAddressSpaceView().writeAsync(layout, tokenResponse, ld, cacheOption)
+                        .whenComplete((written, writeError) -> {
+                            if (writeError == null) {
+                                append.complete(tokenResponse.getSequence());
+                                return;
+                            }
+                            // The write may have been partially replicated, it has to be
+                            // validated and completed with the same token before retrying.
+                            log.debug("appendAsync[{}]: Write failed, retrying",
+                                    tokenResponse.getSequence(), writeError);
+                            completeAppend(append, () -> append(ld, object, conflictInfo, cacheOption,
+                                    txContext, txContext, tokenResponse, streamIDs));
+                        });
+            });
+        });
+        return append;
+    }
+
+    /**
+     * Complete an asynchronous append on the commit executor.
+     *
+     * @param append The future of the append.
+     * @param write  The synchronous append.
+     */
+    private void completeAppend(CompletableFuture<Long> append, Supplier<Long> write) {
+        runOnCommitExecutor(append, () -> append.complete(write.get()));
+    }
+
+    /**
+     * Run a step of an asynchronous append on the commit executor, failing the append if
+     * the step throws or if the executor is saturated.
+     *
+     * @param append The future of the append.
+     * @param step   The step to run.
+     */
+    private void runOnCommitExecutor(CompletableFuture<Long> append, Runnable step) {
+        try {
+            runtime.getCommitExecutor().execute(() -> {
+                try {
+                    step.run();
+                } catch (Throwable t) {
+                    append.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            append.completeExceptionally(ree);
+        }
+    }
+
+    /**
+     * Append an entry, retrying with new tokens as long as it is overwritten.
+     *
+     * @param ld                The entry to append.
+     * @param object            The object the entry was created from.
+     * @param conflictInfo      Conflict information for the sequencer to check.
+     * @param cacheOption       The caching mode for write/append
+     * @param txContext         The transaction reported by the aborts.
+     * @param preCommitContext  The transaction whose pre-commit listeners are invoked.
+     * @param firstToken        A token to write with before requesting a new one, if any.
+     * @param streamIDs         The streams to append to.
+     * @return The address the entry was written to.
+     */
+    private long append(@Nonnull LogData ld, @Nonnull Object object, @Nullable TxResolutionInfo conflictInfo,
+                        @Nonnull CacheOption cacheOption, @Nullable AbstractTransactionalContext txContext,
+                        @Nullable AbstractTransactionalContext preCommitContext,
+                        @Nullable TokenResponse firstToken, @Nonnull UUID... streamIDs) {
         TokenResponse tokenResponse = null;
         for (int x = 0; x < runtime.getParameters().getWriteRetry(); x++) {
-            // Go to the sequencer, grab a token to write.
-            tokenResponse = conflictInfo == null
-                    ? runtime.getSequencerView().next(streamIDs) // Token w/o conflict info
-                    : runtime.getSequencerView().next(conflictInfo, streamIDs); // Token w/ conflict info
-
-            // Is our token a valid type?
-            AbortCause abortCause = null;
-            switch (tokenResponse.getRespType()) {
-                case TX_ABORT_CONFLICT:
-                    abortCause = AbortCause.CONFLICT;
-                    break;
-                case TX_ABORT_NEWSEQ:
-                    abortCause = AbortCause.NEW_SEQUENCER;
-                    break;
-                case TX_ABORT_SEQ_OVERFLOW:
-                    abortCause = AbortCause.SEQUENCER_OVERFLOW;
-                    break;
-                case TX_ABORT_SEQ_TRIM:
-                    abortCause = AbortCause.SEQUENCER_TRIM;
-                    break;
-            }
+            if (x == 0 && firstToken != null) {
+                tokenResponse = firstToken;
+            } else {
+                // Go to the sequencer, grab a token to write.
+                tokenResponse = conflictInfo == null
+                        ? runtime.getSequencerView().next(streamIDs) // Token w/o conflict info
+                        : runtime.getSequencerView().next(conflictInfo, streamIDs); // Token w/ conflict info
 
-            if (abortCause != null) {
-                throw new TransactionAbortedException(
-                        conflictInfo,
-                        tokenResponse.getConflictKey(), tokenResponse.getConflictStream(),
-                        tokenResponse.getToken().getSequence(), abortCause,
-                        TransactionalContext.getCurrentContext());
+                checkTokenResponse(tokenResponse, conflictInfo, txContext);
             }
 
             try {
-                if (TransactionalContext.isInTransaction()) {
-                    // If this transaction has entries that wish to capture the committed address
-                    // invoke its preCommitCallbacks with the tokenResponse from the sequencer.
-                    // Note that we might invoke the same method multiple times on retries,
-                    // which means the preCommitCallback must be idempotent.
-                    TokenResponse finalTokenResponse = tokenResponse;
-                    log.debug("append: Invoking {} preCommitListeners",
-                            TransactionalContext.getRootContext().getPreCommitListeners().size());
-                    TransactionalContext.getRootContext()
-                            .getPreCommitListeners()
-                            .forEach(e -> e.preCommitCallback(finalTokenResponse));
-                }
+                invokePreCommitListeners(tokenResponse, preCommitContext);
 
                 // Attempt to write to the log.
                 runtime.getAddressSpaceView().write(tokenResponse, ld, cacheOption);
@@ -207,7 +313,7 @@ public class StreamsView extends AbstractView {
                         tokenResponse.getConflictKey(), tokenResponse.getConflictStream(),
                         tokenResponse.getToken().getSequence(),
                         AbortCause.NEW_SEQUENCER, // in the future perhaps define a new AbortCause?
-                        TransactionalContext.getCurrentContext());
+                        txContext);
             }
         }
 
@@ -219,6 +325,83 @@ public class StreamsView extends AbstractView {
         throw new AppendException();
     }
 
+    /**
+     * Check that a token was issued by the sequencer.
+     *
+     * @param tokenResponse The response of the sequencer.
+     * @param conflictInfo  Conflict information the sequencer checked.
+     * @param txContext     The transaction reported by the abort.
+     * @throws TransactionAbortedException If the transaction was aborted by the sequencer.
+     */
+    private void checkTokenResponse(TokenResponse tokenResponse, @Nullable TxResolutionInfo conflictInfo,
+                                    @Nullable AbstractTransactionalContext txContext) {
+        // Is our token a valid type?
+        AbortCause abortCause = null;
+        switch (tokenResponse.getRespType()) {
+            case TX_ABORT_CONFLICT:
+                abortCause = AbortCause.CONFLICT;
+                break;
+            case TX_ABORT_NEWSEQ:
+                abortCause = AbortCause.NEW_SEQUENCER;
+                break;
+            case TX_ABORT_SEQ_OVERFLOW:
+                abortCause = AbortCause.SEQUENCER_OVERFLOW;
+                break;
+            case TX_ABORT_SEQ_TRIM:
+                abortCause = AbortCause.SEQUENCER_TRIM;
+                break;
+        }
+
+        if (abortCause != null) {
+            throw new TransactionAbortedException(
+                    conflictInfo,
+                    tokenResponse.getConflictKey(), tokenResponse.getConflictStream(),
+                    tokenResponse.getToken().getSequence(), abortCause,
+                    txContext);
+        }
+    }
+
+    /**
+     * If the transaction has entries that wish to capture the committed address,
+     * invoke its preCommitCallbacks with the tokenResponse from the sequencer.
+     * Note that we might invoke the same method multiple times on retries,
+     * which means the preCommitCallback must be idempotent.
+     *
+     * @param tokenResponse The token to write with.
+     * @param txContext     The transaction, if any.
+     */
+    private void invokePreCommitListeners(TokenResponse tokenResponse,
+                                          @Nullable AbstractTransactionalContext txContext) {
+        if (txContext != null) {
+            log.debug("append: Invoking {} preCommitListeners",
+                    txContext.getPreCommitListeners().size());
+            txContext.getPreCommitListeners()
+                    .forEach(e -> e.preCommitCallback(tokenResponse));
+        }
+    }
+
+    /**
+     * Append an SMR entry to a stream, sharing the log entry with the appends of other
+     * threads if write coalescing is enabled.
+     *
+     * @param streamId              The stream to append to.
+     * @param entry                 The entry to append.
+     * @param acquisitionCallback   A function to call when an address is acquired.
+     * @param deacquisitionCallback A function to call when an address is released.
+     * @return The address the entry was written to, -1 if a callback requested to stop,
+     *         or null if the entry has to be appended on its own.
+     * @see WriteCoalescer
+     */
+    @Nullable
+    public Long appendCoalesced(@Nonnull UUID streamId, @Nonnull SMREntry entry,
+                                @Nullable Function<TokenResponse, Boolean> acquisitionCallback,
+                                @Nullable Function<TokenResponse, Boolean> deacquisitionCallback) {
+        if (writeCoalescer == null) {
+            return null;
+        }
+        return writeCoalescer.append(streamId, entry, acquisitionCallback, deacquisitionCallback);
+    }
+
     /**
      * Append to multiple streams and caches the result.
      *
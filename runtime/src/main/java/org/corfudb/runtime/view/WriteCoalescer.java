@@ -0,0 +1,240 @@
+package org.corfudb.runtime.view;
+
+import com.codahale.metrics.Histogram;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.protocols.wireprotocol.DataType;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.exceptions.AppendException;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.exceptions.StaleTokenException;
+import org.corfudb.runtime.exceptions.WriteSizeException;
+import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces the appends of SMR entries to different streams, made by many threads outside of
+ * transactions, into a single {@link MultiObjectSMREntry} written at one address.
+ *
+ * <p>The first thread appending to an empty batch leads it: it waits for the coalescing window,
+ * or until the batch is full, then acquires a single token for all the streams of the batch
+ * and writes it, completing the append of every thread with the shared address. A batch holds
+ * at most one entry per stream, since the upcall results of an object are kept by address, an
+ * append to a stream which is already in the pending batch starts a new one.</p>
+ *
+ * <p>Created by the {@link StreamsView} when coalescing is enabled with
+ * {@link CorfuRuntime.CorfuRuntimeParameters#getWriteCoalescingWindow()}.</p>
+ */
+@Slf4j
+public class WriteCoalescer {
+
+    private final CorfuRuntime runtime;
+
+    private final long windowNanos;
+
+    private final int maxEntries;
+
+    private final Histogram appendsPerWrite = CorfuRuntime.getDefaultMetrics()
+            .histogram(CorfuComponent.ADDRESS_SPACE_VIEW + "coalesced-appends");
+
+    /** The batch appends are added to, guarded by this coalescer. */
+    private Batch pending = null;
+
+    public WriteCoalescer(@Nonnull CorfuRuntime runtime, @Nonnull Duration window, int maxEntries) {
+        this.runtime = runtime;
+        this.windowNanos = window.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Append an SMR entry to a stream, sharing the log entry with the appends of other threads.
+     *
+     * @param streamId              The stream to append to.
+     * @param entry                 The entry to append.
+     * @param acquisitionCallback   A function to call when an address is acquired, it should
+     *                              return true to continue with the append.
+     * @param deacquisitionCallback A function to call when an address is released, it should
+     *                              return true to retry writing.
+     * @return The address the entry was written to, -1 if a callback requested to stop, or
+     *         null if the entry has to be appended on its own.
+     */
+    @Nullable
+    public Long append(@Nonnull UUID streamId, @Nonnull SMREntry entry,
+                       @Nullable Function<TokenResponse, Boolean> acquisitionCallback,
+                       @Nullable Function<TokenResponse, Boolean> deacquisitionCallback) {
+        final Member member = new Member(streamId, entry, acquisitionCallback, deacquisitionCallback,
+                new CompletableFuture<>());
+        final Batch batch;
+        final boolean leader;
+
+        synchronized (this) {
+            if (pending == null || pending.members.containsKey(streamId)) {
+                // Start a new batch, the pending one is sealed if it has an entry for this
+                // stream and its leader writes it right away.
+                pending = new Batch();
+                notifyAll();
+                leader = true;
+            } else {
+                leader = false;
+            }
+            batch = pending;
+            batch.members.put(streamId, member);
+            if (batch.members.size() >= maxEntries) {
+                pending = null;
+                notifyAll();
+            }
+        }
+
+        if (leader) {
+            awaitSealed(batch);
+            write(batch);
+        }
+        return CFUtils.getUninterruptibly(member.address);
+    }
+
+    /**
+     * Wait until the coalescing window of a batch elapses, or until it is sealed by another
+     * thread, and seal it.
+     *
+     * @param batch The batch led by this thread.
+     */
+    private synchronized void awaitSealed(Batch batch) {
+        final long deadline = System.nanoTime() + windowNanos;
+        long remaining = windowNanos;
+        try {
+            while (pending == batch && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        } catch (InterruptedException ie) {
+            // Write what was coalesced so far, the other threads are waiting for it.
+            Thread.currentThread().interrupt();
+        }
+        if (pending == batch) {
+            pending = null;
+        }
+    }
+
+    /**
+     * Write a sealed batch, retrying with new tokens as long as it is overwritten, and complete
+     * the appends of its members.
+     *
+     * @param batch The batch to write.
+     */
+    private void write(Batch batch) {
+        List<Member> members = new ArrayList<>(batch.members.values());
+        appendsPerWrite.update(members.size());
+
+        if (members.size() == 1) {
+            // Nothing to share the log entry with.
+            members.get(0).address.complete(null);
+            return;
+        }
+
+        try {
+            LogData ld = newLogData(members);
+            try {
+                ld.checkMaxWriteSize(runtime.getParameters().getMaxWriteSize());
+            } catch (WriteSizeException we) {
+                // The entries are too large to be written together.
+                log.debug("write: {} appends too large to coalesce", members.size());
+                members.forEach(m -> m.address.complete(null));
+                return;
+            }
+
+            TokenResponse tokenResponse = runtime.getSequencerView().next(getStreamIds(members));
+            for (int x = 0; x < runtime.getParameters().getWriteRetry(); x++) {
+                final TokenResponse token = tokenResponse;
+                if (members.removeIf(m -> rejects(m.acquisitionCallback, m, token))) {
+                    if (members.isEmpty()) {
+                        // We'll leave the hole to be filled by someone else.
+                        log.debug("write: Acquisition rejected token={}", token);
+                        return;
+                    }
+                    ld = newLogData(members);
+                }
+
+                try {
+                    runtime.getAddressSpaceView().write(token, ld);
+                    members.forEach(m -> m.address.complete(token.getSequence()));
+                    return;
+                } catch (OverwriteException | StaleTokenException e) {
+                    log.trace("write[{}]: Overwritten, retrying", token, e);
+                    if (members.removeIf(m -> rejects(m.deacquisitionCallback, m, token))) {
+                        if (members.isEmpty()) {
+                            return;
+                        }
+                        ld = newLogData(members);
+                    }
+                    tokenResponse = runtime.getSequencerView().next(getStreamIds(members));
+                }
+            }
+
+            log.error("write[{}]: failed after {} retries, {} appends",
+                    tokenResponse.getSequence(), runtime.getParameters().getWriteRetry(),
+                    members.size());
+            members.forEach(m -> m.address.completeExceptionally(new AppendException()));
+        } catch (Throwable t) {
+            members.forEach(m -> m.address.completeExceptionally(t));
+        }
+    }
+
+    private LogData newLogData(List<Member> members) {
+        MultiObjectSMREntry entry = new MultiObjectSMREntry();
+        members.forEach(m -> entry.addTo(m.streamId, m.entry));
+        return new LogData(DataType.DATA, entry, runtime.getParameters().getCodecType());
+    }
+
+    /**
+     * Call a callback of a member, completing its append if the callback requests to stop.
+     *
+     * @return True, if the member left the batch.
+     */
+    private boolean rejects(@Nullable Function<TokenResponse, Boolean> callback, Member member,
+                            TokenResponse token) {
+        if (callback == null || callback.apply(token)) {
+            return false;
+        }
+        member.address.complete(-1L);
+        return true;
+    }
+
+    private UUID[] getStreamIds(List<Member> members) {
+        return members.stream().map(m -> m.streamId).toArray(UUID[]::new);
+    }
+
+    /**
+     * The appends coalesced into a single log entry, by stream.
+     */
+    private static class Batch {
+        final Map<UUID, Member> members = new LinkedHashMap<>();
+    }
+
+    /**
+     * An append waiting for its batch to be written.
+     */
+    @AllArgsConstructor
+    private static class Member {
+        final UUID streamId;
+        final SMREntry entry;
+        final Function<TokenResponse, Boolean> acquisitionCallback;
+        final Function<TokenResponse, Boolean> deacquisitionCallback;
+        final CompletableFuture<Long> address;
+    }
+}
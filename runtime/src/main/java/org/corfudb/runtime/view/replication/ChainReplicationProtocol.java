@@ -60,6 +60,35 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The write is sent down the chain as each unit acknowledges it.
+     */
+    @Override
+    public CompletableFuture<Void> writeAsync(RuntimeLayout runtimeLayout, ILogData data) {
+        final long globalAddress = data.getGlobalAddress();
+        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+
+        ILogData.SerializationHandle sh = data.getSerializedForm();
+        log.trace("WriteAsync[{}]: chain head {}/{}", globalAddress, 1, numUnits);
+        CompletableFuture<Boolean> chain;
+        try {
+            chain = runtimeLayout.getLogUnitClient(globalAddress, 0).write(sh.getSerialized());
+        } catch (RuntimeException e) {
+            sh.close();
+            throw e;
+        }
+        for (int i = 1; i < numUnits; i++) {
+            final int unit = i;
+            chain = chain.thenCompose(written -> runtimeLayout.getLogUnitClient(globalAddress, unit)
+                    .write(sh.getSerialized()));
+        }
+
+        return chain.whenComplete((written, ex) -> sh.close())
+                .thenApply(written -> null);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -111,9 +140,10 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
         }
 
         // Send read requests to log unit servers in parallel
+        int maxResponseSize = runtimeLayout.getRuntime().getParameters().getReadResponseChunkSize();
         List<CompletableFuture<ReadResponse>> futures = serverAddressMap.entrySet().stream()
                 .map(entry -> runtimeLayout.getLogUnitClient(entry.getKey())
-                        .readAll(entry.getValue(), cacheOnServer))
+                        .readAll(entry.getValue(), cacheOnServer, maxResponseSize))
                 .collect(Collectors.toList());
 
         // Merge the read responses from different log unit servers
@@ -7,6 +7,7 @@ import org.corfudb.runtime.view.RuntimeLayout;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -38,6 +39,26 @@ public interface IReplicationProtocol {
      */
     void write(RuntimeLayout runtimeLayout, ILogData data) throws OverwriteException;
 
+    /**
+     * Write data to the log at the given address, without blocking.
+     *
+     * <p>The returned future completes once this write is committed to the log.
+     * It completes exceptionally on any failure, including when the write was
+     * partially replicated or overwritten. No recovery is attempted, so the caller
+     * is expected to retry the same write with {@link #write(RuntimeLayout, ILogData)},
+     * which drives it to completion.
+     *
+     * @param runtimeLayout the RuntimeLayout stamped with layout to use for the write.
+     * @param data          the ILogData to write to the log.
+     * @return a future which completes once the write is committed.
+     */
+    default CompletableFuture<Void> writeAsync(RuntimeLayout runtimeLayout, ILogData data) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(new UnsupportedOperationException(
+                "Asynchronous writes are not supported by " + getClass().getSimpleName()));
+        return future;
+    }
+
     /**
      * Read data from a given address.
      *
@@ -7,6 +7,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
@@ -175,6 +176,15 @@ public abstract class AbstractQueuedStreamView extends
     public long append(Object object,
                        Function<TokenResponse, Boolean> acquisitionCallback,
                        Function<TokenResponse, Boolean> deacquisitionCallback) {
+        if (object instanceof SMREntry) {
+            // Share the log entry with the appends of other threads, if enabled.
+            Long address = runtime.getStreamsView().appendCoalesced(id, (SMREntry) object,
+                    acquisitionCallback, deacquisitionCallback);
+            if (address != null) {
+                return address;
+            }
+        }
+
         final LogData ld = new LogData(DataType.DATA, object, runtime.getParameters().getCodecType());
 
         // Validate if the  size of the log data is under max write size.
@@ -540,7 +550,7 @@ public abstract class AbstractQueuedStreamView extends
      * @return true if addresses were discovered, false, otherwise.
      */
     protected abstract boolean discoverAddressSpace(final UUID streamId,
-                                                    final NavigableSet<Long> queue,
+                                                    final StreamAddressQueue queue,
                                                     final long startAddress,
                                                     final long stopAddress,
                                                     final Function<ILogData, Boolean> filter,
@@ -859,12 +869,12 @@ public abstract class AbstractQueuedStreamView extends
         /**
          * A priority queue of potential addresses to be read from.
          */
-        final NavigableSet<Long> readQueue
-                = new TreeSet<>();
+        final StreamAddressQueue readQueue
+                = new StreamAddressQueue();
 
         /** List of checkpoint records, if a successful checkpoint has been observed.
          */
-        final NavigableSet<Long> readCpQueue = new TreeSet<>();
+        final StreamAddressQueue readCpQueue = new StreamAddressQueue();
 
         /** Info on checkpoint we used for initial stream replay,
          *  other checkpoint-related info & stats.
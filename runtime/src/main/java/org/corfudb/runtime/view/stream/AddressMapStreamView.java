@@ -3,6 +3,7 @@ package org.corfudb.runtime.view.stream;
 import java.util.Collections;
 import java.util.List;
 import java.util.NavigableSet;
+import java.util.Optional;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
@@ -16,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamReadResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.view.Address;
@@ -140,7 +142,7 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
      */
     @Override
     protected boolean discoverAddressSpace(final UUID streamId,
-                                           final NavigableSet<Long> queue,
+                                           final StreamAddressQueue queue,
                                            final long startAddress,
                                            final long stopAddress,
                                            final Function<ILogData, Boolean> filter,
@@ -166,7 +168,7 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
     }
 
     private void moveToReadQueue(final StreamAddressSpace streamAddressSpace,
-                                  final NavigableSet<Long> queue,
+                                  final StreamAddressQueue queue,
                                   final long startAddress,
                                   final long stopAddress,
                                   final long maxGlobal) {
@@ -174,7 +176,7 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
         // Transfer discovered addresses to queue. We must limit to maxGlobal,
         // as startAddress could be ahead of maxGlobal---in case it reflects
         // the tail of the stream.
-        queue.addAll(streamAddressSpace.copyAddressesToSet(maxGlobal));
+        streamAddressSpace.addAddressesTo(queue, maxGlobal);
 
         final long trimMark = streamAddressSpace.getTrimMark();
 
@@ -226,7 +228,7 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
     }
 
     private void processCheckpoint(StreamAddressSpace streamAddressSpace, Function<ILogData, Boolean> filter,
-                                   NavigableSet<Long> queue) {
+                                   StreamAddressQueue queue) {
         SortedSet<Long> checkpointAddresses = new TreeSet<>(Collections.reverseOrder());
         streamAddressSpace.getAddressMap().forEach(checkpointAddresses::add);
 
@@ -307,6 +309,10 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
                 return new StreamAddressSpace(Address.NON_ADDRESS, Roaring64NavigableMap.bitmapOf(startAddress));
             }
 
+            if (runtime.getParameters().getStreamReadSize() > 0) {
+                return readStreamAddressMap(startAddress, stopAddress, streamId);
+            }
+
             log.trace("getStreamAddressMap[{}]: request stream address space between {} and {}.",
                     streamId, startAddress, stopAddress);
             return runtime.getSequencerView()
@@ -318,6 +324,47 @@ public class AddressMapStreamView extends AbstractQueuedStreamView {
         return new StreamAddressSpace(Address.NON_ADDRESS, Roaring64NavigableMap.bitmapOf(startAddress));
     }
 
+    /**
+     * Resolve the stream address map in (stopAddress, startAddress] by reading the entries of the
+     * stream from the log unit, which resolves the addresses of the stream itself. The entries read
+     * are cached, so that the following reads of the stream are served locally. The part of the
+     * range that the log unit can not cover (addresses that are still being written, or a range
+     * that can not be read from a single log unit) is requested from the sequencer.
+     */
+    private StreamAddressSpace readStreamAddressMap(long startAddress, long stopAddress, UUID streamId) {
+        Roaring64NavigableMap addresses = new Roaring64NavigableMap();
+        long trimMark = Address.NON_EXIST;
+        long covered = Math.max(stopAddress, Address.NON_ADDRESS);
+
+        try {
+            while (covered < startAddress) {
+                Optional<StreamReadResponse> response = runtime.getAddressSpaceView()
+                        .readStream(streamId, covered, startAddress);
+                if (!response.isPresent() || response.get().getCoveredAddress() <= covered) {
+                    break;
+                }
+
+                response.get().getEntries().forEach(entry -> addresses.addLong(entry.getGlobalAddress()));
+                trimMark = Math.max(trimMark, response.get().getTrimMark());
+                covered = response.get().getCoveredAddress();
+            }
+        } catch (TrimmedException te) {
+            log.debug("readStreamAddressMap[{}]: trimmed while reading from {}", this, covered);
+        }
+
+        log.trace("readStreamAddressMap[{}]: read stream from log unit between {} and {}.",
+                this, stopAddress, covered);
+
+        if (covered < startAddress) {
+            StreamAddressSpace remaining = runtime.getSequencerView()
+                    .getStreamAddressSpace(new StreamAddressRange(streamId, startAddress, covered));
+            addresses.or(remaining.getAddressMap());
+            trimMark = Math.max(trimMark, remaining.getTrimMark());
+        }
+
+        return new StreamAddressSpace(trimMark, addresses);
+    }
+
     private boolean isAddressToBackpointerResolved(long startAddress, UUID streamId) {
         ILogData d;
         try {
@@ -81,7 +81,7 @@ public class BackpointerStreamView extends AbstractQueuedStreamView {
     }
 
     protected boolean discoverAddressSpace(final UUID streamId,
-                                           final NavigableSet<Long> queue,
+                                           final StreamAddressQueue queue,
                                            final long startAddress,
                                            final long stopAddress,
                                            final Function<ILogData, Boolean> filter,
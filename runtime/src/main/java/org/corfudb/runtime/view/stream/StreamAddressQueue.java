@@ -0,0 +1,345 @@
+package org.corfudb.runtime.view.stream;
+
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+
+/**
+ * A queue of stream addresses backed by a bitmap, so that the addresses of a stream's
+ * address map are moved to it without being boxed one at a time.
+ *
+ * <p>Addresses are non-negative. The views returned by headSet, tailSet and subSet are
+ * backed by the same bitmap and bounded to their range. Iterators do not support
+ * removal, and descending sets are not supported.</p>
+ *
+ * <p>This class is not thread safe, as the stream contexts that hold it.</p>
+ */
+class StreamAddressQueue extends AbstractSet<Long> implements NavigableSet<Long> {
+
+    // Returned by the primitive lookups when there is no such address
+    private static final long NONE = -1L;
+
+    private final Roaring64NavigableMap addresses;
+
+    // Lowest address of this view (inclusive)
+    private final long lowest;
+
+    // Highest address of this view (inclusive)
+    private final long highest;
+
+    StreamAddressQueue() {
+        this(new Roaring64NavigableMap(), 0L, Long.MAX_VALUE);
+    }
+
+    private StreamAddressQueue(Roaring64NavigableMap addresses, long lowest, long highest) {
+        this.addresses = addresses;
+        this.lowest = Math.max(lowest, 0L);
+        this.highest = highest;
+    }
+
+    /**
+     * Add the addresses of a bitmap to this queue, up to a boundary (inclusive). The
+     * addresses are iterated in ascending order, so the ones above the boundary are
+     * never visited.
+     *
+     * @param map        addresses to add
+     * @param maxAddress maximum address (inclusive upper bound)
+     */
+    void addAll(Roaring64NavigableMap map, long maxAddress) {
+        long max = Math.min(maxAddress, highest);
+        if (lowest == 0L && !map.isEmpty() && map.getReverseLongIterator().next() <= max) {
+            addresses.or(map);
+            return;
+        }
+
+        LongIterator it = map.getLongIterator();
+        while (it.hasNext()) {
+            long address = it.next();
+            if (address > max) {
+                return;
+            }
+            if (address >= lowest) {
+                addresses.addLong(address);
+            }
+        }
+    }
+
+    private boolean inRange(long address) {
+        return address >= lowest && address <= highest;
+    }
+
+    // Number of addresses of the bitmap lower than the given address
+    private long countBelow(long address) {
+        return address <= 0L ? 0L : addresses.rankLong(address - 1);
+    }
+
+    // Lowest address of this view greater than or equal to the given address
+    private long ceilingAddress(long address) {
+        long from = Math.max(address, lowest);
+        if (from > highest) {
+            return NONE;
+        }
+        long rank = countBelow(from);
+        if (rank >= addresses.getLongCardinality()) {
+            return NONE;
+        }
+        long found = addresses.select(rank);
+        return found <= highest ? found : NONE;
+    }
+
+    // Highest address of this view lower than or equal to the given address
+    private long floorAddress(long address) {
+        long to = Math.min(address, highest);
+        if (to < lowest) {
+            return NONE;
+        }
+        long rank = addresses.rankLong(to);
+        if (rank == 0L) {
+            return NONE;
+        }
+        long found = addresses.select(rank - 1);
+        return found >= lowest ? found : NONE;
+    }
+
+    private static Long boxed(long address) {
+        return address == NONE ? null : address;
+    }
+
+    @Override
+    public int size() {
+        if (highest < lowest) {
+            return 0;
+        }
+        long upTo = highest == Long.MAX_VALUE ? addresses.getLongCardinality() : addresses.rankLong(highest);
+        return (int) Math.min(Math.max(upTo - countBelow(lowest), 0L), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return ceilingAddress(lowest) == NONE;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Long)) {
+            return false;
+        }
+        long address = (Long) o;
+        return inRange(address) && addresses.contains(address);
+    }
+
+    @Override
+    public boolean add(Long address) {
+        if (!inRange(address)) {
+            throw new IllegalArgumentException("Address " + address + " out of range ["
+                    + lowest + ", " + highest + "]");
+        }
+        if (addresses.contains(address)) {
+            return false;
+        }
+        addresses.addLong(address);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        addresses.removeLong((Long) o);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        if (lowest == 0L && highest == Long.MAX_VALUE) {
+            addresses.clear();
+            return;
+        }
+
+        Roaring64NavigableMap toRemove = new Roaring64NavigableMap();
+        LongIterator it = addresses.getLongIterator();
+        while (it.hasNext()) {
+            long address = it.next();
+            if (address > highest) {
+                break;
+            }
+            if (address >= lowest) {
+                toRemove.addLong(address);
+            }
+        }
+        addresses.andNot(toRemove);
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        LongIterator it = addresses.getLongIterator();
+        return new Iterator<Long>() {
+            private long next = advance();
+
+            private long advance() {
+                while (it.hasNext()) {
+                    long address = it.next();
+                    if (address > highest) {
+                        return NONE;
+                    }
+                    if (address >= lowest) {
+                        return address;
+                    }
+                }
+                return NONE;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != NONE;
+            }
+
+            @Override
+            public Long next() {
+                if (next == NONE) {
+                    throw new NoSuchElementException();
+                }
+                long address = next;
+                next = advance();
+                return address;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Long> descendingIterator() {
+        return new Iterator<Long>() {
+            private long next = floorAddress(highest);
+
+            @Override
+            public boolean hasNext() {
+                return next != NONE;
+            }
+
+            @Override
+            public Long next() {
+                if (next == NONE) {
+                    throw new NoSuchElementException();
+                }
+                long address = next;
+                next = address == 0L ? NONE : floorAddress(address - 1);
+                return address;
+            }
+        };
+    }
+
+    @Override
+    public NavigableSet<Long> descendingSet() {
+        throw new UnsupportedOperationException("Descending address queues are not supported");
+    }
+
+    @Override
+    public Long lower(Long address) {
+        return address <= 0L ? null : boxed(floorAddress(address - 1));
+    }
+
+    @Override
+    public Long floor(Long address) {
+        return boxed(floorAddress(address));
+    }
+
+    @Override
+    public Long ceiling(Long address) {
+        return boxed(ceilingAddress(address));
+    }
+
+    @Override
+    public Long higher(Long address) {
+        return address == Long.MAX_VALUE ? null : boxed(ceilingAddress(address + 1));
+    }
+
+    @Override
+    public Long pollFirst() {
+        long address = ceilingAddress(lowest);
+        if (address == NONE) {
+            return null;
+        }
+        addresses.removeLong(address);
+        return address;
+    }
+
+    @Override
+    public Long pollLast() {
+        long address = floorAddress(highest);
+        if (address == NONE) {
+            return null;
+        }
+        addresses.removeLong(address);
+        return address;
+    }
+
+    @Override
+    public Long first() {
+        long address = ceilingAddress(lowest);
+        if (address == NONE) {
+            throw new NoSuchElementException();
+        }
+        return address;
+    }
+
+    @Override
+    public Long last() {
+        long address = floorAddress(highest);
+        if (address == NONE) {
+            throw new NoSuchElementException();
+        }
+        return address;
+    }
+
+    @Override
+    public Comparator<? super Long> comparator() {
+        return null;
+    }
+
+    @Override
+    public NavigableSet<Long> subSet(Long fromElement, boolean fromInclusive,
+                                     Long toElement, boolean toInclusive) {
+        return new StreamAddressQueue(addresses,
+                Math.max(lowest, lowerBound(fromElement, fromInclusive)),
+                Math.min(highest, upperBound(toElement, toInclusive)));
+    }
+
+    @Override
+    public NavigableSet<Long> headSet(Long toElement, boolean inclusive) {
+        return new StreamAddressQueue(addresses, lowest, Math.min(highest, upperBound(toElement, inclusive)));
+    }
+
+    @Override
+    public NavigableSet<Long> tailSet(Long fromElement, boolean inclusive) {
+        return new StreamAddressQueue(addresses, Math.max(lowest, lowerBound(fromElement, inclusive)), highest);
+    }
+
+    @Override
+    public NavigableSet<Long> subSet(Long fromElement, Long toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public NavigableSet<Long> headSet(Long toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public NavigableSet<Long> tailSet(Long fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    private static long lowerBound(long address, boolean inclusive) {
+        return inclusive || address == Long.MAX_VALUE ? address : address + 1;
+    }
+
+    private static long upperBound(long address, boolean inclusive) {
+        return inclusive || address == Long.MIN_VALUE ? address : address - 1;
+    }
+}
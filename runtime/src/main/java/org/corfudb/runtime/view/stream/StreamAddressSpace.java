@@ -10,8 +10,6 @@ import org.roaringbitmap.longlong.Roaring64NavigableMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
 
 /**
  * This class represents the space of all addresses belonging to a stream.
@@ -46,19 +44,14 @@ public class StreamAddressSpace {
     }
 
     /**
-     * Copy this stream's addresses to a set, under a given boundary (inclusive).
+     * Add this stream's addresses to a queue, under a given boundary (inclusive). The addresses
+     * are iterated in ascending order, so the ones above the boundary are never visited.
      *
+     * @param queue     queue to add the addresses to
      * @param maxGlobal maximum address (inclusive upper bound)
      */
-    public NavigableSet<Long> copyAddressesToSet(final Long maxGlobal) {
-        NavigableSet<Long> queue = new TreeSet<>();
-        this.addressMap.forEach(address -> {
-            if (address <= maxGlobal){
-                queue.add(address);
-            }
-        });
-
-        return queue;
+    void addAddressesTo(StreamAddressQueue queue, final long maxGlobal) {
+        queue.addAll(addressMap, maxGlobal);
     }
 
     /**
@@ -134,19 +127,39 @@ public class StreamAddressSpace {
     }
 
     /**
-     * Get addresses in range (end, start], where start > end.
+     * Get addresses in range (end, start], where start > end. If the range has a limit,
+     * only the lowest addresses of the range are returned.
      *
      * @return Bitmap with addresses in this range.
      */
     public Roaring64NavigableMap getAddressesInRange(StreamAddressRange range) {
         Roaring64NavigableMap addressesInRange = new Roaring64NavigableMap();
         if (range.getStart() > range.getEnd()) {
-            addressMap.forEach(address -> {
-                // Because our search is referenced to the stream's tail => (end < start]
-                if (address > range.getEnd() && address <= range.getStart()) {
-                    addressesInRange.add(address);
+            // Because our search is referenced to the stream's tail => (end < start], the addresses
+            // in range are the ones ranked after end and up to start.
+            // Note: rankLong returns the cardinality of the bitmap for negative values.
+            long first = range.getEnd() < 0 ? 0 : addressMap.rankLong(range.getEnd());
+            long last = range.getStart() < 0 ? 0 : addressMap.rankLong(range.getStart());
+            if (range.getLimit() > 0) {
+                last = Math.min(last, first + range.getLimit());
+            }
+
+            if (first == 0 && last == addressMap.getLongCardinality()) {
+                addressesInRange.or(addressMap);
+            } else if (first < last) {
+                // Iterate forward from the first address in range, rather than selecting
+                // every address by its rank.
+                final long firstAddress = addressMap.select(first);
+                long remaining = last - first;
+                LongIterator it = addressMap.getLongIterator();
+                while (remaining > 0 && it.hasNext()) {
+                    long address = it.next();
+                    if (address >= firstAddress) {
+                        addressesInRange.addLong(address);
+                        remaining--;
+                    }
                 }
-            });
+            }
         }
 
         log.trace("getAddressesInRange[{}]: address map in range [{}-{}] has a total of {} addresses.",
@@ -14,11 +14,16 @@ public enum CorfuComponent {
     OBJECT("corfu.runtime.object."),
     GARBAGE_COLLECTION("corfu.runtime.gc."),
     CLIENT_SEQUENCER("corfu.runtime.sequencer."),
+    COMPRESSION("corfu.runtime.compression."),
 
     // Infrastructure components
     INFRA_MSG_HANDLER("corfu.infrastructure.message-handler."),
+    INFRA_ROUTER("corfu.infrastructure.router."),
     INFRA_SEQUENCER("corfu.infrastructure.sequencer."),
-    INFRA_STREAM_OPS("corfu.infrastructure.stream-ops.");
+    INFRA_STREAM_OPS("corfu.infrastructure.stream-ops."),
+    INFRA_LOG_UNIT("corfu.infrastructure.log-unit."),
+    INFRA_STATE_TRANSFER("corfu.infrastructure.state-transfer."),
+    INFRA_FAILURE_DETECTOR("corfu.infrastructure.failure-detector.");
 
     CorfuComponent(String value) {
         this.value = value;
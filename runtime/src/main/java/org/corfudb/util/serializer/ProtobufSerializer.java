@@ -94,17 +94,19 @@ public class ProtobufSerializer implements ISerializer {
                 }
                 throw new SerializerException(payload.getTypeUrl()+" not in map!");
             }
-            Message value = payload.unpack(classMap.get(payload.getTypeUrl()));
-
             if (type.equals(MessageType.KEY)) {
-                return value;
+                return payload.unpack(classMap.get(payload.getTypeUrl()));
             } else {
-                Message metadata = null;
+                // Values are decoded lazily, so that scans and projections which never access
+                // the payload or the metadata do not pay for their materialization.
+                Any anyMetadata = null;
+                Class<? extends Message> metadataClass = null;
                 if (record.hasMetadata()) {
-                    Any anyMetadata = record.getMetadata();
-                    metadata = anyMetadata.unpack(classMap.get(anyMetadata.getTypeUrl()));
+                    anyMetadata = record.getMetadata();
+                    metadataClass = classMap.get(anyMetadata.getTypeUrl());
                 }
-                return new CorfuRecord(value, metadata);
+                return CorfuRecord.lazy(payload, (Class<Message>) classMap.get(payload.getTypeUrl()),
+                        anyMetadata, (Class<Message>) metadataClass);
             }
         } catch (IOException ie) {
             log.error("Exception during deserialization!", ie);
@@ -126,10 +128,15 @@ public class ProtobufSerializer implements ISerializer {
 
         if (o instanceof CorfuRecord) {
             CorfuRecord corfuRecord = (CorfuRecord) o;
-            Any message = Any.pack(corfuRecord.getPayload());
+            // Reuse the serialized form of lazily decoded records instead of re-packing them.
+            Any message = corfuRecord.getSerializedPayload() != null
+                    ? corfuRecord.getSerializedPayload()
+                    : Any.pack(corfuRecord.getPayload());
             Record.Builder recordBuilder = Record.newBuilder()
                     .setPayload(message);
-            if (corfuRecord.getMetadata() != null) {
+            if (corfuRecord.getSerializedMetadata() != null) {
+                recordBuilder.setMetadata(corfuRecord.getSerializedMetadata());
+            } else if (corfuRecord.getMetadata() != null) {
                 Any metadata = Any.pack(corfuRecord.getMetadata());
                 recordBuilder.setMetadata(metadata);
             }
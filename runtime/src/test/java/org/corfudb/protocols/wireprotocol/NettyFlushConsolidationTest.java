@@ -0,0 +1,50 @@
+package org.corfudb.protocols.wireprotocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+public class NettyFlushConsolidationTest {
+
+    private static final int MESSAGES = 3;
+    private static final int MAX_FLUSHES = 10;
+
+    private EmbeddedChannel newChannel(int maxFlushes, Histogram messagesPerFlush) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        NettyFlushConsolidation.addLast(channel.pipeline(), maxFlushes, messagesPerFlush);
+        return channel;
+    }
+
+    @Test
+    public void flushesEveryMessageWithoutConsolidation() {
+        Histogram messagesPerFlush = new MetricRegistry().histogram("flush");
+        EmbeddedChannel channel = newChannel(0, messagesPerFlush);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            channel.writeAndFlush(i);
+        }
+
+        assertThat(channel.outboundMessages()).hasSize(MESSAGES);
+        assertThat(messagesPerFlush.getCount()).isEqualTo(MESSAGES);
+        assertThat(messagesPerFlush.getSnapshot().getMax()).isEqualTo(1);
+    }
+
+    @Test
+    public void consolidatesFlushesUntilEventLoopRuns() {
+        Histogram messagesPerFlush = new MetricRegistry().histogram("flush");
+        EmbeddedChannel channel = newChannel(MAX_FLUSHES, messagesPerFlush);
+
+        for (int i = 0; i < MESSAGES; i++) {
+            channel.writeAndFlush(i);
+        }
+        assertThat(channel.outboundMessages()).isEmpty();
+
+        channel.runPendingTasks();
+        assertThat(channel.outboundMessages()).hasSize(MESSAGES);
+        assertThat(messagesPerFlush.getCount()).isEqualTo(1);
+        assertThat(messagesPerFlush.getSnapshot().getMax()).isEqualTo(MESSAGES);
+    }
+}
@@ -5,6 +5,10 @@ import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -13,6 +17,7 @@ import org.corfudb.AbstractCorfuTest;
 import org.corfudb.infrastructure.datastore.DataStore;
 import org.corfudb.infrastructure.datastore.KvDataStore.KvRecord;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
+import org.corfudb.util.JsonUtils;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -59,8 +64,11 @@ public class DataStoreTest extends AbstractCorfuTest {
         DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
         String value = UUID.randomUUID().toString();
         dataStore.put(TEST_RECORD, value);
+        dataStore.put(TEST_RECORD, "NEW_VALUE");
+        dataStore.close();
 
-        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + "test_key" + DataStore.EXTENSION;
+        // Corrupt the first record of the log
+        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + DataStore.LOG_FILE;
         RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw");
 
         dsFile.seek(value.length() / 2);
@@ -68,9 +76,28 @@ public class DataStoreTest extends AbstractCorfuTest {
         dsFile.close();
 
         // Simulate a restart of data store
-        final DataStore dataStore2 = createPersistDataStore(serviceDir, numRetention, fn -> { });
-        assertThatThrownBy(() -> dataStore2.get(TEST_RECORD))
+        assertThatThrownBy(() -> createPersistDataStore(serviceDir, numRetention, fn -> { }))
+                .isInstanceOf(DataCorruptionException.class);
+    }
+
+    @Test
+    public void testCorruptedRecordLength() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        dataStore.put(TEST_RECORD, UUID.randomUUID().toString());
+        dataStore.close();
+
+        // A corrupted length must not be taken for a torn write and truncated
+        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + DataStore.LOG_FILE;
+        try (RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw")) {
+            dsFile.seek(Integer.BYTES);
+            dsFile.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertThatThrownBy(() -> createPersistDataStore(serviceDir, numRetention, fn -> { }))
                 .isInstanceOf(DataCorruptionException.class);
+        assertThat(new File(fileName).length()).isGreaterThan(0L);
     }
 
     @Test
@@ -80,6 +107,7 @@ public class DataStoreTest extends AbstractCorfuTest {
         DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
         String value = UUID.randomUUID().toString();
         dataStore.put(TEST_RECORD, value);
+        dataStore.close();
 
         // Simulate a restart of data store
         dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
@@ -89,6 +117,149 @@ public class DataStoreTest extends AbstractCorfuTest {
         assertThat(dataStore.get(TEST_RECORD)).isEqualTo("NEW_VALUE");
     }
 
+    @Test
+    public void testTornRecordIsTruncated() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        String value = UUID.randomUUID().toString();
+        dataStore.put(TEST_RECORD, value);
+        dataStore.close();
+
+        // Simulate a crash in the middle of appending a record
+        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + DataStore.LOG_FILE;
+        try (RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw")) {
+            dsFile.seek(dsFile.length());
+            dsFile.writeInt(0);
+            dsFile.writeShort(0);
+        }
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+        dataStore.put(TEST_RECORD, "NEW_VALUE");
+        dataStore.close();
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo("NEW_VALUE");
+    }
+
+    @Test
+    public void testTornHeaderIsTruncated() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final int tornLength = 20;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        String value = UUID.randomUUID().toString();
+        dataStore.put(TEST_RECORD, value);
+        dataStore.close();
+
+        // Simulate a crash that left a garbage header at the end of the log
+        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + DataStore.LOG_FILE;
+        long validLength = new File(fileName).length();
+        try (RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw")) {
+            dsFile.seek(dsFile.length());
+            dsFile.write(new byte[tornLength]);
+        }
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(new File(fileName).length()).isEqualTo(validLength);
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+    }
+
+    @Test
+    public void testBatchAndDelete() {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final KvRecord<String> otherRecord = KvRecord.of("test", "other", String.class);
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+
+        dataStore.batch(() -> {
+            dataStore.put(TEST_RECORD, "VALUE");
+            dataStore.put(otherRecord, "OTHER_VALUE");
+            dataStore.delete(TEST_RECORD);
+        });
+        assertThat(dataStore.get(TEST_RECORD)).isNull();
+        assertThat(dataStore.get(otherRecord)).isEqualTo("OTHER_VALUE");
+        assertThat(dataStore.listKeys("test")).containsExactly(otherRecord.getFullKeyName());
+        dataStore.close();
+
+        // Simulate a restart of data store
+        DataStore dataStore2 = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore2.get(TEST_RECORD)).isNull();
+        assertThat(dataStore2.get(otherRecord)).isEqualTo("OTHER_VALUE");
+    }
+
+    @Test
+    public void testCompaction() {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final int valueSize = 1024 * 1024;
+        final int numWrites = 8;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+
+        String value = "";
+        for (int i = 0; i < numWrites; i++) {
+            value = String.join("", Collections.nCopies(valueSize, String.valueOf(i)));
+            dataStore.put(TEST_RECORD, value);
+        }
+
+        // The log was compacted into a snapshot at least once
+        File logFile = new File(serviceDir, DataStore.LOG_FILE);
+        assertThat(logFile.length()).isLessThan((long) valueSize * numWrites);
+        dataStore.close();
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+    }
+
+    @Test
+    public void testImportFileStore() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        String value = UUID.randomUUID().toString();
+
+        // A value written by a store with one file per key
+        byte[] bytes = JsonUtils.parser.toJson(value, String.class).getBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + Integer.BYTES);
+        buffer.putInt(DataStore.getChecksum(bytes));
+        buffer.put(bytes);
+        File dsFile = new File(serviceDir, TEST_RECORD.getFullKeyName() + DataStore.EXTENSION);
+        Files.write(dsFile.toPath(), buffer.array());
+
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+        assertThat(dsFile).doesNotExist();
+        dataStore.close();
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+    }
+
+    @Test
+    public void testExportToFiles() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        String value = UUID.randomUUID().toString();
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        dataStore.put(TEST_RECORD, value);
+        dataStore.close();
+
+        // The store is written back as one file per key, in the format older versions read
+        DataStore.exportToFiles(serviceDir);
+        File dsFile = new File(serviceDir, TEST_RECORD.getFullKeyName() + DataStore.EXTENSION);
+        assertThat(new File(serviceDir, DataStore.LOG_FILE)).doesNotExist();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(dsFile.toPath()));
+        byte[] bytes = new byte[buffer.remaining() - Integer.BYTES];
+        int checksum = buffer.getInt();
+        buffer.get(bytes);
+        assertThat(checksum).isEqualTo(DataStore.getChecksum(bytes));
+        assertThat(JsonUtils.parser.fromJson(new String(bytes), String.class)).isEqualTo(value);
+
+        // And imported again on upgrade
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(TEST_RECORD)).isEqualTo(value);
+    }
+
     @Test
     public void testDataStoreEviction() {
         final String numRetention = "10";
@@ -98,6 +269,7 @@ public class DataStoreTest extends AbstractCorfuTest {
         for (int i = 0; i < dataStore.getDsCacheSize() * 2; i++) {
             String value = UUID.randomUUID().toString();
             dataStore.put(TEST_RECORD, value);
+            dataStore.close();
 
             // Simulate a restart of data store
             dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
@@ -111,7 +283,6 @@ public class DataStoreTest extends AbstractCorfuTest {
     public void testDataStoreCleanup() {
         final int numRetention = 10;
         final String serviceDirPath = PARAMETERS.TEST_TEMP_DIR;
-        File serviceDir = new File(serviceDirPath);
 
         ServerContext serverContext = new ServerContextBuilder()
                 .setMemory(false)
@@ -130,18 +301,17 @@ public class DataStoreTest extends AbstractCorfuTest {
             });
 
             prefixesToClean.forEach(prefix -> {
-                // Cleanup should not be invoked for the first numRetention files,
-                // but start to delete files with smaller epochs after that
-                File[] foundFiles = serviceDir.listFiles((dir, name) -> name.startsWith(prefix));
+                // Cleanup should not be invoked for the first numRetention keys,
+                // but start to delete keys with smaller epochs after that
+                List<String> foundKeys = dataStore.listKeys(prefix);
                 if (epoch > numRetention) {
-                    assertThat(foundFiles).hasSize(numRetention);
-                    // Check the numRetention files with larger epochs are not deleted
+                    assertThat(foundKeys).hasSize(numRetention);
+                    // Check the numRetention keys with larger epochs are not deleted
                     for (int j = epoch; j > epoch - numRetention; j--) {
-                        String fileName = prefix + "_" + epoch + "KEY" + DataStore.EXTENSION;
-                        assertThat(new File(serviceDir, fileName).exists()).isTrue();
+                        assertThat(foundKeys).contains(prefix + "_" + j + "KEY");
                     }
                 } else {
-                    assertThat(foundFiles).hasSize(epoch);
+                    assertThat(foundKeys).hasSize(epoch);
                 }
             });
         }
@@ -17,6 +17,7 @@ import org.corfudb.protocols.wireprotocol.LayoutCommittedRequest;
 import org.corfudb.protocols.wireprotocol.LayoutPrepareRequest;
 import org.corfudb.protocols.wireprotocol.LayoutPrepareResponse;
 import org.corfudb.protocols.wireprotocol.LayoutProposeRequest;
+import org.corfudb.protocols.wireprotocol.LayoutWaitRequest;
 import org.corfudb.runtime.exceptions.AlreadyBootstrappedException;
 import org.corfudb.runtime.exceptions.NoBootstrapException;
 import org.corfudb.runtime.exceptions.OutrankedException;
@@ -154,6 +155,36 @@ public class LayoutServerTest extends AbstractServerTest {
         Assertions.assertThat(sendCommitted(newEpoch, newLayout, layout.getClusterId()).join()).isTrue();
     }
 
+    /**
+     * Verifies that a layout wait completes as soon as a layout with a greater epoch is
+     * committed, and right away or on timeout otherwise.
+     */
+    @Test
+    public void layoutWaitCompletesOnCommit() {
+        Layout layout = TestLayoutBuilder.single(SERVERS.PORT_0);
+        bootstrapServer(layout);
+
+        // A client which is behind gets the current layout right away
+        Assertions.assertThat(waitForLayout(layout.getEpoch() - 1, PARAMETERS.TIMEOUT_LONG.toMillis()).join())
+                .isEqualTo(layout);
+
+        // A wait which expires returns the current layout
+        Assertions.assertThat(waitForLayout(layout.getEpoch(), 1L).join()).isEqualTo(layout);
+
+        CompletableFuture<Layout> wait = waitForLayout(layout.getEpoch(), PARAMETERS.TIMEOUT_LONG.toMillis());
+        Assertions.assertThat(wait).isNotDone();
+
+        long newEpoch = layout.getEpoch() + 1;
+        Layout newLayout = TestLayoutBuilder.single(SERVERS.PORT_0);
+        newLayout.setEpoch(newEpoch);
+        setEpoch(newEpoch, layout.getClusterId()).join();
+        sendPrepare(newEpoch, HIGH_RANK, layout.getClusterId()).join();
+        sendPropose(newEpoch, HIGH_RANK, newLayout, layout.getClusterId()).join();
+        sendCommitted(newEpoch, newLayout, layout.getClusterId()).join();
+
+        Assertions.assertThat(wait.join()).isEqualTo(newLayout);
+    }
+
     /**
      * Verifies that once set the epoch cannot regress.
      * Note: it does not verify that epoch is a dense monotonically increasing integer
@@ -587,6 +618,10 @@ public class LayoutServerTest extends AbstractServerTest {
         return sendRequest(CorfuMsgType.LAYOUT_REQUEST.payloadMsg(epoch));
     }
 
+    private CompletableFuture<Layout> waitForLayout(long epoch, long timeout) {
+        return sendRequest(CorfuMsgType.LAYOUT_WAIT_REQUEST.payloadMsg(new LayoutWaitRequest(epoch, timeout)));
+    }
+
     private CompletableFuture<Boolean> setEpoch(long epoch, UUID clusterId) {
         return sendRequestWithClusterId(new CorfuPayloadMsg<>(CorfuMsgType.SEAL, epoch), clusterId);
     }
@@ -7,7 +7,10 @@ import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
+import org.corfudb.protocols.wireprotocol.ReadRequest;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.protocols.wireprotocol.TrimRequest;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
@@ -20,6 +23,7 @@ import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.corfudb.infrastructure.LogUnitServerAssertions.assertThat;
+import static org.corfudb.infrastructure.log.StreamLogFiles.RECORDS_PER_LOG_FILE;
 
 /**
  * Created by WenbinZhu on 5/30/19.
@@ -98,6 +102,105 @@ public class LogUnitCacheTest extends AbstractServerTest {
         assertThat(logUnitServer.getDataCache().getSize()).isEqualTo(size);
     }
 
+    /**
+     * Test that sequential reads prefetch the following addresses of the segment
+     * and that a prefix trim evicts the cached entries it covers.
+     */
+    @Test
+    public void checkPrefetchAndPrefixTrimEviction() {
+        final int size = 20;
+        final long trimAddress = 9L;
+
+        LogUnitServer logUnitServer = getDefaultServer();
+        setServer(logUnitServer);
+
+        List<LogData> payloads = new ArrayList<>();
+        for (long i = 0; i < size; i++) {
+            ByteBuf payload = Unpooled.buffer();
+            Serializers.CORFU.serialize("hello".getBytes(), payload);
+            LogData logData = new LogData(DataType.DATA, payload);
+            logData.setGlobalAddress(i);
+            payloads.add(logData);
+        }
+        sendRequest(CorfuMsgType.RANGE_WRITE.payloadMsg(new RangeWriteMsg(payloads))).join();
+
+        // Reading two consecutive addresses is detected as a sequential read,
+        // which prefetches the rest of the written addresses.
+        for (long address = 0; address < 2; address++) {
+            CompletableFuture<ReadResponse> future = sendRequest(CorfuMsgType.READ_REQUEST
+                    .payloadMsg(new ReadRequest(address, true)));
+            checkReadResponse(future.join(), 1);
+        }
+        assertThat(logUnitServer.getDataCache().getSize()).isEqualTo(size);
+
+        sendRequest(CorfuMsgType.PREFIX_TRIM.payloadMsg(new TrimRequest(new Token(0L, trimAddress)))).join();
+        assertThat(logUnitServer.getDataCache().getSize()).isEqualTo(size - (int) trimAddress - 1);
+    }
+
+    /**
+     * Test that a multi-read spanning several segments returns all the entries,
+     * both in a single response and in size bounded chunks.
+     */
+    @Test
+    public void checkChunkedMultiSegmentRead() {
+        final int size = 20;
+        final long start = RECORDS_PER_LOG_FILE - size / 2;
+        final int maxResponseSize = 32;
+
+        LogUnitServer logUnitServer = getDefaultServer();
+        setServer(logUnitServer);
+
+        List<LogData> payloads = new ArrayList<>();
+        for (long i = start; i < start + size; i++) {
+            ByteBuf payload = Unpooled.buffer();
+            Serializers.CORFU.serialize("hello".getBytes(), payload);
+            LogData logData = new LogData(DataType.DATA, payload);
+            logData.setGlobalAddress(i);
+            payloads.add(logData);
+        }
+        sendRequest(CorfuMsgType.RANGE_WRITE.payloadMsg(new RangeWriteMsg(payloads))).join();
+
+        List<Long> addresses = LongStream.range(start, start + size).boxed().collect(Collectors.toList());
+        CompletableFuture<ReadResponse> future = sendRequest(CorfuMsgType.MULTIPLE_READ_REQUEST
+                .payloadMsg(new MultipleReadRequest(addresses, false)));
+        checkReadResponse(future.join(), size);
+
+        future = sendRequest(CorfuMsgType.MULTIPLE_READ_REQUEST
+                .payloadMsg(new MultipleReadRequest(addresses, false, maxResponseSize)));
+        checkReadResponse(future.join(), size);
+    }
+
+    /**
+     * Test that a cache hit is served from the cached serialized form, and that an entry
+     * evicted while it is being served still serializes to the same bytes.
+     */
+    @Test
+    public void checkCacheHitIsServedFromSerializedForm() {
+        final long address = 0L;
+
+        LogUnitServer logUnitServer = getDefaultServer();
+        setServer(logUnitServer);
+
+        ByteBuf payload = Unpooled.buffer();
+        Serializers.CORFU.serialize("hello".getBytes(), payload);
+        LogData logData = new LogData(DataType.DATA, payload);
+        logData.setGlobalAddress(address);
+        ByteBuf expected = Unpooled.buffer();
+        logData.doSerialize(expected);
+
+        LogUnitServerCache cache = logUnitServer.getDataCache();
+        cache.put(address, logData);
+        LogData cached = (LogData) cache.get(address);
+        assertThat(cached.getGlobalAddress()).isEqualTo(address);
+        assertThat(cached.getSizeEstimate()).isEqualTo(logData.getSizeEstimate());
+
+        cache.invalidateAll();
+        ByteBuf evicted = Unpooled.buffer();
+        cached.doSerialize(evicted);
+        assertThat(evicted).isEqualTo(expected);
+        assertThat(cached.getPayload(null)).isEqualTo("hello".getBytes());
+    }
+
     private void checkReadResponse(ReadResponse readResponse, int size) {
         assertThat(readResponse.getAddresses().size()).isEqualTo(size);
 
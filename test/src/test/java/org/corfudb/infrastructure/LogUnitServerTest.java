@@ -25,6 +25,8 @@ import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.corfudb.infrastructure.LogUnitServerAssertions.assertThat;
@@ -436,6 +438,63 @@ public class LogUnitServerTest extends AbstractServerTest {
         assertThat(entry.getGlobalAddress()).isEqualTo(globalAddress);
     }
 
+    /**
+     * Check that a stream read returns the entries of the stream in order, and only up to
+     * the first address that is not written.
+     */
+    @Test
+    public void checkStreamRead() {
+        final long numEntries = 10L;
+        final long addressAfterHole = numEntries + 1;
+        final UUID streamA = UUID.randomUUID();
+        final UUID streamB = UUID.randomUUID();
+
+        ServerContext sc = new ServerContextBuilder()
+                .setSingle(true)
+                .build();
+        sc.installSingleNodeLayoutIfAbsent();
+        sc.setServerRouter(router);
+        sc.setServerEpoch(sc.getCurrentLayout().getEpoch(), router);
+
+        setServer(new LogUnitServer(sc));
+        setContext(sc);
+
+        for (long address = 0; address < numEntries; address++) {
+            writeStreamEntry(address, address % 2 == 0 ? streamA : streamB);
+        }
+        // Address numEntries is not written yet
+        writeStreamEntry(addressAfterHole, streamA);
+
+        StreamReadResponse response = (StreamReadResponse) sendRequest(CorfuMsgType.STREAM_READ_REQUEST
+                .payloadMsg(new StreamReadRequest(streamA, Address.NON_ADDRESS, addressAfterHole, 0))).join();
+        assertThat(response.getCoveredAddress()).isEqualTo(numEntries - 1);
+        assertThat(response.getEntries())
+                .extracting(LogData::getGlobalAddress)
+                .containsExactlyElementsOf(LongStream.range(0, numEntries)
+                        .filter(address -> address % 2 == 0)
+                        .boxed()
+                        .collect(Collectors.toList()));
+
+        // A bounded response stops at the first entry that reaches the bound
+        response = (StreamReadResponse) sendRequest(CorfuMsgType.STREAM_READ_REQUEST
+                .payloadMsg(new StreamReadRequest(streamA, 0L, addressAfterHole, 1))).join();
+        assertThat(response.getCoveredAddress()).isEqualTo(2L);
+        assertThat(response.getEntries())
+                .extracting(LogData::getGlobalAddress)
+                .containsExactly(2L);
+    }
+
+    private void writeStreamEntry(long address, UUID streamId) {
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize("Payload".getBytes(), b);
+        WriteRequest m = WriteRequest.builder()
+                .data(new LogData(DataType.DATA, b))
+                .build();
+        m.setGlobalAddress(address);
+        m.setBackpointerMap(Collections.singletonMap(streamId, Address.NON_EXIST));
+        sendRequest(CorfuMsgType.WRITE.payloadMsg(m)).join();
+    }
+
     private String createLogFile(String path, int version, boolean noVerify) throws IOException {
         // Generate a log file and manually change the version
         File logDir = new File(path + File.separator + "log");
@@ -7,11 +7,14 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.SequencerRecoveryMsg;
+import org.corfudb.protocols.wireprotocol.StreamsTailWaitRequest;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
@@ -296,4 +299,63 @@ public class SequencerServerTest extends AbstractServerTest {
                         Collections.emptyMap(), Collections.emptyMap()));
     }
 
+    /**
+     * Verifies that a STREAMS_TAIL_WAIT_REQUEST is held until a token is issued on
+     * one of its streams, and completes with the new tail of the stream.
+     */
+    @Test
+    public void streamsTailWaitCompletesOnToken() throws Exception {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+
+        CompletableFuture<TailsResponse> wait = sendRequest(CorfuMsgType.STREAMS_TAIL_WAIT_REQUEST.payloadMsg(
+                new StreamsTailWaitRequest(Address.NON_EXIST, Collections.singletonList(streamA),
+                        PARAMETERS.TIMEOUT_LONG.toMillis())));
+
+        // A token on another stream does not complete the wait
+        sendRequest(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(1L, Collections.singletonList(streamB)))).join();
+        assertThat(wait.isDone()).isFalse();
+
+        TokenResponse token = (TokenResponse) sendRequest(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(1L, Collections.singletonList(streamA)))).join();
+        TailsResponse tails = wait.get(PARAMETERS.TIMEOUT_NORMAL.toMillis(), TimeUnit.MILLISECONDS);
+        assertThat(tails.getStreamTails()).containsEntry(streamA, token.getSequence());
+    }
+
+    /**
+     * Verifies that a STREAMS_TAIL_WAIT_REQUEST completes with the current tails once
+     * its timeout expires, if no token is issued on its streams.
+     */
+    @Test
+    public void streamsTailWaitTimesOut() throws Exception {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        final long timeout = PARAMETERS.TIMEOUT_VERY_SHORT.toMillis();
+
+        final long start = System.nanoTime();
+        CompletableFuture<TailsResponse> wait = sendRequest(CorfuMsgType.STREAMS_TAIL_WAIT_REQUEST.payloadMsg(
+                new StreamsTailWaitRequest(Address.NON_EXIST, Collections.singletonList(streamA), timeout)));
+        TailsResponse tails = wait.get(PARAMETERS.TIMEOUT_NORMAL.toMillis(), TimeUnit.MILLISECONDS);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(timeout);
+        assertThat(tails.getStreamTails()).containsEntry(streamA, Address.NON_EXIST);
+    }
+
+    /**
+     * Verifies that a STREAMS_TAIL_WAIT_REQUEST completes right away if the tail of one
+     * of its streams is already past the address known by the client.
+     */
+    @Test
+    public void streamsTailWaitCompletesImmediately() throws Exception {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+
+        TokenResponse token = (TokenResponse) sendRequest(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(1L, Collections.singletonList(streamA)))).join();
+
+        CompletableFuture<TailsResponse> wait = sendRequest(CorfuMsgType.STREAMS_TAIL_WAIT_REQUEST.payloadMsg(
+                new StreamsTailWaitRequest(Address.NON_ADDRESS, Collections.singletonList(streamA),
+                        PARAMETERS.TIMEOUT_LONG.toMillis())));
+        TailsResponse tails = wait.get(PARAMETERS.TIMEOUT_NORMAL.toMillis(), TimeUnit.MILLISECONDS);
+        assertThat(tails.getStreamTails()).containsEntry(streamA, token.getSequence());
+    }
 }
@@ -12,15 +12,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
 import org.corfudb.AbstractCorfuTest;
+import org.corfudb.common.compression.Codec;
 import org.corfudb.format.Types;
 import org.corfudb.format.Types.Metadata;
 import org.corfudb.infrastructure.ServerContext;
@@ -29,6 +34,8 @@ import org.corfudb.infrastructure.log.StreamLogFiles.Checksum;
 import org.corfudb.protocols.wireprotocol.DataType;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.SegmentChunk;
+import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.view.Address;
@@ -433,6 +440,7 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
 
         // Restart and try to retrieve the global tail
         log = new StreamLogFiles(getContext(), false);
+        log.whenReady().join();
         assertThat(log.getLogTail()).isEqualTo(lastAddress);
 
         // Advance the tail some more
@@ -444,9 +452,66 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
 
         // Restart and try to retrieve the global tail one last time
         log = new StreamLogFiles(getContext(), false);
+        log.whenReady().join();
         assertThat(log.getLogTail()).isEqualTo(lastAddress + tailDelta);
     }
 
+    @Test
+    public void testBackgroundRecovery() throws Exception {
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        final UUID streamA = UUID.randomUUID();
+        final UUID streamB = UUID.randomUUID();
+
+        // Stream A spans all the segments, stream B only the first one
+        final int segments = 3;
+        final long streamBEntries = 10;
+        for (long x = 0; x < segments * RECORDS_PER_LOG_FILE; x++) {
+            LogData entry = getEntry(x);
+            if (x % 2 == 0) {
+                entry.setBackpointerMap(Collections.singletonMap(streamA, Address.NON_ADDRESS));
+            } else if (x < streamBEntries * 2) {
+                entry.setBackpointerMap(Collections.singletonMap(streamB, Address.NON_ADDRESS));
+            }
+            log.append(x, entry);
+        }
+        log.sync(true);
+        TailsResponse tails = log.getAllTails();
+        log.close();
+
+        // Restart, the older segments are loaded in the background
+        StreamLogFiles log2 = new StreamLogFiles(getContext(), false);
+        log2.whenReady().join();
+
+        assertThat(log2.getAllTails().getLogTail()).isEqualTo(segments * RECORDS_PER_LOG_FILE - 1);
+        assertThat(log2.getAllTails().getStreamTails()).isEqualTo(tails.getStreamTails());
+        assertThat(log2.getStreamsAddressSpace().getAddressMap().get(streamB).getAddressMap()
+                .getLongCardinality()).isEqualTo(streamBEntries);
+        assertThat(log2.getStreamsAddressSpace().getAddressMap().get(streamA).getAddressMap()
+                .getLongCardinality()).isEqualTo(segments * RECORDS_PER_LOG_FILE / 2);
+    }
+
+    @Test
+    public void testBackgroundRecoveryDataCorruption() throws Exception {
+        String logDir = getContext().getServerConfig().get("--log-path") + File.separator + "log";
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        writeToLog(log, 0L);
+        writeToLog(log, RECORDS_PER_LOG_FILE);
+        log.close();
+
+        // Corrupt the payload of the entry in the first segment
+        final int OVERWRITE_BYTES = 4;
+        RandomAccessFile file = new RandomAccessFile(logDir + File.separator + 0 + ".log", "rw");
+        file.seek(file.length() - OVERWRITE_BYTES);
+        file.writeInt(OVERWRITE_BYTES);
+        file.close();
+
+        // The tail segment is loaded, but the log never becomes ready
+        StreamLogFiles log2 = new StreamLogFiles(getContext(), false);
+        assertThat(log2.read(RECORDS_PER_LOG_FILE)).isNotNull();
+        assertThatThrownBy(() -> log2.whenReady().join())
+                .hasCauseInstanceOf(DataCorruptionException.class);
+    }
+
     @Test
     public void testPrefixTrim() {
         String logDir = getContext().getServerConfig().get("--log-path") + File.separator + "log";
@@ -512,6 +577,98 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(trimmedExceptions).isEqualTo(trimAddress + 1);
     }
 
+    @Test
+    public void testCompressSealedSegments() throws Exception {
+        String logDir = getContext().getServerConfig().get("--log-path") + File.separator + "log";
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+
+        // Write 4 segments, the first 2 are sealed
+        final long numSegments = 4;
+        final int payloadRepeats = 20;
+        byte[] payload = String.join("", Collections.nCopies(payloadRepeats, "Payload")).getBytes();
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x++) {
+            ByteBuf b = Unpooled.buffer();
+            Serializers.CORFU.serialize(payload, b);
+            log.append(x, new LogData(DataType.DATA, b));
+        }
+        log.sync(true);
+
+        File sealedSegment = new File(logDir + File.separator + "0.log");
+        File openSegment = new File(logDir + File.separator + "2.log");
+        long uncompressedSize = sealedSegment.length();
+        long openSegmentSize = openSegment.length();
+
+        log.compressSealedSegments();
+
+        assertThat(sealedSegment.length()).isLessThan(uncompressedSize);
+        assertThat(openSegment.length()).isEqualTo(openSegmentSize);
+        assertThat(new File(logDir).list()).hasSize((int) numSegments);
+        // Only the bytes saved by the compression are released from the quota
+        assertThat(log.getQuotaAvailableInBytes())
+                .isEqualTo(log.quotaLimitInBytes() - StreamLogFiles.estimateSize(Paths.get(logDir)));
+
+        // Compressed segments are not compressed again
+        long compressedSize = sealedSegment.length();
+        log.compressSealedSegments();
+        assertThat(sealedSegment.length()).isEqualTo(compressedSize);
+
+        // The entries are read back with their codec, before and after a restart
+        LogData entry = log.read(0L);
+        assertThat(entry.hasPayloadCodec()).isTrue();
+        assertThat(entry.getPayload(null)).isEqualTo(payload);
+
+        StreamLogFiles log2 = new StreamLogFiles(getContext(), false);
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x++) {
+            assertThat(log2.read(x).getPayload(null)).isEqualTo(payload);
+        }
+    }
+
+    @Test
+    public void testCompressSkipsPrecompressedSegments() throws Exception {
+        String logDir = getContext().getServerConfig().get("--log-path") + File.separator + "log";
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+
+        // Write 3 segments of payloads compressed by the clients, the first is sealed
+        final long numSegments = 3;
+        final int payloadRepeats = 20;
+        byte[] payload = String.join("", Collections.nCopies(payloadRepeats, "Payload")).getBytes();
+        for (long x = 0; x < numSegments * RECORDS_PER_LOG_FILE; x++) {
+            // Entries are written as the log units receive them
+            ByteBuf b = Unpooled.buffer();
+            new LogData(DataType.DATA, payload, Codec.Type.LZ4).doSerialize(b);
+            log.append(x, new LogData(b));
+        }
+        log.sync(true);
+
+        File sealedSegment = new File(logDir + File.separator + "0.log");
+        long size = sealedSegment.length();
+        log.compressSealedSegments();
+
+        // The segment is not rewritten
+        assertThat(sealedSegment.length()).isEqualTo(size);
+        assertThat(new File(logDir).list()).hasSize((int) numSegments);
+        assertThat(log.read(0L).getPayload(null)).isEqualTo(payload);
+    }
+
+    @Test
+    public void testTemporaryFilesDeletedOnStartUp() throws Exception {
+        String logDir = getContext().getServerConfig().get("--log-path") + File.separator + "log";
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        log.append(0L, getEntry(0L));
+        log.close();
+
+        // Files left behind by an interrupted transfer and compression
+        File transferFile = new File(logDir + File.separator + "1.log.transfer");
+        File compressedFile = new File(logDir + File.separator + "0.log.compressed");
+        assertThat(transferFile.createNewFile()).isTrue();
+        assertThat(compressedFile.createNewFile()).isTrue();
+
+        log = new StreamLogFiles(getContext(), false);
+        assertThat(transferFile).doesNotExist();
+        assertThat(compressedFile).doesNotExist();
+        assertThat(log.read(0L)).isNotNull();
+    }
+
     @Test
     public void testPrefixTrimAndStartUp() {
         StreamLog log = new StreamLogFiles(getContext(), false);
@@ -522,6 +679,7 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         log.prefixTrim(midSegmentAddress);
         log.compact();
         log = new StreamLogFiles(getContext(), false);
+        log.whenReady().join();
 
         assertThat(log.getLogTail()).isEqualTo(midSegmentAddress);
         assertThat(log.getTrimMark()).isEqualTo(midSegmentAddress + 1);
@@ -736,4 +894,75 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         assertThat(parentSize).isEqualTo(parentDirFilePayloadSize + childDirFilePayloadSize);
         assertThat(childDirSize).isEqualTo(childDirFilePayloadSize);
     }
+
+    private void copySegment(StreamLog donor, StreamLog recipient, long segment, int chunkSize,
+                             boolean corrupt) {
+        long offset = 0L;
+        SegmentChunk chunk;
+        do {
+            chunk = donor.readSegmentChunk(segment, offset, chunkSize);
+            if (corrupt && chunk.isLast()) {
+                chunk.getData()[chunk.getData().length - 1]++;
+            }
+            recipient.writeSegmentChunk(chunk);
+            offset += chunk.getData().length;
+        } while (!chunk.isLast());
+    }
+
+    @Test
+    public void testSegmentChunkTransfer() {
+        StreamLog donor = new StreamLogFiles(getContext(), false);
+        List<LogData> entries = new ArrayList<>();
+        for (long address = 0; address < RECORDS_PER_LOG_FILE; address++) {
+            entries.add(getEntry(address));
+        }
+        donor.append(entries);
+
+        ServerContext recipientContext = new ServerContextBuilder()
+                .setLogPath(getDirPath() + File.separator + "recipient")
+                .setMemory(false)
+                .build();
+        StreamLogFiles recipient = new StreamLogFiles(recipientContext, false);
+
+        final int chunkSize = 64 * 1024;
+        copySegment(donor, recipient, 0L, chunkSize, false);
+
+        // The installed segment is charged to the quota in place of the segment it replaced
+        Path recipientLogDir = Paths.get(getDirPath(), "recipient", "log");
+        assertThat(recipient.getQuotaAvailableInBytes())
+                .isEqualTo(recipient.quotaLimitInBytes() - StreamLogFiles.estimateSize(recipientLogDir));
+
+        assertThat(recipient.getKnownAddressesInRange(0L, RECORDS_PER_LOG_FILE - 1))
+                .hasSize(RECORDS_PER_LOG_FILE);
+        assertThat(readRange(0L, RECORDS_PER_LOG_FILE, recipient)).isEqualTo(entries);
+        assertThat(recipient.getLogTail()).isEqualTo(RECORDS_PER_LOG_FILE - 1);
+
+        // The installed segment is loaded on restart
+        StreamLog recipient2 = new StreamLogFiles(recipientContext, false);
+        assertThat(recipient2.read(RECORDS_PER_LOG_FILE - 1)).isEqualTo(entries.get(RECORDS_PER_LOG_FILE - 1));
+
+        // A segment that has entries can not be replaced
+        assertThatThrownBy(() -> copySegment(donor, recipient2, 0L, chunkSize, false))
+                .isInstanceOf(OverwriteException.class);
+    }
+
+    @Test
+    public void testCorruptedSegmentChunkTransfer() {
+        StreamLog donor = new StreamLogFiles(getContext(), false);
+        List<LogData> entries = new ArrayList<>();
+        for (long address = 0; address < RECORDS_PER_LOG_FILE; address++) {
+            entries.add(getEntry(address));
+        }
+        donor.append(entries);
+
+        StreamLog recipient = new StreamLogFiles(new ServerContextBuilder()
+                .setLogPath(getDirPath() + File.separator + "recipient")
+                .setMemory(false)
+                .build(), false);
+
+        final int chunkSize = 64 * 1024;
+        assertThatThrownBy(() -> copySegment(donor, recipient, 0L, chunkSize, true))
+                .isInstanceOf(DataCorruptionException.class);
+        assertThat(recipient.getKnownAddressesInRange(0L, RECORDS_PER_LOG_FILE - 1)).isEmpty();
+    }
 }
@@ -1,9 +1,12 @@
 package org.corfudb.protocols.logprotocol;
 
+import com.google.common.collect.ImmutableMap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.corfudb.CustomSerializer;
+import org.corfudb.runtime.collections.CorfuTable;
 import org.corfudb.runtime.exceptions.SerializerException;
+import org.corfudb.runtime.object.SMRMethodIds;
 import org.corfudb.util.serializer.ISerializer;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.After;
@@ -22,6 +25,7 @@ public class LogEntryTest {
     @After
     public void tearDown() {
         Serializers.clearCustomSerializers();
+        MultiObjectSMREntry.setLengthPrefixEnabled(false);
     }
 
     @Test
@@ -51,6 +55,57 @@ public class LogEntryTest {
         assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
     }
 
+    @Test
+    public void serializeSMRMethodId() {
+        // Methods of the object type are logged with their id once enabled, other methods with their name
+        final String objectMethod = "objectLogEntryTestMethod";
+        final String otherMethod = "otherLogEntryTestMethod";
+        SMRMethodIds methodIds = new SMRMethodIds(objectMethod);
+
+        SMREntry byId = new SMREntry(objectMethod, new Object[]{"arg1"}, Serializers.PRIMITIVE, methodIds);
+        SMREntry byName = new SMREntry(otherMethod, new Object[]{"arg1"}, Serializers.PRIMITIVE, methodIds);
+
+        ByteBuf defaultBuf = Unpooled.buffer();
+        Serializers.CORFU.serialize(byId, defaultBuf);
+        ByteBuf idBuf = Unpooled.buffer();
+        ByteBuf nameBuf = Unpooled.buffer();
+        SMREntry.setMethodIdsEnabled(true);
+        try {
+            Serializers.CORFU.serialize(byId, idBuf);
+            Serializers.CORFU.serialize(byName, nameBuf);
+        } finally {
+            SMREntry.setMethodIdsEnabled(false);
+        }
+        assertThat(idBuf.readableBytes())
+                .isEqualTo(defaultBuf.readableBytes() - objectMethod.length() + Integer.BYTES);
+        assertThat(nameBuf.readableBytes()).isEqualTo(defaultBuf.readableBytes()
+                - objectMethod.length() + otherMethod.length());
+
+        // The name of an entry logged by id is resolved through the type of its object
+        SMREntry recoveredById = (SMREntry) Serializers.CORFU.deserialize(idBuf, null);
+        assertThat(recoveredById).isEqualTo(byId);
+        assertThatThrownBy(recoveredById::getSMRMethod).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> recoveredById.resolveSMRMethod(new SMRMethodIds(otherMethod)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(recoveredById.resolveSMRMethod(methodIds).getSMRMethod()).isEqualTo(objectMethod);
+        assertThat(recoveredById.getSMRMethodId()).isEqualTo(SMRMethodIds.getId(objectMethod));
+
+        SMREntry recoveredByName = (SMREntry) Serializers.CORFU.deserialize(nameBuf, null);
+        assertThat(recoveredByName).isEqualTo(byName);
+        assertThat(recoveredByName.getSMRMethod()).isEqualTo(otherMethod);
+        assertThat(recoveredByName.getSMRMethodId()).isEqualTo(SMRMethodIds.getId(otherMethod));
+    }
+
+    @Test
+    public void smrMethodIdsOfType() {
+        // The ids of an object type come from its generated wrapper
+        SMRMethodIds methodIds = SMRMethodIds.of(CorfuTable.class);
+        assertThat(methodIds.contains("put")).isTrue();
+        assertThat(methodIds.getName(SMRMethodIds.getId("put"))).isEqualTo("put");
+        assertThat(SMRMethodIds.of(String.class)).isSameAs(SMRMethodIds.NONE);
+        assertThat(SMRMethodIds.NONE.contains("put")).isFalse();
+    }
+
     @Test
     public void seekToEndMultiSMREntry() {
         // Create a buffer with two serialized MultiSMR entries
@@ -84,6 +139,62 @@ public class LogEntryTest {
         assertThat(buf.readerIndex()).isEqualTo(buf.writerIndex());
     }
 
+    @Test
+    public void deserializeMultiObjectSMREntryWithoutLengths() {
+        // Entries serialized before the stream payloads were prefixed by their length
+        // are still deserialized
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        SMREntry update1 = new SMREntry("method1", new Object[]{"arg1"}, Serializers.PRIMITIVE);
+        SMREntry update2 = new SMREntry("method2", new Object[]{"arg2"}, Serializers.PRIMITIVE);
+
+        ByteBuf buf = Unpooled.buffer();
+        buf.writeByte(LogEntry.LogEntryType.MULTIOBJSMR.asByte());
+        buf.writeInt(2);
+        for (Map.Entry<UUID, SMREntry> update : ImmutableMap.of(id1, update1, id2, update2).entrySet()) {
+            buf.writeLong(update.getKey().getMostSignificantBits());
+            buf.writeLong(update.getKey().getLeastSignificantBits());
+            Serializers.CORFU.serialize(new MultiSMREntry(Arrays.asList(update.getValue())), buf);
+        }
+
+        MultiObjectSMREntry deserializedEntry = (MultiObjectSMREntry) LogEntry.deserialize(buf, null);
+        assertThat(buf.isReadable()).isFalse();
+        assertThat(deserializedEntry.getStreamBuffers()).containsOnlyKeys(id1, id2);
+        assertThat(deserializedEntry.getSMRUpdates(id2)).containsExactly(update2);
+        assertThat(deserializedEntry.getSMRUpdates(id1)).containsExactly(update1);
+    }
+
+    @Test
+    public void serializeMultiObjectSMREntryWithLengths() {
+        UUID id1 = UUID.randomUUID();
+        UUID id2 = UUID.randomUUID();
+        SMREntry update1 = new SMREntry("method1", new Object[]{"arg1"}, Serializers.PRIMITIVE);
+        SMREntry update2 = new SMREntry("method2", new Object[]{"arg2"}, Serializers.PRIMITIVE);
+        MultiObjectSMREntry entry = new MultiObjectSMREntry();
+        entry.addTo(id1, update1);
+        entry.addTo(id2, update2);
+
+        // By default the entry is serialized in the format older clients read
+        ByteBuf withoutLengths = Unpooled.buffer();
+        entry.serialize(withoutLengths);
+        assertThat(withoutLengths.getInt(Byte.BYTES)).isEqualTo(2);
+
+        MultiObjectSMREntry.setLengthPrefixEnabled(true);
+        ByteBuf withLengths = Unpooled.buffer();
+        entry.serialize(withLengths);
+        assertThat(withLengths.getInt(Byte.BYTES)).isEqualTo(-1 - 2);
+        assertThat(withLengths.readableBytes())
+                .isEqualTo(withoutLengths.readableBytes() + 2 * Integer.BYTES);
+
+        // Both formats are read regardless of the setting
+        for (ByteBuf buf : Arrays.asList(withoutLengths, withLengths)) {
+            MultiObjectSMREntry deserializedEntry = (MultiObjectSMREntry) LogEntry.deserialize(buf, null);
+            assertThat(buf.isReadable()).isFalse();
+            assertThat(deserializedEntry.getSMRUpdates(id2)).containsExactly(update2);
+            assertThat(deserializedEntry.getSMRUpdates(id1)).containsExactly(update1);
+        }
+    }
+
     @Test
     public void testLazyDeserialization() {
         // This tests exercises the lazy deserialization functionality provided by
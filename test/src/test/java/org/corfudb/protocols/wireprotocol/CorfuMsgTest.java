@@ -0,0 +1,77 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CorfuMsgTest {
+
+    private static final int TIMEOUT = 5000;
+
+    private static final int TIMEOUT_LENGTH = 4;
+
+    @After
+    public void resetDeadlines() {
+        CorfuMsg.setDeadlinesEnabled(false);
+    }
+
+    private CorfuMsg newMsg() {
+        CorfuMsg msg = new CorfuMsg(CorfuMsgType.PING);
+        msg.setClientID(UUID.randomUUID());
+        msg.setClusterID(UUID.randomUUID());
+        msg.setRequestID(1L);
+        msg.setEpoch(2L);
+        msg.setTimeout(TIMEOUT);
+        return msg;
+    }
+
+    /**
+     * Without deadlines enabled the timeout is not sent and the header keeps the
+     * format older peers can parse.
+     */
+    @Test
+    public void headerUnchangedWithoutDeadlines() {
+        ByteBuf withoutDeadline = Unpooled.buffer();
+        newMsg().serialize(withoutDeadline);
+        assertThat(withoutDeadline.getInt(0)).isEqualTo(CorfuMsg.markerField);
+
+        CorfuMsg msg = CorfuMsg.deserialize(withoutDeadline);
+        assertThat(msg.getTimeout()).isZero();
+        assertThat(msg.getRequestID()).isEqualTo(1L);
+        assertThat(msg.getEpoch()).isEqualTo(2L);
+        assertThat(msg.getMsgType()).isEqualTo(CorfuMsgType.PING);
+    }
+
+    /**
+     * With deadlines enabled the timeout is carried in an extended header.
+     */
+    @Test
+    public void timeoutSentWithDeadlines() {
+        ByteBuf withoutDeadline = Unpooled.buffer();
+        newMsg().serialize(withoutDeadline);
+
+        CorfuMsg.setDeadlinesEnabled(true);
+        ByteBuf withDeadline = Unpooled.buffer();
+        CorfuMsg sent = newMsg();
+        sent.serialize(withDeadline);
+        assertThat(withDeadline.getInt(0)).isEqualTo(CorfuMsg.deadlineMarkerField);
+        assertThat(withDeadline.readableBytes())
+                .isEqualTo(withoutDeadline.readableBytes() + TIMEOUT_LENGTH);
+
+        // A reader decodes both formats regardless of its own setting.
+        CorfuMsg.setDeadlinesEnabled(false);
+        CorfuMsg msg = CorfuMsg.deserialize(withDeadline);
+        assertThat(msg.getTimeout()).isEqualTo(TIMEOUT);
+        assertThat(msg.getClientID()).isEqualTo(sent.getClientID());
+        assertThat(msg.getMsgType()).isEqualTo(CorfuMsgType.PING);
+
+        CorfuMsg response = new CorfuMsg(CorfuMsgType.PONG);
+        response.copyBaseFields(msg);
+        assertThat(response.getTimeout()).isEqualTo(TIMEOUT);
+    }
+}
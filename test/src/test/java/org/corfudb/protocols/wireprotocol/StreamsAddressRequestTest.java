@@ -0,0 +1,61 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamsAddressRequestTest {
+
+    private static final UUID STREAM = UUID.randomUUID();
+
+    private static final long START = 10L;
+
+    private static final long END = 2L;
+
+    private static final int LIMIT = 3;
+
+    private static StreamsAddressRequest roundTrip(StreamsAddressRequest request) {
+        ByteBuf buf = Unpooled.buffer();
+        request.doSerialize(buf);
+        StreamsAddressRequest result = new StreamsAddressRequest(buf);
+        assertThat(buf.isReadable()).isFalse();
+        return result;
+    }
+
+    /**
+     * Ranges without limits keep the encoding older sequencers can parse.
+     */
+    @Test
+    public void rangesWithoutLimitsKeepTheirEncoding() {
+        StreamsAddressRequest request = new StreamsAddressRequest(
+                Collections.singletonList(new StreamAddressRange(STREAM, START, END)));
+        assertThat(request.getReqType()).isEqualTo(StreamsAddressRequest.STREAMS);
+
+        ByteBuf buf = Unpooled.buffer();
+        request.doSerialize(buf);
+        ByteBuf legacy = Unpooled.buffer();
+        ICorfuPayload.serialize(legacy, StreamsAddressRequest.STREAMS);
+        ICorfuPayload.serialize(legacy, request.getStreamsRanges());
+        assertThat(buf).isEqualTo(legacy);
+
+        assertThat(roundTrip(request)).isEqualTo(request);
+    }
+
+    /**
+     * Limits are sent in their own request type, after the ranges.
+     */
+    @Test
+    public void rangesWithLimits() {
+        StreamsAddressRequest request = new StreamsAddressRequest(Arrays.asList(
+                new StreamAddressRange(STREAM, START, END, LIMIT),
+                new StreamAddressRange(UUID.randomUUID(), START, END)));
+        assertThat(request.getReqType()).isEqualTo(StreamsAddressRequest.STREAMS_WITH_LIMITS);
+        assertThat(roundTrip(request)).isEqualTo(request);
+    }
+}
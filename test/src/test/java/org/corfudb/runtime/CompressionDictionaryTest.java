@@ -0,0 +1,117 @@
+package org.corfudb.runtime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.corfudb.common.compression.Codec;
+import org.corfudb.common.compression.CompressionDictionaries;
+import org.corfudb.common.compression.CompressionDictionary;
+import org.corfudb.common.compression.ZSTDDictionaryCompression;
+import org.corfudb.runtime.view.AbstractViewTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tests the compression of the payloads with trained dictionaries.
+ */
+public class CompressionDictionaryTest extends AbstractViewTest {
+
+    private static final int NUM_RECORDS = 1000;
+    private static final int DICTIONARY_SIZE = 4096;
+
+    @Before
+    public void initialize() {
+        addSingleServer(SERVERS.PORT_0);
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private byte[] record(int i) {
+        return String.format("{\"namespace\":\"manager\",\"table\":\"FirewallRules\",\"id\":%d,"
+                + "\"action\":\"ALLOW\",\"source\":\"10.0.%d.%d\",\"destination\":\"10.1.%d.%d\","
+                + "\"ports\":[80,443,%d],\"enabled\":true,\"description\":\"rule number %d\"}",
+                i, i % 256, i % 7, i % 128, i % 5, i, i).getBytes();
+    }
+
+    @Test
+    public void trainAndCompressWithDictionary() {
+        CorfuRuntime rt = getDefaultRuntime();
+        rt.getParameters().setCodecType(Codec.Type.ZSTD_DICT);
+        rt.connect();
+        UUID streamId = CorfuRuntime.getStreamID("table");
+
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            rt.getStreamsView().append(record(i), null, streamId);
+        }
+
+        CompressionDictionary dictionary = rt.getCompressionDictionaryStore()
+                .train(streamId, NUM_RECORDS, DICTIONARY_SIZE);
+        assertThat(CompressionDictionaries.forStreams(Collections.singleton(streamId)))
+                .contains(dictionary);
+
+        // Writes to the stream are now compressed with the dictionary
+        long address = rt.getStreamsView().append(record(NUM_RECORDS), null, streamId);
+        assertThat(dictionary.getCompressedBytes()).isGreaterThan(0L);
+        assertThat(dictionary.getCompressionRatio()).isGreaterThan(1.0);
+
+        rt.getAddressSpaceView().invalidateServerCaches();
+        rt.getAddressSpaceView().invalidateClientCache();
+        assertThat(rt.getAddressSpaceView().read(address).getPayload(rt)).isEqualTo(record(NUM_RECORDS));
+
+        // The dictionary is published, so refreshing the dictionaries loads the same dictionary
+        rt.getCompressionDictionaryStore().refresh();
+        assertThat(CompressionDictionaries.get(dictionary.getId())).contains(dictionary);
+    }
+
+    private CompressionDictionary train(int first) {
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = first; i < first + NUM_RECORDS; i++) {
+            samples.add(record(i));
+        }
+        return CompressionDictionary.train(samples, DICTIONARY_SIZE);
+    }
+
+    @Test
+    public void compressDirectBuffersWithDictionary() {
+        CompressionDictionary dictionary = CompressionDictionaries.register(train(0));
+        ZSTDDictionaryCompression codec = new ZSTDDictionaryCompression(Optional.of(dictionary));
+
+        byte[] payload = record(NUM_RECORDS);
+        ByteBuffer uncompressed = ByteBuffer.allocateDirect(payload.length);
+        uncompressed.put(payload).flip();
+
+        ByteBuffer compressed = codec.compress(uncompressed);
+        ByteBuffer directCompressed = ByteBuffer.allocateDirect(compressed.remaining());
+        directCompressed.put(compressed).flip();
+        assertThat(ZSTDDictionaryCompression.getDictionaryId(directCompressed)).isEqualTo(dictionary.getId());
+
+        ByteBuffer restored = codec.decompress(directCompressed);
+        byte[] restoredBytes = new byte[restored.remaining()];
+        restored.get(restoredBytes);
+        assertThat(restoredBytes).isEqualTo(payload);
+    }
+
+    @Test
+    public void dictionaryOfSeveralStreamsIsDeterministic() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        CompressionDictionary firstDictionary = train(0);
+        CompressionDictionary secondDictionary = train(NUM_RECORDS);
+        CompressionDictionaries.assign(first, firstDictionary);
+        CompressionDictionaries.assign(second, secondDictionary);
+
+        // Dictionaries are registered by content, compare their ids
+        int expected = (first.compareTo(second) < 0 ? firstDictionary : secondDictionary).getId();
+        assertThat(CompressionDictionaries.forStreams(new LinkedHashSet<>(Arrays.asList(first, second)))
+                .map(CompressionDictionary::getId)).contains(expected);
+        assertThat(CompressionDictionaries.forStreams(new LinkedHashSet<>(Arrays.asList(second, first)))
+                .map(CompressionDictionary::getId)).contains(expected);
+    }
+}
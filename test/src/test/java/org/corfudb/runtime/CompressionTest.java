@@ -2,6 +2,11 @@ package org.corfudb.runtime;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.io.ByteStreams;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.corfudb.common.compression.Codec;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.runtime.view.AbstractViewTest;
@@ -10,9 +15,16 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -126,4 +138,66 @@ public class CompressionTest extends AbstractViewTest {
         CorfuRuntime readerRt = getRuntimeWithCodec(codec);
         addresses.forEach(address -> assertThat(read(readerRt, address)).isEqualTo(DEFAULT_PAYLOAD));
     }
+
+    /**
+     * Validate that payloads compressed between heap and direct buffers are decompressed
+     * correctly, and in the same format as the ByteBuffer codec methods. The payload is
+     * compressed after a header, into pooled buffers which share their memory.
+     */
+    @Test
+    public void testByteBufCompression() {
+        final int payloadSize = 64 * 1024;
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % Byte.MAX_VALUE);
+        }
+
+        Codec codecInstance = codec.getInstance();
+        List<Supplier<ByteBuf>> allocators = Arrays.asList(Unpooled::buffer, Unpooled::directBuffer,
+                PooledByteBufAllocator.DEFAULT::heapBuffer, PooledByteBufAllocator.DEFAULT::directBuffer);
+
+        for (Supplier<ByteBuf> compressedAllocator : allocators) {
+            for (Supplier<ByteBuf> uncompressedAllocator : allocators) {
+                ByteBuf compressed = compressedAllocator.get().writeInt(payloadSize);
+                ByteBuf uncompressed = uncompressedAllocator.get().writeBytes(payload);
+                codecInstance.compress(uncompressed, compressed);
+                assertThat(uncompressed.isReadable()).isFalse();
+                assertThat(compressed.readInt()).isEqualTo(payloadSize);
+
+                // The compressed bytes can be decoded by the ByteBuffer methods
+                ByteBuffer restored = codecInstance.decompress(
+                        ByteBuffer.wrap(ByteBufUtil.getBytes(compressed)));
+                assertThat(ByteBufUtil.getBytes(Unpooled.wrappedBuffer(restored))).isEqualTo(payload);
+
+                uncompressed.clear();
+                codecInstance.decompress(compressed, uncompressed);
+                assertThat(ByteBufUtil.getBytes(uncompressed)).isEqualTo(payload);
+
+                compressed.release();
+                uncompressed.release();
+            }
+        }
+    }
+
+    /**
+     * Validate that a payload compressed as a stream is restored.
+     */
+    @Test
+    public void testStreamingCompression() throws Exception {
+        final int payloadSize = 4 * 1024 * 1024;
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % Byte.MAX_VALUE);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream compressing = codec.getInstance().compressingStream(out)) {
+            compressing.write(payload);
+        }
+
+        try (InputStream decompressing = codec.getInstance()
+                .decompressingStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThat(ByteStreams.toByteArray(decompressing)).isEqualTo(payload);
+        }
+    }
 }
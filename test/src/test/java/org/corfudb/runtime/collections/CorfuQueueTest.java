@@ -3,14 +3,21 @@ package org.corfudb.runtime.collections;
 import com.google.common.primitives.UnsignedBytes;
 import lombok.Getter;
 import org.corfudb.runtime.collections.CorfuQueue.CorfuQueueRecord;
+import org.corfudb.runtime.collections.CorfuQueue.CorfuRecordId;
 import org.corfudb.runtime.view.AbstractViewTest;
 import org.corfudb.util.serializer.Serializers;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Created by Sundar Sridharan on May 22, 2019
@@ -81,6 +88,93 @@ public class CorfuQueueTest extends AbstractViewTest {
         assertThat(recAfter.size()).isEqualTo(records.size() - 1);
     }
 
+    @Test
+    public void entryListPaging() {
+        CorfuQueue<Integer> corfuQueue = new CorfuQueue<>(getDefaultRuntime(), "test");
+
+        final int numEntries = 100;
+        final int pageSize = 7;
+        for (int i = 0; i < numEntries; i++) {
+            corfuQueue.enqueue(i);
+        }
+
+        // Walk the queue page by page, every page starts where the previous one ended
+        List<Integer> entries = new ArrayList<>();
+        List<CorfuQueueRecord<Integer>> page = corfuQueue.entryList(pageSize);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(pageSize);
+            page.forEach(record -> entries.add(record.getEntry()));
+            page = corfuQueue.entryList(page.get(page.size() - 1).getRecordId(), pageSize);
+        }
+
+        assertThat(entries).isEqualTo(IntStream.range(0, numEntries).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void batchedDequeue() {
+        CorfuQueue<String> corfuQueue = new CorfuQueue<>(getDefaultRuntime(), "test");
+
+        corfuQueue.enqueue("c");
+        corfuQueue.enqueue("b");
+        corfuQueue.enqueue("a");
+
+        final int batchSize = 2;
+        List<CorfuQueueRecord<String>> records = corfuQueue.dequeue(batchSize);
+        assertThat(records).extracting(CorfuQueueRecord::getEntry).containsExactly("c", "b");
+        assertThat(corfuQueue.size()).isEqualTo(1);
+        assertThat(corfuQueue.containsKey(records.get(0).getRecordId())).isFalse();
+
+        assertThat(corfuQueue.dequeue(batchSize)).extracting(CorfuQueueRecord::getEntry).containsExactly("a");
+        assertThat(corfuQueue.dequeue(batchSize)).isEmpty();
+        assertThat(corfuQueue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void takeWakesUpOnEnqueue() throws Exception {
+        CorfuQueue<String> corfuQueue = new CorfuQueue<>(getDefaultRuntime(), "test");
+        final int batchSize = 2;
+
+        // Nothing to take
+        assertThat(corfuQueue.take(batchSize, Duration.ZERO)).isEmpty();
+
+        CompletableFuture<List<CorfuQueueRecord<String>>> taken = CompletableFuture.supplyAsync(() ->
+                corfuQueue.take(batchSize, PARAMETERS.TIMEOUT_LONG));
+
+        // Let the consumer block on the queue tail before enqueuing
+        TimeUnit.MILLISECONDS.sleep(PARAMETERS.TIMEOUT_VERY_SHORT.toMillis());
+        assertThat(taken.isDone()).isFalse();
+
+        final long enqueued = System.nanoTime();
+        corfuQueue.enqueue("a");
+
+        assertThat(taken.get(PARAMETERS.TIMEOUT_LONG.toMillis(), TimeUnit.MILLISECONDS))
+                .extracting(CorfuQueueRecord::getEntry)
+                .containsExactly("a");
+        // The consumer is woken up by the enqueue, well before its wait on the tail times out
+        assertThat(Duration.ofNanos(System.nanoTime() - enqueued)).isLessThan(PARAMETERS.TIMEOUT_NORMAL);
+        assertThat(corfuQueue.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void recordIdMapOrderIsStable() {
+        CorfuQueue.RecordIdMap<String> map = new CorfuQueue.RecordIdMap<>();
+        CorfuRecordId first = new CorfuRecordId(0, 1);
+        CorfuRecordId second = new CorfuRecordId(0, 2);
+        map.put(first, "first");
+        map.put(second, "second");
+
+        // The txSequence of a transactional enqueue is only set on commit
+        final long commitAddress = 10;
+        first.setTxSequence(commitAddress);
+
+        assertThat(map.get(first)).isEqualTo("first");
+        assertThat(map.remove(first)).isEqualTo("first");
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.tailEntries(new CorfuRecordId(0, 0), Integer.MAX_VALUE))
+                .extracting(Map.Entry::getValue)
+                .containsExactly("second");
+    }
+
     @Test
     public void byteArraylexComparatorCheck() {
         class ByteArray implements Comparable<ByteArray>{
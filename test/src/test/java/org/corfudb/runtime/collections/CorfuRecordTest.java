@@ -0,0 +1,93 @@
+package org.corfudb.runtime.collections;
+
+import com.google.protobuf.Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.corfudb.test.SampleSchema.EventInfo;
+import org.corfudb.test.SampleSchema.ManagedResources;
+import org.corfudb.util.serializer.ProtobufSerializer;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.corfudb.runtime.view.TableRegistry.getTypeUrl;
+
+/**
+ * Tests the lazy decoding of {@link CorfuRecord}s read from the log.
+ */
+public class CorfuRecordTest {
+
+    private final EventInfo payload = EventInfo.newBuilder()
+            .setId(1)
+            .setName("event_1")
+            .setEventTime(1L)
+            .build();
+
+    private final ManagedResources metadata = ManagedResources.newBuilder()
+            .setCreateUser("MrProto")
+            .build();
+
+    private CorfuRecord<EventInfo, ManagedResources> roundTrip(CorfuRecord<EventInfo, ManagedResources> record) {
+        Map<String, Class<? extends Message>> classMap = new HashMap<>();
+        classMap.put(getTypeUrl(EventInfo.getDescriptor()), EventInfo.class);
+        classMap.put(getTypeUrl(ManagedResources.getDescriptor()), ManagedResources.class);
+        ProtobufSerializer serializer = new ProtobufSerializer(classMap);
+
+        ByteBuf buf = Unpooled.buffer();
+        serializer.serialize(record, buf);
+        return (CorfuRecord<EventInfo, ManagedResources>) serializer.deserialize(buf, null);
+    }
+
+    /**
+     * Ensure that a deserialized record only decodes the parts which are accessed.
+     */
+    @Test
+    public void decodesOnAccess() {
+        CorfuRecord<EventInfo, ManagedResources> record = roundTrip(new CorfuRecord<>(payload, metadata));
+
+        assertThat(record.isPayloadDecoded()).isFalse();
+        assertThat(record.isMetadataDecoded()).isFalse();
+        assertThat(record.getDecodedSize()).isZero();
+
+        assertThat(record.getMetadata()).isEqualTo(metadata);
+        assertThat(record.isPayloadDecoded()).isFalse();
+        assertThat(record.getDecodedSize()).isEqualTo(metadata.getSerializedSize());
+
+        assertThat(record.getPayload()).isEqualTo(payload);
+        assertThat(record.getDecodedSize())
+                .isEqualTo(payload.getSerializedSize() + metadata.getSerializedSize());
+        assertThat(record).isEqualTo(new CorfuRecord<>(payload, metadata));
+    }
+
+    /**
+     * Ensure that serializing a lazy record does not decode it and preserves its content.
+     */
+    @Test
+    public void reserializeWithoutDecoding() {
+        CorfuRecord<EventInfo, ManagedResources> record = roundTrip(new CorfuRecord<>(payload, null));
+        CorfuRecord<EventInfo, ManagedResources> copy = roundTrip(record);
+
+        assertThat(record.isPayloadDecoded()).isFalse();
+        assertThat(copy.getMetadata()).isNull();
+        assertThat(copy.getPayload()).isEqualTo(payload);
+    }
+
+    /**
+     * Ensure that query metrics account for scanned and decoded bytes separately.
+     */
+    @Test
+    public void queryMetricsAccounting() {
+        CorfuRecord<EventInfo, ManagedResources> record = roundTrip(new CorfuRecord<>(payload, metadata));
+        QueryMetrics queryMetrics = new QueryMetrics();
+
+        queryMetrics.scan(record, () -> true);
+        assertThat(queryMetrics.getBytesScanned())
+                .isEqualTo(payload.getSerializedSize() + metadata.getSerializedSize());
+        assertThat(queryMetrics.getBytesDecoded()).isZero();
+
+        queryMetrics.decode(record, record::getPayload);
+        assertThat(queryMetrics.getBytesDecoded()).isEqualTo(payload.getSerializedSize());
+    }
+}
@@ -18,12 +18,16 @@ import org.corfudb.test.SampleSchema.EventInfo;
 import org.corfudb.test.SampleSchema.Uuid;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -160,6 +164,81 @@ public class CorfuStoreTest extends AbstractViewTest {
 
     }
 
+    /**
+     * Commits many transaction builders from the same thread without waiting for each of them.
+     */
+    @Test
+    public void commitAsyncTest() throws Exception {
+        CorfuStore corfuStore = new CorfuStore(getDefaultRuntime());
+        final String nsxManager = "nsx-manager";
+        final String tableName = "EventInfo";
+        corfuStore.openTable(nsxManager, tableName,
+                Uuid.class, EventInfo.class, ManagedResources.class,
+                TableOptions.builder().build());
+
+        final int count = PARAMETERS.NUM_ITERATIONS_LOW;
+        ManagedResources metadata = ManagedResources.newBuilder().setCreateUser("MrProto").build();
+        List<CompletableFuture<Void>> commits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            commits.add(corfuStore.tx(nsxManager)
+                    .update(tableName,
+                            Uuid.newBuilder().setMsb(i).setLsb(i).build(),
+                            EventInfo.newBuilder().setId(i).setName("event_" + i).build(),
+                            metadata)
+                    .commitAsync());
+        }
+        commits.forEach(CompletableFuture::join);
+
+        assertThat(corfuStore.query(nsxManager).count(tableName)).isEqualTo(count);
+    }
+
+    /**
+     * Fetches many records at one snapshot, and shares the snapshot of consecutive reads.
+     */
+    @Test
+    public void multiGetAndSnapshotReuseTest() throws Exception {
+        CorfuStore corfuStore = new CorfuStore(getDefaultRuntime());
+        final String nsxManager = "nsx-manager";
+        final String tableName = "EventInfo";
+        corfuStore.openTable(nsxManager, tableName,
+                Uuid.class, EventInfo.class, ManagedResources.class,
+                TableOptions.builder().build());
+
+        ManagedResources metadata = ManagedResources.newBuilder().setCreateUser("MrProto").build();
+        Uuid key1 = Uuid.newBuilder().setMsb(1L).setLsb(1L).build();
+        Uuid key2 = Uuid.newBuilder().setMsb(2L).setLsb(2L).build();
+        final long thirdKey = 3L;
+        Uuid key3 = Uuid.newBuilder().setMsb(thirdKey).setLsb(thirdKey).build();
+        EventInfo value1 = EventInfo.newBuilder().setName("event_1").build();
+        EventInfo value2 = EventInfo.newBuilder().setName("event_2").build();
+        corfuStore.tx(nsxManager)
+                .create(tableName, key1, value1, metadata)
+                .create(tableName, key2, value2, metadata)
+                .commit();
+
+        Query q = corfuStore.query(nsxManager);
+        Map<Uuid, CorfuRecord<EventInfo, ManagedResources>> records =
+                q.multiGet(tableName, null, Arrays.asList(key1, key2, key3));
+        assertThat(records).containsOnlyKeys(key1, key2);
+        assertThat(records.get(key1).getPayload()).isEqualTo(value1);
+        assertThat(records.get(key2).getPayload()).isEqualTo(value2);
+
+        Map<String, Map<Message, CorfuRecord<Message, Message>>> recordsByTable =
+                q.multiGet(null, Collections.singletonMap(tableName, Arrays.asList(key1, key3)));
+        assertThat(recordsByTable.get(tableName)).containsOnlyKeys(key1);
+
+        // The reads share the snapshot of the first one until it is older than the bound.
+        Query reusingQuery = corfuStore.query(nsxManager, Duration.ofHours(1));
+        assertThat(reusingQuery.count(tableName)).isEqualTo(2);
+        corfuStore.tx(nsxManager)
+                .create(tableName, key3, EventInfo.newBuilder().setName("event_3").build(), metadata)
+                .commit();
+        assertThat(reusingQuery.count(tableName)).isEqualTo(2);
+        final int newCount = 3;
+        assertThat(reusingQuery.count(tableName, corfuStore.getTimestamp())).isEqualTo(newCount);
+        assertThat(q.count(tableName)).isEqualTo(newCount);
+    }
+
     /**
      * CorfuStore stores 3 pieces of information - key, value and metadata
      * This test demonstrates how metadata field options esp "version" can be used and verified.
@@ -120,7 +120,7 @@ public class CorfuQueueTxTest extends AbstractTransactionsTest {
         assertThat(validator.size()).isEqualTo(records.size());
 
         // Also validate that the order of the queue matches that of the commit order.
-        CorfuRecordId testOrder = new CorfuRecordId(0,0);
+        CorfuRecordId testOrder = new CorfuRecordId(Long.MIN_VALUE, Long.MIN_VALUE);
         for (int i = 0; i < validator.size(); i++) {
             log.debug("Entry:" + records.get(i).getRecordId());
             CorfuRecordId order = records.get(i).getRecordId();
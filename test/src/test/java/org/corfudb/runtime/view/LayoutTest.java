@@ -4,13 +4,24 @@ import groovy.util.logging.Slf4j;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
 import static java.lang.reflect.Modifier.TRANSIENT;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.corfudb.runtime.view.Layout.LayoutSegment;
+import org.corfudb.runtime.view.Layout.LayoutStripe;
+import org.corfudb.runtime.view.Layout.ReplicationMode;
 
 
 /**
@@ -83,4 +94,81 @@ public class LayoutTest {
         Layout shouldYieldException = Layout.fromJSONString(JSONEmptySequencerListLayout);
     }
 
+    private Layout getSegmentedLayout() {
+        final long segmentSize = 100;
+        final int numSegments = 5;
+        List<LayoutSegment> segments = new ArrayList<>();
+        for (int i = 0; i < numSegments; i++) {
+            long end = i == numSegments - 1 ? -1 : (i + 1) * segmentSize;
+            segments.add(new LayoutSegment(ReplicationMode.CHAIN_REPLICATION, i * segmentSize, end,
+                    Collections.singletonList(new LayoutStripe(
+                            new ArrayList<>(Collections.singletonList("localhost:900" + i))))));
+        }
+        List<String> servers = new ArrayList<>(Arrays.asList("localhost:9000", "localhost:9001"));
+        return new Layout(servers, new ArrayList<>(servers), segments, 1L, UUID.randomUUID());
+    }
+
+    @Test
+    public void binaryEncodingRoundTrip() throws IOException {
+        Layout layout = getSegmentedLayout();
+        layout.getUnresponsiveServers().add("localhost:9001");
+        Layout jsonLayout = Layout.fromJSONString(getResourceJSONFileAsString("DefaultLayout.json"));
+
+        // Layouts are encoded as JSON unless the binary encoding is enabled
+        assertThat(layout.asBytes()).isEqualTo(layout.asJSONString().getBytes(StandardCharsets.UTF_8));
+        assertThat(Layout.fromBytes(layout.asBytes())).isEqualTo(layout);
+
+        Layout.setBinaryEncoding(true);
+        try {
+            assertThat(layout.asBytes()).isNotEqualTo(layout.asJSONString().getBytes(StandardCharsets.UTF_8));
+            assertThat(Layout.fromBytes(layout.asBytes())).isEqualTo(layout);
+
+            // Layouts without a cluster id, and layouts encoded as JSON, are decoded as well
+            assertThat(Layout.fromBytes(jsonLayout.asBytes())).isEqualTo(jsonLayout);
+            assertThat(Layout.fromBytes(jsonLayout.asJSONString().getBytes(StandardCharsets.UTF_8)))
+                    .isEqualTo(jsonLayout);
+        } finally {
+            Layout.setBinaryEncoding(false);
+        }
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        Layout layout = getSegmentedLayout();
+        Layout copy = new Layout(layout);
+        assertThat(copy).isEqualTo(layout);
+
+        copy.getSegments().get(0).getStripes().get(0).getLogServers().add("localhost:9010");
+        copy.getSegments().remove(0);
+        copy.nextEpoch();
+        assertThat(layout.getSegments()).hasSize(getSegmentedLayout().getSegments().size());
+        assertThat(layout.getSegments().get(0).getStripes().get(0).getLogServers())
+                .containsExactly("localhost:9000");
+        assertThat(layout.getEpoch()).isEqualTo(1L);
+    }
+
+    @Test
+    public void routesAddressesToSegments() {
+        Layout layout = getSegmentedLayout();
+        final long secondSegmentStart = 100;
+        final long lastSegmentStart = 400;
+        final long farAddress = 10_000;
+        assertThat(layout.getSegment(0L).getStart()).isEqualTo(0L);
+        assertThat(layout.getSegment(secondSegmentStart - 1).getStart()).isEqualTo(0L);
+        assertThat(layout.getSegment(secondSegmentStart).getStart()).isEqualTo(secondSegmentStart);
+        assertThat(layout.getSegment(farAddress).getStart()).isEqualTo(lastSegmentStart);
+        assertThat(layout.getStripe(farAddress).getLogServers()).containsExactly("localhost:9004");
+        assertThat(layout.getReplicationMode(-1L)).isNull();
+        assertThatThrownBy(() -> layout.getSegment(-1L)).isInstanceOf(RuntimeException.class);
+
+        // Segments modified in place are routed to as well
+        final long mergedEnd = 200;
+        LayoutSegment merged = new LayoutSegment(ReplicationMode.CHAIN_REPLICATION, 0L, mergedEnd,
+                layout.getSegments().get(1).getStripes());
+        layout.getSegments().remove(1);
+        layout.getSegments().set(0, merged);
+        assertThat(layout.getSegment(mergedEnd - 1)).isSameAs(merged);
+        assertThat(layout.getSegment(farAddress).getStart()).isEqualTo(lastSegmentStart);
+    }
+
 }
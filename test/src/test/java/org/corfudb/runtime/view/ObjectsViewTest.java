@@ -4,9 +4,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.google.common.reflect.TypeToken;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
 import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
@@ -114,6 +118,63 @@ public class ObjectsViewTest extends AbstractViewTest {
         assertThat((String) args[1]).isEqualTo("v2");
     }
 
+    @Test
+    public void asyncCommitsArePipelined() {
+        CorfuRuntime r = getDefaultRuntime();
+        final int numTransactions = PARAMETERS.NUM_ITERATIONS_LOW;
+
+        Map<String, String> map = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<CorfuTable<String, String>>() {})
+                .open();
+
+        // Start all the commits from the same thread without waiting for them
+        List<CompletableFuture<Long>> commits = new ArrayList<>();
+        for (int i = 0; i < numTransactions; i++) {
+            r.getObjectsView().TXBegin();
+            map.put(String.valueOf(i), String.valueOf(i));
+            commits.add(r.getObjectsView().TXEndAsync());
+            assertThat(r.getObjectsView().TXActive()).isFalse();
+        }
+
+        List<Long> addresses = commits.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+        assertThat(addresses).doesNotHaveDuplicates()
+                .allMatch(Address::isAddress);
+        for (int i = 0; i < numTransactions; i++) {
+            assertThat(map).containsEntry(String.valueOf(i), String.valueOf(i));
+        }
+    }
+
+    @Test
+    public void asyncCommitAborts() {
+        CorfuRuntime r = getDefaultRuntime();
+
+        Map<String, String> map = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<CorfuTable<String, String>>() {})
+                .open();
+
+        r.getObjectsView().TXBegin();
+        map.get("k");
+        // Commit a conflicting transaction from another thread, non-transactional
+        // writes do not register conflict keys with the sequencer
+        CompletableFuture.runAsync(() -> {
+            r.getObjectsView().TXBegin();
+            map.put("k", "v2");
+            r.getObjectsView().TXEnd();
+        }).join();
+        map.put("k", "v1");
+        CompletableFuture<Long> commit = r.getObjectsView().TXEndAsync();
+
+        assertThatThrownBy(commit::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TransactionAbortedException.class);
+        assertThat(r.getObjectsView().TXActive()).isFalse();
+        assertThat(map).containsEntry("k", "v2");
+    }
+
     @Test
     public void incorrectNestingTest() {
         CorfuRuntime r1 = getDefaultRuntime();
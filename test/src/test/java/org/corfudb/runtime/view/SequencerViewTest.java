@@ -139,4 +139,33 @@ public class SequencerViewTest extends AbstractViewTest {
                 new StreamAddressRange(streamA,  tokenCount, Address.NON_ADDRESS)).getAddressMap())
                 .isEqualTo(expectedMap);
     }
+
+    /**
+     * Check that a limited StreamAddressSpace request returns the lowest addresses of the range.
+     */
+    @Test
+    public void checkStreamAddressSpaceWithLimit() {
+        CorfuRuntime r = getDefaultRuntime();
+        UUID streamA = UUID.nameUUIDFromBytes("stream A".getBytes());
+        final int tokenCount = 5;
+        final int limit = 2;
+        for (int i = 0; i < tokenCount; i++) {
+            r.getSequencerView().next(streamA);
+        }
+
+        assertThat(r.getSequencerView().getStreamAddressSpace(
+                new StreamAddressRange(streamA, tokenCount, Address.NON_ADDRESS, limit)).getAddressMap())
+                .isEqualTo(Roaring64NavigableMap.bitmapOf(0L, 1L));
+
+        // Addresses after 1, at most 2
+        final long lastAddress = 3L;
+        assertThat(r.getSequencerView().getStreamAddressSpace(
+                new StreamAddressRange(streamA, tokenCount, 1L, limit)).getAddressMap())
+                .isEqualTo(Roaring64NavigableMap.bitmapOf(2L, lastAddress));
+
+        // The limit does not extend the range
+        assertThat(r.getSequencerView().getStreamAddressSpace(
+                new StreamAddressRange(streamA, 2L, 1L, limit)).getAddressMap())
+                .isEqualTo(Roaring64NavigableMap.bitmapOf(2L));
+    }
 }
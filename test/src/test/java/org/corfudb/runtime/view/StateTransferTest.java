@@ -12,7 +12,9 @@ import org.corfudb.infrastructure.TestServerRouter;
 import org.corfudb.infrastructure.orchestrator.actions.RestoreRedundancyMergeSegments;
 import org.corfudb.infrastructure.redundancy.RedundancyCalculator;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.TestRule;
@@ -34,8 +36,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
@@ -644,11 +648,21 @@ public class StateTransferTest extends AbstractViewTest {
         final long rangeWriteAllowedCount = (totalWritten / rt.getParameters().getBulkReadSize());
 
         AtomicLong allowedWrites = new AtomicLong(rangeWriteAllowedCount);
+        Set<Long> writtenAddresses = ConcurrentHashMap.newKeySet();
 
-        // Allow only addresses 0 - 49 to be written.
-        addClientRule(rt, SERVERS.ENDPOINT_1, new TestRule().matches(
-                msg -> msg.getMsgType().equals(CorfuMsgType.RANGE_WRITE) &&
-                        allowedWrites.decrementAndGet() < 0).drop());
+        // Allow only the first few batches to be written. The batches are written
+        // concurrently, so which addresses they hold is recorded as they pass.
+        addClientRule(rt, SERVERS.ENDPOINT_1, new TestRule().matches(msg -> {
+            if (!msg.getMsgType().equals(CorfuMsgType.RANGE_WRITE)) {
+                return false;
+            }
+            if (allowedWrites.decrementAndGet() < 0) {
+                return true;
+            }
+            ((CorfuPayloadMsg<RangeWriteMsg>) msg).getPayload().getEntries()
+                    .forEach(ld -> writtenAddresses.add(ld.getGlobalAddress()));
+            return false;
+        }).drop());
 
         final RestoreRedundancyMergeSegments action1 = RestoreRedundancyMergeSegments
                 .builder()
@@ -661,7 +675,7 @@ public class StateTransferTest extends AbstractViewTest {
                 .isInstanceOf(RetryExhaustedException.class)
                 .hasRootCauseInstanceOf(TimeoutException.class);
 
-        // Known addresses should contain only [0:49] and the addresses in the open segment.
+        // Known addresses should contain only the written ones and the addresses in the open segment.
         ArrayList<Long> knownAddresses = new ArrayList<>(rt.getLayoutView()
                 .getRuntimeLayout()
                 .getLogUnitClient(SERVERS.ENDPOINT_1)
@@ -669,7 +683,10 @@ public class StateTransferTest extends AbstractViewTest {
                 .get()
                 .getKnownAddresses());
 
-        List<Long> transferredRange = LongStream.range(0L, totalWritten).boxed().collect(Collectors.toList());
+        assertThat(writtenAddresses).isNotEmpty();
+        assertThat((long) writtenAddresses.size()).isLessThan(writtenAddressesBatch1);
+
+        List<Long> transferredRange = writtenAddresses.stream().sorted().collect(Collectors.toList());
         final long start = 100L;
         final long end = 105L;
 
@@ -681,12 +698,16 @@ public class StateTransferTest extends AbstractViewTest {
         clearClientRules(rt);
 
 
-        AtomicLong deltaBatches = new AtomicLong(0L);
+        AtomicLong deltaAddresses = new AtomicLong(0L);
 
-        // Now count how many batches are transferred.
-        addClientRule(rt, SERVERS.ENDPOINT_1, new TestRule().matches(
-                msg -> msg.getMsgType().equals(CorfuMsgType.RANGE_WRITE) &&
-                        deltaBatches.incrementAndGet() > 0));
+        // Now count how many addresses are transferred.
+        addClientRule(rt, SERVERS.ENDPOINT_1, new TestRule().matches(msg -> {
+            if (msg.getMsgType().equals(CorfuMsgType.RANGE_WRITE)) {
+                deltaAddresses.addAndGet(((CorfuPayloadMsg<RangeWriteMsg>) msg)
+                        .getPayload().getEntries().size());
+            }
+            return false;
+        }));
 
         action1.impl(rt);
 
@@ -703,8 +724,8 @@ public class StateTransferTest extends AbstractViewTest {
                 .boxed().collect(Collectors.toList()));
 
         // Only the delta is transferred
-        assertThat(deltaBatches.get() * rt.getParameters().getBulkReadSize())
-                .isEqualTo(totalWritten);
+        assertThat(deltaAddresses.get())
+                .isEqualTo(writtenAddressesBatch1 - writtenAddresses.size());
 
     }
 
@@ -1,10 +1,18 @@
 package org.corfudb.runtime.view;
 
+import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
+import org.corfudb.protocols.logprotocol.SMREntry;
+import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.runtime.view.stream.IStreamView;
+import org.corfudb.util.serializer.Serializers;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -42,4 +50,35 @@ public class StreamsViewTest extends AbstractViewTest {
         scheduleConcurrently(numIter, t -> streamsView.gc(trimMark));
         executeScheduled(parallelNum, PARAMETERS.TIMEOUT_NORMAL);
     }
+
+    @Test
+    public void testCoalescedAppends() throws Exception {
+        final int numStreams = 4;
+        CorfuRuntime rt = getNewRuntime(CorfuRuntimeParameters.builder()
+                .writeCoalescingWindow(PARAMETERS.TIMEOUT_NORMAL)
+                .writeCoalescingMaxEntries(numStreams)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+
+        UUID[] ids = new UUID[numStreams];
+        for (int i = 0; i < numStreams; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+
+        // Appends to different streams share a single log entry
+        Set<Long> addresses = ConcurrentHashMap.newKeySet();
+        scheduleConcurrently(numStreams, t -> addresses.add(rt.getStreamsView().get(ids[t])
+                .append(new SMREntry("put", new Object[]{t}, Serializers.PRIMITIVE))));
+        executeScheduled(numStreams, PARAMETERS.TIMEOUT_NORMAL);
+        assertThat(addresses).hasSize(1);
+
+        for (int i = 0; i < numStreams; i++) {
+            ILogData ld = getDefaultRuntime().getStreamsView().get(ids[i]).next();
+            assertThat(ld.getGlobalAddress()).isEqualTo(addresses.iterator().next());
+            MultiObjectSMREntry entry = (MultiObjectSMREntry) ld.getPayload(getDefaultRuntime());
+            assertThat(entry.getSMRUpdates(ids[i])).hasSize(1);
+            assertThat(entry.getSMRUpdates(ids[i]).get(0).getSMRArguments()).containsExactly(i);
+        }
+    }
 }
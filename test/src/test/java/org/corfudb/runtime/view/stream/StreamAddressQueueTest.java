@@ -0,0 +1,69 @@
+package org.corfudb.runtime.view.stream;
+
+import org.junit.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.NavigableSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StreamAddressQueueTest {
+
+    private static final long FIRST = 1L;
+    private static final long SECOND = 3L;
+    private static final long THIRD = 5L;
+    private static final long FOURTH = 7L;
+    private static final long FIFTH = 9L;
+
+    private static StreamAddressQueue queueOf(long maxAddress) {
+        StreamAddressQueue queue = new StreamAddressQueue();
+        queue.addAll(Roaring64NavigableMap.bitmapOf(FIRST, SECOND, THIRD, FOURTH, FIFTH), maxAddress);
+        return queue;
+    }
+
+    /**
+     * Addresses are added from the bitmap up to the boundary.
+     */
+    @Test
+    public void addAllUpToBoundary() {
+        assertThat(queueOf(Long.MAX_VALUE)).containsExactly(FIRST, SECOND, THIRD, FOURTH, FIFTH);
+        assertThat(queueOf(THIRD)).containsExactly(FIRST, SECOND, THIRD);
+        assertThat(queueOf(0L)).isEmpty();
+    }
+
+    /**
+     * The queue behaves as a navigable set of addresses.
+     */
+    @Test
+    public void navigation() {
+        StreamAddressQueue queue = queueOf(Long.MAX_VALUE);
+        assertThat(queue.first()).isEqualTo(FIRST);
+        assertThat(queue.last()).isEqualTo(FIFTH);
+        assertThat(queue.ceiling(SECOND + 1)).isEqualTo(THIRD);
+        assertThat(queue.floor(SECOND + 1)).isEqualTo(SECOND);
+        assertThat(queue.higher(FIFTH)).isNull();
+        assertThat(queue.lower(FIRST)).isNull();
+        assertThat((Iterable<Long>) queue::descendingIterator).containsExactly(FIFTH, FOURTH, THIRD, SECOND, FIRST);
+
+        assertThat(queue.pollFirst()).isEqualTo(FIRST);
+        assertThat(queue.pollLast()).isEqualTo(FIFTH);
+        assertThat(queue).containsExactly(SECOND, THIRD, FOURTH);
+        assertThat(queue.size()).isEqualTo(queue.headSet(FOURTH, true).size());
+    }
+
+    /**
+     * Views are bounded to their range and backed by the queue.
+     */
+    @Test
+    public void views() {
+        StreamAddressQueue queue = queueOf(Long.MAX_VALUE);
+        NavigableSet<Long> head = queue.headSet(THIRD, true);
+        assertThat(head).containsExactly(FIRST, SECOND, THIRD);
+        assertThat(queue.tailSet(THIRD, false)).containsExactly(FOURTH, FIFTH);
+        assertThat(queue.subSet(SECOND, FIFTH)).containsExactly(SECOND, THIRD, FOURTH);
+
+        head.clear();
+        assertThat(head).isEmpty();
+        assertThat(queue).containsExactly(FOURTH, FIFTH);
+    }
+}